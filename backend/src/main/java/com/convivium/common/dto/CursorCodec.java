@@ -0,0 +1,62 @@
+package com.convivium.common.dto;
+
+import com.convivium.common.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.StringJoiner;
+import java.util.function.Function;
+
+/**
+ * Formato dos cursores de keyset (CursorPage.Cursor, UnitActivityCursor, ComplaintSearchCursor):
+ * campos separados por "|" em base64url, texto opaco para o cliente no parâmetro cursor /
+ * campo nextCursor. Cada cursor só diz quais campos leva e como validá-los.
+ */
+public final class CursorCodec {
+
+    private CursorCodec() {
+    }
+
+    public static String encode(Object... fields) {
+        StringJoiner raw = new StringJoiner("|");
+        for (Object field : fields) {
+            raw.add(String.valueOf(field));
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param fields número de campos esperado
+     * @param parser monta o cursor a partir dos campos; qualquer exceção dele conta como cursor inválido
+     * @throws IllegalArgumentException se o texto não for um cursor gerado por {@link #encode(Object...)}
+     */
+    public static <T> T decode(String value, int fields, Function<String[], T> parser) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != fields) {
+                throw new IllegalArgumentException("Cursor invalido");
+            }
+            return parser.apply(parts);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor invalido", e);
+        }
+    }
+
+    /**
+     * Cursor recebido na requisição; null se ausente.
+     *
+     * @param decoder o decode do cursor (ex: {@code UnitActivityCursor::decode})
+     * @throws BusinessException INVALID_CURSOR se o texto não for um cursor válido
+     */
+    public static <T> T fromRequest(String value, Function<String, T> decoder) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return decoder.apply(value);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Cursor invalido", "INVALID_CURSOR");
+        }
+    }
+}
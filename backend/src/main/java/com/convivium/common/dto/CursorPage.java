@@ -0,0 +1,114 @@
+package com.convivium.common.dto;
+
+import com.convivium.common.exception.BusinessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Página lida por keyset na ordem (createdAt desc, id desc): o repositório busca as linhas
+ * depois do cursor com LIMIT size + 1, sem OFFSET e sem COUNT; o item a mais só indica se
+ * existe próxima página.
+ *
+ * As listagens continuam devolvendo PageResponse: a página numerada (sem cursor) já traz
+ * nextCursor quando está na ordem padrão, e o cliente que quiser segue por ?cursor=.
+ * Em modo cursor totalElements e totalPages vêm -1, e size é limitado a {@link #MAX_SIZE}.
+ */
+public record CursorPage<T>(List<T> content, int size, String nextCursor) {
+
+    /** Ordem padrão das listagens que aceitam cursor. */
+    public static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
+    /** Maior página servida por keyset (a mesma da busca de denúncias). */
+    public static final int MAX_SIZE = 50;
+
+    public boolean last() {
+        return nextCursor == null;
+    }
+
+    /**
+     * @param rows     resultado da consulta feita com {@link #fetchLimit(int)}
+     * @param position posição (createdAt, id) de uma linha, para o próximo cursor
+     */
+    public static <R, T> CursorPage<T> of(List<R> rows, int requestedSize, Function<R, Cursor> position,
+                                          Function<R, T> mapper) {
+        int size = pageSize(requestedSize);
+        boolean hasMore = rows.size() > size;
+        List<R> pageRows = hasMore ? rows.subList(0, size) : rows;
+        String next = hasMore ? position.apply(pageRows.get(pageRows.size() - 1)).encode() : null;
+        return new CursorPage<>(pageRows.stream().map(mapper).toList(), size, next);
+    }
+
+    /** Um item a mais que o tamanho da página (já limitado por {@link #pageSize(int)}). */
+    public static Limit fetchLimit(int size) {
+        return Limit.of(pageSize(size) + 1);
+    }
+
+    /** Tamanho pedido pelo cliente, entre 1 e {@link #MAX_SIZE}. */
+    public static int pageSize(int size) {
+        return Math.min(Math.max(1, size), MAX_SIZE);
+    }
+
+    /**
+     * Cursor recebido na requisição; null se ausente.
+     *
+     * @throws BusinessException INVALID_CURSOR se não for um cursor gerado por {@link Cursor#encode()}
+     */
+    public static Cursor after(String cursor) {
+        return CursorCodec.fromRequest(cursor, Cursor::decode);
+    }
+
+    /** Sem ordenação pedida pelo cliente, aplica {@link #NEWEST_FIRST}. */
+    public static Pageable newestFirst(Pageable pageable) {
+        if (pageable.isUnpaged() || pageable.getSort().isSorted()) {
+            return pageable;
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), NEWEST_FIRST);
+    }
+
+    /** Página numerada com nextCursor, quando há próxima página e a ordem é a padrão. */
+    public static <R, T> PageResponse<T> toPageResponse(Page<R> page, Function<R, Cursor> position, Function<R, T> mapper) {
+        PageResponse<T> response = PageResponse.from(page.map(mapper));
+        if (page.hasNext() && NEWEST_FIRST.equals(page.getSort()) && page.hasContent()) {
+            List<R> rows = page.getContent();
+            response.setNextCursor(position.apply(rows.get(rows.size() - 1)).encode());
+        }
+        return response;
+    }
+
+    public PageResponse<T> toPageResponse() {
+        PageResponse<T> response = new PageResponse<>();
+        response.setContent(content);
+        response.setPage(0);
+        response.setSize(size);
+        response.setTotalElements(-1);
+        response.setTotalPages(-1);
+        response.setLast(last());
+        response.setNextCursor(nextCursor);
+        return response;
+    }
+
+    /**
+     * Posição na listagem: a próxima página começa depois de (createdAt, id).
+     * Trafega como texto opaco no parâmetro cursor / campo nextCursor (ver CursorCodec).
+     */
+    public record Cursor(Instant createdAt, long id) {
+
+        public String encode() {
+            return CursorCodec.encode(createdAt, id);
+        }
+
+        /**
+         * @throws IllegalArgumentException se o texto não for um cursor gerado por {@link #encode()}
+         */
+        public static Cursor decode(String value) {
+            return CursorCodec.decode(value, 2, parts -> new Cursor(Instant.parse(parts[0]), Long.parseLong(parts[1])));
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.convivium.common.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -19,6 +20,10 @@ public class PageResponse<T> {
     private int totalPages;
     private boolean last;
 
+    /** Só em listagens com paginação por cursor: valor a enviar no parâmetro cursor para a próxima página. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+
     public static <T> PageResponse<T> from(Page<T> page) {
         PageResponse<T> response = new PageResponse<>();
         response.setContent(page.getContent());
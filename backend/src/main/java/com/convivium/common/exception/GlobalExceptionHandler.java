@@ -3,7 +3,10 @@ package com.convivium.common.exception;
 import com.convivium.common.dto.ApiResponse;
 import com.convivium.common.dto.ApiResponse.FieldError;
 import com.convivium.integration.google.GoogleIdTokenVerifier.InvalidGoogleTokenException;
+import com.convivium.security.password.LoginThrottledException;
+import com.convivium.security.password.PasswordHashBusyException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -42,6 +45,33 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error(ex.getMessage(), "INVALID_GOOGLE_TOKEN"));
     }
 
+    @ExceptionHandler(LoginThrottledException.class)
+    public ResponseEntity<ApiResponse<Void>> handleLoginThrottled(LoginThrottledException ex) {
+        log.warn("Login recusado: {} [{}]", ex.getMessage(), ex.getErrorCode());
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ApiResponse.error(ex.getMessage(), ex.getErrorCode()));
+    }
+
+    @ExceptionHandler(PasswordHashBusyException.class)
+    public ResponseEntity<ApiResponse<Void>> handlePasswordHashBusy(PasswordHashBusyException ex) {
+        log.warn("Pool de hash de senha saturado: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ApiResponse.error(ex.getMessage(), "PASSWORD_HASH_BUSY"));
+    }
+
+    @ExceptionHandler(TooManyAttemptsException.class)
+    public ResponseEntity<ApiResponse<Void>> handleTooManyAttempts(TooManyAttemptsException ex) {
+        log.warn("Tentativas excedidas: {} [{}]", ex.getMessage(), ex.getErrorCode());
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ApiResponse.error(ex.getMessage(), ex.getErrorCode()));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiResponse<Void>> handleValidation(MethodArgumentNotValidException ex) {
         List<FieldError> fieldErrors = ex.getBindingResult()
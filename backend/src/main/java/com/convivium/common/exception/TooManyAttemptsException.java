@@ -0,0 +1,17 @@
+package com.convivium.common.exception;
+
+import lombok.Getter;
+
+/** Limite de tentativas excedido; respondido como 429 com Retry-After. */
+@Getter
+public class TooManyAttemptsException extends RuntimeException {
+
+    private final String errorCode;
+    private final long retryAfterSeconds;
+
+    public TooManyAttemptsException(String message, String errorCode, long retryAfterSeconds) {
+        super(message);
+        this.errorCode = errorCode;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,74 @@
+package com.convivium.common.util;
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket para limitar chamadas a APIs externas (ex: msg/s do tier da Meta).
+ * Enche permitsPerSecond fichas por segundo até burst; acquire() reserva uma ficha e,
+ * se o balde estiver vazio, espera fora do lock até o instante reservado. As reservas
+ * saem em ordem de chegada, então N threads juntas nunca passam da taxa configurada.
+ */
+public final class TokenBucketRateLimiter {
+
+    /** Espera até o instante (na escala do relógio do limiter) reservado para a ficha. */
+    @FunctionalInterface
+    public interface Waiter {
+        void awaitNanoTime(long deadline) throws InterruptedException;
+    }
+
+    private final double permitsPerNano;
+    private final double burst;
+    private final LongSupplier nanoTime;
+    private final Waiter waiter;
+
+    private double available;
+    private long lastRefill;
+
+    public TokenBucketRateLimiter(double permitsPerSecond, int burst) {
+        this(permitsPerSecond, burst, System::nanoTime, TokenBucketRateLimiter::parkUntil);
+    }
+
+    /** Relógio e espera injetáveis: os testes simulam o tempo sem dormir. */
+    public TokenBucketRateLimiter(double permitsPerSecond, int burst, LongSupplier nanoTime, Waiter waiter) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Taxa e burst devem ser positivos");
+        }
+        this.permitsPerNano = permitsPerSecond / 1_000_000_000d;
+        this.burst = burst;
+        this.nanoTime = nanoTime;
+        this.waiter = waiter;
+        this.available = burst;
+        this.lastRefill = nanoTime.getAsLong();
+    }
+
+    /** Bloqueia até haver ficha para esta chamada. */
+    public void acquire() throws InterruptedException {
+        long deadline = reserve();
+        if (deadline != 0) {
+            waiter.awaitNanoTime(deadline);
+        }
+    }
+
+    /** @return 0 se a ficha está disponível agora; senão o nanoTime a partir do qual ela vale */
+    private synchronized long reserve() {
+        long now = nanoTime.getAsLong();
+        available = Math.min(burst, available + (now - lastRefill) * permitsPerNano);
+        lastRefill = now;
+        available -= 1;
+        if (available >= 0) {
+            return 0;
+        }
+        return now + (long) Math.ceil(-available / permitsPerNano);
+    }
+
+    private static void parkUntil(long deadline) throws InterruptedException {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+}
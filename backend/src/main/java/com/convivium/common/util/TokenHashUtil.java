@@ -0,0 +1,29 @@
+package com.convivium.common.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Hash de tokens opacos/JWT para persistência: SHA-256 em hex (64 caracteres fixos),
+ * de modo que o banco nunca guarda o token em si e o índice tem largura constante.
+ */
+public final class TokenHashUtil {
+
+    private TokenHashUtil() {
+        // Utility class - prevent instantiation
+    }
+
+    public static String sha256Hex(String token) {
+        if (token == null) {
+            throw new IllegalArgumentException("Token nao pode ser nulo");
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponivel", e);
+        }
+    }
+}
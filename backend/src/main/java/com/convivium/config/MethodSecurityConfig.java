@@ -0,0 +1,21 @@
+package com.convivium.config;
+
+import com.convivium.security.permission.AuthorityMaskPermissionEvaluator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
+
+/**
+ * Liga o AuthorityMaskPermissionEvaluator às expressões hasPermission(...) de @PreAuthorize.
+ */
+@Configuration
+public class MethodSecurityConfig {
+
+    @Bean
+    static MethodSecurityExpressionHandler methodSecurityExpressionHandler() {
+        DefaultMethodSecurityExpressionHandler handler = new DefaultMethodSecurityExpressionHandler();
+        handler.setPermissionEvaluator(new AuthorityMaskPermissionEvaluator());
+        return handler;
+    }
+}
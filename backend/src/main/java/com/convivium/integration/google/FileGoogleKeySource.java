@@ -0,0 +1,44 @@
+package com.convivium.integration.google;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.PublicKey;
+import java.util.Map;
+
+/**
+ * Lê o JWKS de um arquivo (app.google.jwks-file, ex: file:/etc/convivium/google-jwks.json
+ * ou classpath:google-jwks.json). Para testes e ambientes sem acesso ao Google.
+ */
+@Component
+@ConditionalOnProperty(name = "app.google.key-source", havingValue = "file")
+public class FileGoogleKeySource implements GoogleKeySource {
+
+    private final Resource resource;
+
+    @Autowired
+    public FileGoogleKeySource(ResourceLoader resourceLoader,
+                               @Value("${app.google.jwks-file}") String location) {
+        this.resource = resourceLoader.getResource(location);
+    }
+
+    FileGoogleKeySource(Resource resource) {
+        this.resource = resource;
+    }
+
+    @Override
+    public Map<String, PublicKey> fetchKeys() {
+        try (InputStream in = resource.getInputStream()) {
+            return JwksParser.parse(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalStateException("Nao foi possivel ler o JWKS em " + resource.getDescription(), e);
+        }
+    }
+}
@@ -1,27 +1,63 @@
 package com.convivium.integration.google;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestTemplate;
+
+import java.security.Key;
+import java.time.Clock;
+import java.util.Date;
+import java.util.Set;
 
 /**
  * Verifica o ID token do Google (OAuth2) e retorna email, nome e foto.
  * Usado no login/cadastro do morador com Google.
+ *
+ * A assinatura RS256 é verificada localmente com as chaves públicas do GoogleKeyCache,
+ * sem chamada ao endpoint tokeninfo por login. Também confere emissor, validade
+ * (com 60s de tolerância), audiência (se app.google.client-id estiver definido) e
+ * email_verified.
  */
 @Component
 @Slf4j
 public class GoogleIdTokenVerifier {
 
-    private static final String TOKEN_INFO_URL = "https://oauth2.googleapis.com/tokeninfo?id_token=";
+    private static final Set<String> ISSUERS = Set.of("accounts.google.com", "https://accounts.google.com");
+    private static final String ALGORITHM = "RS256";
+    private static final long CLOCK_SKEW_SECONDS = 60;
+
+    private final String clientId;
+    private final JwtParser parser;
 
-    private final RestTemplate restTemplate = new RestTemplate();
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    @Autowired
+    public GoogleIdTokenVerifier(GoogleKeyCache keyCache,
+                                 @Value("${app.google.client-id:}") String clientId) {
+        this(keyCache, clientId, Clock.systemUTC());
+    }
 
-    @Value("${app.google.client-id:}")
-    private String clientId;
+    GoogleIdTokenVerifier(GoogleKeyCache keyCache, String clientId, Clock clock) {
+        this.clientId = clientId;
+        this.parser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        if (!ALGORITHM.equals(header.getAlgorithm())) {
+                            throw new InvalidGoogleTokenException("Algoritmo de assinatura não suportado");
+                        }
+                        return keyCache.getKey(header.getKeyId())
+                                .orElseThrow(() -> new InvalidGoogleTokenException("Chave de assinatura desconhecida"));
+                    }
+                })
+                .clock(() -> Date.from(clock.instant()))
+                .clockSkewSeconds(CLOCK_SKEW_SECONDS)
+                .build();
+    }
 
     /**
      * Valida o idToken e retorna os dados do usuário Google.
@@ -32,28 +68,26 @@ public class GoogleIdTokenVerifier {
             throw new InvalidGoogleTokenException("Token vazio");
         }
         try {
-            String url = TOKEN_INFO_URL + idToken;
-            String body = restTemplate.getForObject(url, String.class);
-            if (body == null) {
-                throw new InvalidGoogleTokenException("Resposta vazia do Google");
-            }
-            JsonNode node = objectMapper.readTree(body);
-            if (node.has("error")) {
-                throw new InvalidGoogleTokenException(node.path("error").asText());
+            Claims claims = parser.parseSignedClaims(idToken).getPayload();
+            if (!ISSUERS.contains(claims.getIssuer())) {
+                throw new InvalidGoogleTokenException("Emissor do token inválido");
             }
-            if (clientId != null && !clientId.isBlank() && node.has("aud")) {
-                String aud = node.path("aud").asText();
-                if (!clientId.equals(aud)) {
+            if (clientId != null && !clientId.isBlank()) {
+                Set<String> audience = claims.getAudience();
+                if (audience == null || !audience.contains(clientId)) {
                     throw new InvalidGoogleTokenException("Token não é para este app");
                 }
             }
-            String email = node.has("email") ? node.path("email").asText() : null;
+            String email = claims.get("email", String.class);
             if (email == null || email.isBlank()) {
                 throw new InvalidGoogleTokenException("Email não presente no token");
             }
-            String name = node.has("name") ? node.path("name").asText() : email;
-            String picture = node.has("picture") ? node.path("picture").asText(null) : null;
-            return new GoogleUserInfo(email, name, picture);
+            if ("false".equals(String.valueOf(claims.get("email_verified")))) {
+                throw new InvalidGoogleTokenException("Email do Google não verificado");
+            }
+            String name = claims.get("name", String.class);
+            String picture = claims.get("picture", String.class);
+            return new GoogleUserInfo(email, name != null ? name : email, picture);
         } catch (InvalidGoogleTokenException e) {
             throw e;
         } catch (Exception e) {
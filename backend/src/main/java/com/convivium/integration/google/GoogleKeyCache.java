@@ -0,0 +1,109 @@
+package com.convivium.integration.google;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.PublicKey;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Chaves públicas do Google em memória, carregadas do GoogleKeySource.
+ *
+ * Renovadas em segundo plano a cada app.google.keys.refresh-interval-ms, então o login
+ * normalmente só consulta o mapa. Um kid desconhecido (rotação de chaves) ou o cache
+ * vencido (app.google.keys.ttl-ms) disparam uma recarga síncrona, no máximo uma a cada
+ * min-refresh-interval-ms para que tokens com kid inventado não martelem o Google.
+ * Se a recarga falhar, as chaves anteriores continuam valendo.
+ */
+@Slf4j
+@Component
+public class GoogleKeyCache {
+
+    private final GoogleKeySource source;
+    private final Duration ttl;
+    private final Duration minRefreshInterval;
+    private final Clock clock;
+    private final Object refreshLock = new Object();
+
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), Instant.MIN);
+    private volatile Instant lastAttempt = Instant.MIN;
+
+    @Autowired
+    public GoogleKeyCache(GoogleKeySource source,
+                          @Value("${app.google.keys.ttl-ms:3600000}") long ttlMs,
+                          @Value("${app.google.keys.min-refresh-interval-ms:30000}") long minRefreshIntervalMs) {
+        this(source, ttlMs, minRefreshIntervalMs, Clock.systemUTC());
+    }
+
+    GoogleKeyCache(GoogleKeySource source, long ttlMs, long minRefreshIntervalMs, Clock clock) {
+        this.source = source;
+        this.ttl = Duration.ofMillis(Math.max(0, ttlMs));
+        this.minRefreshInterval = Duration.ofMillis(Math.max(0, minRefreshIntervalMs));
+        this.clock = clock;
+    }
+
+    /** Chave pública do kid, recarregando o JWKS se o kid não for conhecido ou o cache tiver vencido. */
+    public Optional<PublicKey> getKey(String kid) {
+        if (kid == null || kid.isBlank()) {
+            return Optional.empty();
+        }
+        Snapshot seen = snapshot;
+        PublicKey key = seen.keys().get(kid);
+        if (key != null && !seen.isExpired(clock.instant(), ttl)) {
+            return Optional.of(key);
+        }
+        refreshIfUnchanged(seen);
+        return Optional.ofNullable(snapshot.keys().get(kid));
+    }
+
+    /** Recarrega as chaves; em caso de falha mantém as atuais. */
+    @Scheduled(fixedDelayString = "${app.google.keys.refresh-interval-ms:1800000}")
+    public void refresh() {
+        synchronized (refreshLock) {
+            load();
+        }
+    }
+
+    public int size() {
+        return snapshot.keys().size();
+    }
+
+    private void refreshIfUnchanged(Snapshot seen) {
+        synchronized (refreshLock) {
+            if (snapshot != seen) {
+                return; // outra thread já recarregou enquanto esperávamos
+            }
+            if (clock.instant().isBefore(lastAttempt.plus(minRefreshInterval))) {
+                return;
+            }
+            load();
+        }
+    }
+
+    private void load() {
+        Instant now = clock.instant();
+        lastAttempt = now;
+        try {
+            Map<String, PublicKey> keys = source.fetchKeys();
+            snapshot = new Snapshot(Map.copyOf(keys), now);
+            log.debug("GoogleKeyCache: {} chave(s) carregada(s)", keys.size());
+        } catch (RuntimeException e) {
+            log.warn("GoogleKeyCache: falha ao carregar chaves do Google, mantendo {} chave(s) atuais: {}",
+                    snapshot.keys().size(), e.getMessage());
+        }
+    }
+
+    private record Snapshot(Map<String, PublicKey> keys, Instant loadedAt) {
+
+        boolean isExpired(Instant now, Duration ttl) {
+            return loadedAt.equals(Instant.MIN) || !now.isBefore(loadedAt.plus(ttl));
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.convivium.integration.google;
+
+import java.security.PublicKey;
+import java.util.Map;
+
+/**
+ * Origem das chaves públicas (RS256) que assinam os ID tokens do Google, por kid.
+ * Selecionada por app.google.key-source: http (JWKS do Google) ou file (JWKS local,
+ * para testes e ambientes sem rede). O cache e a renovação ficam no GoogleKeyCache.
+ */
+public interface GoogleKeySource {
+
+    /**
+     * Carrega o conjunto atual de chaves.
+     *
+     * @throws IllegalStateException se o JWKS não puder ser lido
+     */
+    Map<String, PublicKey> fetchKeys();
+}
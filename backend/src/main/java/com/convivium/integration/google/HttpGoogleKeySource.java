@@ -0,0 +1,34 @@
+package com.convivium.integration.google;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.security.PublicKey;
+import java.util.Map;
+
+/** Baixa o JWKS publicado pelo Google (app.google.jwks-uri). Chamado só pelo GoogleKeyCache. */
+@Component
+@ConditionalOnProperty(name = "app.google.key-source", havingValue = "http", matchIfMissing = true)
+public class HttpGoogleKeySource implements GoogleKeySource {
+
+    private static final int TIMEOUT_MS = 5_000;
+
+    private final RestTemplate restTemplate;
+    private final String jwksUri;
+
+    public HttpGoogleKeySource(@Value("${app.google.jwks-uri:https://www.googleapis.com/oauth2/v3/certs}") String jwksUri) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(TIMEOUT_MS);
+        requestFactory.setReadTimeout(TIMEOUT_MS);
+        this.restTemplate = new RestTemplate(requestFactory);
+        this.jwksUri = jwksUri;
+    }
+
+    @Override
+    public Map<String, PublicKey> fetchKeys() {
+        return JwksParser.parse(restTemplate.getForObject(jwksUri, String.class));
+    }
+}
@@ -0,0 +1,36 @@
+package com.convivium.integration.google;
+
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.PublicJwk;
+
+import java.security.PublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.HashMap;
+import java.util.Map;
+
+/** Converte um documento JWKS nas chaves RSA públicas que têm kid. */
+final class JwksParser {
+
+    private JwksParser() {
+    }
+
+    static Map<String, PublicKey> parse(String json) {
+        if (json == null || json.isBlank()) {
+            throw new IllegalStateException("JWKS vazio");
+        }
+        JwkSet set = Jwks.setParser().build().parse(json);
+        Map<String, PublicKey> keys = new HashMap<>();
+        for (Jwk<?> jwk : set.getKeys()) {
+            if (jwk.getId() != null && jwk instanceof PublicJwk<?> publicJwk
+                    && publicJwk.toKey() instanceof RSAPublicKey rsaKey) {
+                keys.put(jwk.getId(), rsaKey);
+            }
+        }
+        if (keys.isEmpty()) {
+            throw new IllegalStateException("JWKS sem chaves RSA com kid");
+        }
+        return Map.copyOf(keys);
+    }
+}
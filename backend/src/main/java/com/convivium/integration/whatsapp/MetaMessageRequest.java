@@ -0,0 +1,48 @@
+package com.convivium.integration.whatsapp;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Corpo do POST /{phone-number-id}/messages da Cloud API. Serializado por um ObjectWriter
+ * fixo do MetaWhatsAppService (serializers resolvidos uma vez), em vez de árvores de Map.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+record MetaMessageRequest(
+        @JsonProperty("messaging_product") String messagingProduct,
+        String to,
+        String type,
+        @JsonProperty("biz_opaque_callback_data") String bizOpaqueCallbackData,
+        Template template,
+        Image image
+) {
+
+    private static final String WHATSAPP = "whatsapp";
+    private static final Language PT_BR = new Language("pt_BR");
+
+    static MetaMessageRequest template(String to, String templateName, String callbackData, String... bodyTexts) {
+        List<Parameter> parameters = new ArrayList<>(bodyTexts.length);
+        for (String text : bodyTexts) {
+            parameters.add(new Parameter("text", text));
+        }
+        Template template = new Template(templateName, PT_BR, List.of(new Component("body", parameters)));
+        return new MetaMessageRequest(WHATSAPP, to, "template", callbackData, template, null);
+    }
+
+    static MetaMessageRequest image(String to, String link, String callbackData) {
+        return new MetaMessageRequest(WHATSAPP, to, "image", callbackData, null, new Image(link));
+    }
+
+    record Template(String name, Language language, List<Component> components) {}
+
+    record Language(String code) {}
+
+    record Component(String type, List<Parameter> parameters) {}
+
+    record Parameter(String type, String text) {}
+
+    record Image(String link) {}
+}
@@ -1,128 +1,163 @@
 package com.convivium.integration.whatsapp;
 
-import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.extern.slf4j.Slf4j;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
-import java.util.List;
-import java.util.Map;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Envio de mensagens via WhatsApp Business API (Meta / Facebook).
  * Usa templates aprovados no Meta Business Manager para iniciar conversas.
+ * Só é chamado pelo WhatsAppOutboxDispatcher; falhas sobem como WhatsAppDeliveryException.
+ *
+ * Um único java.net.http.HttpClient (HTTP/2 com fallback para 1.1) mantém as conexões
+ * com a Graph API abertas entre envios; connect-timeout-ms e request-timeout-ms limitam
+ * quanto um worker do dispatcher fica preso numa chamada lenta.
  */
 @Service
-@Slf4j
 @ConditionalOnProperty(name = "app.whatsapp.enabled", havingValue = "true")
 public class MetaWhatsAppService implements WhatsAppNotificationService {
 
-    private static final String GRAPH_API_BASE = "https://graph.facebook.com/v21.0";
-
-    private final RestTemplate restTemplate = new RestTemplate();
-    private final ObjectMapper objectMapper = new ObjectMapper()
-            .setSerializationInclusion(JsonInclude.Include.NON_NULL);
-
-    @Value("${app.whatsapp.phone-number-id:}")
-    private String phoneNumberId;
-
-    @Value("${app.whatsapp.access-token:}")
-    private String accessToken;
-
-    @Value("${app.whatsapp.template.encomenda:encomenda_na_portaria}")
-    private String encomendaTemplateName;
-
-    @Value("${app.whatsapp.base-url:}")
-    private String baseUrl;
+    private static final ObjectWriter MESSAGE_WRITER = new ObjectMapper().writerFor(MetaMessageRequest.class);
+
+    private final HttpClient httpClient;
+    private final ExecutorService clientExecutor;
+    private final URI messagesUri;
+    private final String authorization;
+    private final Duration requestTimeout;
+    private final String encomendaTemplateName;
+    private final String comunicadoTemplateName;
+    private final String emergenciaTemplateName;
+    private final String baseUrl;
+
+    @Autowired
+    public MetaWhatsAppService(@Value("${app.whatsapp.phone-number-id:}") String phoneNumberId,
+                               @Value("${app.whatsapp.access-token:}") String accessToken,
+                               @Value("${app.whatsapp.template.encomenda:encomenda_na_portaria}") String encomendaTemplateName,
+                               @Value("${app.whatsapp.template.comunicado:comunicado_condominio}") String comunicadoTemplateName,
+                               @Value("${app.whatsapp.template.emergencia:comunicado_emergencia}") String emergenciaTemplateName,
+                               @Value("${app.whatsapp.base-url:}") String baseUrl,
+                               @Value("${app.whatsapp.graph-api-base:https://graph.facebook.com/v21.0}") String graphApiBase,
+                               @Value("${app.whatsapp.http.connect-timeout-ms:3000}") long connectTimeoutMs,
+                               @Value("${app.whatsapp.http.request-timeout-ms:10000}") long requestTimeoutMs) {
+        this.clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(Math.max(1, connectTimeoutMs)))
+                .executor(clientExecutor)
+                .build();
+        boolean configured = phoneNumberId != null && !phoneNumberId.isBlank()
+                && accessToken != null && !accessToken.isBlank();
+        this.messagesUri = configured
+                ? URI.create(graphApiBase.replaceAll("/$", "") + "/" + phoneNumberId + "/messages")
+                : null;
+        this.authorization = configured ? "Bearer " + accessToken : null;
+        this.requestTimeout = Duration.ofMillis(Math.max(1, requestTimeoutMs));
+        this.encomendaTemplateName = encomendaTemplateName;
+        this.comunicadoTemplateName = comunicadoTemplateName;
+        this.emergenciaTemplateName = emergenciaTemplateName;
+        this.baseUrl = baseUrl;
+    }
 
     /**
      * Notifica o morador que tem encomenda na portaria (template com nome e código).
      * O número deve ser E.164 sem + (ex: 5511999999999).
      */
-    public void sendEncomendaNotification(String toPhone, String residentName, String residentCode) {
-        if (toPhone == null || toPhone.isBlank()) {
-            log.debug("WhatsApp: telefone vazio, nao enviando notificacao de encomenda");
-            return;
-        }
-        String phone = normalizePhone(toPhone);
-        if (phone == null) {
-            log.warn("WhatsApp: telefone invalido {}", toPhone);
-            return;
-        }
-
-        Map<String, Object> body = Map.of(
-                "messaging_product", "whatsapp",
-                "to", phone,
-                "type", "template",
-                "template", Map.of(
-                        "name", encomendaTemplateName,
-                        "language", Map.of("code", "pt_BR"),
-                        "components", List.of(
-                                Map.of(
-                                        "type", "body",
-                                        "parameters", List.of(
-                                                Map.of("type", "text", "text", residentName != null ? residentName : "Morador"),
-                                                Map.of("type", "text", "text", residentCode != null ? residentCode : "")
-                                        )
-                                )
-                        )
-                )
-        );
-        postMessages(body);
+    public void sendEncomendaNotification(String toPhone, String residentName, String residentCode, String idempotencyKey) {
+        String phone = requirePhone(toPhone);
+        postMessages(MetaMessageRequest.template(phone, encomendaTemplateName, idempotencyKey,
+                residentName != null ? residentName : "Morador",
+                residentCode != null ? residentCode : ""));
     }
 
     /**
      * Envia a foto da encomenda para o morador (após o template, na janela de 24h).
      * imageUrl deve ser acessível publicamente (ex: https://seu-dominio.com/uploads/...).
      */
-    public void sendEncomendaPhoto(String toPhone, String imageUrl) {
-        if (toPhone == null || toPhone.isBlank() || imageUrl == null || imageUrl.isBlank()) {
-            return;
+    public void sendEncomendaPhoto(String toPhone, String imageUrl, String idempotencyKey) {
+        if (imageUrl == null || imageUrl.isBlank()) {
+            throw new WhatsAppDeliveryException("WhatsApp: foto sem URL", false);
         }
-        String phone = normalizePhone(toPhone);
-        if (phone == null) return;
+        String phone = requirePhone(toPhone);
 
         // Se for path relativo (/uploads/...), tornar absoluto com baseUrl
         String url = imageUrl;
         if (url.startsWith("/") && baseUrl != null && !baseUrl.isBlank()) {
             url = baseUrl.replaceAll("/$", "") + url;
         }
+        postMessages(MetaMessageRequest.image(phone, url, idempotencyKey));
+    }
 
-        Map<String, Object> body = Map.of(
-                "messaging_product", "whatsapp",
-                "to", phone,
-                "type", "image",
-                "image", Map.of("link", url)
-        );
-        postMessages(body);
+    /**
+     * Comunicado do condomínio (template com título e resumo). Emergências usam um template
+     * próprio, aprovado na categoria de utilidade, para não depender da janela de 24h.
+     */
+    public void sendComunicado(String toPhone, String title, String summary, boolean emergency, String idempotencyKey) {
+        String phone = requirePhone(toPhone);
+        postMessages(MetaMessageRequest.template(phone,
+                emergency ? emergenciaTemplateName : comunicadoTemplateName, idempotencyKey,
+                title != null ? title : "", summary != null ? summary : ""));
+    }
+
+    @PreDestroy
+    void close() {
+        httpClient.close();
+        clientExecutor.shutdownNow();
     }
 
-    private void postMessages(Map<String, Object> body) {
-        if (phoneNumberId == null || phoneNumberId.isBlank() || accessToken == null || accessToken.isBlank()) {
-            log.warn("WhatsApp: phone-number-id ou access-token nao configurado");
-            return;
+    /** 5xx, 429, timeouts e falhas de rede voltam como retryable; demais respostas de erro são definitivas. */
+    private void postMessages(MetaMessageRequest message) {
+        if (messagesUri == null) {
+            throw new WhatsAppDeliveryException("WhatsApp: phone-number-id ou access-token nao configurado", false);
+        }
+        byte[] body;
+        try {
+            body = MESSAGE_WRITER.writeValueAsBytes(message);
+        } catch (JsonProcessingException e) {
+            throw new WhatsAppDeliveryException("WhatsApp: falha ao montar a mensagem", false, e);
         }
+        HttpRequest request = HttpRequest.newBuilder(messagesUri)
+                .timeout(requestTimeout)
+                .header("Authorization", authorization)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+
+        HttpResponse<String> response;
         try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setBearerAuth(accessToken);
-            String json = objectMapper.writeValueAsString(body);
-            HttpEntity<String> entity = new HttpEntity<>(json, headers);
-            String url = GRAPH_API_BASE + "/" + phoneNumberId + "/messages";
-            ResponseEntity<String> response = restTemplate.postForEntity(url, entity, String.class);
-            if (!response.getStatusCode().is2xxSuccessful()) {
-                log.warn("WhatsApp API respondeu {}: {}", response.getStatusCode(), response.getBody());
-            }
-        } catch (Exception e) {
-            log.error("Erro ao enviar mensagem WhatsApp", e);
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            throw new WhatsAppDeliveryException("WhatsApp API indisponivel: " + e, true, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WhatsAppDeliveryException("WhatsApp: envio interrompido", true, e);
+        }
+        int status = response.statusCode();
+        if (status / 100 != 2) {
+            boolean retryable = status >= 500 || status == 429;
+            throw new WhatsAppDeliveryException("WhatsApp API respondeu " + status + ": " + response.body(), retryable);
+        }
+    }
+
+    private static String requirePhone(String toPhone) {
+        String phone = normalizePhone(toPhone);
+        if (phone == null) {
+            throw new WhatsAppDeliveryException("WhatsApp: telefone invalido " + toPhone, false);
         }
+        return phone;
     }
 
     /** Remove + e espaços; espera número com DDI (ex: 55 para Brasil). */
@@ -8,12 +8,17 @@ import org.springframework.stereotype.Service;
 public class NoOpWhatsAppService implements WhatsAppNotificationService {
 
     @Override
-    public void sendEncomendaNotification(String toPhone, String residentName, String residentCode) {
+    public void sendEncomendaNotification(String toPhone, String residentName, String residentCode, String idempotencyKey) {
         // WhatsApp desativado
     }
 
     @Override
-    public void sendEncomendaPhoto(String toPhone, String imageUrl) {
+    public void sendEncomendaPhoto(String toPhone, String imageUrl, String idempotencyKey) {
+        // WhatsApp desativado
+    }
+
+    @Override
+    public void sendComunicado(String toPhone, String title, String summary, boolean emergency, String idempotencyKey) {
         // WhatsApp desativado
     }
 }
@@ -0,0 +1,24 @@
+package com.convivium.integration.whatsapp;
+
+/**
+ * Falha ao entregar uma mensagem à API do WhatsApp. retryable=false para erros que não
+ * se resolvem com nova tentativa (telefone inválido, 4xx da Meta, credenciais ausentes).
+ */
+public class WhatsAppDeliveryException extends RuntimeException {
+
+    private final boolean retryable;
+
+    public WhatsAppDeliveryException(String message, boolean retryable) {
+        super(message);
+        this.retryable = retryable;
+    }
+
+    public WhatsAppDeliveryException(String message, boolean retryable, Throwable cause) {
+        super(message, cause);
+        this.retryable = retryable;
+    }
+
+    public boolean isRetryable() {
+        return retryable;
+    }
+}
@@ -1,12 +1,22 @@
 package com.convivium.integration.whatsapp;
 
 /**
- * Serviço de notificação por WhatsApp (Meta Cloud API).
+ * Transporte do WhatsApp (Meta Cloud API) usado pelo WhatsAppOutboxDispatcher e pelo
+ * AnnouncementBroadcastJob.
  * Implementações: MetaWhatsAppService (ativa) ou NoOpWhatsAppService (desativado).
+ *
+ * Os serviços de domínio não chamam este transporte direto: gravam na outbox
+ * (WhatsAppOutboxService) na mesma transação. idempotencyKey identifica a mensagem
+ * da outbox e vai junto no envio para rastreio.
+ *
+ * @throws WhatsAppDeliveryException quando a mensagem não foi aceita pela API
  */
 public interface WhatsAppNotificationService {
 
-    void sendEncomendaNotification(String toPhone, String residentName, String residentCode);
+    void sendEncomendaNotification(String toPhone, String residentName, String residentCode, String idempotencyKey);
 
-    void sendEncomendaPhoto(String toPhone, String imageUrl);
+    void sendEncomendaPhoto(String toPhone, String imageUrl, String idempotencyKey);
+
+    /** Comunicado do condomínio; emergency escolhe o template de emergência. */
+    void sendComunicado(String toPhone, String title, String summary, boolean emergency, String idempotencyKey);
 }
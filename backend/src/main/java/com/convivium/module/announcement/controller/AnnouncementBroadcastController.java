@@ -0,0 +1,46 @@
+package com.convivium.module.announcement.controller;
+
+import com.convivium.common.dto.ApiResponse;
+import com.convivium.module.announcement.dto.AnnouncementBroadcastResponse;
+import com.convivium.module.announcement.service.AnnouncementBroadcastService;
+import com.convivium.security.CurrentUser;
+import com.convivium.security.UserPrincipal;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/condos/{condoId}/announcements/{announcementId}/broadcast")
+@RequiredArgsConstructor
+public class AnnouncementBroadcastController {
+
+    private final AnnouncementBroadcastService broadcastService;
+
+    /** Envia o comunicado por WhatsApp aos moradores - apenas sindico/subsindico. Assíncrono: responde 202. */
+    @PostMapping
+    @PreAuthorize("hasPermission(#condoId, 'SINDICO,SUB_SINDICO,PLATFORM_ADMIN')")
+    public ResponseEntity<ApiResponse<AnnouncementBroadcastResponse>> startBroadcast(
+            @PathVariable Long condoId,
+            @PathVariable Long announcementId,
+            @CurrentUser UserPrincipal currentUser) {
+
+        AnnouncementBroadcastResponse response = broadcastService.startBroadcast(condoId, announcementId, currentUser.getId());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponse.ok(response, "Envio do comunicado iniciado"));
+    }
+
+    /** Progresso do envio (enviadas / falhas / total). */
+    @GetMapping
+    @PreAuthorize("hasPermission(#condoId, 'SINDICO,SUB_SINDICO,PLATFORM_ADMIN')")
+    public ResponseEntity<ApiResponse<AnnouncementBroadcastResponse>> getBroadcast(
+            @PathVariable Long condoId,
+            @PathVariable Long announcementId) {
+
+        return ResponseEntity.ok(ApiResponse.ok(broadcastService.getBroadcast(condoId, announcementId)));
+    }
+}
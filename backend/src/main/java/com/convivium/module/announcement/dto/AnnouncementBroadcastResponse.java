@@ -0,0 +1,31 @@
+package com.convivium.module.announcement.dto;
+
+import com.convivium.module.announcement.entity.AnnouncementBroadcast;
+
+import java.time.Instant;
+
+public record AnnouncementBroadcastResponse(
+        Long id,
+        Long announcementId,
+        String status,
+        boolean isEmergency,
+        int totalRecipients,
+        int sentCount,
+        int failedCount,
+        Instant startedAt,
+        Instant finishedAt
+) {
+
+    public static AnnouncementBroadcastResponse from(AnnouncementBroadcast broadcast) {
+        return new AnnouncementBroadcastResponse(
+                broadcast.getId(),
+                broadcast.getAnnouncementId(),
+                broadcast.getStatus().name(),
+                broadcast.isEmergency(),
+                broadcast.getTotalRecipients(),
+                broadcast.getSentCount(),
+                broadcast.getFailedCount(),
+                broadcast.getStartedAt(),
+                broadcast.getFinishedAt());
+    }
+}
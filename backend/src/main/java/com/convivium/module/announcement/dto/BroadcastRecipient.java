@@ -0,0 +1,8 @@
+package com.convivium.module.announcement.dto;
+
+public record BroadcastRecipient(
+        Long userId,
+        String name,
+        String phone
+) {
+}
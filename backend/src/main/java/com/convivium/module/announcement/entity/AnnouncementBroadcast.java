@@ -0,0 +1,89 @@
+package com.convivium.module.announcement.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.Instant;
+
+/**
+ * Disparo de um comunicado por WhatsApp. cursorUserId é o checkpoint: destinatários com
+ * user_id até ele já foram processados. claimToken/claimedUntil são o lease do worker.
+ */
+@Entity
+@Table(name = "announcement_broadcasts")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EntityListeners(AuditingEntityListener.class)
+public class AnnouncementBroadcast {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "announcement_id", nullable = false, unique = true)
+    private Long announcementId;
+
+    @Column(name = "condominium_id", nullable = false)
+    private Long condominiumId;
+
+    @Column(name = "is_emergency", nullable = false)
+    private boolean isEmergency;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private BroadcastStatus status = BroadcastStatus.PENDING;
+
+    @Column(name = "cursor_user_id", nullable = false)
+    private long cursorUserId;
+
+    @Column(name = "total_recipients", nullable = false)
+    private int totalRecipients;
+
+    @Column(name = "sent_count", nullable = false)
+    private int sentCount;
+
+    @Column(name = "failed_count", nullable = false)
+    private int failedCount;
+
+    @Column(name = "claim_token", length = 36)
+    private String claimToken;
+
+    @Column(name = "claimed_until")
+    private Instant claimedUntil;
+
+    @Column(name = "requested_by")
+    private Long requestedBy;
+
+    @Column(name = "started_at")
+    private Instant startedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @LastModifiedDate
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+}
@@ -0,0 +1,7 @@
+package com.convivium.module.announcement.entity;
+
+public enum BroadcastStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED
+}
@@ -0,0 +1,86 @@
+package com.convivium.module.announcement.repository;
+
+import com.convivium.module.announcement.entity.AnnouncementBroadcast;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Fila de disparos. Todas as escritas do worker são condicionadas ao claimToken: se o lease
+ * expirou e outra instância assumiu o disparo, o worker antigo não grava mais nada.
+ */
+@Repository
+public interface AnnouncementBroadcastRepository extends JpaRepository<AnnouncementBroadcast, Long> {
+
+    Optional<AnnouncementBroadcast> findByAnnouncementId(Long announcementId);
+
+    boolean existsByAnnouncementId(Long announcementId);
+
+    /** Disparos abertos sem worker ativo: emergências primeiro, depois por ordem de criação. */
+    @Query("SELECT b.id FROM AnnouncementBroadcast b WHERE b.status <> 'COMPLETED' "
+            + "AND (b.claimedUntil IS NULL OR b.claimedUntil < :now) ORDER BY b.isEmergency DESC, b.id")
+    List<Long> findClaimableIds(@Param("now") Instant now, Limit limit);
+
+    @Query("SELECT COUNT(b) > 0 FROM AnnouncementBroadcast b WHERE b.isEmergency = true AND b.status <> 'COMPLETED' "
+            + "AND (b.claimedUntil IS NULL OR b.claimedUntil < :now)")
+    boolean existsWaitingEmergency(@Param("now") Instant now);
+
+    /**
+     * Trava os disparos abertos, em ordem de id (mesma ordem em todas as instâncias, sem deadlock).
+     * Serializa os claims: sem a trava, dois workers reservando disparos diferentes não se veem no
+     * NOT EXISTS do claim (READ COMMITTED) e rodam ao mesmo tempo, dobrando a taxa de envio.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM AnnouncementBroadcast b WHERE b.status <> 'COMPLETED' ORDER BY b.id")
+    List<AnnouncementBroadcast> lockOpen();
+
+    /**
+     * Reserva o disparo para este worker. Só um disparo roda por vez no sistema (nenhum outro
+     * com lease válido), então o limite de msg/s de uma instância vale para o número inteiro.
+     * Exige a transação de {@link #lockOpen()}: quem esperou a trava enxerga o RUNNING de quem
+     * reservou antes.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE AnnouncementBroadcast b SET b.status = 'RUNNING', b.claimToken = :token, b.claimedUntil = :until, "
+            + "b.startedAt = COALESCE(b.startedAt, :now), b.updatedAt = :now "
+            + "WHERE b.id = :id AND b.status <> 'COMPLETED' AND (b.claimedUntil IS NULL OR b.claimedUntil < :now) "
+            + "AND NOT EXISTS (SELECT o.id FROM AnnouncementBroadcast o WHERE o.id <> :id "
+            + "AND o.status = 'RUNNING' AND o.claimedUntil >= :now)")
+    int claim(@Param("id") Long id, @Param("token") String token,
+              @Param("until") Instant until, @Param("now") Instant now);
+
+    /** Grava o checkpoint de um bloco concluído e renova o lease. */
+    @Transactional
+    @Modifying
+    @Query("UPDATE AnnouncementBroadcast b SET b.cursorUserId = :cursor, b.sentCount = b.sentCount + :sent, "
+            + "b.failedCount = b.failedCount + :failed, b.claimedUntil = :until, b.updatedAt = :now "
+            + "WHERE b.id = :id AND b.claimToken = :token")
+    int checkpoint(@Param("id") Long id, @Param("token") String token, @Param("cursor") long cursor,
+                   @Param("sent") int sent, @Param("failed") int failed,
+                   @Param("until") Instant until, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE AnnouncementBroadcast b SET b.status = 'COMPLETED', b.finishedAt = :now, b.updatedAt = :now, "
+            + "b.claimToken = NULL, b.claimedUntil = NULL WHERE b.id = :id AND b.claimToken = :token")
+    int complete(@Param("id") Long id, @Param("token") String token, @Param("now") Instant now);
+
+    /** Devolve o disparo à fila (ex: cedendo a vez para uma emergência), mantendo o checkpoint. */
+    @Transactional
+    @Modifying
+    @Query("UPDATE AnnouncementBroadcast b SET b.status = 'PENDING', b.updatedAt = :now, "
+            + "b.claimToken = NULL, b.claimedUntil = NULL WHERE b.id = :id AND b.claimToken = :token")
+    int release(@Param("id") Long id, @Param("token") String token, @Param("now") Instant now);
+}
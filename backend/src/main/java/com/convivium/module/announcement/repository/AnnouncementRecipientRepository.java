@@ -0,0 +1,79 @@
+package com.convivium.module.announcement.repository;
+
+import com.convivium.module.announcement.dto.BroadcastRecipient;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Destinatários de um disparo de comunicado: usuários ativos, com telefone, que têm vínculo
+ * ACTIVE no condomínio (em um dos papéis alvo, se houver). Lidos em blocos por keyset
+ * (users.id > cursor), então o disparo nunca carrega o condomínio inteiro e retoma do
+ * checkpoint sem OFFSET. Um usuário com vários papéis/unidades recebe uma mensagem só.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AnnouncementRecipientRepository {
+
+    private static final String RECIPIENT_FILTER = """
+            FROM users u
+            WHERE u.is_active = true
+              AND u.phone IS NOT NULL AND u.phone <> ''
+              AND EXISTS (SELECT 1 FROM user_condominium_roles ucr
+                          WHERE ucr.user_id = u.id
+                            AND ucr.condominium_id = :condominiumId
+                            AND ucr.status = 'ACTIVE'""";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Próximo bloco após afterUserId, em ordem de users.id.
+     * targetRoles no formato de Announcement.targetRoles ("MORADOR,SINDICO"); null ou vazio = todos.
+     */
+    public List<BroadcastRecipient> findChunk(Long condominiumId, String targetRoles, long afterUserId, int limit) {
+        List<String> roles = parseRoles(targetRoles);
+        MapSqlParameterSource params = params(condominiumId, roles)
+                .addValue("afterUserId", afterUserId)
+                .addValue("limit", limit);
+        return jdbcTemplate.query("SELECT u.id, u.name, u.phone " + RECIPIENT_FILTER + roleFilter(roles) + ")"
+                        + " AND u.id > :afterUserId ORDER BY u.id LIMIT :limit",
+                params, (rs, i) -> new BroadcastRecipient(rs.getLong("id"), rs.getString("name"), rs.getString("phone")));
+    }
+
+    public int count(Long condominiumId, String targetRoles) {
+        List<String> roles = parseRoles(targetRoles);
+        Integer total = jdbcTemplate.queryForObject("SELECT COUNT(*) " + RECIPIENT_FILTER + roleFilter(roles) + ")",
+                params(condominiumId, roles), Integer.class);
+        return total != null ? total : 0;
+    }
+
+    static List<String> parseRoles(String targetRoles) {
+        if (targetRoles == null || targetRoles.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(targetRoles.split(","))
+                .map(String::trim)
+                .filter(role -> !role.isEmpty())
+                .map(role -> role.toUpperCase(Locale.ROOT))
+                .distinct()
+                .toList();
+    }
+
+    private static MapSqlParameterSource params(Long condominiumId, Collection<String> roles) {
+        MapSqlParameterSource params = new MapSqlParameterSource("condominiumId", condominiumId);
+        if (roles != null && !roles.isEmpty()) {
+            params.addValue("roles", roles);
+        }
+        return params;
+    }
+
+    private static String roleFilter(Collection<String> roles) {
+        return roles != null && !roles.isEmpty() ? " AND ucr.role IN (:roles)" : "";
+    }
+}
@@ -0,0 +1,299 @@
+package com.convivium.module.announcement.scheduler;
+
+import com.convivium.common.util.TokenBucketRateLimiter;
+import com.convivium.integration.whatsapp.WhatsAppDeliveryException;
+import com.convivium.integration.whatsapp.WhatsAppNotificationService;
+import com.convivium.module.announcement.dto.BroadcastRecipient;
+import com.convivium.module.announcement.entity.Announcement;
+import com.convivium.module.announcement.entity.AnnouncementBroadcast;
+import com.convivium.module.announcement.repository.AnnouncementBroadcastRepository;
+import com.convivium.module.announcement.repository.AnnouncementRecipientRepository;
+import com.convivium.module.announcement.repository.AnnouncementRepository;
+import com.convivium.module.announcement.service.AnnouncementBroadcastProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Executa os disparos de comunicados por WhatsApp (announcement_broadcasts).
+ *
+ * O @Scheduled só verifica a fila; o disparo roda numa thread própria para não segurar o
+ * scheduler (que é de uma thread só) durante minutos. Para cada disparo reservado:
+ * - lê destinatários em blocos de chunk-size (AnnouncementRecipientRepository, keyset por users.id);
+ * - envia cada mensagem respeitando o token bucket (messages-per-second / burst) e no máximo
+ *   max-in-flight chamadas simultâneas, em virtual threads;
+ * - ao fim de cada bloco grava o checkpoint (cursor, contadores) e renova o lease.
+ *
+ * Se a instância cair, o lease expira e o disparo recomeça do último checkpoint: até um bloco
+ * pode ser reenviado (entrega "pelo menos uma vez"); a chave announcement:{id}:user:{userId}
+ * vai no envio para identificar duplicatas nos webhooks da Meta.
+ *
+ * Emergências furam a fila: um disparo comum cede a vez ao fim do bloco quando há emergência
+ * esperando, e volta depois do ponto onde parou. Com os defaults (60 msg/s, burst 20) 2.000
+ * destinatários saem em ~33 s.
+ *
+ * Métricas: convivium.whatsapp.broadcast (tag result = sent, failed).
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.whatsapp.enabled", havingValue = "true")
+public class AnnouncementBroadcastJob {
+
+    private static final int MAX_SUMMARY_LENGTH = 200;
+
+    private final AnnouncementBroadcastRepository broadcastRepository;
+    private final AnnouncementRecipientRepository recipientRepository;
+    private final AnnouncementRepository announcementRepository;
+    private final WhatsAppNotificationService transport;
+    private final AnnouncementBroadcastProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final TokenBucketRateLimiter rateLimiter;
+    private final ExecutorService sendExecutor;
+    private final ExecutorService worker;
+    private final Clock clock;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Counter sent;
+    private final Counter failed;
+
+    @Autowired
+    public AnnouncementBroadcastJob(AnnouncementBroadcastRepository broadcastRepository,
+                                    AnnouncementRecipientRepository recipientRepository,
+                                    AnnouncementRepository announcementRepository,
+                                    WhatsAppNotificationService transport,
+                                    AnnouncementBroadcastProperties properties,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry) {
+        this(broadcastRepository, recipientRepository, announcementRepository, transport, properties,
+                new TransactionTemplate(transactionManager),
+                new TokenBucketRateLimiter(properties.getMessagesPerSecond(), properties.getBurst()),
+                Executors.newVirtualThreadPerTaskExecutor(), meterRegistry, Clock.systemUTC());
+    }
+
+    AnnouncementBroadcastJob(AnnouncementBroadcastRepository broadcastRepository,
+                             AnnouncementRecipientRepository recipientRepository,
+                             AnnouncementRepository announcementRepository,
+                             WhatsAppNotificationService transport,
+                             AnnouncementBroadcastProperties properties,
+                             TransactionTemplate transactionTemplate,
+                             TokenBucketRateLimiter rateLimiter,
+                             ExecutorService sendExecutor,
+                             MeterRegistry meterRegistry,
+                             Clock clock) {
+        this.broadcastRepository = broadcastRepository;
+        this.recipientRepository = recipientRepository;
+        this.announcementRepository = announcementRepository;
+        this.transport = transport;
+        this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
+        this.rateLimiter = rateLimiter;
+        this.sendExecutor = sendExecutor;
+        this.worker = Executors.newSingleThreadExecutor(Thread.ofVirtual().name("announcement-broadcast").factory());
+        this.clock = clock;
+        this.sent = Counter.builder("convivium.whatsapp.broadcast").tag("result", "sent").register(meterRegistry);
+        this.failed = Counter.builder("convivium.whatsapp.broadcast").tag("result", "failed").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.whatsapp.broadcast.poll-interval-ms:1000}")
+    public void poll() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        worker.execute(() -> {
+            try {
+                while (!Thread.currentThread().isInterrupted() && runNext()) {
+                    // próximo disparo da fila (ex: o comum que cedeu a vez a uma emergência)
+                }
+            } catch (RuntimeException e) {
+                log.error("AnnouncementBroadcastJob: falha ao processar disparos", e);
+            } finally {
+                running.set(false);
+            }
+        });
+    }
+
+    /**
+     * Reserva o próximo disparo da fila e o executa até concluir, ceder a vez ou perder o lease.
+     *
+     * @return false se não havia disparo disponível
+     */
+    public boolean runNext() {
+        Instant now = clock.instant();
+        List<Long> ids = broadcastRepository.findClaimableIds(now, Limit.of(1));
+        if (ids.isEmpty()) {
+            return false;
+        }
+        String token = UUID.randomUUID().toString();
+        Boolean claimed = transactionTemplate.execute(status -> {
+            broadcastRepository.lockOpen();
+            return broadcastRepository.claim(ids.get(0), token, now.plusMillis(properties.getLeaseMs()), now) > 0;
+        });
+        if (!Boolean.TRUE.equals(claimed)) {
+            return false;
+        }
+        AnnouncementBroadcast broadcast = broadcastRepository.findById(ids.get(0)).orElse(null);
+        if (broadcast != null) {
+            run(broadcast, token);
+        }
+        return true;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        worker.shutdownNow();
+        sendExecutor.shutdownNow();
+    }
+
+    private void run(AnnouncementBroadcast broadcast, String token) {
+        Announcement announcement = announcementRepository.findById(broadcast.getAnnouncementId()).orElse(null);
+        if (announcement == null) {
+            broadcastRepository.complete(broadcast.getId(), token, clock.instant());
+            return;
+        }
+        String summary = summary(announcement.getContent());
+        long cursor = broadcast.getCursorUserId();
+        int chunkSize = Math.max(1, properties.getChunkSize());
+
+        while (true) {
+            List<BroadcastRecipient> chunk = recipientRepository.findChunk(
+                    broadcast.getCondominiumId(), announcement.getTargetRoles(), cursor, chunkSize);
+            if (chunk.isEmpty()) {
+                broadcastRepository.complete(broadcast.getId(), token, clock.instant());
+                log.info("Comunicado {}: disparo concluido", broadcast.getAnnouncementId());
+                return;
+            }
+            int delivered;
+            try {
+                delivered = sendChunk(broadcast, chunk, announcement.getTitle(), summary);
+            } catch (InterruptedException e) {
+                // bloco parcial não entra no checkpoint; outra execução retoma do cursor atual
+                broadcastRepository.release(broadcast.getId(), token, clock.instant());
+                Thread.currentThread().interrupt();
+                return;
+            }
+            cursor = chunk.get(chunk.size() - 1).userId();
+            Instant now = clock.instant();
+            if (broadcastRepository.checkpoint(broadcast.getId(), token, cursor, delivered, chunk.size() - delivered,
+                    now.plusMillis(properties.getLeaseMs()), now) == 0) {
+                log.warn("Comunicado {}: lease perdido, disparo assumido por outra instancia",
+                        broadcast.getAnnouncementId());
+                return;
+            }
+            if (!broadcast.isEmergency() && broadcastRepository.existsWaitingEmergency(now)) {
+                broadcastRepository.release(broadcast.getId(), token, now);
+                log.info("Comunicado {}: pausado para disparo de emergencia", broadcast.getAnnouncementId());
+                return;
+            }
+        }
+    }
+
+    /** Envia um bloco e espera todos os envios terminarem. @return mensagens aceitas pela API */
+    private int sendChunk(AnnouncementBroadcast broadcast, List<BroadcastRecipient> chunk, String title, String summary)
+            throws InterruptedException {
+        Semaphore inFlight = new Semaphore(Math.max(1, properties.getMaxInFlight()));
+        List<Future<Boolean>> results = new ArrayList<>(chunk.size());
+        try {
+            for (BroadcastRecipient recipient : chunk) {
+                inFlight.acquire();
+                try {
+                    rateLimiter.acquire();
+                    results.add(sendExecutor.submit(() -> {
+                        try {
+                            return deliver(broadcast, recipient, title, summary);
+                        } finally {
+                            inFlight.release();
+                        }
+                    }));
+                } catch (InterruptedException | RuntimeException e) {
+                    inFlight.release();
+                    throw e;
+                }
+            }
+            int delivered = 0;
+            for (Future<Boolean> result : results) {
+                try {
+                    if (result.get()) {
+                        delivered++;
+                    }
+                } catch (ExecutionException e) {
+                    log.error("Comunicado {}: erro inesperado no envio", broadcast.getAnnouncementId(), e.getCause());
+                }
+            }
+            return delivered;
+        } catch (InterruptedException e) {
+            results.forEach(result -> result.cancel(true));
+            throw e;
+        }
+    }
+
+    private boolean deliver(AnnouncementBroadcast broadcast, BroadcastRecipient recipient, String title, String summary) {
+        String key = "announcement:" + broadcast.getAnnouncementId() + ":user:" + recipient.userId();
+        int maxAttempts = Math.max(1, properties.getMaxAttempts());
+        for (int attempt = 1; ; attempt++) {
+            String error;
+            boolean retryable;
+            try {
+                transport.sendComunicado(recipient.phone(), title, summary, broadcast.isEmergency(), key);
+                sent.increment();
+                return true;
+            } catch (WhatsAppDeliveryException e) {
+                error = e.getMessage();
+                retryable = e.isRetryable();
+            } catch (RuntimeException e) {
+                error = e.getClass().getSimpleName() + ": " + e.getMessage();
+                retryable = true;
+            }
+            if (!retryable || attempt >= maxAttempts || !awaitRetry()) {
+                failed.increment();
+                log.warn("Comunicado {}: falha ao enviar para usuario {} apos {} tentativa(s): {}",
+                        broadcast.getAnnouncementId(), recipient.userId(), attempt, error);
+                return false;
+            }
+        }
+    }
+
+    /** Espera retry-delay-ms e uma nova ficha do token bucket. @return false se interrompido */
+    private boolean awaitRetry() {
+        try {
+            if (properties.getRetryDelayMs() > 0) {
+                Thread.sleep(properties.getRetryDelayMs());
+            }
+            rateLimiter.acquire();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /** Parâmetros de template da Meta não aceitam quebras de linha nem sequências de espaços. */
+    static String summary(String content) {
+        if (content == null) {
+            return "";
+        }
+        String text = content.replaceAll("\\s+", " ").trim();
+        if (text.length() <= MAX_SUMMARY_LENGTH) {
+            return text;
+        }
+        return text.substring(0, MAX_SUMMARY_LENGTH - 3).trim() + "...";
+    }
+}
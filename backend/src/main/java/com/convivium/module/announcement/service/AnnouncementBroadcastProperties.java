@@ -0,0 +1,38 @@
+package com.convivium.module.announcement.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.whatsapp.broadcast")
+public class AnnouncementBroadcastProperties {
+
+    /** Intervalo entre verificações da fila de disparos. */
+    private long pollIntervalMs = 1_000;
+
+    /** Destinatários lidos por bloco; o checkpoint é gravado ao fim de cada bloco. */
+    private int chunkSize = 200;
+
+    /**
+     * Mensagens por segundo enviadas à Meta. O tier padrão da Cloud API aceita 80 msg/s por
+     * número; o default deixa folga para a outbox de encomendas, que usa o mesmo número.
+     */
+    private double messagesPerSecond = 60;
+
+    /** Fichas acumuladas no token bucket (rajada inicial). */
+    private int burst = 20;
+
+    /** Envios simultâneos em andamento (cobre a latência da API na taxa configurada). */
+    private int maxInFlight = 32;
+
+    /** Tempo de reserva do disparo; renovado a cada bloco. Se o worker cair, outro retoma do checkpoint. */
+    private long leaseMs = 60_000;
+
+    /** Tentativas por destinatário para falhas retryable (5xx, 429, rede). */
+    private int maxAttempts = 3;
+
+    /** Espera entre tentativas do mesmo destinatário. */
+    private long retryDelayMs = 1_000;
+}
@@ -0,0 +1,66 @@
+package com.convivium.module.announcement.service;
+
+import com.convivium.common.exception.BusinessException;
+import com.convivium.common.exception.ResourceNotFoundException;
+import com.convivium.module.announcement.dto.AnnouncementBroadcastResponse;
+import com.convivium.module.announcement.entity.Announcement;
+import com.convivium.module.announcement.entity.AnnouncementBroadcast;
+import com.convivium.module.announcement.repository.AnnouncementBroadcastRepository;
+import com.convivium.module.announcement.repository.AnnouncementRecipientRepository;
+import com.convivium.module.announcement.repository.AnnouncementRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Agenda o disparo de um comunicado por WhatsApp. Aqui só se grava a linha em
+ * announcement_broadcasts; o envio é feito pelo AnnouncementBroadcastJob.
+ */
+@Service
+@Transactional
+public class AnnouncementBroadcastService {
+
+    private final AnnouncementRepository announcementRepository;
+    private final AnnouncementBroadcastRepository broadcastRepository;
+    private final AnnouncementRecipientRepository recipientRepository;
+    private final boolean whatsAppEnabled;
+
+    public AnnouncementBroadcastService(AnnouncementRepository announcementRepository,
+                                        AnnouncementBroadcastRepository broadcastRepository,
+                                        AnnouncementRecipientRepository recipientRepository,
+                                        @Value("${app.whatsapp.enabled:false}") boolean whatsAppEnabled) {
+        this.announcementRepository = announcementRepository;
+        this.broadcastRepository = broadcastRepository;
+        this.recipientRepository = recipientRepository;
+        this.whatsAppEnabled = whatsAppEnabled;
+    }
+
+    /** Cada comunicado é disparado uma vez; emergências entram na frente da fila. */
+    public AnnouncementBroadcastResponse startBroadcast(Long condoId, Long announcementId, Long requestedBy) {
+        if (!whatsAppEnabled) {
+            throw new BusinessException("Envio por WhatsApp nao esta habilitado", "WHATSAPP_DISABLED");
+        }
+        Announcement announcement = announcementRepository.findByIdAndCondominiumId(announcementId, condoId)
+                .orElseThrow(() -> new ResourceNotFoundException("Comunicado", announcementId));
+        if (broadcastRepository.existsByAnnouncementId(announcementId)) {
+            throw new BusinessException("Este comunicado ja foi enviado por WhatsApp", "BROADCAST_ALREADY_STARTED");
+        }
+
+        AnnouncementBroadcast broadcast = broadcastRepository.save(AnnouncementBroadcast.builder()
+                .announcementId(announcement.getId())
+                .condominiumId(condoId)
+                .isEmergency(announcement.isEmergency())
+                .totalRecipients(recipientRepository.count(condoId, announcement.getTargetRoles()))
+                .requestedBy(requestedBy)
+                .build());
+        return AnnouncementBroadcastResponse.from(broadcast);
+    }
+
+    @Transactional(readOnly = true)
+    public AnnouncementBroadcastResponse getBroadcast(Long condoId, Long announcementId) {
+        return broadcastRepository.findByAnnouncementId(announcementId)
+                .filter(broadcast -> broadcast.getCondominiumId().equals(condoId))
+                .map(AnnouncementBroadcastResponse::from)
+                .orElseThrow(() -> new ResourceNotFoundException("Disparo do comunicado", announcementId));
+    }
+}
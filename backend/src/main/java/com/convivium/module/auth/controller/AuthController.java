@@ -20,6 +20,8 @@ import com.convivium.module.auth.dto.UserInfoResponse;
 import com.convivium.module.auth.service.AuthService;
 import com.convivium.security.CurrentUser;
 import com.convivium.security.UserPrincipal;
+import com.convivium.security.password.LoginAdmissionControl;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -40,9 +42,13 @@ import java.util.List;
 public class AuthController {
 
     private final AuthService authService;
+    private final LoginAdmissionControl loginAdmissionControl;
 
+    /** Tentativas acima do limite por IP/email são recusadas (429) antes do BCrypt. */
     @PostMapping("/login")
-    public ResponseEntity<ApiResponse<LoginResponse>> login(@Valid @RequestBody LoginRequest request) {
+    public ResponseEntity<ApiResponse<LoginResponse>> login(@Valid @RequestBody LoginRequest request,
+                                                            HttpServletRequest httpRequest) {
+        loginAdmissionControl.admit(httpRequest.getRemoteAddr(), request.email());
         LoginResponse response = authService.login(request);
         return ResponseEntity.ok(ApiResponse.ok(response));
     }
@@ -39,8 +39,9 @@ public class RefreshToken {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    @Column(nullable = false, unique = true)
-    private String token;
+    /** SHA-256 (hex) do refresh token; o JWT em si não é persistido. */
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+    private String tokenHash;
 
     @Column(name = "device_info")
     private String deviceInfo;
@@ -1,23 +1,40 @@
 package com.convivium.module.auth.repository;
 
 import com.convivium.module.auth.entity.RefreshToken;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
 
-    Optional<RefreshToken> findByToken(String token);
+    /** Busca pelo SHA-256 (hex) do token; ver TokenHashUtil. */
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
 
     void deleteByUserId(Long userId);
 
     @Modifying
     @Query("DELETE FROM RefreshToken rt WHERE rt.expiresAt < :now")
     void deleteExpiredTokens(@Param("now") Instant now);
+
+    /**
+     * Próximo lote (keyset por id) de tokens expirados ou revogados com id maior que afterId.
+     */
+    @Query("SELECT rt.id FROM RefreshToken rt WHERE rt.id > :afterId "
+            + "AND (rt.expiresAt < :now OR rt.revoked = true) ORDER BY rt.id")
+    List<Long> findPrunableIds(@Param("afterId") long afterId, @Param("now") Instant now, Limit limit);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RefreshToken rt WHERE rt.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,73 @@
+package com.convivium.module.auth.scheduler;
+
+import com.convivium.module.auth.repository.RefreshTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Remove refresh tokens expirados ou revogados, que antes ficavam para sempre em refresh_tokens.
+ *
+ * Percorre a tabela em lotes de app.auth.refresh-token-pruning.batch-size usando keyset
+ * por id (sem OFFSET); cada lote é apagado em sua própria transação, então o job nunca
+ * segura locks sobre a tabela inteira.
+ */
+@Slf4j
+@Component
+public class RefreshTokenPruningJob {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final int batchSize;
+    private final Clock clock;
+
+    public RefreshTokenPruningJob(RefreshTokenRepository refreshTokenRepository,
+                                  @Value("${app.auth.refresh-token-pruning.batch-size:1000}") int batchSize) {
+        this(refreshTokenRepository, batchSize, Clock.systemUTC());
+    }
+
+    RefreshTokenPruningJob(RefreshTokenRepository refreshTokenRepository, int batchSize, Clock clock) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.batchSize = Math.max(1, batchSize);
+        this.clock = clock;
+    }
+
+    /**
+     * Roda diariamente as 3h30 (horario do servidor).
+     */
+    @Scheduled(cron = "${app.auth.refresh-token-pruning.cron:0 30 3 * * *}")
+    public void scheduledPrune() {
+        prune();
+    }
+
+    /**
+     * @return total de linhas removidas
+     */
+    public long prune() {
+        Instant now = clock.instant();
+        long afterId = 0L;
+        long removed = 0L;
+        int batches = 0;
+
+        while (true) {
+            List<Long> ids = refreshTokenRepository.findPrunableIds(afterId, now, Limit.of(batchSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            removed += refreshTokenRepository.deleteByIdIn(ids);
+            batches++;
+            afterId = ids.get(ids.size() - 1);
+            if (ids.size() < batchSize) {
+                break;
+            }
+        }
+
+        log.info("RefreshTokenPruningJob: {} refresh tokens removidos em {} lote(s)", removed, batches);
+        return removed;
+    }
+}
@@ -3,6 +3,7 @@ package com.convivium.module.auth.service;
 import com.convivium.common.exception.BusinessException;
 import com.convivium.common.exception.ResourceNotFoundException;
 import com.convivium.common.util.CpfUtil;
+import com.convivium.common.util.TokenHashUtil;
 import com.convivium.module.auth.dto.CondominiumOptionDto;
 import com.convivium.module.auth.dto.CondominiumRoleResponse;
 import com.convivium.module.auth.dto.GoogleAuthResponse;
@@ -27,18 +28,22 @@ import com.convivium.module.condominium.entity.Condominium;
 import com.convivium.module.condominium.entity.Unit;
 import com.convivium.module.condominium.repository.CondominiumRepository;
 import com.convivium.module.condominium.repository.UnitRepository;
+import com.convivium.module.dashboard.service.DashboardCounterService;
 import com.convivium.module.user.entity.Role;
 import com.convivium.module.user.entity.User;
 import com.convivium.module.user.entity.UserCondominiumRole;
 import com.convivium.module.user.repository.UserCondominiumRoleRepository;
 import com.convivium.module.user.repository.UserRepository;
+import com.convivium.security.UserIdentityCache;
 import com.convivium.security.jwt.JwtProperties;
 import com.convivium.security.jwt.JwtTokenProvider;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
@@ -64,70 +69,50 @@ public class AuthService {
     private final JwtProperties jwtProperties;
     private final PasswordEncoder passwordEncoder;
     private final GoogleIdTokenVerifier googleIdTokenVerifier;
-
+    private final UserIdentityCache userIdentityCache;
+    private final LastLoginTracker lastLoginTracker;
+    private final DashboardCounterService dashboardCounterService;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Sem transação em volta: o BCrypt (BoundedPasswordEncoder, até segundos na fila) roda
+     * sem segurar conexão do pool. O hash vem de uma leitura curta; as escritas (rehash,
+     * refresh token, último login) vão numa transação curta depois da senha validada, que
+     * confere de novo se o hash e o status da conta não mudaram nesse meio tempo.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public LoginResponse login(LoginRequest request) {
-        User user = userRepository.findByEmail(request.email())
+        User credentials = userRepository.findByEmail(request.email())
                 .orElseThrow(() -> new BusinessException("Email ou senha invalidos", "INVALID_CREDENTIALS"));
+        String passwordHash = credentials.getPasswordHash();
 
-        if (user.getPasswordHash() == null) {
+        if (passwordHash == null) {
             throw new BusinessException("Use o login com Google para esta conta.", "USE_GOOGLE_LOGIN");
         }
-        if (!passwordEncoder.matches(request.password(), user.getPasswordHash())) {
+        if (!passwordEncoder.matches(request.password(), passwordHash)) {
             throw new BusinessException("Email ou senha invalidos", "INVALID_CREDENTIALS");
         }
-
-        if (!user.isActive()) {
+        if (!credentials.isActive()) {
             throw new BusinessException("Conta desativada. Entre em contato com o administrador.", "ACCOUNT_DISABLED");
         }
-
-        List<UserCondominiumRole> roles = user.getCondominiumRoles();
-
-        Long condominiumId = null;
-        List<String> roleNames = new ArrayList<>();
-        List<String> permissions = Collections.emptyList();
-
-        if (!roles.isEmpty()) {
-            UserCondominiumRole firstActive = roles.stream()
-                    .filter(r -> "ACTIVE".equals(r.getStatus()))
-                    .findFirst()
-                    .orElse(roles.get(0));
-            condominiumId = firstActive.getCondominium().getId();
-            roleNames.add(firstActive.getRole().name());
-        }
-
-        if (user.isPlatformAdmin()) {
-            roleNames.add("PLATFORM_ADMIN");
-        }
-
-        String accessToken = jwtTokenProvider.generateAccessToken(
-                user.getUuid().toString(),
-                user.getEmail(),
-                condominiumId,
-                roleNames,
-                permissions
-        );
-
-        String refreshTokenStr = jwtTokenProvider.generateRefreshToken(user.getUuid().toString());
-
-        RefreshToken refreshToken = RefreshToken.builder()
-                .user(user)
-                .token(refreshTokenStr)
-                .expiresAt(Instant.now().plusMillis(jwtProperties.getRefreshTokenExpiration()))
-                .revoked(false)
-                .build();
-        refreshTokenRepository.save(refreshToken);
-
-        user.setLastLoginAt(Instant.now());
-        userRepository.save(user);
-
-        UserInfoResponse userInfo = buildUserInfoResponse(user);
-
-        return new LoginResponse(
-                accessToken,
-                refreshTokenStr,
-                jwtProperties.getAccessTokenExpiration() / 1000,
-                userInfo
-        );
+        // Custo do BCrypt aumentou (app.security.password.rehash-on-login): novo hash da senha já validada
+        String upgradedHash = passwordEncoder.upgradeEncoding(passwordHash)
+                ? passwordEncoder.encode(request.password())
+                : null;
+
+        return transactionTemplate.execute(status -> {
+            User user = userRepository.findById(credentials.getId())
+                    .filter(u -> passwordHash.equals(u.getPasswordHash()))
+                    .orElseThrow(() -> new BusinessException("Email ou senha invalidos", "INVALID_CREDENTIALS"));
+            if (!user.isActive()) {
+                throw new BusinessException("Conta desativada. Entre em contato com o administrador.", "ACCOUNT_DISABLED");
+            }
+            if (upgradedHash != null) {
+                user.setPasswordHash(upgradedHash);
+                userRepository.save(user);
+            }
+            return buildLoginResponseForUser(user);
+        });
     }
 
     @Transactional(readOnly = true)
@@ -244,6 +229,7 @@ public class AuthService {
                 .status("PENDING_APPROVAL")
                 .build();
         userCondominiumRoleRepository.save(role);
+        dashboardCounterService.onMemberAdded(condominium.getId(), role.getStatus());
         user.getCondominiumRoles().add(role);
 
         return RegisterGoogleResponse.pendingApproval("Cadastro enviado! Aguarde a aprovação do síndico ou administrador para acessar o condomínio.");
@@ -266,6 +252,8 @@ public class AuthService {
         }
         String accessToken = jwtTokenProvider.generateAccessToken(
                 user.getUuid().toString(),
+                user.getId(),
+                user.getName(),
                 user.getEmail(),
                 condominiumId,
                 roleNames,
@@ -273,13 +261,12 @@ public class AuthService {
         String refreshTokenStr = jwtTokenProvider.generateRefreshToken(user.getUuid().toString());
         RefreshToken refreshToken = RefreshToken.builder()
                 .user(user)
-                .token(refreshTokenStr)
+                .tokenHash(TokenHashUtil.sha256Hex(refreshTokenStr))
                 .expiresAt(Instant.now().plusMillis(jwtProperties.getRefreshTokenExpiration()))
                 .revoked(false)
                 .build();
         refreshTokenRepository.save(refreshToken);
-        user.setLastLoginAt(Instant.now());
-        userRepository.save(user);
+        lastLoginTracker.recordLogin(user);
         UserInfoResponse userInfo = buildUserInfoResponse(user);
         return new LoginResponse(
                 accessToken,
@@ -326,10 +313,11 @@ public class AuthService {
                 .build();
 
         userCondominiumRoleRepository.save(userRole);
+        dashboardCounterService.onMemberAdded(condominium.getId(), userRole.getStatus());
     }
 
     public LoginResponse refreshToken(String refreshTokenStr) {
-        RefreshToken storedToken = refreshTokenRepository.findByToken(refreshTokenStr)
+        RefreshToken storedToken = refreshTokenRepository.findByTokenHash(TokenHashUtil.sha256Hex(refreshTokenStr))
                 .orElseThrow(() -> new BusinessException("Refresh token invalido", "INVALID_REFRESH_TOKEN"));
 
         if (storedToken.isRevoked()) {
@@ -363,6 +351,8 @@ public class AuthService {
 
         String newAccessToken = jwtTokenProvider.generateAccessToken(
                 user.getUuid().toString(),
+                user.getId(),
+                user.getName(),
                 user.getEmail(),
                 condominiumId,
                 roleNames,
@@ -376,7 +366,7 @@ public class AuthService {
 
         RefreshToken newRefreshToken = RefreshToken.builder()
                 .user(user)
-                .token(newRefreshTokenStr)
+                .tokenHash(TokenHashUtil.sha256Hex(newRefreshTokenStr))
                 .expiresAt(Instant.now().plusMillis(jwtProperties.getRefreshTokenExpiration()))
                 .revoked(false)
                 .build();
@@ -427,6 +417,7 @@ public class AuthService {
             user.setPhone(request.phone());
         }
         user = userRepository.save(user);
+        userIdentityCache.evict(uuid);
         return buildUserInfoResponse(user);
     }
 
@@ -0,0 +1,132 @@
+package com.convivium.module.auth.service;
+
+import com.convivium.module.user.entity.User;
+import com.convivium.module.user.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registra users.last_login_at no login.
+ *
+ * Com app.auth.last-login.write-behind=true (padrão) o login não grava o usuário: o horário fica
+ * num buffer em memória (um valor por usuário, o mais recente vence) e é gravado em
+ * UPDATEs em lote a cada app.auth.last-login.flush-interval-ms. Assim a inserção do
+ * refresh token passa a ser a única escrita síncrona do login. Em caso de queda
+ * da instância, perde-se no máximo o último intervalo de horários de login.
+ *
+ * Com write-behind=false mantém o comportamento antigo (setLastLoginAt + save).
+ */
+@Slf4j
+@Component
+public class LastLoginTracker {
+
+    private static final String UPDATE_SQL =
+            "UPDATE users SET last_login_at = ? WHERE id = ? AND (last_login_at IS NULL OR last_login_at < ?)";
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean writeBehind;
+    private final int batchSize;
+    private final Clock clock;
+    private final Map<Long, Instant> pending = new ConcurrentHashMap<>();
+
+    public LastLoginTracker(UserRepository userRepository,
+                            JdbcTemplate jdbcTemplate,
+                            @Value("${app.auth.last-login.write-behind:true}") boolean writeBehind,
+                            @Value("${app.auth.last-login.batch-size:500}") int batchSize) {
+        this(userRepository, jdbcTemplate, writeBehind, batchSize, Clock.systemUTC());
+    }
+
+    LastLoginTracker(UserRepository userRepository, JdbcTemplate jdbcTemplate,
+                     boolean writeBehind, int batchSize, Clock clock) {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.writeBehind = writeBehind;
+        this.batchSize = Math.max(1, batchSize);
+        this.clock = clock;
+    }
+
+    public boolean isWriteBehind() {
+        return writeBehind;
+    }
+
+    public void recordLogin(User user) {
+        Instant now = clock.instant();
+        if (!writeBehind || user.getId() == null) {
+            user.setLastLoginAt(now);
+            userRepository.save(user);
+            return;
+        }
+        pending.merge(user.getId(), now, (previous, current) -> current.isAfter(previous) ? current : previous);
+    }
+
+    /**
+     * Grava os horários pendentes em lotes de app.auth.last-login.batch-size.
+     *
+     * @return número de usuários atualizados
+     */
+    @Scheduled(fixedDelayString = "${app.auth.last-login.flush-interval-ms:5000}")
+    public int flush() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        List<Object[]> batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+        int flushed = 0;
+        for (Long userId : pending.keySet()) {
+            Instant lastLoginAt = pending.remove(userId);
+            if (lastLoginAt == null) {
+                continue;
+            }
+            Timestamp ts = Timestamp.from(lastLoginAt);
+            batch.add(new Object[]{ts, userId, ts});
+            if (batch.size() >= batchSize) {
+                flushed += write(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            flushed += write(batch);
+        }
+        log.debug("LastLoginTracker: last_login_at gravado para {} usuario(s)", flushed);
+        return flushed;
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        if (writeBehind) {
+            flush();
+        }
+    }
+
+    private int write(List<Object[]> batch) {
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, batch);
+            return batch.size();
+        } catch (RuntimeException ex) {
+            // Devolve ao buffer sem sobrescrever logins mais novos que chegaram nesse meio tempo
+            for (Object[] row : batch) {
+                Instant at = ((Timestamp) row[0]).toInstant();
+                pending.merge((Long) row[1], at, (current, failed) -> current.isAfter(failed) ? current : failed);
+            }
+            log.warn("LastLoginTracker: falha ao gravar lote de {} usuario(s), nova tentativa no proximo ciclo: {}",
+                    batch.size(), ex.getMessage());
+            return 0;
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.convivium.common.exception.BusinessException;
 import com.convivium.module.billing.service.PlatformInvoiceService;
 import com.convivium.module.condominium.entity.Condominium;
 import com.convivium.module.condominium.repository.CondominiumRepository;
+import com.convivium.security.TenantStateCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -27,6 +28,7 @@ public class AdminBillingController {
 
     private final CondominiumRepository condominiumRepository;
     private final PlatformInvoiceService platformInvoiceService;
+    private final TenantStateCache tenantStateCache;
 
     /**
      * Lista todos os condominios com informacoes de billing.
@@ -72,6 +74,7 @@ public class AdminBillingController {
         condo.setBlockedAt(Instant.now());
         condo.setBlockedReason(body.getOrDefault("reason", "Bloqueado pelo administrador"));
         condominiumRepository.save(condo);
+        tenantStateCache.refresh(condo);
 
         return ResponseEntity.ok(ApiResponse.ok(null, "Condominio bloqueado com sucesso"));
     }
@@ -88,6 +91,7 @@ public class AdminBillingController {
         condo.setBlockedAt(null);
         condo.setBlockedReason(null);
         condominiumRepository.save(condo);
+        tenantStateCache.refresh(condo);
 
         return ResponseEntity.ok(ApiResponse.ok(null, "Condominio desbloqueado com sucesso"));
     }
@@ -32,7 +32,7 @@ public class PaymentController {
      * Métodos na sessão: cartão, Apple Pay, Google Pay, Link, Boleto. Pix em breve.
      */
     @PostMapping("/checkout-session")
-    @PreAuthorize("hasRole('SINDICO') or hasRole('PLATFORM_ADMIN')")
+    @PreAuthorize("hasPermission(#condoId, 'SINDICO,PLATFORM_ADMIN')")
     public ResponseEntity<ApiResponse<Map<String, String>>> createCheckoutSession(
             @PathVariable Long condoId,
             @RequestBody(required = false) Map<String, Object> body) {
@@ -61,7 +61,7 @@ public class PaymentController {
      * O frontend usa este clientSecret com @stripe/stripe-js para exibir o checkout inline.
      */
     @PostMapping("/embedded-checkout")
-    @PreAuthorize("hasRole('SINDICO') or hasRole('PLATFORM_ADMIN')")
+    @PreAuthorize("hasPermission(#condoId, 'SINDICO,PLATFORM_ADMIN')")
     public ResponseEntity<ApiResponse<Map<String, String>>> createEmbeddedCheckout(
             @PathVariable Long condoId,
             @RequestBody(required = false) Map<String, Object> body) {
@@ -89,8 +89,8 @@ public class PaymentController {
      * Retorna a publishable key do Stripe para uso no frontend.
      */
     @GetMapping("/stripe-key")
-    @PreAuthorize("hasRole('SINDICO') or hasRole('PLATFORM_ADMIN')")
-    public ResponseEntity<ApiResponse<Map<String, String>>> getStripeKey() {
+    @PreAuthorize("hasPermission(#condoId, 'SINDICO,PLATFORM_ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, String>>> getStripeKey(@PathVariable Long condoId) {
         String key = stripeService.getPublishableKey();
         return ResponseEntity.ok(ApiResponse.ok(Map.of("publishableKey", key)));
     }
@@ -100,7 +100,7 @@ public class PaymentController {
      * Atualizadas via webhook Stripe quando o pagamento é confirmado.
      */
     @GetMapping("/invoices")
-    @PreAuthorize("hasRole('SINDICO') or hasRole('PLATFORM_ADMIN')")
+    @PreAuthorize("hasPermission(#condoId, 'SINDICO,PLATFORM_ADMIN')")
     public ResponseEntity<ApiResponse<List<PlatformInvoiceService.PlatformInvoiceDto>>> listInvoices(
             @PathVariable Long condoId) {
 
@@ -4,6 +4,7 @@ import com.convivium.module.billing.entity.PlatformInvoice;
 import com.convivium.module.billing.repository.PlatformInvoiceRepository;
 import com.convivium.module.condominium.entity.Condominium;
 import com.convivium.module.condominium.repository.CondominiumRepository;
+import com.convivium.security.TenantStateCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -37,6 +38,7 @@ public class InvoiceScheduler {
 
     private final CondominiumRepository condominiumRepository;
     private final PlatformInvoiceRepository platformInvoiceRepository;
+    private final TenantStateCache tenantStateCache;
 
     /**
      * Roda diariamente as 8h (horario do servidor).
@@ -122,6 +124,7 @@ public class InvoiceScheduler {
                     condo.setBlockedAt(Instant.now());
                     condo.setBlockedReason("Bloqueio automatico por inadimplencia");
                     condominiumRepository.save(condo);
+                    tenantStateCache.refresh(condo);
                     log.info("InvoiceScheduler: Condominio {} bloqueado por inadimplencia", condo.getId());
                 }
             }
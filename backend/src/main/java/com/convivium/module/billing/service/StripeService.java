@@ -8,6 +8,7 @@ import com.convivium.module.condominium.entity.Condominium;
 import com.convivium.module.condominium.entity.Plan;
 import com.convivium.module.condominium.repository.CondominiumRepository;
 import com.convivium.module.condominium.repository.PlanRepository;
+import com.convivium.security.TenantStateCache;
 import com.stripe.exception.StripeException;
 import com.stripe.model.checkout.Session;
 import com.stripe.param.checkout.SessionCreateParams;
@@ -31,6 +32,7 @@ public class StripeService {
     private final CondominiumRepository condominiumRepository;
     private final PlanRepository planRepository;
     private final PlatformInvoiceRepository platformInvoiceRepository;
+    private final TenantStateCache tenantStateCache;
 
     /**
      * Cria uma sessão de Checkout Stripe para pagamento da mensalidade (um único pagamento).
@@ -229,6 +231,7 @@ public class StripeService {
                 condo.setBlockedAt(null);
                 condo.setBlockedReason(null);
                 condominiumRepository.save(condo);
+                tenantStateCache.refresh(condo);
                 log.info("Condominium {} unblocked after payment (session {})", condo.getId(), sessionId);
             }
 
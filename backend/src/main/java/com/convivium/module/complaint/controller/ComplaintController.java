@@ -7,9 +7,11 @@ import com.convivium.module.complaint.dto.ComplaintDetailResponse;
 import com.convivium.module.complaint.dto.ComplaintListResponse;
 import com.convivium.module.complaint.dto.ComplaintResponseCreateRequest;
 import com.convivium.module.complaint.dto.ComplaintResponseDto;
+import com.convivium.module.complaint.dto.ComplaintSearchResult;
 import com.convivium.module.complaint.dto.ComplaintStatusUpdateRequest;
 import com.convivium.module.complaint.entity.ComplaintStatus;
 import com.convivium.module.complaint.service.ComplaintService;
+import com.convivium.module.user.entity.Role;
 import com.convivium.security.CurrentUser;
 import com.convivium.security.UserPrincipal;
 import jakarta.validation.Valid;
@@ -19,7 +21,6 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -39,24 +40,48 @@ public class ComplaintController {
 
     /** Lista todas as denuncias do condominio - apenas sindico, sub, porteiro, admin. Morador usa GET /my */
     @GetMapping
-    @PreAuthorize("hasAnyRole('SINDICO', 'SUB_SINDICO', 'PORTEIRO') or hasRole('PLATFORM_ADMIN')")
+    @PreAuthorize("hasPermission(#condoId, 'SINDICO,SUB_SINDICO,PORTEIRO,PLATFORM_ADMIN')")
     public ResponseEntity<ApiResponse<PageResponse<ComplaintListResponse>>> listComplaints(
             @PathVariable Long condoId,
             @RequestParam(required = false) String status,
-            @PageableDefault(size = 20) Pageable pageable) {
+            @PageableDefault(size = 20) Pageable pageable,
+            @RequestParam(required = false) String cursor) {
 
         ComplaintStatus complaintStatus = null;
         if (status != null && !status.isBlank()) {
             complaintStatus = ComplaintStatus.valueOf(status.toUpperCase());
         }
 
-        Page<ComplaintListResponse> page = complaintService.listComplaints(condoId, complaintStatus, pageable);
-        return ResponseEntity.ok(ApiResponse.ok(PageResponse.from(page)));
+        PageResponse<ComplaintListResponse> page = complaintService.listComplaints(condoId, complaintStatus, pageable, cursor);
+        return ResponseEntity.ok(ApiResponse.ok(page));
+    }
+
+    /**
+     * Busca por texto em titulo e descricao, ordenada por relevancia - mesma visibilidade da listagem.
+     * cursor (opcional): nextCursor da pagina anterior.
+     */
+    @GetMapping("/search")
+    @PreAuthorize("hasPermission(#condoId, 'SINDICO,SUB_SINDICO,PORTEIRO,PLATFORM_ADMIN')")
+    public ResponseEntity<ApiResponse<PageResponse<ComplaintSearchResult>>> searchComplaints(
+            @PathVariable Long condoId,
+            @RequestParam("q") String query,
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor) {
+
+        ComplaintStatus complaintStatus = null;
+        if (status != null && !status.isBlank()) {
+            complaintStatus = ComplaintStatus.valueOf(status.toUpperCase());
+        }
+
+        PageResponse<ComplaintSearchResult> results = complaintService.searchComplaints(
+                condoId, query, complaintStatus, size, cursor);
+        return ResponseEntity.ok(ApiResponse.ok(results));
     }
 
     /** Morador e gestao podem criar denuncia */
     @PostMapping
-    @PreAuthorize("hasAnyRole('SINDICO', 'SUB_SINDICO', 'PORTEIRO', 'MORADOR') or hasRole('PLATFORM_ADMIN')")
+    @PreAuthorize("hasPermission(#condoId, 'SINDICO,SUB_SINDICO,PORTEIRO,MORADOR,PLATFORM_ADMIN')")
     public ResponseEntity<ApiResponse<ComplaintListResponse>> createComplaint(
             @PathVariable Long condoId,
             @CurrentUser UserPrincipal currentUser,
@@ -67,14 +92,14 @@ public class ComplaintController {
     }
 
     @GetMapping("/{complaintId}")
-    @PreAuthorize("hasAnyRole('SINDICO', 'SUB_SINDICO', 'PORTEIRO', 'MORADOR') or hasRole('PLATFORM_ADMIN')")
+    @PreAuthorize("hasPermission(#condoId, 'SINDICO,SUB_SINDICO,PORTEIRO,MORADOR,PLATFORM_ADMIN')")
     public ResponseEntity<ApiResponse<ComplaintDetailResponse>> getComplaint(
             @PathVariable Long condoId,
             @PathVariable Long complaintId,
             @CurrentUser UserPrincipal currentUser) {
 
-        boolean canViewInternal = hasAnyAuthority(currentUser, "ROLE_SINDICO", "ROLE_SUB_SINDICO",
-                "ROLE_PORTEIRO", "ROLE_PLATFORM_ADMIN");
+        boolean canViewInternal = currentUser.hasAnyRole(Role.SINDICO, Role.SUB_SINDICO, Role.PORTEIRO)
+                || currentUser.isPlatformAdmin();
         boolean isMoradorOnly = !canViewInternal;
 
         ComplaintDetailResponse response = complaintService.getComplaintFiltered(
@@ -83,7 +108,7 @@ public class ComplaintController {
     }
 
     @PostMapping("/{complaintId}/responses")
-    @PreAuthorize("hasAnyRole('SINDICO', 'SUB_SINDICO', 'PORTEIRO') or hasRole('PLATFORM_ADMIN')")
+    @PreAuthorize("hasPermission(#condoId, 'SINDICO,SUB_SINDICO,PORTEIRO,PLATFORM_ADMIN')")
     public ResponseEntity<ApiResponse<ComplaintResponseDto>> addResponse(
             @PathVariable Long condoId,
             @PathVariable Long complaintId,
@@ -95,7 +120,7 @@ public class ComplaintController {
     }
 
     @PatchMapping("/{complaintId}/status")
-    @PreAuthorize("hasAnyRole('SINDICO', 'SUB_SINDICO', 'PORTEIRO') or hasRole('PLATFORM_ADMIN')")
+    @PreAuthorize("hasPermission(#condoId, 'SINDICO,SUB_SINDICO,PORTEIRO,PLATFORM_ADMIN')")
     public ResponseEntity<ApiResponse<Void>> updateStatus(
             @PathVariable Long condoId,
             @PathVariable Long complaintId,
@@ -107,7 +132,7 @@ public class ComplaintController {
 
     /** Minhas denúncias (morador). Filtro por status opcional. Rota /my e /mine. */
     @GetMapping({ "/my", "/mine" })
-    @PreAuthorize("hasAnyRole('SINDICO', 'SUB_SINDICO', 'PORTEIRO', 'MORADOR') or hasRole('PLATFORM_ADMIN')")
+    @PreAuthorize("hasPermission(#condoId, 'SINDICO,SUB_SINDICO,PORTEIRO,MORADOR,PLATFORM_ADMIN')")
     public ResponseEntity<ApiResponse<PageResponse<ComplaintListResponse>>> getMyComplaints(
             @PathVariable Long condoId,
             @CurrentUser UserPrincipal currentUser,
@@ -121,15 +146,4 @@ public class ComplaintController {
         Page<ComplaintListResponse> page = complaintService.getMyComplaints(condoId, currentUser.getId(), complaintStatus, pageable);
         return ResponseEntity.ok(ApiResponse.ok(PageResponse.from(page)));
     }
-
-    private boolean hasAnyAuthority(UserPrincipal user, String... authorities) {
-        for (String authority : authorities) {
-            for (GrantedAuthority ga : user.getAuthorities()) {
-                if (ga.getAuthority().equals(authority)) {
-                    return true;
-                }
-            }
-        }
-        return false;
-    }
 }
@@ -0,0 +1,25 @@
+package com.convivium.module.complaint.dto;
+
+import com.convivium.module.complaint.entity.ComplaintCategory;
+import com.convivium.module.complaint.entity.ComplaintStatus;
+
+import java.time.Instant;
+
+/**
+ * Linha das listagens de denúncias lida direto pelo ComplaintRepository (JPQL com LEFT JOIN
+ * em denunciante e unidade e a contagem de respostas em subconsulta), sem carregar as
+ * associações LAZY nem o texto das respostas.
+ */
+public record ComplaintListRow(
+        Long id,
+        String complainantName,
+        boolean anonymous,
+        ComplaintCategory category,
+        String title,
+        ComplaintStatus status,
+        String priority,
+        String unitIdentifier,
+        Instant createdAt,
+        long responseCount
+) {
+}
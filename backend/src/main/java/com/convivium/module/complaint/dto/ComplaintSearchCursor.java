@@ -0,0 +1,28 @@
+package com.convivium.module.complaint.dto;
+
+import com.convivium.common.dto.CursorCodec;
+
+/**
+ * Posição nos resultados da busca (ordem: rank desc, id desc).
+ * Trafega como texto opaco no parâmetro cursor / campo nextCursor (ver CursorCodec).
+ * O rank vai com todos os dígitos do float para a comparação no banco ser exata.
+ */
+public record ComplaintSearchCursor(float rank, long id) {
+
+    public String encode() {
+        return CursorCodec.encode(Float.toString(rank), id);
+    }
+
+    /**
+     * @throws IllegalArgumentException se o texto não for um cursor gerado por {@link #encode()}
+     */
+    public static ComplaintSearchCursor decode(String value) {
+        return CursorCodec.decode(value, 2, parts -> {
+            float rank = Float.parseFloat(parts[0]);
+            if (!Float.isFinite(rank)) {
+                throw new IllegalArgumentException("Cursor invalido");
+            }
+            return new ComplaintSearchCursor(rank, Long.parseLong(parts[1]));
+        });
+    }
+}
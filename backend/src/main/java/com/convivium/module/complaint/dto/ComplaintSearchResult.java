@@ -0,0 +1,21 @@
+package com.convivium.module.complaint.dto;
+
+/**
+ * Denúncia encontrada pela busca. titleHighlight e snippet são HTML seguro: o texto vem
+ * escapado e só os termos encontrados ficam entre &lt;mark&gt; e &lt;/mark&gt;.
+ */
+public record ComplaintSearchResult(
+        Long id,
+        String complainantName,
+        boolean isAnonymous,
+        String category,
+        String title,
+        String titleHighlight,
+        String snippet,
+        String status,
+        String priority,
+        String unitIdentifier,
+        String createdAt,
+        float rank
+) {
+}
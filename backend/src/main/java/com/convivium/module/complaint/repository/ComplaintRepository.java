@@ -1,10 +1,14 @@
 package com.convivium.module.complaint.repository;
 
+import com.convivium.module.complaint.dto.ComplaintListRow;
 import com.convivium.module.complaint.entity.Complaint;
 import com.convivium.module.complaint.entity.ComplaintStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
@@ -14,25 +18,80 @@ import java.util.Optional;
 @Repository
 public interface ComplaintRepository extends JpaRepository<Complaint, Long> {
 
-    Page<Complaint> findByCondominiumId(Long condominiumId, Pageable pageable);
+    /** Colunas de ComplaintListResponse em um único SELECT (listagens sem N+1). */
+    String LIST_ROW_SELECT = """
+            SELECT new com.convivium.module.complaint.dto.ComplaintListRow(
+                c.id, cp.name, c.isAnonymous, c.category, c.title, c.status, c.priority, u.identifier,
+                c.createdAt,
+                (SELECT COUNT(r) FROM ComplaintResponse r WHERE r.complaint.id = c.id))
+            FROM Complaint c
+            LEFT JOIN c.complainant cp
+            LEFT JOIN c.unit u
+            """;
 
-    Page<Complaint> findByCondominiumIdAndStatus(Long condominiumId, ComplaintStatus status, Pageable pageable);
+    @Query(value = LIST_ROW_SELECT + "WHERE c.condominiumId = :condominiumId",
+            countQuery = "SELECT COUNT(c) FROM Complaint c WHERE c.condominiumId = :condominiumId")
+    Page<ComplaintListRow> findListRowsByCondominiumId(@Param("condominiumId") Long condominiumId, Pageable pageable);
 
-    Page<Complaint> findByCondominiumIdAndComplainantId(Long condominiumId, Long complainantId, Pageable pageable);
+    @Query(value = LIST_ROW_SELECT + "WHERE c.condominiumId = :condominiumId AND c.status = :status",
+            countQuery = "SELECT COUNT(c) FROM Complaint c WHERE c.condominiumId = :condominiumId AND c.status = :status")
+    Page<ComplaintListRow> findListRowsByCondominiumIdAndStatus(@Param("condominiumId") Long condominiumId,
+                                                               @Param("status") ComplaintStatus status,
+                                                               Pageable pageable);
 
-    Page<Complaint> findByCondominiumIdAndComplainantIdAndStatus(Long condominiumId, Long complainantId, ComplaintStatus status, Pageable pageable);
+    @Query(value = LIST_ROW_SELECT + "WHERE c.condominiumId = :condominiumId AND cp.id = :complainantId",
+            countQuery = """
+                    SELECT COUNT(c) FROM Complaint c
+                    WHERE c.condominiumId = :condominiumId AND c.complainant.id = :complainantId
+                    """)
+    Page<ComplaintListRow> findListRowsByCondominiumIdAndComplainantId(@Param("condominiumId") Long condominiumId,
+                                                                      @Param("complainantId") Long complainantId,
+                                                                      Pageable pageable);
+
+    @Query(value = LIST_ROW_SELECT + "WHERE c.condominiumId = :condominiumId AND cp.id = :complainantId AND c.status = :status",
+            countQuery = """
+                    SELECT COUNT(c) FROM Complaint c
+                    WHERE c.condominiumId = :condominiumId AND c.complainant.id = :complainantId AND c.status = :status
+                    """)
+    Page<ComplaintListRow> findListRowsByCondominiumIdAndComplainantIdAndStatus(@Param("condominiumId") Long condominiumId,
+                                                                               @Param("complainantId") Long complainantId,
+                                                                               @Param("status") ComplaintStatus status,
+                                                                               Pageable pageable);
+
+    /** Depois do cursor, na ordem de CursorPage.NEWEST_FIRST (keyset, sem OFFSET nem COUNT). */
+    String KEYSET_AFTER = """
+             AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id))
+            ORDER BY c.createdAt DESC, c.id DESC
+            """;
+
+    @Query(LIST_ROW_SELECT + "WHERE c.condominiumId = :condominiumId" + KEYSET_AFTER)
+    List<ComplaintListRow> findListRowsByCondominiumIdAfter(@Param("condominiumId") Long condominiumId,
+                                                           @Param("createdAt") Instant createdAt,
+                                                           @Param("id") Long id,
+                                                           Limit limit);
+
+    @Query(LIST_ROW_SELECT + "WHERE c.condominiumId = :condominiumId AND c.status = :status" + KEYSET_AFTER)
+    List<ComplaintListRow> findListRowsByCondominiumIdAndStatusAfter(@Param("condominiumId") Long condominiumId,
+                                                                    @Param("status") ComplaintStatus status,
+                                                                    @Param("createdAt") Instant createdAt,
+                                                                    @Param("id") Long id,
+                                                                    Limit limit);
 
     Optional<Complaint> findByIdAndCondominiumId(Long id, Long condominiumId);
 
+    /** Denúncia com denunciante, unidade e anexos em um único SELECT (tela de detalhe). */
+    @Query("""
+            SELECT c FROM Complaint c
+            LEFT JOIN FETCH c.complainant
+            LEFT JOIN FETCH c.unit
+            LEFT JOIN FETCH c.attachments
+            WHERE c.id = :id AND c.condominiumId = :condominiumId
+            """)
+    Optional<Complaint> findDetailByIdAndCondominiumId(@Param("id") Long id, @Param("condominiumId") Long condominiumId);
+
     long countByCondominiumIdAndStatus(Long condominiumId, ComplaintStatus status);
 
     long countByCondominiumIdAndUnit_IdAndStatus(Long condominiumId, Long unitId, ComplaintStatus status);
 
     long countByCondominiumIdAndComplainantIdAndStatus(Long condominiumId, Long complainantId, ComplaintStatus status);
-
-    List<Complaint> findByCondominiumIdAndUnit_IdAndCreatedAtGreaterThanEqualOrderByCreatedAtDesc(
-            Long condominiumId, Long unitId, Instant since);
-
-    List<Complaint> findByCondominiumIdAndComplainantIdAndCreatedAtGreaterThanEqualOrderByCreatedAtDesc(
-            Long condominiumId, Long complainantId, Instant since);
 }
@@ -2,6 +2,8 @@ package com.convivium.module.complaint.repository;
 
 import com.convivium.module.complaint.entity.ComplaintResponse;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,5 +11,14 @@ import java.util.List;
 @Repository
 public interface ComplaintResponseRepository extends JpaRepository<ComplaintResponse, Long> {
 
-    List<ComplaintResponse> findByComplaintIdOrderByCreatedAtAsc(Long complaintId);
+    /** Respostas do detalhe, em ordem cronológica, com quem respondeu; internas só se includeInternal. */
+    @Query("""
+            SELECT r FROM ComplaintResponse r
+            LEFT JOIN FETCH r.responder
+            WHERE r.complaint.id = :complaintId
+              AND (:includeInternal = true OR r.isInternal = false)
+            ORDER BY r.createdAt ASC, r.id ASC
+            """)
+    List<ComplaintResponse> findForDetail(@Param("complaintId") Long complaintId,
+                                          @Param("includeInternal") boolean includeInternal);
 }
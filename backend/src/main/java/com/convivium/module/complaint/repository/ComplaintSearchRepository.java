@@ -0,0 +1,114 @@
+package com.convivium.module.complaint.repository;
+
+import com.convivium.module.complaint.dto.ComplaintSearchCursor;
+import com.convivium.module.complaint.entity.ComplaintCategory;
+import com.convivium.module.complaint.entity.ComplaintStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Busca textual em denúncias sobre complaints.search_vector (V33, GIN, dicionário portuguese).
+ * SQL exclusivo do PostgreSQL (tsvector, websearch_to_tsquery, ts_headline).
+ *
+ * O texto do usuário vai para websearch_to_tsquery, que aceita a sintaxe de buscador
+ * ("vazamento garagem", "barulho -obra", "\"portão eletrônico\"") e nunca dá erro de sintaxe.
+ * O ranking (ts_rank_cd, normalizado pelo tamanho do documento) pondera título acima da
+ * descrição. Os trechos com destaque (ts_headline, caro) só são gerados para as linhas da
+ * página, depois do LIMIT.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ComplaintSearchRepository {
+
+    /**
+     * Delimitadores dos termos encontrados em titleHighlight/snippet; o serviço os troca por &lt;mark&gt;.
+     * Digitados pelo usuário no título/descrição, são removidos antes do ts_headline (translate):
+     * no resultado, todo delimitador veio do destaque.
+     */
+    public static final char HIGHLIGHT_START = '\u0001';
+    public static final char HIGHLIGHT_STOP = '\u0002';
+    private static final String HIGHLIGHT_MARKERS = String.valueOf(HIGHLIGHT_START) + HIGHLIGHT_STOP;
+
+    private static final String TITLE_OPTIONS =
+            "StartSel=" + HIGHLIGHT_START + ", StopSel=" + HIGHLIGHT_STOP + ", HighlightAll=true";
+    private static final String SNIPPET_OPTIONS =
+            "StartSel=" + HIGHLIGHT_START + ", StopSel=" + HIGHLIGHT_STOP + ", MaxWords=35, MinWords=15, MaxFragments=2";
+
+    /** Linha do resultado; título e trecho com os delimitadores de destaque. */
+    public record Row(long id, String complainantName, boolean anonymous, ComplaintCategory category,
+                      String title, String titleHighlight, String snippet, ComplaintStatus status,
+                      String priority, String unitIdentifier, Instant createdAt, float rank) {}
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Até limit resultados do condomínio para query, depois de after (exclusivo) na ordem rank desc, id desc.
+     * status opcional.
+     */
+    public List<Row> search(Long condominiumId, String query, ComplaintStatus status,
+                            ComplaintSearchCursor after, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("condominiumId", condominiumId)
+                .addValue("query", query)
+                .addValue("titleOptions", TITLE_OPTIONS)
+                .addValue("snippetOptions", SNIPPET_OPTIONS)
+                .addValue("markers", HIGHLIGHT_MARKERS)
+                .addValue("limit", limit);
+        String statusFilter = "";
+        if (status != null) {
+            statusFilter = " AND c.status = :status";
+            params.addValue("status", status.name());
+        }
+        String keyset = "";
+        if (after != null) {
+            keyset = " WHERE (ranked.rank < CAST(:cursorRank AS real)"
+                    + " OR (ranked.rank = CAST(:cursorRank AS real) AND ranked.id < :cursorId))";
+            params.addValue("cursorRank", after.rank())
+                    .addValue("cursorId", after.id());
+        }
+        String sql = """
+                WITH q AS (SELECT websearch_to_tsquery('portuguese', :query) AS query),
+                ranked AS (
+                    SELECT c.id, ts_rank_cd(c.search_vector, q.query, 1) AS rank
+                    FROM complaints c, q
+                    WHERE c.condominium_id = :condominiumId AND c.search_vector @@ q.query%s
+                ),
+                page AS (
+                    SELECT ranked.id, ranked.rank FROM ranked%s
+                    ORDER BY ranked.rank DESC, ranked.id DESC
+                    LIMIT :limit
+                )
+                SELECT c.id, u.name AS complainant_name, c.is_anonymous, c.category, c.title,
+                       ts_headline('portuguese', translate(c.title, :markers, ''), q.query, :titleOptions)
+                           AS title_highlight,
+                       ts_headline('portuguese', translate(coalesce(c.description, ''), :markers, ''), q.query,
+                           :snippetOptions) AS snippet,
+                       c.status, c.priority, un.identifier AS unit_identifier, c.created_at, page.rank
+                FROM page
+                JOIN complaints c ON c.id = page.id
+                LEFT JOIN users u ON u.id = c.complainant_id
+                LEFT JOIN units un ON un.id = c.unit_id
+                CROSS JOIN q
+                ORDER BY page.rank DESC, page.id DESC
+                """.formatted(statusFilter, keyset);
+
+        return jdbcTemplate.query(sql, params, (rs, i) -> new Row(
+                rs.getLong("id"),
+                rs.getString("complainant_name"),
+                rs.getBoolean("is_anonymous"),
+                ComplaintCategory.valueOf(rs.getString("category")),
+                rs.getString("title"),
+                rs.getString("title_highlight"),
+                rs.getString("snippet"),
+                ComplaintStatus.valueOf(rs.getString("status")),
+                rs.getString("priority"),
+                rs.getString("unit_identifier"),
+                rs.getTimestamp("created_at").toInstant(),
+                rs.getFloat("rank")));
+    }
+}
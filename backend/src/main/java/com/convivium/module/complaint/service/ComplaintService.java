@@ -1,13 +1,19 @@
 package com.convivium.module.complaint.service;
 
+import com.convivium.common.dto.CursorCodec;
+import com.convivium.common.dto.CursorPage;
+import com.convivium.common.dto.PageResponse;
 import com.convivium.common.exception.BusinessException;
 import com.convivium.common.exception.ResourceNotFoundException;
 import com.convivium.module.complaint.dto.ComplaintAttachmentDto;
 import com.convivium.module.complaint.dto.ComplaintCreateRequest;
 import com.convivium.module.complaint.dto.ComplaintDetailResponse;
 import com.convivium.module.complaint.dto.ComplaintListResponse;
+import com.convivium.module.complaint.dto.ComplaintListRow;
 import com.convivium.module.complaint.dto.ComplaintResponseCreateRequest;
 import com.convivium.module.complaint.dto.ComplaintResponseDto;
+import com.convivium.module.complaint.dto.ComplaintSearchCursor;
+import com.convivium.module.complaint.dto.ComplaintSearchResult;
 import com.convivium.module.complaint.entity.Complaint;
 import com.convivium.module.complaint.entity.ComplaintAttachment;
 import com.convivium.module.complaint.entity.ComplaintCategory;
@@ -15,9 +21,14 @@ import com.convivium.module.complaint.entity.ComplaintResponse;
 import com.convivium.module.complaint.entity.ComplaintStatus;
 import com.convivium.module.complaint.repository.ComplaintRepository;
 import com.convivium.module.complaint.repository.ComplaintResponseRepository;
+import com.convivium.module.complaint.repository.ComplaintSearchRepository;
 import com.convivium.module.condominium.entity.Unit;
 import com.convivium.module.condominium.repository.UnitRepository;
+import com.convivium.module.dashboard.service.DashboardCounterService;
+import com.convivium.module.user.dto.UserRoleRow;
+import com.convivium.module.user.entity.Role;
 import com.convivium.module.user.entity.User;
+import com.convivium.module.user.repository.UserCondominiumRoleRepository;
 import com.convivium.module.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -25,10 +36,14 @@ import org.springframework.security.access.AccessDeniedException;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.util.HtmlUtils;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -39,6 +54,11 @@ public class ComplaintService {
     private final ComplaintResponseRepository complaintResponseRepository;
     private final UserRepository userRepository;
     private final UnitRepository unitRepository;
+    private final UserCondominiumRoleRepository userCondominiumRoleRepository;
+    private final ComplaintSearchRepository complaintSearchRepository;
+    private final DashboardCounterService dashboardCounterService;
+
+    private static final int MAX_SEARCH_QUERY_LENGTH = 200;
 
     private static final Set<String> VALID_STATUS_TRANSITIONS = Set.of(
             "OPEN->IN_REVIEW",
@@ -52,92 +72,88 @@ public class ComplaintService {
             "RESOLVED->CLOSED"
     );
 
+    /**
+     * Sem cursor: página numerada (mais recentes primeiro, salvo sort pedido), com nextCursor.
+     * Com cursor: próxima página por keyset, sem contagem (ver CursorPage).
+     */
     @Transactional(readOnly = true)
-    public Page<ComplaintListResponse> listComplaints(Long condoId, ComplaintStatus status, Pageable pageable) {
-        Page<Complaint> complaints;
+    public PageResponse<ComplaintListResponse> listComplaints(Long condoId, ComplaintStatus status,
+                                                             Pageable pageable, String cursor) {
+        CursorPage.Cursor after = CursorPage.after(cursor);
+        if (after != null) {
+            int size = pageable.getPageSize();
+            List<ComplaintListRow> rows = status == null
+                    ? complaintRepository.findListRowsByCondominiumIdAfter(condoId, after.createdAt(), after.id(),
+                            CursorPage.fetchLimit(size))
+                    : complaintRepository.findListRowsByCondominiumIdAndStatusAfter(condoId, status, after.createdAt(),
+                            after.id(), CursorPage.fetchLimit(size));
+            return CursorPage.of(rows, size, ComplaintService::position, this::toListResponse).toPageResponse();
+        }
+        Pageable ordered = CursorPage.newestFirst(pageable);
+        Page<ComplaintListRow> complaints;
         if (status == null) {
-            complaints = complaintRepository.findByCondominiumId(condoId, pageable);
+            complaints = complaintRepository.findListRowsByCondominiumId(condoId, ordered);
         } else {
-            complaints = complaintRepository.findByCondominiumIdAndStatus(condoId, status, pageable);
+            complaints = complaintRepository.findListRowsByCondominiumIdAndStatus(condoId, status, ordered);
         }
-        return complaints.map(this::toListResponse);
+        return CursorPage.toPageResponse(complaints, ComplaintService::position, this::toListResponse);
     }
 
+    /**
+     * Busca textual (título e descrição) nas denúncias do condomínio, da mais para a menos
+     * relevante. Paginação só por cursor: nextCursor da resposta anterior; sem contagem
+     * (totalElements e totalPages = -1).
+     */
     @Transactional(readOnly = true)
-    public ComplaintDetailResponse getComplaint(Long condoId, Long complaintId) {
-        Complaint complaint = findComplaintOrThrow(condoId, complaintId);
-
-        List<ComplaintResponse> responses = complaintResponseRepository
-                .findByComplaintIdOrderByCreatedAtAsc(complaint.getId());
-
-        List<ComplaintResponseDto> responseDtos = responses.stream()
-                .map(this::toResponseDto)
-                .toList();
-
-        List<ComplaintAttachmentDto> attachmentDtos = complaint.getAttachments().stream()
-                .map(this::toAttachmentDto)
-                .toList();
-
-        String complainantName = resolveComplainantName(complaint);
-        String unitIdentifier = complaint.getUnit() != null ? complaint.getUnit().getIdentifier() : null;
+    public PageResponse<ComplaintSearchResult> searchComplaints(Long condoId, String query, ComplaintStatus status,
+                                                               int size, String cursor) {
+        String text = query != null ? query.strip() : "";
+        if (text.isEmpty()) {
+            throw new BusinessException("Informe o texto da busca", "SEARCH_QUERY_REQUIRED");
+        }
+        if (text.length() > MAX_SEARCH_QUERY_LENGTH) {
+            throw new BusinessException("Texto da busca muito longo (maximo " + MAX_SEARCH_QUERY_LENGTH + " caracteres)",
+                    "SEARCH_QUERY_TOO_LONG");
+        }
+        int pageSize = CursorPage.pageSize(size);
+        ComplaintSearchCursor after = CursorCodec.fromRequest(cursor, ComplaintSearchCursor::decode);
+
+        // Um item a mais indica se existe próxima página
+        List<ComplaintSearchRepository.Row> rows = complaintSearchRepository.search(condoId, text, status, after, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<ComplaintSearchRepository.Row> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+
+        PageResponse<ComplaintSearchResult> response = new PageResponse<>();
+        response.setContent(pageRows.stream().map(ComplaintService::toSearchResult).toList());
+        response.setPage(0);
+        response.setSize(pageSize);
+        response.setTotalElements(-1);
+        response.setTotalPages(-1);
+        response.setLast(!hasMore);
+        if (hasMore) {
+            ComplaintSearchRepository.Row last = pageRows.get(pageRows.size() - 1);
+            response.setNextCursor(new ComplaintSearchCursor(last.rank(), last.id()).encode());
+        }
+        return response;
+    }
 
-        return new ComplaintDetailResponse(
-                complaint.getId(),
-                complainantName,
-                complaint.isAnonymous(),
-                complaint.getCategory().name(),
-                complaint.getTitle(),
-                complaint.getDescription(),
-                complaint.getStatus().name(),
-                complaint.getPriority(),
-                unitIdentifier,
-                complaint.getCreatedAt() != null ? complaint.getCreatedAt().toString() : null,
-                complaint.getUpdatedAt() != null ? complaint.getUpdatedAt().toString() : null,
-                responseDtos,
-                attachmentDtos
-        );
+    @Transactional(readOnly = true)
+    public ComplaintDetailResponse getComplaint(Long condoId, Long complaintId) {
+        Complaint complaint = findComplaintDetailOrThrow(condoId, complaintId);
+        return toDetailResponse(condoId, complaint, true);
     }
 
     @Transactional(readOnly = true)
     public ComplaintDetailResponse getComplaintFiltered(Long condoId, Long complaintId, boolean canViewInternal,
                                                         Long currentUserId, boolean isMoradorOnly) {
-        Complaint complaint = findComplaintOrThrow(condoId, complaintId);
+        Complaint complaint = findComplaintDetailOrThrow(condoId, complaintId);
 
         if (isMoradorOnly && (complaint.getComplainant() == null
                 || !complaint.getComplainant().getId().equals(currentUserId))) {
             throw new AccessDeniedException("So pode ver suas proprias denuncias.");
         }
 
-        List<ComplaintResponse> responses = complaintResponseRepository
-                .findByComplaintIdOrderByCreatedAtAsc(complaint.getId());
-
-        List<ComplaintResponseDto> responseDtos = responses.stream()
-                .filter(r -> canViewInternal || !r.isInternal())
-                .map(this::toResponseDto)
-                .toList();
-
-        List<ComplaintAttachmentDto> attachmentDtos = complaint.getAttachments().stream()
-                .map(this::toAttachmentDto)
-                .toList();
-
-        String complainantName = resolveComplainantName(complaint);
-        String unitIdentifier = complaint.getUnit() != null ? complaint.getUnit().getIdentifier() : null;
-
-        return new ComplaintDetailResponse(
-                complaint.getId(),
-                complainantName,
-                complaint.isAnonymous(),
-                complaint.getCategory().name(),
-                complaint.getTitle(),
-                complaint.getDescription(),
-                complaint.getStatus().name(),
-                complaint.getPriority(),
-                unitIdentifier,
-                complaint.getCreatedAt() != null ? complaint.getCreatedAt().toString() : null,
-                complaint.getUpdatedAt() != null ? complaint.getUpdatedAt().toString() : null,
-                responseDtos,
-                attachmentDtos
-        );
+        return toDetailResponse(condoId, complaint, canViewInternal);
     }
 
     public ComplaintListResponse createComplaint(Long condoId, Long userId, ComplaintCreateRequest request) {
@@ -171,6 +187,7 @@ public class ComplaintService {
                 .build();
 
         complaint = complaintRepository.save(complaint);
+        dashboardCounterService.onComplaintStatusChange(condoId, null, ComplaintStatus.OPEN);
         return toListResponse(complaint);
     }
 
@@ -190,6 +207,7 @@ public class ComplaintService {
 
         response = complaintResponseRepository.save(response);
 
+        ComplaintStatus previousStatus = complaint.getStatus();
         if (complaint.getStatus() == ComplaintStatus.OPEN) {
             complaint.setStatus(ComplaintStatus.IN_REVIEW);
         }
@@ -198,7 +216,8 @@ public class ComplaintService {
         }
 
         complaintRepository.save(complaint);
-        return toResponseDto(response);
+        dashboardCounterService.onComplaintStatusChange(condoId, previousStatus, complaint.getStatus());
+        return toResponseDto(response, responderRoles(condoId, Set.of(responderId)).get(responderId));
     }
 
     public void updateStatus(Long condoId, Long complaintId, String newStatus) {
@@ -219,6 +238,7 @@ public class ComplaintService {
             );
         }
 
+        ComplaintStatus previousStatus = complaint.getStatus();
         complaint.setStatus(targetStatus);
 
         if (targetStatus == ComplaintStatus.RESOLVED) {
@@ -229,13 +249,14 @@ public class ComplaintService {
         }
 
         complaintRepository.save(complaint);
+        dashboardCounterService.onComplaintStatusChange(condoId, previousStatus, targetStatus);
     }
 
     @Transactional(readOnly = true)
     public Page<ComplaintListResponse> getMyComplaints(Long condoId, Long userId, ComplaintStatus status, Pageable pageable) {
-        Page<Complaint> complaints = status == null
-                ? complaintRepository.findByCondominiumIdAndComplainantId(condoId, userId, pageable)
-                : complaintRepository.findByCondominiumIdAndComplainantIdAndStatus(condoId, userId, status, pageable);
+        Page<ComplaintListRow> complaints = status == null
+                ? complaintRepository.findListRowsByCondominiumIdAndComplainantId(condoId, userId, pageable)
+                : complaintRepository.findListRowsByCondominiumIdAndComplainantIdAndStatus(condoId, userId, status, pageable);
         return complaints.map(this::toListResponse);
     }
 
@@ -246,6 +267,88 @@ public class ComplaintService {
                 .orElseThrow(() -> new ResourceNotFoundException("Reclamacao", complaintId));
     }
 
+    private Complaint findComplaintDetailOrThrow(Long condoId, Long complaintId) {
+        return complaintRepository.findDetailByIdAndCondominiumId(complaintId, condoId)
+                .orElseThrow(() -> new ResourceNotFoundException("Reclamacao", complaintId));
+    }
+
+    /**
+     * Monta o detalhe com mais duas consultas: as respostas visíveis (internas filtradas no SQL)
+     * com quem respondeu, e o papel de cada respondente neste condomínio.
+     */
+    private ComplaintDetailResponse toDetailResponse(Long condoId, Complaint complaint, boolean includeInternal) {
+        List<ComplaintResponse> responses = complaintResponseRepository.findForDetail(complaint.getId(), includeInternal);
+        Map<Long, Role> roles = responderRoles(condoId, responses.stream()
+                .map(ComplaintResponse::getResponder)
+                .filter(Objects::nonNull)
+                .map(User::getId)
+                .collect(Collectors.toSet()));
+
+        List<ComplaintResponseDto> responseDtos = responses.stream()
+                .map(r -> toResponseDto(r, r.getResponder() != null ? roles.get(r.getResponder().getId()) : null))
+                .toList();
+
+        List<ComplaintAttachmentDto> attachmentDtos = complaint.getAttachments().stream()
+                .map(this::toAttachmentDto)
+                .toList();
+
+        String complainantName = resolveComplainantName(complaint);
+        String unitIdentifier = complaint.getUnit() != null ? complaint.getUnit().getIdentifier() : null;
+
+        return new ComplaintDetailResponse(
+                complaint.getId(),
+                complainantName,
+                complaint.isAnonymous(),
+                complaint.getCategory().name(),
+                complaint.getTitle(),
+                complaint.getDescription(),
+                complaint.getStatus().name(),
+                complaint.getPriority(),
+                unitIdentifier,
+                complaint.getCreatedAt() != null ? complaint.getCreatedAt().toString() : null,
+                complaint.getUpdatedAt() != null ? complaint.getUpdatedAt().toString() : null,
+                responseDtos,
+                attachmentDtos
+        );
+    }
+
+    /** Quem tem mais de um papel no condomínio (ex: síndico que também mora) aparece com o de maior hierarquia. */
+    private Map<Long, Role> responderRoles(Long condoId, Set<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+        return userCondominiumRoleRepository.findActiveRoles(condoId, userIds).stream()
+                .collect(Collectors.toMap(UserRoleRow::userId, UserRoleRow::role,
+                        (a, b) -> a.ordinal() <= b.ordinal() ? a : b));
+    }
+
+    private static ComplaintSearchResult toSearchResult(ComplaintSearchRepository.Row row) {
+        return new ComplaintSearchResult(
+                row.id(),
+                row.anonymous() ? null : row.complainantName(),
+                row.anonymous(),
+                row.category().name(),
+                row.title(),
+                highlightToHtml(row.titleHighlight()),
+                highlightToHtml(row.snippet()),
+                row.status().name(),
+                row.priority(),
+                row.unitIdentifier(),
+                row.createdAt() != null ? row.createdAt().toString() : null,
+                row.rank()
+        );
+    }
+
+    /** Escapa o texto da denúncia e só então troca os delimitadores do ts_headline por &lt;mark&gt;. */
+    static String highlightToHtml(String highlighted) {
+        if (highlighted == null) {
+            return null;
+        }
+        return HtmlUtils.htmlEscape(highlighted)
+                .replace(String.valueOf(ComplaintSearchRepository.HIGHLIGHT_START), "<mark>")
+                .replace(String.valueOf(ComplaintSearchRepository.HIGHLIGHT_STOP), "</mark>");
+    }
+
     private String resolveComplainantName(Complaint complaint) {
         if (complaint.isAnonymous()) {
             return null;
@@ -253,11 +356,10 @@ public class ComplaintService {
         return complaint.getComplainant() != null ? complaint.getComplainant().getName() : null;
     }
 
+    /** Denúncia recém-criada: ainda sem respostas. */
     private ComplaintListResponse toListResponse(Complaint complaint) {
         String complainantName = resolveComplainantName(complaint);
         String unitIdentifier = complaint.getUnit() != null ? complaint.getUnit().getIdentifier() : null;
-        int responseCount = complaint.getResponses() != null ? complaint.getResponses().size() : 0;
-
         return new ComplaintListResponse(
                 complaint.getId(),
                 complainantName,
@@ -268,22 +370,36 @@ public class ComplaintService {
                 complaint.getPriority(),
                 unitIdentifier,
                 complaint.getCreatedAt() != null ? complaint.getCreatedAt().toString() : null,
-                responseCount
+                0
         );
     }
 
-    private ComplaintResponseDto toResponseDto(ComplaintResponse response) {
+    private static CursorPage.Cursor position(ComplaintListRow row) {
+        return new CursorPage.Cursor(row.createdAt(), row.id());
+    }
+
+    private ComplaintListResponse toListResponse(ComplaintListRow row) {
+        return new ComplaintListResponse(
+                row.id(),
+                row.anonymous() ? null : row.complainantName(),
+                row.anonymous(),
+                row.category().name(),
+                row.title(),
+                row.status().name(),
+                row.priority(),
+                row.unitIdentifier(),
+                row.createdAt() != null ? row.createdAt().toString() : null,
+                Math.toIntExact(row.responseCount())
+        );
+    }
+
+    private ComplaintResponseDto toResponseDto(ComplaintResponse response, Role responderRole) {
         String responderName = response.getResponder() != null ? response.getResponder().getName() : null;
-        String responderRole = null;
-        if (response.getResponder() != null && response.getResponder().getCondominiumRoles() != null
-                && !response.getResponder().getCondominiumRoles().isEmpty()) {
-            responderRole = response.getResponder().getCondominiumRoles().get(0).getRole().name();
-        }
 
         return new ComplaintResponseDto(
                 response.getId(),
                 responderName,
-                responderRole,
+                responderRole != null ? responderRole.name() : null,
                 response.getMessage(),
                 response.isInternal(),
                 response.getCreatedAt() != null ? response.getCreatedAt().toString() : null
@@ -29,7 +29,7 @@ public class BuildingController {
     private final CondominiumService condominiumService;
 
     @GetMapping
-    @PreAuthorize("hasAnyRole('SINDICO', 'SUB_SINDICO', 'PORTEIRO') or hasRole('PLATFORM_ADMIN')")
+    @PreAuthorize("hasPermission(#condoId, 'SINDICO,SUB_SINDICO,PORTEIRO,PLATFORM_ADMIN')")
     public ResponseEntity<ApiResponse<List<BuildingResponse>>> listBuildings(
             @PathVariable Long condoId,
             @CurrentUser UserPrincipal currentUser) {
@@ -39,7 +39,7 @@ public class BuildingController {
     }
 
     @PostMapping
-    @PreAuthorize("hasAnyRole('SINDICO', 'SUB_SINDICO') or hasRole('PLATFORM_ADMIN')")
+    @PreAuthorize("hasPermission(#condoId, 'SINDICO,SUB_SINDICO,PLATFORM_ADMIN')")
     public ResponseEntity<ApiResponse<BuildingResponse>> createBuilding(
             @PathVariable Long condoId,
             @Valid @RequestBody BuildingCreateRequest request,
@@ -51,7 +51,7 @@ public class BuildingController {
     }
 
     @DeleteMapping("/{buildingId}")
-    @PreAuthorize("hasAnyRole('SINDICO', 'SUB_SINDICO') or hasRole('PLATFORM_ADMIN')")
+    @PreAuthorize("hasPermission(#condoId, 'SINDICO,SUB_SINDICO,PLATFORM_ADMIN')")
     public ResponseEntity<ApiResponse<Void>> deleteBuilding(
             @PathVariable Long condoId,
             @PathVariable Long buildingId,
@@ -45,7 +45,7 @@ public class CondoController {
 
     /** Sindico seleciona/altera o plano do condominio. */
     @PatchMapping("/{condoId}/plan")
-    @PreAuthorize("hasRole('SINDICO') or hasRole('PLATFORM_ADMIN')")
+    @PreAuthorize("hasPermission(#condoId, 'SINDICO,PLATFORM_ADMIN')")
     public ResponseEntity<ApiResponse<CondominiumResponse>> selectPlan(
             @PathVariable Long condoId,
             @RequestBody Map<String, Long> body) {
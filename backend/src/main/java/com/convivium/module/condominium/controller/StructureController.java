@@ -29,7 +29,7 @@ public class StructureController {
      * O admin revisa, edita e depois chama POST /apply para salvar.
      */
     @PostMapping("/preview")
-    @PreAuthorize("hasAnyRole('SINDICO', 'SUB_SINDICO') or hasRole('PLATFORM_ADMIN')")
+    @PreAuthorize("hasPermission(#condoId, 'SINDICO,SUB_SINDICO,PLATFORM_ADMIN')")
     public ResponseEntity<ApiResponse<StructurePreviewResponse>> preview(
             @PathVariable Long condoId,
             @Valid @RequestBody GenerateStructureRequest request,
@@ -43,7 +43,7 @@ public class StructureController {
      * Salva no banco a estrutura revisada (blocos e unidades confirmados pelo admin).
      */
     @PostMapping("/apply")
-    @PreAuthorize("hasAnyRole('SINDICO', 'SUB_SINDICO') or hasRole('PLATFORM_ADMIN')")
+    @PreAuthorize("hasPermission(#condoId, 'SINDICO,SUB_SINDICO,PLATFORM_ADMIN')")
     public ResponseEntity<ApiResponse<Void>> apply(
             @PathVariable Long condoId,
             @Valid @RequestBody ApplyStructureRequest request,
@@ -57,7 +57,7 @@ public class StructureController {
      * Gera e salva direto (legado). Preferir preview + apply para permitir revisão.
      */
     @PostMapping("/generate")
-    @PreAuthorize("hasAnyRole('SINDICO', 'SUB_SINDICO') or hasRole('PLATFORM_ADMIN')")
+    @PreAuthorize("hasPermission(#condoId, 'SINDICO,SUB_SINDICO,PLATFORM_ADMIN')")
     public ResponseEntity<ApiResponse<Void>> generate(
             @PathVariable Long condoId,
             @Valid @RequestBody GenerateStructureRequest request,
@@ -29,7 +29,7 @@ public class UnitController {
     private final CondominiumService condominiumService;
 
     @GetMapping
-    @PreAuthorize("hasAnyRole('SINDICO', 'SUB_SINDICO', 'PORTEIRO') or hasRole('PLATFORM_ADMIN')")
+    @PreAuthorize("hasPermission(#condoId, 'SINDICO,SUB_SINDICO,PORTEIRO,PLATFORM_ADMIN')")
     public ResponseEntity<ApiResponse<List<UnitResponse>>> listUnits(
             @PathVariable Long condoId,
             @CurrentUser UserPrincipal currentUser) {
@@ -39,7 +39,7 @@ public class UnitController {
     }
 
     @PostMapping
-    @PreAuthorize("hasAnyRole('SINDICO', 'SUB_SINDICO') or hasRole('PLATFORM_ADMIN')")
+    @PreAuthorize("hasPermission(#condoId, 'SINDICO,SUB_SINDICO,PLATFORM_ADMIN')")
     public ResponseEntity<ApiResponse<UnitResponse>> createUnit(
             @PathVariable Long condoId,
             @Valid @RequestBody UnitCreateRequest request,
@@ -51,7 +51,7 @@ public class UnitController {
     }
 
     @DeleteMapping("/{unitId}")
-    @PreAuthorize("hasAnyRole('SINDICO', 'SUB_SINDICO') or hasRole('PLATFORM_ADMIN')")
+    @PreAuthorize("hasPermission(#condoId, 'SINDICO,SUB_SINDICO,PLATFORM_ADMIN')")
     public ResponseEntity<ApiResponse<Void>> deleteUnit(
             @PathVariable Long condoId,
             @PathVariable Long unitId,
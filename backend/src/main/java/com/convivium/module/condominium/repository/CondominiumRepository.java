@@ -2,6 +2,7 @@ package com.convivium.module.condominium.repository;
 
 import com.convivium.module.condominium.entity.Condominium;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -17,4 +18,7 @@ public interface CondominiumRepository extends JpaRepository<Condominium, Long>
     boolean existsBySlug(String slug);
 
     boolean existsByCnpj(String cnpj);
+
+    @Query("SELECT c.id FROM Condominium c ORDER BY c.id")
+    List<Long> findAllIds();
 }
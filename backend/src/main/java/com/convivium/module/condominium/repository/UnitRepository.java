@@ -4,6 +4,7 @@ import com.convivium.module.condominium.entity.Unit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,5 +17,7 @@ public interface UnitRepository extends JpaRepository<Unit, Long> {
 
     Optional<Unit> findByCondominiumIdAndId(Long condominiumId, Long id);
 
+    List<Unit> findByCondominiumIdAndIdIn(Long condominiumId, Collection<Long> ids);
+
     boolean existsByCondominiumIdAndBuilding_IdAndIdentifier(Long condominiumId, Long buildingId, String identifier);
 }
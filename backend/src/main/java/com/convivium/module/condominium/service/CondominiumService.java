@@ -23,6 +23,7 @@ import com.convivium.module.condominium.repository.PlanRepository;
 import com.convivium.module.condominium.repository.UnitRepository;
 import com.convivium.module.user.entity.UserCondominiumRole;
 import com.convivium.module.user.repository.UserCondominiumRoleRepository;
+import com.convivium.security.TenantStateCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -45,6 +46,7 @@ public class CondominiumService {
     private final BuildingRepository buildingRepository;
     private final UnitRepository unitRepository;
     private final UserCondominiumRoleRepository userCondominiumRoleRepository;
+    private final TenantStateCache tenantStateCache;
 
     @Transactional(readOnly = true)
     public Page<CondominiumResponse> listAll(Pageable pageable) {
@@ -118,6 +120,7 @@ public class CondominiumService {
 
         condominium.setStatus(status);
         condominiumRepository.save(condominium);
+        tenantStateCache.refresh(condominium);
     }
 
     /** Lista planos ativos disponiveis. */
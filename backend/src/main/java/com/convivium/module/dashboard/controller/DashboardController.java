@@ -26,9 +26,10 @@ public class DashboardController {
     /**
      * Estatísticas do painel (total moradores, denúncias abertas, encomendas pendentes, reservas hoje).
      * Acessível a qualquer usuário do condomínio (Síndico, Sub, Porteiro, Morador).
+     * Gestão: carregar uma vez e somar os deltas de /topic/condos/{condoId}/dashboard (STOMP em /ws).
      */
     @GetMapping("/stats")
-    @PreAuthorize("hasAnyRole('SINDICO', 'SUB_SINDICO', 'PORTEIRO', 'MORADOR')")
+    @PreAuthorize("hasPermission(#condoId, 'SINDICO,SUB_SINDICO,PORTEIRO,MORADOR')")
     public ResponseEntity<ApiResponse<DashboardStatsResponse>> getStats(
             @PathVariable Long condoId,
             @CurrentUser UserPrincipal currentUser) {
@@ -38,15 +39,17 @@ public class DashboardController {
 
     /**
      * Últimos 30 dias de atividades da unidade (denúncias e encomendas), paginado.
+     * cursor (opcional): nextCursor da página anterior, para paginar por keyset.
      */
     @GetMapping("/activity")
-    @PreAuthorize("hasAnyRole('SINDICO', 'SUB_SINDICO', 'PORTEIRO', 'MORADOR')")
+    @PreAuthorize("hasPermission(#condoId, 'SINDICO,SUB_SINDICO,PORTEIRO,MORADOR')")
     public ResponseEntity<ApiResponse<PageResponse<UnitActivityItemDto>>> getUnitActivity(
             @PathVariable Long condoId,
             @CurrentUser UserPrincipal currentUser,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-        PageResponse<UnitActivityItemDto> activity = dashboardService.getUnitActivity(condoId, currentUser, page, size);
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
+        PageResponse<UnitActivityItemDto> activity = dashboardService.getUnitActivity(condoId, currentUser, page, size, cursor);
         return ResponseEntity.ok(ApiResponse.ok(activity));
     }
 }
@@ -0,0 +1,26 @@
+package com.convivium.module.dashboard.dto;
+
+/**
+ * Variação dos números do painel publicada em /topic/condos/{id}/dashboard.
+ * O frontend carrega /dashboard/stats uma vez e soma os deltas recebidos.
+ * aprovacoesPendentes acompanha a lista de cadastros aguardando aprovação.
+ */
+public record DashboardDeltaMessage(
+        long totalMoradores,
+        long denunciasAbertas,
+        long encomendasPendentes,
+        long aprovacoesPendentes
+) {
+
+    public DashboardDeltaMessage plus(DashboardDeltaMessage other) {
+        return new DashboardDeltaMessage(
+                totalMoradores + other.totalMoradores,
+                denunciasAbertas + other.denunciasAbertas,
+                encomendasPendentes + other.encomendasPendentes,
+                aprovacoesPendentes + other.aprovacoesPendentes);
+    }
+
+    public boolean isZero() {
+        return totalMoradores == 0 && denunciasAbertas == 0 && encomendasPendentes == 0 && aprovacoesPendentes == 0;
+    }
+}
@@ -0,0 +1,34 @@
+package com.convivium.module.dashboard.dto;
+
+import com.convivium.common.dto.CursorCodec;
+
+import java.time.Instant;
+
+/**
+ * Posição na linha do tempo de atividades (ordem: createdAt desc, kind desc, id desc).
+ * Trafega como texto opaco no parâmetro cursor / campo nextCursor (ver CursorCodec).
+ *
+ * kind: 0 = COMPLAINT, 1 = PARCEL.
+ */
+public record UnitActivityCursor(Instant createdAt, int kind, long id) {
+
+    public static final int KIND_COMPLAINT = 0;
+    public static final int KIND_PARCEL = 1;
+
+    public String encode() {
+        return CursorCodec.encode(createdAt, kind, id);
+    }
+
+    /**
+     * @throws IllegalArgumentException se o texto não for um cursor gerado por {@link #encode()}
+     */
+    public static UnitActivityCursor decode(String value) {
+        return CursorCodec.decode(value, 3, parts -> {
+            int kind = Integer.parseInt(parts[1]);
+            if (kind != KIND_COMPLAINT && kind != KIND_PARCEL) {
+                throw new IllegalArgumentException("Cursor invalido");
+            }
+            return new UnitActivityCursor(Instant.parse(parts[0]), kind, Long.parseLong(parts[2]));
+        });
+    }
+}
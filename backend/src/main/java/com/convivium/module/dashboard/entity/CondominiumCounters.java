@@ -0,0 +1,49 @@
+package com.convivium.module.dashboard.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Números do dashboard do condomínio, atualizados por incremento nas transições de
+ * estado (DashboardCounterService) em vez de COUNT a cada carregamento.
+ */
+@Entity
+@Table(name = "condominium_counters")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CondominiumCounters {
+
+    @Id
+    @Column(name = "condominium_id")
+    private Long condominiumId;
+
+    /** Vínculos em user_condominium_roles (mesma contagem de antes, qualquer papel/status). */
+    @Column(name = "total_moradores", nullable = false)
+    private long totalMoradores;
+
+    /** Denúncias com status OPEN. */
+    @Column(name = "denuncias_abertas", nullable = false)
+    private long denunciasAbertas;
+
+    /** Encomendas com status diferente de DELIVERED. */
+    @Column(name = "encomendas_pendentes", nullable = false)
+    private long encomendasPendentes;
+
+    @Column(name = "reconciled_at")
+    private Instant reconciledAt;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+}
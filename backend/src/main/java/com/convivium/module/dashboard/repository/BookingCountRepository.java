@@ -0,0 +1,39 @@
+package com.convivium.module.dashboard.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+/**
+ * Contagem de reservas para o dashboard (ainda não há módulo de reservas em Java,
+ * só a tabela bookings). Reservas canceladas ou recusadas não contam.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookingCountRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /** Reservas do condomínio (ou só do usuário, se userId != null) que começam em [from, to). */
+    public long countStartingBetween(Long condominiumId, Long userId, Instant from, Instant to) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("condominiumId", condominiumId)
+                .addValue("from", Timestamp.from(from))
+                .addValue("to", Timestamp.from(to));
+        String userFilter = "";
+        if (userId != null) {
+            params.addValue("userId", userId);
+            userFilter = " AND b.user_id = :userId";
+        }
+        Long total = jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM bookings b
+                WHERE b.condominium_id = :condominiumId
+                  AND b.status NOT IN ('CANCELLED', 'REJECTED')
+                  AND b.start_time >= :from AND b.start_time < :to""" + userFilter, params, Long.class);
+        return total != null ? total : 0L;
+    }
+}
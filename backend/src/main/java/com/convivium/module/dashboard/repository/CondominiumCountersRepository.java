@@ -0,0 +1,73 @@
+package com.convivium.module.dashboard.repository;
+
+import com.convivium.module.dashboard.entity.CondominiumCounters;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface CondominiumCountersRepository extends JpaRepository<CondominiumCounters, Long> {
+
+    /** Números do dashboard em uma ida ao banco: linha de contadores (PK) + reservas que começam no dia. */
+    interface StatsView {
+        long getTotalMoradores();
+
+        long getDenunciasAbertas();
+
+        long getEncomendasPendentes();
+
+        long getReservasHoje();
+    }
+
+    @Query(value = """
+            SELECT cc.total_moradores AS totalMoradores,
+                   cc.denuncias_abertas AS denunciasAbertas,
+                   cc.encomendas_pendentes AS encomendasPendentes,
+                   (SELECT COUNT(*) FROM bookings b
+                    WHERE b.condominium_id = cc.condominium_id
+                      AND b.status NOT IN ('CANCELLED', 'REJECTED')
+                      AND b.start_time >= :dayStart AND b.start_time < :dayEnd) AS reservasHoje
+            FROM condominium_counters cc
+            WHERE cc.condominium_id = :condominiumId
+            """, nativeQuery = true)
+    Optional<StatsView> findStats(@Param("condominiumId") Long condominiumId,
+                                  @Param("dayStart") Instant dayStart,
+                                  @Param("dayEnd") Instant dayEnd);
+
+    /** Soma os deltas na linha do condomínio; retorna 0 se a linha ainda não existe. */
+    @Modifying
+    @Query("""
+            UPDATE CondominiumCounters c
+            SET c.totalMoradores = c.totalMoradores + :moradores,
+                c.denunciasAbertas = c.denunciasAbertas + :denuncias,
+                c.encomendasPendentes = c.encomendasPendentes + :encomendas,
+                c.updatedAt = :now
+            WHERE c.condominiumId = :condominiumId
+            """)
+    int increment(@Param("condominiumId") Long condominiumId,
+                  @Param("moradores") long moradores,
+                  @Param("denuncias") long denuncias,
+                  @Param("encomendas") long encomendas,
+                  @Param("now") Instant now);
+
+    /** Cria a linha zerada (condomínio novo); não faz nada se outra transação já criou. */
+    @Modifying
+    @Query(value = """
+            INSERT INTO condominium_counters (condominium_id, total_moradores, denuncias_abertas, encomendas_pendentes, updated_at)
+            VALUES (:condominiumId, 0, 0, 0, :now)
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int insertIfMissing(@Param("condominiumId") Long condominiumId, @Param("now") Instant now);
+
+    /** Trava a linha para a reconciliação: incrementos concorrentes esperam o recálculo terminar. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM CondominiumCounters c WHERE c.condominiumId = :condominiumId")
+    Optional<CondominiumCounters> findForUpdate(@Param("condominiumId") Long condominiumId);
+}
@@ -0,0 +1,128 @@
+package com.convivium.module.dashboard.repository;
+
+import com.convivium.module.dashboard.dto.UnitActivityCursor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Linha do tempo de denúncias + encomendas montada no banco (UNION ALL), já ordenada
+ * e paginada. Cada ramo projeta só as colunas exibidas (descrição cortada em 81 chars)
+ * e traz no máximo o necessário para a página, então o custo depende do tamanho da
+ * página e não do volume de atividade da unidade.
+ *
+ * Paginação por cursor (keyset em created_at, kind, id) ou por offset (páginas numeradas).
+ */
+@Repository
+@RequiredArgsConstructor
+public class UnitActivityRepository {
+
+    /** Filtro de dono: denúncias do morador + encomendas em que ele é destinatário, ou tudo da unidade. */
+    public enum Owner {
+        USER("c.complainant_id", "p.recipient_id"),
+        UNIT("c.unit_id", "p.unit_id");
+
+        private final String complaintColumn;
+        private final String parcelColumn;
+
+        Owner(String complaintColumn, String parcelColumn) {
+            this.complaintColumn = complaintColumn;
+            this.parcelColumn = parcelColumn;
+        }
+    }
+
+    /** Uma linha da UNION; title é null para encomendas. */
+    public record Row(int kind, long id, String title, String description, Instant createdAt) {}
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Até limit itens a partir de after (exclusivo) ou, sem cursor, a partir de offset.
+     */
+    public List<Row> findPage(Long condominiumId, Owner owner, Long ownerId, Instant since,
+                              UnitActivityCursor after, long offset, int limit) {
+        MapSqlParameterSource params = baseParams(condominiumId, ownerId, since)
+                .addValue("limit", limit)
+                .addValue("offset", offset)
+                .addValue("branchLimit", offset + limit);
+        if (after != null) {
+            params.addValue("cursorAt", Timestamp.from(after.createdAt()))
+                    .addValue("cursorId", after.id());
+        }
+        String sql = """
+                SELECT kind, id, title, description, created_at FROM (
+                    SELECT * FROM (
+                        SELECT %d AS kind, c.id, c.title, SUBSTRING(c.description, 1, 81) AS description, c.created_at
+                        FROM complaints c
+                        WHERE c.condominium_id = :condominiumId AND %s = :ownerId AND c.created_at >= :since%s
+                        ORDER BY c.created_at DESC, c.id DESC
+                        LIMIT :branchLimit
+                    ) complaint_page
+                    UNION ALL
+                    SELECT * FROM (
+                        SELECT %d AS kind, p.id, CAST(NULL AS VARCHAR(255)) AS title,
+                               SUBSTRING(COALESCE(p.description, p.carrier, 'Encomenda'), 1, 81) AS description, p.created_at
+                        FROM parcels p
+                        WHERE p.condominium_id = :condominiumId AND %s = :ownerId AND p.created_at >= :since%s
+                        ORDER BY p.created_at DESC, p.id DESC
+                        LIMIT :branchLimit
+                    ) parcel_page
+                ) activity
+                ORDER BY created_at DESC, kind DESC, id DESC
+                LIMIT :limit OFFSET :offset
+                """.formatted(
+                UnitActivityCursor.KIND_COMPLAINT, owner.complaintColumn,
+                keysetPredicate("c", UnitActivityCursor.KIND_COMPLAINT, after),
+                UnitActivityCursor.KIND_PARCEL, owner.parcelColumn,
+                keysetPredicate("p", UnitActivityCursor.KIND_PARCEL, after));
+
+        return jdbcTemplate.query(sql, params, (rs, i) -> new Row(
+                rs.getInt("kind"),
+                rs.getLong("id"),
+                rs.getString("title"),
+                rs.getString("description"),
+                rs.getTimestamp("created_at").toInstant()));
+    }
+
+    /** Total de itens do período (só no modo offset, para totalElements/totalPages). */
+    public long count(Long condominiumId, Owner owner, Long ownerId, Instant since) {
+        String sql = """
+                SELECT (SELECT COUNT(*) FROM complaints c
+                        WHERE c.condominium_id = :condominiumId AND %s = :ownerId AND c.created_at >= :since)
+                     + (SELECT COUNT(*) FROM parcels p
+                        WHERE p.condominium_id = :condominiumId AND %s = :ownerId AND p.created_at >= :since)
+                """.formatted(owner.complaintColumn, owner.parcelColumn);
+        Long total = jdbcTemplate.queryForObject(sql, baseParams(condominiumId, ownerId, since), Long.class);
+        return total != null ? total : 0L;
+    }
+
+    private static MapSqlParameterSource baseParams(Long condominiumId, Long ownerId, Instant since) {
+        return new MapSqlParameterSource()
+                .addValue("condominiumId", condominiumId)
+                .addValue("ownerId", ownerId)
+                .addValue("since", Timestamp.from(since));
+    }
+
+    /**
+     * Linhas depois do cursor na ordem (created_at, kind, id) desc. Como kind é constante
+     * em cada ramo, a comparação vira só created_at (e id quando o kind é o do cursor),
+     * o que mantém o uso do índice por created_at em cada tabela.
+     */
+    private static String keysetPredicate(String alias, int kind, UnitActivityCursor after) {
+        if (after == null) {
+            return "";
+        }
+        if (kind < after.kind()) {
+            return " AND %s.created_at <= :cursorAt".formatted(alias);
+        }
+        if (kind > after.kind()) {
+            return " AND %s.created_at < :cursorAt".formatted(alias);
+        }
+        return " AND (%1$s.created_at < :cursorAt OR (%1$s.created_at = :cursorAt AND %1$s.id < :cursorId))".formatted(alias);
+    }
+}
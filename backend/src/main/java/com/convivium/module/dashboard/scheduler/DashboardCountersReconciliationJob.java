@@ -0,0 +1,53 @@
+package com.convivium.module.dashboard.scheduler;
+
+import com.convivium.module.condominium.repository.CondominiumRepository;
+import com.convivium.module.dashboard.service.DashboardCounterService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Corrige divergências de condominium_counters (bug, escrita fora dos serviços, SQL manual).
+ * Cada condomínio é recalculado em sua própria transação; falha em um não para os outros.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DashboardCountersReconciliationJob {
+
+    private final CondominiumRepository condominiumRepository;
+    private final DashboardCounterService dashboardCounterService;
+
+    /**
+     * Roda diariamente as 4h (horario do servidor).
+     */
+    @Scheduled(cron = "${app.dashboard.counters.reconcile-cron:0 0 4 * * *}")
+    public void scheduledReconcile() {
+        reconcileAll();
+    }
+
+    /**
+     * @return quantidade de condomínios cujos contadores estavam divergentes
+     */
+    public int reconcileAll() {
+        List<Long> ids = condominiumRepository.findAllIds();
+        int repaired = 0;
+        int failed = 0;
+        for (Long id : ids) {
+            try {
+                if (dashboardCounterService.reconcile(id)) {
+                    repaired++;
+                }
+            } catch (RuntimeException e) {
+                failed++;
+                log.error("DashboardCountersReconciliationJob: falha ao reconciliar condominio {}", id, e);
+            }
+        }
+        log.info("DashboardCountersReconciliationJob: {} condominio(s) verificados, {} corrigidos, {} falhas",
+                ids.size(), repaired, failed);
+        return repaired;
+    }
+}
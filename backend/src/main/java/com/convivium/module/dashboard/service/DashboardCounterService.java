@@ -0,0 +1,129 @@
+package com.convivium.module.dashboard.service;
+
+import com.convivium.module.complaint.entity.ComplaintStatus;
+import com.convivium.module.complaint.repository.ComplaintRepository;
+import com.convivium.module.dashboard.dto.DashboardDeltaMessage;
+import com.convivium.module.dashboard.entity.CondominiumCounters;
+import com.convivium.module.dashboard.repository.CondominiumCountersRepository;
+import com.convivium.module.parcel.entity.ParcelStatus;
+import com.convivium.module.parcel.repository.ParcelRepository;
+import com.convivium.module.user.repository.UserCondominiumRoleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+/**
+ * Mantém condominium_counters na mesma transação das mudanças de estado de denúncias,
+ * encomendas e vínculos de usuário, para o dashboard ler uma linha em vez de fazer COUNTs.
+ *
+ * Os métodos on* recebem o status anterior (null na criação) e o novo; só o delta vai ao banco
+ * e, após o commit, para /topic/condos/{id}/dashboard (DashboardDeltaPublisher).
+ * {@link #reconcile(Long)} recalcula a linha a partir das tabelas de origem.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class DashboardCounterService {
+
+    private final CondominiumCountersRepository countersRepository;
+    private final UserCondominiumRoleRepository userCondominiumRoleRepository;
+    private final ComplaintRepository complaintRepository;
+    private final ParcelRepository parcelRepository;
+    private final DashboardDeltaPublisher dashboardDeltaPublisher;
+
+    /** Vínculo criado; status PENDING_APPROVAL também entra na fila de aprovações do painel. */
+    public void onMemberAdded(Long condominiumId, String status) {
+        adjust(condominiumId, new DashboardDeltaMessage(1, 0, 0, isPendingApproval(status)));
+    }
+
+    public void onMemberRemoved(Long condominiumId, String status) {
+        adjust(condominiumId, new DashboardDeltaMessage(-1, 0, 0, -isPendingApproval(status)));
+    }
+
+    /** Aprovação não muda os contadores gravados, só sai da fila de aprovações do painel. */
+    public void onMemberApproved(Long condominiumId) {
+        adjust(condominiumId, new DashboardDeltaMessage(0, 0, 0, -1));
+    }
+
+    public void onComplaintStatusChange(Long condominiumId, ComplaintStatus from, ComplaintStatus to) {
+        adjust(condominiumId, new DashboardDeltaMessage(0, isOpen(to) - isOpen(from), 0, 0));
+    }
+
+    public void onParcelStatusChange(Long condominiumId, ParcelStatus from, ParcelStatus to) {
+        adjust(condominiumId, new DashboardDeltaMessage(0, 0, isPending(to) - isPending(from), 0));
+    }
+
+    /** Recebimento em lote: um único incremento para count encomendas novas (RECEIVED). */
+    public void onParcelsReceived(Long condominiumId, int count) {
+        adjust(condominiumId, new DashboardDeltaMessage(0, 0, count, 0));
+    }
+
+    /**
+     * Recalcula os contadores do condomínio com a linha travada, então incrementos
+     * concorrentes esperam e são aplicados sobre o valor corrigido.
+     *
+     * @return true se havia divergência
+     */
+    public boolean reconcile(Long condominiumId) {
+        Instant now = Instant.now();
+        countersRepository.insertIfMissing(condominiumId, now);
+        CondominiumCounters counters = countersRepository.findForUpdate(condominiumId)
+                .orElseThrow(() -> new IllegalStateException("Contadores ausentes para o condominio " + condominiumId));
+
+        long totalMoradores = userCondominiumRoleRepository.countByCondominiumId(condominiumId);
+        long denunciasAbertas = complaintRepository.countByCondominiumIdAndStatus(condominiumId, ComplaintStatus.OPEN);
+        long encomendasPendentes = parcelRepository.countPendingByCondominiumId(condominiumId);
+
+        boolean drifted = counters.getTotalMoradores() != totalMoradores
+                || counters.getDenunciasAbertas() != denunciasAbertas
+                || counters.getEncomendasPendentes() != encomendasPendentes;
+        if (drifted) {
+            log.warn("Contadores do condominio {} divergentes (moradores {}->{}, denuncias {}->{}, encomendas {}->{})",
+                    condominiumId,
+                    counters.getTotalMoradores(), totalMoradores,
+                    counters.getDenunciasAbertas(), denunciasAbertas,
+                    counters.getEncomendasPendentes(), encomendasPendentes);
+            counters.setTotalMoradores(totalMoradores);
+            counters.setDenunciasAbertas(denunciasAbertas);
+            counters.setEncomendasPendentes(encomendasPendentes);
+            counters.setUpdatedAt(now);
+        }
+        counters.setReconciledAt(now);
+        countersRepository.save(counters);
+        return drifted;
+    }
+
+    private void adjust(Long condominiumId, DashboardDeltaMessage delta) {
+        if (delta.isZero()) {
+            return;
+        }
+        long moradores = delta.totalMoradores();
+        long denuncias = delta.denunciasAbertas();
+        long encomendas = delta.encomendasPendentes();
+        if (moradores != 0 || denuncias != 0 || encomendas != 0) {
+            Instant now = Instant.now();
+            if (countersRepository.increment(condominiumId, moradores, denuncias, encomendas, now) == 0) {
+                // Condomínio criado depois da V27: começa zerado e recebe este primeiro delta
+                countersRepository.insertIfMissing(condominiumId, now);
+                countersRepository.increment(condominiumId, moradores, denuncias, encomendas, now);
+            }
+        }
+        dashboardDeltaPublisher.publish(condominiumId, delta);
+    }
+
+    private static int isPendingApproval(String status) {
+        return "PENDING_APPROVAL".equals(status) ? 1 : 0;
+    }
+
+    private static int isOpen(ComplaintStatus status) {
+        return status == ComplaintStatus.OPEN ? 1 : 0;
+    }
+
+    private static int isPending(ParcelStatus status) {
+        return status != null && status != ParcelStatus.DELIVERED ? 1 : 0;
+    }
+}
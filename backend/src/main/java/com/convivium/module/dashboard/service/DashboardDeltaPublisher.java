@@ -0,0 +1,61 @@
+package com.convivium.module.dashboard.service;
+
+import com.convivium.module.dashboard.dto.DashboardDeltaMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Publica os deltas do painel no broker STOMP. Dentro de uma transação os deltas são
+ * somados por condomínio e enviados uma vez, só após o commit (rollback não publica nada).
+ */
+@Component
+@RequiredArgsConstructor
+public class DashboardDeltaPublisher {
+
+    private final Optional<SimpMessagingTemplate> messagingTemplate;
+
+    public static String topic(Long condominiumId) {
+        return "/topic/condos/" + condominiumId + "/dashboard";
+    }
+
+    public void publish(Long condominiumId, DashboardDeltaMessage delta) {
+        if (condominiumId == null || delta.isZero() || messagingTemplate.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            send(condominiumId, delta);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Map<Long, DashboardDeltaMessage> pending =
+                (Map<Long, DashboardDeltaMessage>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Map<Long, DashboardDeltaMessage> created = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(DashboardDeltaPublisher.this);
+                    if (status == STATUS_COMMITTED) {
+                        created.forEach(DashboardDeltaPublisher.this::send);
+                    }
+                }
+            });
+            pending = created;
+        }
+        pending.merge(condominiumId, delta, DashboardDeltaMessage::plus);
+    }
+
+    private void send(Long condominiumId, DashboardDeltaMessage delta) {
+        if (!delta.isZero()) {
+            messagingTemplate.ifPresent(template -> template.convertAndSend(topic(condominiumId), delta));
+        }
+    }
+}
@@ -1,134 +1,193 @@
 package com.convivium.module.dashboard.service;
 
+import com.convivium.common.dto.CursorCodec;
+import com.convivium.common.dto.CursorPage;
 import com.convivium.common.dto.PageResponse;
-import com.convivium.module.complaint.entity.Complaint;
 import com.convivium.module.complaint.entity.ComplaintStatus;
 import com.convivium.module.complaint.repository.ComplaintRepository;
 import com.convivium.module.dashboard.dto.DashboardStatsResponse;
+import com.convivium.module.dashboard.dto.UnitActivityCursor;
 import com.convivium.module.dashboard.dto.UnitActivityItemDto;
-import com.convivium.module.parcel.entity.Parcel;
-import com.convivium.module.parcel.entity.ParcelStatus;
+import com.convivium.module.dashboard.repository.BookingCountRepository;
+import com.convivium.module.dashboard.repository.CondominiumCountersRepository;
+import com.convivium.module.dashboard.repository.UnitActivityRepository;
 import com.convivium.module.parcel.repository.ParcelRepository;
+import com.convivium.module.user.entity.Role;
 import com.convivium.module.user.repository.UserCondominiumRoleRepository;
 import com.convivium.security.UserPrincipal;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Clock;
 import java.time.Instant;
-import java.util.ArrayList;
-import java.util.Comparator;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.List;
 
 @Service
-@RequiredArgsConstructor
 public class DashboardService {
 
     private final UserCondominiumRoleRepository userCondominiumRoleRepository;
     private final ComplaintRepository complaintRepository;
     private final ParcelRepository parcelRepository;
+    private final UnitActivityRepository unitActivityRepository;
+    private final CondominiumCountersRepository countersRepository;
+    private final BookingCountRepository bookingCountRepository;
+    private final Clock clock;
+
+    @Autowired
+    public DashboardService(UserCondominiumRoleRepository userCondominiumRoleRepository,
+                            ComplaintRepository complaintRepository,
+                            ParcelRepository parcelRepository,
+                            UnitActivityRepository unitActivityRepository,
+                            CondominiumCountersRepository countersRepository,
+                            BookingCountRepository bookingCountRepository,
+                            @Value("${app.dashboard.time-zone:America/Sao_Paulo}") String timeZone) {
+        this(userCondominiumRoleRepository, complaintRepository, parcelRepository, unitActivityRepository,
+                countersRepository, bookingCountRepository, Clock.system(ZoneId.of(timeZone)));
+    }
+
+    DashboardService(UserCondominiumRoleRepository userCondominiumRoleRepository,
+                     ComplaintRepository complaintRepository,
+                     ParcelRepository parcelRepository,
+                     UnitActivityRepository unitActivityRepository,
+                     CondominiumCountersRepository countersRepository,
+                     BookingCountRepository bookingCountRepository,
+                     Clock clock) {
+        this.userCondominiumRoleRepository = userCondominiumRoleRepository;
+        this.complaintRepository = complaintRepository;
+        this.parcelRepository = parcelRepository;
+        this.unitActivityRepository = unitActivityRepository;
+        this.countersRepository = countersRepository;
+        this.bookingCountRepository = bookingCountRepository;
+        this.clock = clock;
+    }
 
+    /**
+     * Gestão: uma leitura por PK em condominium_counters (mantida por DashboardCounterService)
+     * com as reservas do dia na mesma consulta. "Hoje" é o dia civil em app.dashboard.time-zone.
+     */
     @Transactional(readOnly = true)
     public DashboardStatsResponse getStats(Long condominiumId, UserPrincipal currentUser) {
-        boolean isMorador = currentUser.getAuthorities().stream()
-                .anyMatch(a -> "ROLE_MORADOR".equals(a.getAuthority()));
+        LocalDate today = LocalDate.now(clock);
+        Instant dayStart = today.atStartOfDay(clock.getZone()).toInstant();
+        Instant dayEnd = today.plusDays(1).atStartOfDay(clock.getZone()).toInstant();
 
-        if (isMorador) {
-            return getStatsForMorador(condominiumId, currentUser.getId());
+        if (currentUser.hasRole(Role.MORADOR)) {
+            return getStatsForMorador(condominiumId, currentUser.getId(), dayStart, dayEnd);
         }
 
-        long totalMoradores = userCondominiumRoleRepository.countByCondominiumId(condominiumId);
-        long denunciasAbertas = complaintRepository.countByCondominiumIdAndStatus(condominiumId, ComplaintStatus.OPEN);
-        long encomendasPendentes = parcelRepository.countByCondominiumIdAndStatusNot(condominiumId, ParcelStatus.DELIVERED);
+        return countersRepository.findStats(condominiumId, dayStart, dayEnd)
+                .map(stats -> DashboardStatsResponse.builder()
+                        .totalMoradores(stats.getTotalMoradores())
+                        .denunciasAbertas(stats.getDenunciasAbertas())
+                        .encomendasPendentes(stats.getEncomendasPendentes())
+                        .reservasHoje(stats.getReservasHoje())
+                        .build())
+                .orElseGet(() -> getLiveStats(condominiumId, dayStart, dayEnd));
+    }
+
+    /** Sem linha de contadores (condomínio sem nenhum evento ainda): conta direto nas tabelas. */
+    private DashboardStatsResponse getLiveStats(Long condominiumId, Instant dayStart, Instant dayEnd) {
         return DashboardStatsResponse.builder()
-                .totalMoradores(totalMoradores)
-                .denunciasAbertas(denunciasAbertas)
-                .encomendasPendentes(encomendasPendentes)
-                .reservasHoje(0L)
+                .totalMoradores(userCondominiumRoleRepository.countByCondominiumId(condominiumId))
+                .denunciasAbertas(complaintRepository.countByCondominiumIdAndStatus(condominiumId, ComplaintStatus.OPEN))
+                .encomendasPendentes(parcelRepository.countPendingByCondominiumId(condominiumId))
+                .reservasHoje(bookingCountRepository.countStartingBetween(condominiumId, null, dayStart, dayEnd))
                 .build();
     }
 
-    private DashboardStatsResponse getStatsForMorador(Long condominiumId, Long userId) {
-        // Morador: denúncias abertas = minhas denúncias (que eu criei); encomendas = minhas (onde sou destinatário)
+    private DashboardStatsResponse getStatsForMorador(Long condominiumId, Long userId, Instant dayStart, Instant dayEnd) {
+        // Morador: denúncias abertas = minhas denúncias (que eu criei); encomendas = minhas (onde sou destinatário);
+        // reservas = as minhas que começam hoje
         long denunciasAbertas = complaintRepository.countByCondominiumIdAndComplainantIdAndStatus(
                 condominiumId, userId, ComplaintStatus.OPEN);
-        long encomendasPendentes = parcelRepository.countByRecipientIdAndStatusNot(userId, ParcelStatus.DELIVERED);
+        long encomendasPendentes = parcelRepository.countPendingByRecipientId(userId);
+        long reservasHoje = bookingCountRepository.countStartingBetween(condominiumId, userId, dayStart, dayEnd);
 
         return DashboardStatsResponse.builder()
                 .totalMoradores(0L)
                 .denunciasAbertas(denunciasAbertas)
                 .encomendasPendentes(encomendasPendentes)
-                .reservasHoje(0L)
+                .reservasHoje(reservasHoje)
                 .build();
     }
 
     /**
      * Últimos 30 dias de atividade: morador vê só as suas denúncias e as suas encomendas;
      * funcionário com unidade vê da unidade; sem unidade lista vazia.
+     *
+     * Sem cursor: página numerada (page/size) com totalElements/totalPages. Nos dois modos size
+     * fica entre 1 e CursorPage.MAX_SIZE.
+     * Com cursor (nextCursor da resposta anterior): próxima página por keyset, sem contagem
+     * (totalElements e totalPages = -1), custo proporcional a size.
      */
     @Transactional(readOnly = true)
-    public PageResponse<UnitActivityItemDto> getUnitActivity(Long condominiumId, UserPrincipal currentUser, int page, int size) {
-        boolean isMorador = currentUser.getAuthorities().stream()
-                .anyMatch(a -> "ROLE_MORADOR".equals(a.getAuthority()));
+    public PageResponse<UnitActivityItemDto> getUnitActivity(Long condominiumId, UserPrincipal currentUser,
+                                                             int page, int size, String cursor) {
+        UnitActivityCursor after = CursorCodec.fromRequest(cursor, UnitActivityCursor::decode);
+        int pageSize = CursorPage.pageSize(size);
+        int pageNumber = Math.max(0, page);
         Long userId = currentUser.getId();
-        Instant since = Instant.now().minusSeconds(30L * 24 * 60 * 60);
+        Instant since = clock.instant().minusSeconds(30L * 24 * 60 * 60);
 
-        List<Complaint> complaints;
-        List<Parcel> parcels;
-
-        if (isMorador) {
+        UnitActivityRepository.Owner owner;
+        Long ownerId;
+        if (currentUser.hasRole(Role.MORADOR)) {
             // Morador: minhas denúncias (que eu abri) e minhas encomendas (onde eu sou destinatário)
-            complaints = complaintRepository
-                    .findByCondominiumIdAndComplainantIdAndCreatedAtGreaterThanEqualOrderByCreatedAtDesc(condominiumId, userId, since);
-            parcels = parcelRepository
-                    .findByCondominiumIdAndRecipientIdAndCreatedAtGreaterThanEqualOrderByCreatedAtDesc(condominiumId, userId, since);
+            owner = UnitActivityRepository.Owner.USER;
+            ownerId = userId;
         } else {
-            Long unitId = userCondominiumRoleRepository.findByUserIdAndCondominiumId(userId, condominiumId)
+            ownerId = userCondominiumRoleRepository.findByUserIdAndCondominiumId(userId, condominiumId)
                     .filter(ucr -> ucr.getUnit() != null)
                     .map(ucr -> ucr.getUnit().getId())
                     .orElse(null);
-            if (unitId == null) {
-                return emptyActivityPage(page, size);
+            if (ownerId == null) {
+                return emptyActivityPage(pageNumber, pageSize);
             }
-            complaints = complaintRepository
-                    .findByCondominiumIdAndUnit_IdAndCreatedAtGreaterThanEqualOrderByCreatedAtDesc(condominiumId, unitId, since);
-            parcels = parcelRepository
-                    .findByCondominiumIdAndUnit_IdAndCreatedAtGreaterThanEqualOrderByCreatedAtDesc(condominiumId, unitId, since);
+            owner = UnitActivityRepository.Owner.UNIT;
         }
 
-        List<UnitActivityItemDto> all = new ArrayList<>();
-        for (Complaint c : complaints) {
-            String descComplaint = c.getDescription() != null ? c.getDescription() : "";
-            if (descComplaint.length() > 80) descComplaint = descComplaint.substring(0, 80) + "...";
-            all.add(new UnitActivityItemDto("COMPLAINT", c.getId(), c.getTitle(),
-                    descComplaint,
-                    c.getCreatedAt(), "Denúncia"));
-        }
-        for (Parcel p : parcels) {
-            String desc = p.getDescription() != null ? p.getDescription() : (p.getCarrier() != null ? p.getCarrier() : "Encomenda");
-            if (desc.length() > 80) desc = desc.substring(0, 80) + "...";
-            all.add(new UnitActivityItemDto("PARCEL", p.getId(), "Encomenda",
-                    desc,
-                    p.getCreatedAt(), "Encomenda"));
-        }
-        all.sort(Comparator.comparing(UnitActivityItemDto::date).reversed());
-
-        int total = all.size();
-        int totalPages = size > 0 ? (int) Math.ceil((double) total / size) : 0;
-        int from = Math.min(page * size, total);
-        int to = Math.min(from + size, total);
-        List<UnitActivityItemDto> content = from < total ? all.subList(from, to) : List.of();
+        // long: página alta vezes o tamanho passa de Integer.MAX_VALUE
+        long offset = after != null ? 0 : (long) pageNumber * pageSize;
+        // Um item a mais indica se existe próxima página
+        List<UnitActivityRepository.Row> rows = unitActivityRepository.findPage(
+                condominiumId, owner, ownerId, since, after, offset, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<UnitActivityRepository.Row> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+        List<UnitActivityItemDto> content = pageRows.stream().map(DashboardService::toActivityItem).toList();
 
         PageResponse<UnitActivityItemDto> response = new PageResponse<>();
         response.setContent(content);
-        response.setPage(page);
-        response.setSize(size);
-        response.setTotalElements(total);
-        response.setTotalPages(totalPages);
-        response.setLast(page >= totalPages - 1);
+        response.setPage(pageNumber);
+        response.setSize(pageSize);
+        response.setLast(!hasMore);
+        if (hasMore) {
+            UnitActivityRepository.Row lastRow = pageRows.get(pageRows.size() - 1);
+            response.setNextCursor(new UnitActivityCursor(lastRow.createdAt(), lastRow.kind(), lastRow.id()).encode());
+        }
+        if (after == null) {
+            long total = unitActivityRepository.count(condominiumId, owner, ownerId, since);
+            response.setTotalElements(total);
+            response.setTotalPages((int) Math.ceil((double) total / pageSize));
+        } else {
+            response.setTotalElements(-1);
+            response.setTotalPages(-1);
+        }
         return response;
     }
 
+    private static UnitActivityItemDto toActivityItem(UnitActivityRepository.Row row) {
+        String desc = row.description() != null ? row.description() : "";
+        if (desc.length() > 80) desc = desc.substring(0, 80) + "...";
+        if (row.kind() == UnitActivityCursor.KIND_COMPLAINT) {
+            return new UnitActivityItemDto("COMPLAINT", row.id(), row.title(), desc, row.createdAt(), "Denúncia");
+        }
+        return new UnitActivityItemDto("PARCEL", row.id(), "Encomenda", desc, row.createdAt(), "Encomenda");
+    }
+
     private PageResponse<UnitActivityItemDto> emptyActivityPage(int page, int size) {
         PageResponse<UnitActivityItemDto> response = new PageResponse<>();
         response.setContent(List.of());
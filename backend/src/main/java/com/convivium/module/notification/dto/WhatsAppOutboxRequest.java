@@ -0,0 +1,37 @@
+package com.convivium.module.notification.dto;
+
+import com.convivium.module.notification.entity.WhatsAppMessageType;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Mensagem a gravar na outbox. idempotencyKey identifica o evento de origem: enfileirar
+ * de novo a mesma chave não gera segunda mensagem.
+ */
+public record WhatsAppOutboxRequest(
+        Long userId,
+        Long condominiumId,
+        String phone,
+        WhatsAppMessageType type,
+        Long parcelId,
+        String idempotencyKey,
+        Map<String, String> params
+) {
+
+    public static WhatsAppOutboxRequest encomenda(Long condominiumId, Long parcelId, Long userId, String phone,
+                                                  String residentName, String residentCode) {
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put("residentName", residentName);
+        params.put("residentCode", residentCode);
+        return new WhatsAppOutboxRequest(userId, condominiumId, phone, WhatsAppMessageType.ENCOMENDA_TEMPLATE,
+                parcelId, "parcel:" + parcelId + ":received", params);
+    }
+
+    /** Uma mensagem por foto (chave com o id da foto); quais fotos notificar é decisão de quem chama. */
+    public static WhatsAppOutboxRequest encomendaPhoto(Long condominiumId, Long parcelId, Long photoId, Long userId,
+                                                       String phone, String imageUrl) {
+        return new WhatsAppOutboxRequest(userId, condominiumId, phone, WhatsAppMessageType.ENCOMENDA_PHOTO,
+                parcelId, "parcel:" + parcelId + ":photo:" + photoId, Map.of("imageUrl", imageUrl));
+    }
+}
@@ -0,0 +1,18 @@
+package com.convivium.module.notification.entity;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/** Mensagens WhatsApp enviadas pela outbox e o registro correspondente em notifications. */
+@Getter
+@RequiredArgsConstructor
+public enum WhatsAppMessageType {
+    ENCOMENDA_TEMPLATE("PARCEL_RECEIVED", "Encomenda na portaria",
+            "Sua encomenda chegou na portaria. Informe o codigo de retirada ao porteiro."),
+    ENCOMENDA_PHOTO("PARCEL_PHOTO", "Foto da encomenda",
+            "Foto da encomenda recebida na portaria.");
+
+    private final String notificationType;
+    private final String title;
+    private final String message;
+}
@@ -0,0 +1,7 @@
+package com.convivium.module.notification.entity;
+
+public enum WhatsAppOutboxStatus {
+    PENDING,
+    SENT,
+    FAILED
+}
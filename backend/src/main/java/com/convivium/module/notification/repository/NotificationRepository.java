@@ -24,4 +24,9 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     @Modifying
     @Query("UPDATE Notification n SET n.isRead = true, n.readAt = :now WHERE n.userId = :userId AND n.isRead = false")
     void markAllAsReadByUserId(@Param("userId") Long userId, @Param("now") Instant now);
+
+    /** Status de entrega (PENDING, SENT, DELIVERED, FAILED); sentAt só é gravado quando informado. */
+    @Modifying
+    @Query("UPDATE Notification n SET n.deliveryStatus = :status, n.sentAt = COALESCE(:sentAt, n.sentAt) WHERE n.id = :id")
+    int updateDeliveryStatus(@Param("id") Long id, @Param("status") String status, @Param("sentAt") Instant sentAt);
 }
@@ -0,0 +1,99 @@
+package com.convivium.module.notification.repository;
+
+import com.convivium.module.notification.dto.WhatsAppOutboxRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Grava mensagens da outbox em lote via JDBC: um batch em notifications (canal WHATSAPP,
+ * delivery_status PENDING) e um em whatsapp_outbox apontando para cada notificação.
+ * Usado também para uma única mensagem, para o recebimento em lote não pagar um INSERT
+ * por encomenda.
+ */
+@Repository
+@RequiredArgsConstructor
+public class WhatsAppOutboxInsertRepository {
+
+    private static final String INSERT_NOTIFICATION_SQL = """
+            INSERT INTO notifications (user_id, condominium_id, title, message, type, reference_type, reference_id,
+                                       channel, is_read, delivery_status, created_at)
+            VALUES (?, ?, ?, ?, ?, 'PARCEL', ?, 'WHATSAPP', false, 'PENDING', ?)
+            """;
+
+    private static final String INSERT_OUTBOX_SQL = """
+            INSERT INTO whatsapp_outbox (notification_id, idempotency_key, message_type, to_phone, payload, status,
+                                         attempts, next_attempt_at, created_at)
+            VALUES (?, ?, ?, ?, ?, 'PENDING', 0, ?, ?)
+            ON CONFLICT DO NOTHING
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** payloads[i] é o JSON de parâmetros de requests[i]. */
+    public void insertAll(List<WhatsAppOutboxRequest> requests, List<String> payloads, Instant now) {
+        if (requests.isEmpty()) {
+            return;
+        }
+        Timestamp ts = Timestamp.from(now);
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_NOTIFICATION_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        WhatsAppOutboxRequest request = requests.get(i);
+                        ps.setLong(1, request.userId());
+                        if (request.condominiumId() != null) {
+                            ps.setLong(2, request.condominiumId());
+                        } else {
+                            ps.setNull(2, Types.BIGINT);
+                        }
+                        ps.setString(3, request.type().getTitle());
+                        ps.setString(4, request.type().getMessage());
+                        ps.setString(5, request.type().getNotificationType());
+                        ps.setLong(6, request.parcelId());
+                        ps.setTimestamp(7, ts);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return requests.size();
+                    }
+                }, keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        if (keys.size() != requests.size()) {
+            throw new IllegalStateException("Esperados " + requests.size() + " ids gerados, recebidos " + keys.size());
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_OUTBOX_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                WhatsAppOutboxRequest request = requests.get(i);
+                ps.setLong(1, ((Number) keys.get(i).values().iterator().next()).longValue());
+                ps.setString(2, request.idempotencyKey());
+                ps.setString(3, request.type().name());
+                ps.setString(4, request.phone());
+                ps.setString(5, payloads.get(i));
+                ps.setTimestamp(6, ts);
+                ps.setTimestamp(7, ts);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return requests.size();
+            }
+        });
+    }
+}
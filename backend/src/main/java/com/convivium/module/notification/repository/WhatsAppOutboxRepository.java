@@ -0,0 +1,58 @@
+package com.convivium.module.notification.repository;
+
+import com.convivium.module.notification.entity.WhatsAppOutboxMessage;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface WhatsAppOutboxRepository extends JpaRepository<WhatsAppOutboxMessage, Long> {
+
+    /** Pendentes com tentativa vencida e sem worker ativo, mais antigas primeiro. */
+    @Query("SELECT m.id FROM WhatsAppOutboxMessage m WHERE m.status = 'PENDING' AND m.nextAttemptAt <= :now "
+            + "AND (m.claimedUntil IS NULL OR m.claimedUntil < :now) ORDER BY m.nextAttemptAt, m.id")
+    List<Long> findDueIds(@Param("now") Instant now, Limit limit);
+
+    /**
+     * Reserva as mensagens para este worker. A condição é reavaliada no UPDATE, então duas
+     * instâncias que leram os mesmos ids nunca reservam a mesma mensagem.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE WhatsAppOutboxMessage m SET m.claimToken = :token, m.claimedUntil = :until "
+            + "WHERE m.id IN :ids AND m.status = 'PENDING' AND (m.claimedUntil IS NULL OR m.claimedUntil < :now)")
+    int claim(@Param("ids") Collection<Long> ids, @Param("token") String token,
+              @Param("until") Instant until, @Param("now") Instant now);
+
+    List<WhatsAppOutboxMessage> findByClaimTokenOrderById(String claimToken);
+
+    @Query("SELECT m.idempotencyKey FROM WhatsAppOutboxMessage m WHERE m.idempotencyKey IN :keys")
+    List<String> findExistingKeys(@Param("keys") Collection<String> keys);
+
+    @Modifying
+    @Query("UPDATE WhatsAppOutboxMessage m SET m.status = 'SENT', m.attempts = m.attempts + 1, m.sentAt = :now, "
+            + "m.claimToken = NULL, m.claimedUntil = NULL, m.lastError = NULL "
+            + "WHERE m.id = :id AND m.claimToken = :token")
+    int markSent(@Param("id") Long id, @Param("token") String token, @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE WhatsAppOutboxMessage m SET m.attempts = m.attempts + 1, m.nextAttemptAt = :nextAttemptAt, "
+            + "m.lastError = :error, m.claimToken = NULL, m.claimedUntil = NULL "
+            + "WHERE m.id = :id AND m.claimToken = :token")
+    int reschedule(@Param("id") Long id, @Param("token") String token,
+                   @Param("nextAttemptAt") Instant nextAttemptAt, @Param("error") String error);
+
+    @Modifying
+    @Query("UPDATE WhatsAppOutboxMessage m SET m.status = 'FAILED', m.attempts = m.attempts + 1, m.lastError = :error, "
+            + "m.claimToken = NULL, m.claimedUntil = NULL "
+            + "WHERE m.id = :id AND m.claimToken = :token")
+    int markFailed(@Param("id") Long id, @Param("token") String token, @Param("error") String error);
+}
@@ -0,0 +1,263 @@
+package com.convivium.module.notification.scheduler;
+
+import com.convivium.integration.whatsapp.WhatsAppDeliveryException;
+import com.convivium.integration.whatsapp.WhatsAppNotificationService;
+import com.convivium.module.notification.entity.WhatsAppOutboxMessage;
+import com.convivium.module.notification.repository.NotificationRepository;
+import com.convivium.module.notification.repository.WhatsAppOutboxRepository;
+import com.convivium.module.notification.service.WhatsAppOutboxProperties;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Entrega as mensagens da whatsapp_outbox usando o WhatsAppNotificationService como transporte.
+ *
+ * A cada app.whatsapp.outbox.poll-interval-ms entrega até batch-size mensagens vencidas, em
+ * reservas (claim com lease, seguro entre instâncias) enviadas com no máximo concurrency
+ * chamadas simultâneas. Cada reserva tem de terminar dentro do seu lease, senão outra
+ * instância reserva e envia de novo as mesmas linhas: por isso ela leva só concurrency × N
+ * mensagens, com N rodadas de envio no pior caso (connect + request timeout do HTTP)
+ * cabendo em metade do lease (ver {@link #claimSize()}). A varredura continua reservando
+ * até somar batch-size ou a fila esvaziar.
+ * O HTTP acontece sem conexão de banco; cada resultado é gravado numa
+ * transação curta, que também atualiza notifications.delivery_status:
+ * - sucesso: SENT;
+ * - erro retryable: nova tentativa com backoff exponencial (backoff-base-ms .. backoff-max-ms);
+ * - erro definitivo ou max-attempts esgotado: FAILED.
+ *
+ * A entrega é "pelo menos uma vez": se a instância cair entre o envio e a gravação do SENT,
+ * a mensagem é reenviada quando o lease expirar. A idempotency_key vai no envio
+ * (biz_opaque_callback_data) para identificar duplicatas nos webhooks da Meta.
+ *
+ * Métricas: convivium.whatsapp.outbox (tag result = sent, retry, failed).
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.whatsapp.enabled", havingValue = "true")
+public class WhatsAppOutboxDispatcher {
+
+    private static final TypeReference<Map<String, String>> PAYLOAD_TYPE = new TypeReference<>() {};
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final WhatsAppOutboxRepository outboxRepository;
+    private final NotificationRepository notificationRepository;
+    private final WhatsAppNotificationService transport;
+    private final WhatsAppOutboxProperties properties;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor;
+    private final Duration sendTimeout;
+    private final Clock clock;
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter failed;
+
+    @Autowired
+    public WhatsAppOutboxDispatcher(WhatsAppOutboxRepository outboxRepository,
+                                    NotificationRepository notificationRepository,
+                                    WhatsAppNotificationService transport,
+                                    WhatsAppOutboxProperties properties,
+                                    ObjectMapper objectMapper,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.whatsapp.http.connect-timeout-ms:3000}") long connectTimeoutMs,
+                                    @Value("${app.whatsapp.http.request-timeout-ms:10000}") long requestTimeoutMs) {
+        this(outboxRepository, notificationRepository, transport, properties, objectMapper,
+                new TransactionTemplate(transactionManager), newExecutor(properties.getConcurrency()),
+                Duration.ofMillis(connectTimeoutMs + requestTimeoutMs), meterRegistry, Clock.systemUTC());
+    }
+
+    /** @param sendTimeout duração máxima de um envio (connect + request timeout do HTTP) */
+    WhatsAppOutboxDispatcher(WhatsAppOutboxRepository outboxRepository, NotificationRepository notificationRepository,
+                             WhatsAppNotificationService transport, WhatsAppOutboxProperties properties,
+                             ObjectMapper objectMapper, TransactionTemplate transactionTemplate,
+                             ExecutorService executor, Duration sendTimeout, MeterRegistry meterRegistry, Clock clock) {
+        this.outboxRepository = outboxRepository;
+        this.notificationRepository = notificationRepository;
+        this.transport = transport;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.executor = executor;
+        this.sendTimeout = sendTimeout;
+        this.clock = clock;
+        this.sent = Counter.builder("convivium.whatsapp.outbox").tag("result", "sent").register(meterRegistry);
+        this.retried = Counter.builder("convivium.whatsapp.outbox").tag("result", "retry").register(meterRegistry);
+        this.failed = Counter.builder("convivium.whatsapp.outbox").tag("result", "failed").register(meterRegistry);
+        if (properties.getLeaseMs() < 2 * sendTimeout.toMillis()) {
+            log.warn("WhatsAppOutboxDispatcher: lease-ms {} menor que 2x o timeout do envio ({} ms); "
+                    + "uma reserva pode expirar durante o envio", properties.getLeaseMs(), sendTimeout.toMillis());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.whatsapp.outbox.poll-interval-ms:2000}")
+    public void scheduledDispatch() {
+        try {
+            dispatchDue();
+        } catch (RuntimeException e) {
+            log.error("WhatsAppOutboxDispatcher: falha na varredura da outbox", e);
+        }
+    }
+
+    /**
+     * Entrega até batch-size mensagens vencidas, uma reserva de {@link #claimSize()} por vez;
+     * espera todos os envios de cada reserva antes da próxima.
+     *
+     * @return mensagens processadas (qualquer resultado)
+     */
+    public int dispatchDue() {
+        int limit = Math.max(1, properties.getBatchSize());
+        int processed = 0;
+        while (processed < limit) {
+            int claimed = dispatchClaim(Math.min(claimSize(), limit - processed));
+            if (claimed == 0) {
+                break;
+            }
+            processed += claimed;
+        }
+        return processed;
+    }
+
+    /**
+     * Mensagens por reserva: concurrency envios por rodada, e só as rodadas cujo pior caso
+     * (sendTimeout cada) cabe em metade do lease; a outra metade é folga para a gravação
+     * dos resultados e diferença de relógio entre instâncias. Nunca mais que batch-size.
+     */
+    int claimSize() {
+        int concurrency = Math.max(1, properties.getConcurrency());
+        long rounds = Math.max(1, properties.getLeaseMs() / 2 / Math.max(1, sendTimeout.toMillis()));
+        return (int) Math.max(1, Math.min(Math.max(1, properties.getBatchSize()), rounds * concurrency));
+    }
+
+    private int dispatchClaim(int size) {
+        Instant now = clock.instant();
+        List<Long> ids = outboxRepository.findDueIds(now, Limit.of(size));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String token = UUID.randomUUID().toString();
+        if (outboxRepository.claim(ids, token, now.plusMillis(properties.getLeaseMs()), now) == 0) {
+            return 0;
+        }
+        List<WhatsAppOutboxMessage> claimed = outboxRepository.findByClaimTokenOrderById(token);
+        List<Callable<Void>> tasks = claimed.stream()
+                .<Callable<Void>>map(message -> () -> {
+                    deliver(message);
+                    return null;
+                })
+                .toList();
+        try {
+            executor.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+        return claimed.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void deliver(WhatsAppOutboxMessage message) {
+        try {
+            send(message);
+            record(message, null, false);
+        } catch (WhatsAppDeliveryException e) {
+            record(message, e.getMessage(), e.isRetryable());
+        } catch (RuntimeException e) {
+            record(message, e.getClass().getSimpleName() + ": " + e.getMessage(), true);
+        }
+    }
+
+    private void send(WhatsAppOutboxMessage message) {
+        Map<String, String> params;
+        try {
+            params = objectMapper.readValue(message.getPayload(), PAYLOAD_TYPE);
+        } catch (Exception e) {
+            throw new WhatsAppDeliveryException("Payload invalido na outbox", false, e);
+        }
+        switch (message.getMessageType()) {
+            case ENCOMENDA_TEMPLATE -> transport.sendEncomendaNotification(message.getToPhone(),
+                    params.get("residentName"), params.get("residentCode"), message.getIdempotencyKey());
+            case ENCOMENDA_PHOTO -> transport.sendEncomendaPhoto(message.getToPhone(),
+                    params.get("imageUrl"), message.getIdempotencyKey());
+        }
+    }
+
+    /** error == null: enviada. */
+    private void record(WhatsAppOutboxMessage message, String error, boolean retryable) {
+        Instant now = clock.instant();
+        int attempt = message.getAttempts() + 1;
+        String token = message.getClaimToken();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (error == null) {
+                if (outboxRepository.markSent(message.getId(), token, now) > 0) {
+                    updateNotification(message, "SENT", now);
+                    sent.increment();
+                }
+            } else if (retryable && attempt < properties.getMaxAttempts()) {
+                if (outboxRepository.reschedule(message.getId(), token, now.plus(backoff(attempt)), truncate(error)) > 0) {
+                    retried.increment();
+                    log.warn("WhatsApp outbox {}: tentativa {} falhou, nova tentativa agendada: {}",
+                            message.getIdempotencyKey(), attempt, error);
+                }
+            } else if (outboxRepository.markFailed(message.getId(), token, truncate(error)) > 0) {
+                updateNotification(message, "FAILED", null);
+                failed.increment();
+                log.error("WhatsApp outbox {}: falha definitiva apos {} tentativa(s): {}",
+                        message.getIdempotencyKey(), attempt, error);
+            }
+        });
+    }
+
+    private void updateNotification(WhatsAppOutboxMessage message, String deliveryStatus, Instant sentAt) {
+        if (message.getNotificationId() != null) {
+            notificationRepository.updateDeliveryStatus(message.getNotificationId(), deliveryStatus, sentAt);
+        }
+    }
+
+    /** base * 2^(attempt-1), limitado a backoffMaxMs. */
+    Duration backoff(int attempt) {
+        long base = Math.max(1, properties.getBackoffBaseMs());
+        long max = Math.max(base, properties.getBackoffMaxMs());
+        int shift = Math.min(Math.max(0, attempt - 1), 30);
+        return Duration.ofMillis(Math.min(max, base << shift));
+    }
+
+    private static String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+            return error;
+        }
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    /** concurrency workers em virtual threads: o envio é I/O puro, não ocupa threads da plataforma. */
+    private static ExecutorService newExecutor(int concurrency) {
+        return Executors.newFixedThreadPool(Math.max(1, concurrency),
+                Thread.ofVirtual().name("whatsapp-outbox-", 1).factory());
+    }
+}
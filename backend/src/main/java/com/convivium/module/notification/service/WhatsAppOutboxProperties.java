@@ -0,0 +1,33 @@
+package com.convivium.module.notification.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.whatsapp.outbox")
+public class WhatsAppOutboxProperties {
+
+    /** Intervalo entre varreduras da outbox pelo dispatcher. */
+    private long pollIntervalMs = 2_000;
+
+    /**
+     * Mensagens entregues por varredura. Cada reserva é menor (ver WhatsAppOutboxDispatcher.claimSize):
+     * só o que concurrency workers enviam, no pior caso de timeout, dentro do lease.
+     */
+    private int batchSize = 50;
+
+    /** Envios simultâneos para a API da Meta (por instância). */
+    private int concurrency = 4;
+
+    /** Tempo de reserva de uma mensagem; se o worker cair, ela volta à fila depois disso. */
+    private long leaseMs = 60_000;
+
+    /** Tentativas antes de marcar FAILED. */
+    private int maxAttempts = 6;
+
+    /** Espera antes da 2ª tentativa; dobra a cada falha até backoffMaxMs. */
+    private long backoffBaseMs = 5_000;
+    private long backoffMaxMs = 600_000;
+}
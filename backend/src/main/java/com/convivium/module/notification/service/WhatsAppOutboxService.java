@@ -0,0 +1,95 @@
+package com.convivium.module.notification.service;
+
+import com.convivium.module.notification.dto.WhatsAppOutboxRequest;
+import com.convivium.module.notification.repository.WhatsAppOutboxInsertRepository;
+import com.convivium.module.notification.repository.WhatsAppOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Enfileira mensagens WhatsApp na outbox, na transação de quem chama: se o evento de
+ * domínio sofrer rollback a mensagem também some, e nenhuma chamada HTTP acontece com
+ * conexão de banco aberta. A entrega fica com o WhatsAppOutboxDispatcher.
+ *
+ * Com app.whatsapp.enabled=false nada é gravado (não há quem entregue).
+ */
+@Service
+@Transactional
+public class WhatsAppOutboxService {
+
+    private final WhatsAppOutboxInsertRepository insertRepository;
+    private final WhatsAppOutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Clock clock;
+
+    @Autowired
+    public WhatsAppOutboxService(WhatsAppOutboxInsertRepository insertRepository,
+                                 WhatsAppOutboxRepository outboxRepository,
+                                 ObjectMapper objectMapper,
+                                 @Value("${app.whatsapp.enabled:false}") boolean enabled) {
+        this(insertRepository, outboxRepository, objectMapper, enabled, Clock.systemUTC());
+    }
+
+    WhatsAppOutboxService(WhatsAppOutboxInsertRepository insertRepository, WhatsAppOutboxRepository outboxRepository,
+                          ObjectMapper objectMapper, boolean enabled, Clock clock) {
+        this.insertRepository = insertRepository;
+        this.outboxRepository = outboxRepository;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.clock = clock;
+    }
+
+    public void enqueue(WhatsAppOutboxRequest request) {
+        enqueueAll(List.of(request));
+    }
+
+    /**
+     * Grava as mensagens com telefone e usuário; chaves já presentes na outbox (ou repetidas
+     * na lista) são ignoradas.
+     *
+     * @return quantidade de mensagens gravadas
+     */
+    public int enqueueAll(List<WhatsAppOutboxRequest> requests) {
+        if (!enabled || requests.isEmpty()) {
+            return 0;
+        }
+        List<WhatsAppOutboxRequest> candidates = requests.stream()
+                .filter(r -> r.userId() != null && r.phone() != null && !r.phone().isBlank())
+                .toList();
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+        Set<String> seen = new HashSet<>(outboxRepository.findExistingKeys(
+                candidates.stream().map(WhatsAppOutboxRequest::idempotencyKey).toList()));
+
+        List<WhatsAppOutboxRequest> accepted = new ArrayList<>(candidates.size());
+        List<String> payloads = new ArrayList<>(candidates.size());
+        for (WhatsAppOutboxRequest request : candidates) {
+            if (seen.add(request.idempotencyKey())) {
+                accepted.add(request);
+                payloads.add(toJson(request));
+            }
+        }
+        insertRepository.insertAll(accepted, payloads, clock.instant());
+        return accepted.size();
+    }
+
+    private String toJson(WhatsAppOutboxRequest request) {
+        try {
+            return objectMapper.writeValueAsString(request.params());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Parametros invalidos para " + request.idempotencyKey(), e);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.convivium.module.parcel.controller;
 
 import com.convivium.common.dto.ApiResponse;
 import com.convivium.common.dto.PageResponse;
+import com.convivium.module.parcel.dto.ParcelBatchCreateRequest;
 import com.convivium.module.parcel.dto.ParcelCreateRequest;
 import com.convivium.module.parcel.dto.ParcelDetailResponse;
 import com.convivium.module.parcel.dto.ParcelListResponse;
@@ -27,6 +28,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -38,24 +40,25 @@ public class ParcelController {
 
     /** Lista todas as encomendas - apenas gestao (sindico, porteiro). Morador usa GET /my */
     @GetMapping
-    @PreAuthorize("hasAnyRole('SINDICO', 'SUB_SINDICO', 'PORTEIRO') or hasRole('PLATFORM_ADMIN')")
+    @PreAuthorize("hasPermission(#condoId, 'SINDICO,SUB_SINDICO,PORTEIRO,PLATFORM_ADMIN')")
     public ResponseEntity<ApiResponse<PageResponse<ParcelListResponse>>> listParcels(
             @PathVariable Long condoId,
             @RequestParam(required = false) String status,
-            @PageableDefault(size = 20) Pageable pageable) {
+            @PageableDefault(size = 20) Pageable pageable,
+            @RequestParam(required = false) String cursor) {
 
         ParcelStatus parcelStatus = null;
         if (status != null && !status.isBlank()) {
             parcelStatus = ParcelStatus.valueOf(status.toUpperCase());
         }
 
-        Page<ParcelListResponse> page = parcelService.listParcels(condoId, parcelStatus, pageable);
-        return ResponseEntity.ok(ApiResponse.ok(PageResponse.from(page)));
+        PageResponse<ParcelListResponse> page = parcelService.listParcels(condoId, parcelStatus, pageable, cursor);
+        return ResponseEntity.ok(ApiResponse.ok(page));
     }
 
     /** Registrar recebimento de encomenda - apenas gestao (porteiro/sindico). Morador nao cria. */
     @PostMapping
-    @PreAuthorize("hasAnyRole('SINDICO', 'SUB_SINDICO', 'PORTEIRO') or hasRole('PLATFORM_ADMIN')")
+    @PreAuthorize("hasPermission(#condoId, 'SINDICO,SUB_SINDICO,PORTEIRO,PLATFORM_ADMIN')")
     public ResponseEntity<ApiResponse<ParcelListResponse>> createParcel(
             @PathVariable Long condoId,
             @CurrentUser UserPrincipal currentUser,
@@ -65,8 +68,21 @@ public class ParcelController {
         return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.ok(response, "Encomenda registrada com sucesso"));
     }
 
+    /** Recebimento em lote (várias encomendas da mesma entrega) - apenas gestao. Tudo ou nada. */
+    @PostMapping("/batch")
+    @PreAuthorize("hasPermission(#condoId, 'SINDICO,SUB_SINDICO,PORTEIRO,PLATFORM_ADMIN')")
+    public ResponseEntity<ApiResponse<List<ParcelListResponse>>> createParcels(
+            @PathVariable Long condoId,
+            @CurrentUser UserPrincipal currentUser,
+            @Valid @RequestBody ParcelBatchCreateRequest request) {
+
+        List<ParcelListResponse> response = parcelService.createParcels(condoId, currentUser.getId(), request.items());
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.ok(response, response.size() + " encomendas registradas com sucesso"));
+    }
+
     @GetMapping("/{parcelId}")
-    @PreAuthorize("hasAnyRole('SINDICO', 'SUB_SINDICO', 'PORTEIRO', 'MORADOR') or hasRole('PLATFORM_ADMIN')")
+    @PreAuthorize("hasPermission(#condoId, 'SINDICO,SUB_SINDICO,PORTEIRO,MORADOR,PLATFORM_ADMIN')")
     public ResponseEntity<ApiResponse<ParcelDetailResponse>> getParcel(
             @PathVariable Long condoId,
             @PathVariable Long parcelId,
@@ -77,7 +93,7 @@ public class ParcelController {
     }
 
     @PostMapping("/{parcelId}/generate-code")
-    @PreAuthorize("hasAnyRole('SINDICO', 'SUB_SINDICO', 'PORTEIRO') or hasRole('PLATFORM_ADMIN')")
+    @PreAuthorize("hasPermission(#condoId, 'SINDICO,SUB_SINDICO,PORTEIRO,PLATFORM_ADMIN')")
     public ResponseEntity<ApiResponse<Map<String, String>>> generateCodes(
             @PathVariable Long condoId,
             @PathVariable Long parcelId) {
@@ -87,7 +103,7 @@ public class ParcelController {
     }
 
     @PostMapping("/{parcelId}/verify")
-    @PreAuthorize("hasAnyRole('SINDICO', 'SUB_SINDICO', 'PORTEIRO') or hasRole('PLATFORM_ADMIN')")
+    @PreAuthorize("hasPermission(#condoId, 'SINDICO,SUB_SINDICO,PORTEIRO,PLATFORM_ADMIN')")
     public ResponseEntity<ApiResponse<Void>> verifyPickup(
             @PathVariable Long condoId,
             @PathVariable Long parcelId,
@@ -99,8 +115,20 @@ public class ParcelController {
         return ResponseEntity.ok(ApiResponse.ok(null, "Encomenda verificada e entregue com sucesso"));
     }
 
+    /** Retirada na portaria só com o código do morador (sem escolher a encomenda antes). */
+    @PostMapping("/pickup")
+    @PreAuthorize("hasPermission(#condoId, 'SINDICO,SUB_SINDICO,PORTEIRO,PLATFORM_ADMIN')")
+    public ResponseEntity<ApiResponse<ParcelListResponse>> pickupByCode(
+            @PathVariable Long condoId,
+            @CurrentUser UserPrincipal currentUser,
+            @Valid @RequestBody ParcelVerifyRequest request) {
+
+        ParcelListResponse response = parcelService.pickupByCode(condoId, request, currentUser.getId());
+        return ResponseEntity.ok(ApiResponse.ok(response, "Encomenda verificada e entregue com sucesso"));
+    }
+
     @PostMapping("/{parcelId}/photos")
-    @PreAuthorize("hasAnyRole('SINDICO', 'SUB_SINDICO', 'PORTEIRO') or hasRole('PLATFORM_ADMIN')")
+    @PreAuthorize("hasPermission(#condoId, 'SINDICO,SUB_SINDICO,PORTEIRO,PLATFORM_ADMIN')")
     public ResponseEntity<ApiResponse<Void>> uploadPhoto(
             @PathVariable Long condoId,
             @PathVariable Long parcelId,
@@ -114,7 +142,7 @@ public class ParcelController {
 
     /** Minhas encomendas (morador). Rota /my e /mine para compatibilidade com o front. */
     @GetMapping({ "/my", "/mine" })
-    @PreAuthorize("hasAnyRole('SINDICO', 'SUB_SINDICO', 'PORTEIRO', 'MORADOR') or hasRole('PLATFORM_ADMIN')")
+    @PreAuthorize("hasPermission(#condoId, 'SINDICO,SUB_SINDICO,PORTEIRO,MORADOR,PLATFORM_ADMIN')")
     public ResponseEntity<ApiResponse<PageResponse<ParcelListResponse>>> getMyParcels(
             @PathVariable Long condoId,
             @CurrentUser UserPrincipal currentUser,
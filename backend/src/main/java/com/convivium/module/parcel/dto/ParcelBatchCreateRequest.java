@@ -0,0 +1,17 @@
+package com.convivium.module.parcel.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/** Recebimento em lote (entrega de transportadora com várias encomendas de uma vez). */
+public record ParcelBatchCreateRequest(
+        @NotEmpty(message = "Informe ao menos uma encomenda")
+        @Size(max = ParcelBatchCreateRequest.MAX_ITEMS, message = "Maximo de " + ParcelBatchCreateRequest.MAX_ITEMS + " encomendas por lote")
+        List<@NotNull @Valid ParcelCreateRequest> items
+) {
+    public static final int MAX_ITEMS = 500;
+}
@@ -0,0 +1,23 @@
+package com.convivium.module.parcel.dto;
+
+import com.convivium.module.parcel.entity.ParcelStatus;
+
+import java.time.Instant;
+
+/**
+ * Linha das listagens de encomendas lida direto pelo ParcelRepository (JPQL com
+ * LEFT JOIN em unidade, destinatário e porteiro), sem carregar as associações LAZY.
+ */
+public record ParcelListRow(
+        Long id,
+        String unitIdentifier,
+        String recipientName,
+        String receivedByName,
+        String carrier,
+        String trackingNumber,
+        String description,
+        ParcelStatus status,
+        Instant deliveredAt,
+        Instant createdAt
+) {
+}
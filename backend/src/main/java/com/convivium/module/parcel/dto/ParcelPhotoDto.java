@@ -1,8 +1,14 @@
 package com.convivium.module.parcel.dto;
 
+/**
+ * thumbnailUrl / previewUrl ficam null enquanto as variantes são geradas (ou se a imagem
+ * não pôde ser redimensionada); nesse caso use photoUrl.
+ */
 public record ParcelPhotoDto(
         Long id,
         String photoUrl,
+        String thumbnailUrl,
+        String previewUrl,
         String photoType,
         String createdAt
 ) {
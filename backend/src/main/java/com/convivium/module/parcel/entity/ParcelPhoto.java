@@ -3,6 +3,8 @@ package com.convivium.module.parcel.entity;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EntityListeners;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -47,6 +49,26 @@ public class ParcelPhoto {
     @Column(name = "uploaded_by")
     private Long uploadedBy;
 
+    @Column(name = "storage_key", length = 300)
+    private String storageKey;
+
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "size_bytes")
+    private Long sizeBytes;
+
+    @Column(name = "thumbnail_url", length = 500)
+    private String thumbnailUrl;
+
+    @Column(name = "preview_url", length = 500)
+    private String previewUrl;
+
+    /** null = foto anterior ao pipeline de variantes (só existe photoUrl). */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "variants_status", length = 20)
+    private PhotoVariantsStatus variantsStatus;
+
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
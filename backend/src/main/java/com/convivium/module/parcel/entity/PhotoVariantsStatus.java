@@ -0,0 +1,7 @@
+package com.convivium.module.parcel.entity;
+
+public enum PhotoVariantsStatus {
+    PENDING,
+    READY,
+    FAILED
+}
@@ -0,0 +1,85 @@
+package com.convivium.module.parcel.repository;
+
+import com.convivium.module.parcel.entity.Parcel;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * INSERT de encomendas em lote via JDBC (um executeBatch por lote). O id da entidade é
+ * IDENTITY, o que impede o Hibernate de agrupar os inserts; aqui os ids gerados voltam
+ * pelo KeyHolder e são gravados nas próprias instâncias (que continuam fora do contexto JPA).
+ */
+@Repository
+@RequiredArgsConstructor
+public class ParcelBatchInsertRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO parcels (condominium_id, unit_id, recipient_id, received_by_id, carrier, tracking_number,
+                                 description, status, resident_code, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insere as encomendas (unit, receivedBy e status obrigatórios) com createdAt = now
+     * e preenche id/createdAt/updatedAt em cada uma.
+     */
+    public void insertAll(List<Parcel> parcels, Instant now) {
+        if (parcels.isEmpty()) {
+            return;
+        }
+        Timestamp ts = Timestamp.from(now);
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Parcel parcel = parcels.get(i);
+                        ps.setLong(1, parcel.getCondominiumId());
+                        ps.setLong(2, parcel.getUnit().getId());
+                        if (parcel.getRecipient() != null) {
+                            ps.setLong(3, parcel.getRecipient().getId());
+                        } else {
+                            ps.setNull(3, Types.BIGINT);
+                        }
+                        ps.setLong(4, parcel.getReceivedBy().getId());
+                        ps.setString(5, parcel.getCarrier());
+                        ps.setString(6, parcel.getTrackingNumber());
+                        ps.setString(7, parcel.getDescription());
+                        ps.setString(8, parcel.getStatus().name());
+                        ps.setString(9, parcel.getResidentCode());
+                        ps.setTimestamp(10, ts);
+                        ps.setTimestamp(11, ts);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return parcels.size();
+                    }
+                }, keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        if (keys.size() != parcels.size()) {
+            throw new IllegalStateException("Esperados " + parcels.size() + " ids gerados, recebidos " + keys.size());
+        }
+        for (int i = 0; i < parcels.size(); i++) {
+            Parcel parcel = parcels.get(i);
+            parcel.setId(((Number) keys.get(i).values().iterator().next()).longValue());
+            parcel.setCreatedAt(now);
+            parcel.setUpdatedAt(now);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.convivium.module.parcel.repository;
+
+import com.convivium.module.parcel.entity.ParcelPhoto;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ParcelPhotoRepository extends JpaRepository<ParcelPhoto, Long> {
+
+    /** Upload anterior com o mesmo conteúdo no condomínio (o mais antigo). */
+    @Query("SELECT ph FROM ParcelPhoto ph WHERE ph.contentHash = :hash AND ph.parcel.condominiumId = :condominiumId "
+            + "ORDER BY ph.id")
+    List<ParcelPhoto> findByContentHashInCondominium(@Param("hash") String hash,
+                                                     @Param("condominiumId") Long condominiumId, Limit limit);
+
+    boolean existsByParcelIdAndContentHash(Long parcelId, String contentHash);
+
+    /** Foto com encomenda e destinatário, para o processamento em background. */
+    @Query("SELECT ph FROM ParcelPhoto ph JOIN FETCH ph.parcel p LEFT JOIN FETCH p.recipient WHERE ph.id = :id")
+    Optional<ParcelPhoto> findWithParcelById(@Param("id") Long id);
+
+    @Query("SELECT MIN(ph.id) FROM ParcelPhoto ph WHERE ph.parcel.id = :parcelId")
+    Long findFirstPhotoId(@Param("parcelId") Long parcelId);
+
+    @Query("SELECT ph.id FROM ParcelPhoto ph WHERE ph.variantsStatus = 'PENDING' AND ph.createdAt < :createdBefore "
+            + "ORDER BY ph.id")
+    List<Long> findPendingVariantIds(@Param("createdBefore") Instant createdBefore, Limit limit);
+
+    /** Só a primeira execução grava (outra instância pode processar a mesma foto). */
+    @Modifying
+    @Query("UPDATE ParcelPhoto ph SET ph.variantsStatus = 'READY', ph.thumbnailUrl = :thumbnailUrl, "
+            + "ph.previewUrl = :previewUrl WHERE ph.id = :id AND ph.variantsStatus = 'PENDING'")
+    int markVariantsReady(@Param("id") Long id, @Param("thumbnailUrl") String thumbnailUrl,
+                          @Param("previewUrl") String previewUrl);
+
+    @Modifying
+    @Query("UPDATE ParcelPhoto ph SET ph.variantsStatus = 'FAILED' WHERE ph.id = :id AND ph.variantsStatus = 'PENDING'")
+    int markVariantsFailed(@Param("id") Long id);
+}
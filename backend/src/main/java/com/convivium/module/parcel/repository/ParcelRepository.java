@@ -1,10 +1,16 @@
 package com.convivium.module.parcel.repository;
 
+import com.convivium.module.parcel.dto.ParcelListRow;
 import com.convivium.module.parcel.entity.Parcel;
 import com.convivium.module.parcel.entity.ParcelStatus;
+import com.convivium.module.user.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
@@ -14,23 +20,105 @@ import java.util.Optional;
 @Repository
 public interface ParcelRepository extends JpaRepository<Parcel, Long> {
 
-    Page<Parcel> findByCondominiumId(Long condominiumId, Pageable pageable);
+    /** Colunas de ParcelListResponse em um único SELECT (listagens sem N+1). */
+    String LIST_ROW_SELECT = """
+            SELECT new com.convivium.module.parcel.dto.ParcelListRow(
+                p.id, u.identifier, r.name, rb.name, p.carrier, p.trackingNumber, p.description,
+                p.status, p.deliveredAt, p.createdAt)
+            FROM Parcel p
+            LEFT JOIN p.unit u
+            LEFT JOIN p.recipient r
+            LEFT JOIN p.receivedBy rb
+            """;
 
-    Page<Parcel> findByCondominiumIdAndStatus(Long condominiumId, ParcelStatus status, Pageable pageable);
+    @Query(value = LIST_ROW_SELECT + "WHERE p.condominiumId = :condominiumId",
+            countQuery = "SELECT COUNT(p) FROM Parcel p WHERE p.condominiumId = :condominiumId")
+    Page<ParcelListRow> findListRowsByCondominiumId(@Param("condominiumId") Long condominiumId, Pageable pageable);
 
-    Page<Parcel> findByRecipientId(Long recipientId, Pageable pageable);
+    @Query(value = LIST_ROW_SELECT + "WHERE p.condominiumId = :condominiumId AND p.status = :status",
+            countQuery = "SELECT COUNT(p) FROM Parcel p WHERE p.condominiumId = :condominiumId AND p.status = :status")
+    Page<ParcelListRow> findListRowsByCondominiumIdAndStatus(@Param("condominiumId") Long condominiumId,
+                                                            @Param("status") ParcelStatus status,
+                                                            Pageable pageable);
 
-    Page<Parcel> findByRecipientIdAndStatus(Long recipientId, ParcelStatus status, Pageable pageable);
+    /** Depois do cursor, na ordem de CursorPage.NEWEST_FIRST (keyset, sem OFFSET nem COUNT). */
+    String KEYSET_AFTER = """
+             AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id))
+            ORDER BY p.createdAt DESC, p.id DESC
+            """;
+
+    @Query(LIST_ROW_SELECT + "WHERE p.condominiumId = :condominiumId" + KEYSET_AFTER)
+    List<ParcelListRow> findListRowsByCondominiumIdAfter(@Param("condominiumId") Long condominiumId,
+                                                        @Param("createdAt") Instant createdAt,
+                                                        @Param("id") Long id,
+                                                        Limit limit);
+
+    @Query(LIST_ROW_SELECT + "WHERE p.condominiumId = :condominiumId AND p.status = :status" + KEYSET_AFTER)
+    List<ParcelListRow> findListRowsByCondominiumIdAndStatusAfter(@Param("condominiumId") Long condominiumId,
+                                                                 @Param("status") ParcelStatus status,
+                                                                 @Param("createdAt") Instant createdAt,
+                                                                 @Param("id") Long id,
+                                                                 Limit limit);
+
+    @Query(value = LIST_ROW_SELECT + "WHERE p.recipient.id = :recipientId",
+            countQuery = "SELECT COUNT(p) FROM Parcel p WHERE p.recipient.id = :recipientId")
+    Page<ParcelListRow> findListRowsByRecipientId(@Param("recipientId") Long recipientId, Pageable pageable);
+
+    @Query(value = LIST_ROW_SELECT + "WHERE p.recipient.id = :recipientId AND p.status = :status",
+            countQuery = "SELECT COUNT(p) FROM Parcel p WHERE p.recipient.id = :recipientId AND p.status = :status")
+    Page<ParcelListRow> findListRowsByRecipientIdAndStatus(@Param("recipientId") Long recipientId,
+                                                          @Param("status") ParcelStatus status,
+                                                          Pageable pageable);
 
     Optional<Parcel> findByIdAndCondominiumId(Long id, Long condominiumId);
 
-    long countByCondominiumIdAndStatusNot(Long condominiumId, ParcelStatus status);
+    /**
+     * Encomendas ainda não entregues com o código de retirada informado na portaria
+     * (idx_parcels_condo_resident_code_pending), já com unidade e pessoas para a resposta.
+     */
+    @Query("""
+            SELECT p FROM Parcel p
+            LEFT JOIN FETCH p.unit
+            LEFT JOIN FETCH p.recipient
+            LEFT JOIN FETCH p.receivedBy
+            WHERE p.condominiumId = :condominiumId
+              AND p.residentCode = :code
+              AND p.status <> com.convivium.module.parcel.entity.ParcelStatus.DELIVERED
+            ORDER BY p.id
+            """)
+    List<Parcel> findPendingByResidentCode(@Param("condominiumId") Long condominiumId,
+                                           @Param("code") String code,
+                                           Limit limit);
 
-    long countByRecipientIdAndStatusNot(Long recipientId, ParcelStatus status);
+    /**
+     * Marca a encomenda como entregue se ainda não estava. Duas portarias confirmando a mesma
+     * retirada disputam a linha: a segunda espera o commit da primeira e atualiza 0 linhas.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE Parcel p SET p.status = com.convivium.module.parcel.entity.ParcelStatus.DELIVERED,
+                p.deliveredAt = :now, p.pickedUpBy = :resident, p.updatedAt = :now
+            WHERE p.id = :id
+              AND p.status <> com.convivium.module.parcel.entity.ParcelStatus.DELIVERED
+            """)
+    int markDelivered(@Param("id") Long id, @Param("resident") User resident, @Param("now") Instant now);
 
-    List<Parcel> findByCondominiumIdAndUnit_IdAndCreatedAtGreaterThanEqualOrderByCreatedAtDesc(
-            Long condominiumId, Long unitId, Instant since);
+    /**
+     * Encomendas ainda não entregues do condomínio (idx_parcels_condo_pending). O status vai
+     * como literal, não parâmetro, para o planner poder usar o índice parcial.
+     */
+    @Query("""
+            SELECT COUNT(p) FROM Parcel p
+            WHERE p.condominiumId = :condominiumId
+              AND p.status <> com.convivium.module.parcel.entity.ParcelStatus.DELIVERED
+            """)
+    long countPendingByCondominiumId(@Param("condominiumId") Long condominiumId);
 
-    List<Parcel> findByCondominiumIdAndRecipientIdAndCreatedAtGreaterThanEqualOrderByCreatedAtDesc(
-            Long condominiumId, Long recipientId, Instant since);
+    /** Encomendas ainda não entregues do morador (idx_parcels_recipient_pending). */
+    @Query("""
+            SELECT COUNT(p) FROM Parcel p
+            WHERE p.recipient.id = :recipientId
+              AND p.status <> com.convivium.module.parcel.entity.ParcelStatus.DELIVERED
+            """)
+    long countPendingByRecipientId(@Param("recipientId") Long recipientId);
 }
@@ -0,0 +1,65 @@
+package com.convivium.module.parcel.scheduler;
+
+import com.convivium.module.parcel.repository.ParcelPhotoRepository;
+import com.convivium.module.parcel.service.ParcelPhotoProperties;
+import com.convivium.module.parcel.service.ParcelPhotoService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Reenvia para o ParcelPhotoService fotos que ficaram com variantes PENDING além de
+ * app.parcels.photos.recovery-delay-ms (instância reiniciada antes de processar, fila cheia
+ * ou erro de armazenamento). Processar a mesma foto duas vezes é inofensivo: as chaves das
+ * variantes são fixas e só a primeira gravação marca READY.
+ */
+@Slf4j
+@Component
+public class ParcelPhotoVariantJob {
+
+    private final ParcelPhotoRepository photoRepository;
+    private final ParcelPhotoService photoService;
+    private final ParcelPhotoProperties properties;
+    private final Clock clock;
+
+    @Autowired
+    public ParcelPhotoVariantJob(ParcelPhotoRepository photoRepository, ParcelPhotoService photoService,
+                                 ParcelPhotoProperties properties) {
+        this(photoRepository, photoService, properties, Clock.systemUTC());
+    }
+
+    ParcelPhotoVariantJob(ParcelPhotoRepository photoRepository, ParcelPhotoService photoService,
+                          ParcelPhotoProperties properties, Clock clock) {
+        this.photoRepository = photoRepository;
+        this.photoService = photoService;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    @Scheduled(fixedDelayString = "${app.parcels.photos.recovery-interval-ms:60000}")
+    public void scheduledResubmit() {
+        try {
+            resubmitPending();
+        } catch (RuntimeException e) {
+            log.error("ParcelPhotoVariantJob: falha na varredura de fotos pendentes", e);
+        }
+    }
+
+    /** @return fotos reenviadas */
+    public int resubmitPending() {
+        Instant createdBefore = clock.instant().minusMillis(properties.getRecoveryDelayMs());
+        List<Long> ids = photoRepository.findPendingVariantIds(createdBefore,
+                Limit.of(Math.max(1, properties.getRecoveryBatchSize())));
+        ids.forEach(photoService::submit);
+        if (!ids.isEmpty()) {
+            log.info("ParcelPhotoVariantJob: {} foto(s) pendentes reenviadas", ids.size());
+        }
+        return ids.size();
+    }
+}
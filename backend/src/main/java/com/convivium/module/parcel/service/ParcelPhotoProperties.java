@@ -0,0 +1,31 @@
+package com.convivium.module.parcel.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.parcels.photos")
+public class ParcelPhotoProperties {
+
+    /** Maior lado da miniatura usada nas listas e na galeria. */
+    private int thumbnailSize = 320;
+
+    /** Maior lado da versão enviada por WhatsApp e aberta no detalhe. */
+    private int previewSize = 1280;
+
+    /** Qualidade JPEG das variantes (0 a 1). */
+    private float jpegQuality = 0.8f;
+
+    /** Threads de redimensionamento (CPU); cada uma decodifica uma foto por vez. */
+    private int concurrency = 2;
+
+    /** Fotos aguardando processamento; além disso ficam para o ParcelPhotoVariantJob. */
+    private int queueCapacity = 100;
+
+    /** Idade mínima de uma foto PENDING para o job reprocessá-la (perdida por restart ou fila cheia). */
+    private long recoveryDelayMs = 120_000;
+
+    private int recoveryBatchSize = 50;
+}
@@ -0,0 +1,256 @@
+package com.convivium.module.parcel.service;
+
+import com.convivium.module.notification.dto.WhatsAppOutboxRequest;
+import com.convivium.module.notification.service.WhatsAppOutboxService;
+import com.convivium.module.parcel.entity.Parcel;
+import com.convivium.module.parcel.entity.ParcelPhoto;
+import com.convivium.module.parcel.entity.PhotoVariantsStatus;
+import com.convivium.module.parcel.repository.ParcelPhotoRepository;
+import com.convivium.module.user.entity.User;
+import com.convivium.storage.FileStorageService;
+import com.convivium.storage.ImageResizer;
+import com.convivium.storage.StorageException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pipeline das fotos de encomendas.
+ *
+ * Upload (na transação do ParcelService): o arquivo é lido como stream duas vezes a partir
+ * do temporário do multipart, uma para o SHA-256 e outra direto para o FileStorageService,
+ * sem carregar os bytes em memória. A chave no armazenamento é o próprio hash
+ * (parcels/photos/{condominio}/{sha256}.{ext}): o mesmo arquivo enviado de novo no
+ * condomínio reaproveita o objeto e as variantes já gerados.
+ *
+ * Variantes (após o commit, em pool próprio): miniatura (thumbnail-size) e preview
+ * (preview-size) em JPEG. O preview é o que vai por WhatsApp (a Meta recusa imagens acima
+ * de 5 MB; o upload aceita 10 MB). Se a imagem não puder ser decodificada a foto fica
+ * FAILED e o WhatsApp recebe o original. Fotos que ficaram PENDING (restart, fila cheia,
+ * erro de storage) são reenviadas pelo ParcelPhotoVariantJob.
+ */
+@Slf4j
+@Service
+public class ParcelPhotoService {
+
+    private final ParcelPhotoRepository photoRepository;
+    private final FileStorageService fileStorageService;
+    private final WhatsAppOutboxService whatsAppOutbox;
+    private final ParcelPhotoProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor;
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public ParcelPhotoService(ParcelPhotoRepository photoRepository,
+                              FileStorageService fileStorageService,
+                              WhatsAppOutboxService whatsAppOutbox,
+                              ParcelPhotoProperties properties,
+                              PlatformTransactionManager transactionManager) {
+        this(photoRepository, fileStorageService, whatsAppOutbox, properties,
+                new TransactionTemplate(transactionManager), newExecutor(properties));
+    }
+
+    ParcelPhotoService(ParcelPhotoRepository photoRepository, FileStorageService fileStorageService,
+                       WhatsAppOutboxService whatsAppOutbox, ParcelPhotoProperties properties,
+                       TransactionTemplate transactionTemplate, ExecutorService executor) {
+        this.photoRepository = photoRepository;
+        this.fileStorageService = fileStorageService;
+        this.whatsAppOutbox = whatsAppOutbox;
+        this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
+        this.executor = executor;
+    }
+
+    /**
+     * Grava a foto na encomenda (chamar dentro de uma transação). A mesma foto reenviada para
+     * a mesma encomenda (ex: retry do app) não cria outra linha.
+     *
+     * @param extension extensão já validada (jpg, png...)
+     * @return a foto gravada, ou a existente em caso de reenvio
+     */
+    public ParcelPhoto upload(Parcel parcel, MultipartFile file, String extension, String photoType, Long uploadedBy) {
+        String hash = sha256(file);
+        if (photoRepository.existsByParcelIdAndContentHash(parcel.getId(), hash)) {
+            return parcel.getPhotos().stream()
+                    .filter(photo -> hash.equals(photo.getContentHash()))
+                    .findFirst()
+                    .orElse(null);
+        }
+
+        ParcelPhoto photo = ParcelPhoto.builder()
+                .parcel(parcel)
+                .photoType(photoType)
+                .uploadedBy(uploadedBy)
+                .contentHash(hash)
+                .sizeBytes(file.getSize())
+                .build();
+        List<ParcelPhoto> sameContent = photoRepository.findByContentHashInCondominium(
+                hash, parcel.getCondominiumId(), Limit.of(1));
+        if (!sameContent.isEmpty()) {
+            ParcelPhoto original = sameContent.get(0);
+            photo.setStorageKey(original.getStorageKey());
+            photo.setPhotoUrl(original.getPhotoUrl());
+            photo.setThumbnailUrl(original.getThumbnailUrl());
+            photo.setPreviewUrl(original.getPreviewUrl());
+            photo.setVariantsStatus(original.getVariantsStatus());
+        } else {
+            String key = "parcels/photos/" + parcel.getCondominiumId() + "/" + hash + "." + extension;
+            photo.setStorageKey(key);
+            photo.setPhotoUrl(fileStorageService.store(key, file));
+            photo.setVariantsStatus(PhotoVariantsStatus.PENDING);
+        }
+        // carrega a coleção antes do INSERT, senão a foto nova viria do banco e seria adicionada de novo
+        boolean first = parcel.getPhotos().isEmpty();
+        photo = photoRepository.save(photo);
+        parcel.getPhotos().add(photo);
+
+        if (photo.getVariantsStatus() == PhotoVariantsStatus.PENDING) {
+            scheduleAfterCommit(photo.getId());
+        } else if (first) {
+            notifyRecipient(parcel, photo.getId(), photo.getPreviewUrl() != null ? photo.getPreviewUrl() : photo.getPhotoUrl());
+        }
+        return photo;
+    }
+
+    /**
+     * Enfileira a geração de variantes. Ids já na fila são ignorados; se a fila estiver cheia
+     * a foto continua PENDING e o ParcelPhotoVariantJob tenta de novo.
+     */
+    public void submit(Long photoId) {
+        if (!inFlight.add(photoId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generateVariants(photoId);
+                } catch (RuntimeException e) {
+                    log.warn("Foto {}: falha ao gerar variantes, nova tentativa pelo job: {}", photoId, e.getMessage());
+                } finally {
+                    inFlight.remove(photoId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(photoId);
+            log.debug("Foto {}: fila de variantes cheia", photoId);
+        }
+    }
+
+    /** Gera miniatura e preview de uma foto PENDING e, se for a primeira da encomenda, avisa o morador. */
+    void generateVariants(Long photoId) {
+        ParcelPhoto photo = photoRepository.findWithParcelById(photoId).orElse(null);
+        if (photo == null || photo.getVariantsStatus() != PhotoVariantsStatus.PENDING || photo.getStorageKey() == null) {
+            return;
+        }
+        String base = photo.getStorageKey().replaceFirst("\\.[^./]+$", "");
+        String thumbnailUrl;
+        String previewUrl;
+        try (InputStream original = fileStorageService.open(photo.getStorageKey())) {
+            BufferedImage preview = ImageResizer.fit(
+                    ImageResizer.read(original, properties.getPreviewSize()), properties.getPreviewSize());
+            BufferedImage thumbnail = ImageResizer.fit(preview, properties.getThumbnailSize());
+            previewUrl = storeJpeg(base + "_preview.jpg", preview);
+            thumbnailUrl = storeJpeg(base + "_thumb.jpg", thumbnail);
+        } catch (IOException e) {
+            log.warn("Foto {}: imagem nao pode ser redimensionada, usando o original: {}", photoId, e.getMessage());
+            record(photo, null, null);
+            return;
+        }
+        record(photo, thumbnailUrl, previewUrl);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /** thumbnailUrl == null: falhou. */
+    private void record(ParcelPhoto photo, String thumbnailUrl, String previewUrl) {
+        transactionTemplate.executeWithoutResult(status -> {
+            int updated = thumbnailUrl != null
+                    ? photoRepository.markVariantsReady(photo.getId(), thumbnailUrl, previewUrl)
+                    : photoRepository.markVariantsFailed(photo.getId());
+            Parcel parcel = photo.getParcel();
+            if (updated > 0 && photo.getId().equals(photoRepository.findFirstPhotoId(parcel.getId()))) {
+                notifyRecipient(parcel, photo.getId(), previewUrl != null ? previewUrl : photo.getPhotoUrl());
+            }
+        });
+    }
+
+    private String storeJpeg(String key, BufferedImage image) throws IOException {
+        byte[] jpeg = ImageResizer.toJpeg(image, properties.getJpegQuality());
+        return fileStorageService.store(key, new ByteArrayInputStream(jpeg), jpeg.length, "image/jpeg");
+    }
+
+    /**
+     * Foto da encomenda por WhatsApp (após o template, na janela de 24h), via outbox. Só a primeira
+     * foto da encomenda é enviada, como já era antes da outbox; as demais ficam no app.
+     */
+    private void notifyRecipient(Parcel parcel, Long photoId, String imageUrl) {
+        User recipient = parcel.getRecipient();
+        if (recipient != null) {
+            whatsAppOutbox.enqueue(WhatsAppOutboxRequest.encomendaPhoto(parcel.getCondominiumId(), parcel.getId(), photoId,
+                    recipient.getId(), recipient.getPhone(), imageUrl));
+        }
+    }
+
+    private void scheduleAfterCommit(Long photoId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            submit(photoId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                submit(photoId);
+            }
+        });
+    }
+
+    private static String sha256(MultipartFile file) {
+        try (InputStream content = file.getInputStream()) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = content.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException e) {
+            throw new StorageException("Erro ao ler arquivo enviado", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponivel", e);
+        }
+    }
+
+    private static ExecutorService newExecutor(ParcelPhotoProperties properties) {
+        int threads = Math.max(1, properties.getConcurrency());
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity())),
+                Thread.ofPlatform().name("parcel-photo-", 1).daemon().factory());
+    }
+}
@@ -0,0 +1,20 @@
+package com.convivium.module.parcel.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.parcels.pickup")
+public class ParcelPickupProperties {
+
+    /** Janela (fixa) de contagem de códigos errados por porteiro. */
+    private long windowSeconds = 300;
+
+    /** Códigos errados aceitos por porteiro na janela; 0 desliga o limite. */
+    private int maxFailedAttempts = 10;
+
+    /** Porteiros acompanhados ao mesmo tempo (memória por instância). */
+    private int maxEntries = 10_000;
+}
@@ -1,38 +1,52 @@
 package com.convivium.module.parcel.service;
 
+import com.convivium.common.dto.CursorPage;
+import com.convivium.common.dto.PageResponse;
 import com.convivium.common.exception.BusinessException;
 import com.convivium.common.exception.ResourceNotFoundException;
 import com.convivium.common.util.CodeGenerator;
 import com.convivium.module.condominium.entity.Unit;
 import com.convivium.module.condominium.repository.UnitRepository;
+import com.convivium.module.dashboard.service.DashboardCounterService;
+import com.convivium.module.notification.dto.WhatsAppOutboxRequest;
+import com.convivium.module.notification.service.WhatsAppOutboxService;
 import com.convivium.module.parcel.dto.ParcelCreateRequest;
 import com.convivium.module.parcel.dto.ParcelDetailResponse;
 import com.convivium.module.parcel.dto.ParcelListResponse;
+import com.convivium.module.parcel.dto.ParcelListRow;
 import com.convivium.module.parcel.dto.ParcelPhotoDto;
 import com.convivium.module.parcel.dto.ParcelVerifyRequest;
 import com.convivium.module.parcel.entity.Parcel;
 import com.convivium.module.parcel.entity.ParcelPhoto;
 import com.convivium.module.parcel.entity.ParcelStatus;
 import com.convivium.module.parcel.entity.ParcelVerification;
+import com.convivium.module.parcel.repository.ParcelBatchInsertRepository;
 import com.convivium.module.parcel.repository.ParcelRepository;
 import com.convivium.module.parcel.repository.ParcelVerificationRepository;
+import com.convivium.module.user.entity.Role;
 import com.convivium.module.user.entity.User;
+import com.convivium.module.user.repository.UserCondominiumRoleRepository;
 import com.convivium.module.user.repository.UserRepository;
 import com.convivium.security.UserPrincipal;
-import com.convivium.integration.whatsapp.WhatsAppNotificationService;
-import com.convivium.storage.FileStorageService;
+import com.convivium.security.permission.Permission;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -42,19 +56,39 @@ public class ParcelService {
     private final ParcelRepository parcelRepository;
     private final ParcelVerificationRepository parcelVerificationRepository;
     private final UserRepository userRepository;
+    private final UserCondominiumRoleRepository userCondominiumRoleRepository;
     private final UnitRepository unitRepository;
-    private final FileStorageService fileStorageService;
-    private final WhatsAppNotificationService whatsAppService;
-
+    private final ParcelPhotoService parcelPhotoService;
+    private final WhatsAppOutboxService whatsAppOutbox;
+    private final DashboardCounterService dashboardCounterService;
+    private final ParcelBatchInsertRepository parcelBatchInsertRepository;
+    private final PickupAttemptLimiter pickupAttemptLimiter;
+
+    /**
+     * Sem cursor: página numerada (mais recentes primeiro, salvo sort pedido), com nextCursor.
+     * Com cursor: próxima página por keyset, sem contagem (ver CursorPage).
+     */
     @Transactional(readOnly = true)
-    public Page<ParcelListResponse> listParcels(Long condoId, ParcelStatus status, Pageable pageable) {
-        Page<Parcel> parcels;
+    public PageResponse<ParcelListResponse> listParcels(Long condoId, ParcelStatus status,
+                                                        Pageable pageable, String cursor) {
+        CursorPage.Cursor after = CursorPage.after(cursor);
+        if (after != null) {
+            int size = pageable.getPageSize();
+            List<ParcelListRow> rows = status == null
+                    ? parcelRepository.findListRowsByCondominiumIdAfter(condoId, after.createdAt(), after.id(),
+                            CursorPage.fetchLimit(size))
+                    : parcelRepository.findListRowsByCondominiumIdAndStatusAfter(condoId, status, after.createdAt(),
+                            after.id(), CursorPage.fetchLimit(size));
+            return CursorPage.of(rows, size, ParcelService::position, this::toListResponse).toPageResponse();
+        }
+        Pageable ordered = CursorPage.newestFirst(pageable);
+        Page<ParcelListRow> parcels;
         if (status == null) {
-            parcels = parcelRepository.findByCondominiumId(condoId, pageable);
+            parcels = parcelRepository.findListRowsByCondominiumId(condoId, ordered);
         } else {
-            parcels = parcelRepository.findByCondominiumIdAndStatus(condoId, status, pageable);
+            parcels = parcelRepository.findListRowsByCondominiumIdAndStatus(condoId, status, ordered);
         }
-        return parcels.map(this::toListResponse);
+        return CursorPage.toPageResponse(parcels, ParcelService::position, this::toListResponse);
     }
 
     public ParcelListResponse createParcel(Long condoId, Long receivedById, ParcelCreateRequest request) {
@@ -87,18 +121,74 @@ public class ParcelService {
                 .build();
 
         parcel = parcelRepository.save(parcel);
+        dashboardCounterService.onParcelStatusChange(condoId, null, ParcelStatus.RECEIVED);
 
-        // Notificação WhatsApp (Meta): morador recebe mensagem com código para retirada
-        if (recipient != null && recipient.getPhone() != null && !recipient.getPhone().isBlank()) {
-            whatsAppService.sendEncomendaNotification(
-                    recipient.getPhone(),
-                    recipient.getName(),
-                    residentCode);
+        // Notificação WhatsApp (Meta): morador recebe mensagem com código para retirada (via outbox)
+        if (recipient != null) {
+            whatsAppOutbox.enqueue(WhatsAppOutboxRequest.encomenda(condoId, parcel.getId(), recipient.getId(),
+                    recipient.getPhone(), recipient.getName(), residentCode));
         }
 
         return toListResponse(parcel);
     }
 
+    /**
+     * Recebimento em lote: unidades e destinatários resolvidos em uma consulta cada, INSERT
+     * via JDBC batch e avisos WhatsApp gravados na outbox também em lote. Tudo ou nada:
+     * uma unidade de outro condomínio ou um destinatário sem vínculo ativo nele rejeita o lote inteiro.
+     */
+    public List<ParcelListResponse> createParcels(Long condoId, Long receivedById, List<ParcelCreateRequest> requests) {
+        User receivedBy = userRepository.findById(receivedById)
+                .orElseThrow(() -> new ResourceNotFoundException("Usuario", receivedById));
+
+        Set<Long> unitIds = requests.stream().map(ParcelCreateRequest::unitId).collect(Collectors.toSet());
+        Map<Long, Unit> units = unitRepository.findByCondominiumIdAndIdIn(condoId, unitIds).stream()
+                .collect(Collectors.toMap(Unit::getId, Function.identity()));
+
+        Set<Long> recipientIds = requests.stream().map(ParcelCreateRequest::recipientId)
+                .filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<Long, User> recipients = recipientIds.isEmpty() ? Map.of()
+                : userCondominiumRoleRepository.findActiveMembers(condoId, recipientIds).stream()
+                        .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<Parcel> parcels = new ArrayList<>(requests.size());
+        for (ParcelCreateRequest request : requests) {
+            Unit unit = units.get(request.unitId());
+            if (unit == null) {
+                throw new ResourceNotFoundException("Unidade", request.unitId());
+            }
+            User recipient = null;
+            if (request.recipientId() != null) {
+                recipient = recipients.get(request.recipientId());
+                if (recipient == null) {
+                    throw new ResourceNotFoundException("Destinatario", request.recipientId());
+                }
+            }
+            String residentCode = CodeGenerator.generateNumericCode(6);
+            parcels.add(Parcel.builder()
+                    .condominiumId(condoId)
+                    .unit(unit)
+                    .recipient(recipient)
+                    .receivedBy(receivedBy)
+                    .carrier(request.carrier())
+                    .trackingNumber(request.trackingNumber())
+                    .description(request.description())
+                    .status(ParcelStatus.RECEIVED)
+                    .residentCode(residentCode)
+                    .build());
+        }
+
+        parcelBatchInsertRepository.insertAll(parcels, Instant.now());
+        dashboardCounterService.onParcelsReceived(condoId, parcels.size());
+        whatsAppOutbox.enqueueAll(parcels.stream()
+                .filter(p -> p.getRecipient() != null)
+                .map(p -> WhatsAppOutboxRequest.encomenda(condoId, p.getId(), p.getRecipient().getId(),
+                        p.getRecipient().getPhone(), p.getRecipient().getName(), p.getResidentCode()))
+                .toList());
+
+        return parcels.stream().map(this::toListResponse).toList();
+    }
+
     public void addPhoto(Long condoId, Long parcelId, MultipartFile file, String photoType, Long uploadedById) {
         Parcel parcel = findParcelOrThrow(condoId, parcelId);
         if (file == null || file.isEmpty()) {
@@ -116,33 +206,16 @@ public class ParcelService {
                 ext = "jpg";
             }
         }
-        String relativePath = "parcels/" + parcelId + "/" + UUID.randomUUID() + "." + ext;
-        String photoUrl = fileStorageService.store(relativePath, file);
-
-        ParcelPhoto photo = ParcelPhoto.builder()
-                .parcel(parcel)
-                .photoUrl(photoUrl)
-                .photoType(type)
-                .uploadedBy(uploadedById)
-                .build();
-        parcel.getPhotos().add(photo);
-        parcelRepository.save(parcel);
-
-        // Envia foto da encomenda por WhatsApp (após template, na janela de 24h)
-        if (parcel.getPhotos().size() == 1 && parcel.getRecipient() != null) {
-            User recipient = parcel.getRecipient();
-            if (recipient.getPhone() != null && !recipient.getPhone().isBlank()) {
-                whatsAppService.sendEncomendaPhoto(recipient.getPhone(), photoUrl);
-            }
-        }
+        parcelPhotoService.upload(parcel, file, ext, type, uploadedById);
     }
 
     @Transactional(readOnly = true)
     public ParcelDetailResponse getParcel(Long condoId, Long parcelId, UserPrincipal currentUser) {
         Parcel parcel = findParcelOrThrow(condoId, parcelId);
 
-        boolean canManageParcels = hasAuthority(currentUser, "MANAGE_PARCELS")
-                || hasAnyRole(currentUser, "SINDICO", "SUB_SINDICO", "PORTEIRO", "PLATFORM_ADMIN");
+        boolean canManageParcels = currentUser.hasPermission(Permission.MANAGE_PARCELS)
+                || currentUser.hasAnyRole(Role.SINDICO, Role.SUB_SINDICO, Role.PORTEIRO)
+                || currentUser.isPlatformAdmin();
         boolean isRecipient = parcel.getRecipient() != null
                 && parcel.getRecipient().getId().equals(currentUser.getId());
 
@@ -195,12 +268,63 @@ public class ParcelService {
     /** Valida a retirada: o porteiro digita o código que o morador informou (único código; só o morador sabe). */
     public void verifyPickup(Long condoId, Long parcelId, ParcelVerifyRequest request,
                              Long doormanId) {
+        pickupAttemptLimiter.check(doormanId);
         Parcel parcel = findParcelOrThrow(condoId, parcelId);
 
-        if (parcel.getResidentCode() == null || !parcel.getResidentCode().equals(request.code())) {
+        if (!codeMatches(parcel.getResidentCode(), request.code())) {
+            pickupAttemptLimiter.recordFailure(doormanId);
             throw new BusinessException("Codigo informado nao confere. Peça ao morador o codigo que aparece em Minhas Encomendas.", "CODE_MISMATCH");
         }
 
+        deliver(condoId, parcel, request, doormanId);
+    }
+
+    /**
+     * Retirada só com o código: o porteiro digita o código do morador, sem abrir a encomenda
+     * antes. Uma consulta indexada por (condomínio, código) entre as não entregues.
+     */
+    public ParcelListResponse pickupByCode(Long condoId, ParcelVerifyRequest request, Long doormanId) {
+        pickupAttemptLimiter.check(doormanId);
+        String code = request.code().trim();
+
+        // a conferência é a igualdade no índice (resident_code = :code); não há segredo comparado aqui
+        // além dele, então uma comparação em tempo constante depois da consulta não protegeria nada
+        List<Parcel> matches = parcelRepository.findPendingByResidentCode(condoId, code, Limit.of(2));
+        if (matches.isEmpty()) {
+            pickupAttemptLimiter.recordFailure(doormanId);
+            throw new BusinessException("Codigo informado nao confere com nenhuma encomenda aguardando retirada.", "CODE_MISMATCH");
+        }
+        if (matches.size() > 1) {
+            // códigos de 6 dígitos podem coincidir entre encomendas; nesse caso a retirada é pela encomenda
+            throw new BusinessException("Mais de uma encomenda com este codigo. Abra a encomenda do morador para validar.", "CODE_AMBIGUOUS");
+        }
+
+        Parcel parcel = matches.get(0);
+        deliver(condoId, parcel, request, doormanId);
+        return toListResponse(parcel);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<ParcelListResponse> getMyParcels(Long condoId, Long userId, ParcelStatus status, Pageable pageable) {
+        Page<ParcelListRow> parcels = status == null
+                ? parcelRepository.findListRowsByRecipientId(userId, pageable)
+                : parcelRepository.findListRowsByRecipientIdAndStatus(userId, status, pageable);
+        return parcels.map(this::toListResponse);
+    }
+
+    // ---- Private helpers ----
+
+    private Parcel findParcelOrThrow(Long condoId, Long parcelId) {
+        return parcelRepository.findByIdAndCondominiumId(parcelId, condoId)
+                .orElseThrow(() -> new ResourceNotFoundException("Encomenda", parcelId));
+    }
+
+    /**
+     * A troca de status é um UPDATE condicional (markDelivered): se duas portarias confirmam a
+     * mesma encomenda ao mesmo tempo, só uma entrega; a outra recebe PARCEL_ALREADY_DELIVERED sem
+     * gravar verificação nem mexer no contador do painel.
+     */
+    private void deliver(Long condoId, Parcel parcel, ParcelVerifyRequest request, Long doormanId) {
         User doorman = userRepository.findById(doormanId)
                 .orElseThrow(() -> new ResourceNotFoundException("Porteiro", doormanId));
 
@@ -209,6 +333,17 @@ public class ParcelService {
         }
         User resident = parcel.getRecipient();
 
+        ParcelStatus previousStatus = parcel.getStatus();
+        Instant now = Instant.now();
+        if (previousStatus == ParcelStatus.DELIVERED
+                || parcelRepository.markDelivered(parcel.getId(), resident, now) == 0) {
+            throw new BusinessException("Encomenda ja foi entregue", "PARCEL_ALREADY_DELIVERED");
+        }
+        // mesma linha gravada pelo UPDATE, para a resposta
+        parcel.setStatus(ParcelStatus.DELIVERED);
+        parcel.setDeliveredAt(now);
+        parcel.setPickedUpBy(resident);
+
         ParcelVerification verification = ParcelVerification.builder()
                 .parcel(parcel)
                 .doorman(doorman)
@@ -217,30 +352,19 @@ public class ParcelService {
                 .doormanCode(null)
                 .residentCode(request.code())
                 .isVerified(true)
-                .verifiedAt(Instant.now())
+                .verifiedAt(now)
                 .build();
 
         parcelVerificationRepository.save(verification);
-
-        parcel.setStatus(ParcelStatus.DELIVERED);
-        parcel.setDeliveredAt(Instant.now());
-        parcel.setPickedUpBy(resident);
-        parcelRepository.save(parcel);
+        dashboardCounterService.onParcelStatusChange(condoId, previousStatus, ParcelStatus.DELIVERED);
     }
 
-    @Transactional(readOnly = true)
-    public Page<ParcelListResponse> getMyParcels(Long condoId, Long userId, ParcelStatus status, Pageable pageable) {
-        Page<Parcel> parcels = status == null
-                ? parcelRepository.findByRecipientId(userId, pageable)
-                : parcelRepository.findByRecipientIdAndStatus(userId, status, pageable);
-        return parcels.map(this::toListResponse);
-    }
-
-    // ---- Private helpers ----
-
-    private Parcel findParcelOrThrow(Long condoId, Long parcelId) {
-        return parcelRepository.findByIdAndCondominiumId(parcelId, condoId)
-                .orElseThrow(() -> new ResourceNotFoundException("Encomenda", parcelId));
+    /** Comparação em tempo constante: o tempo de resposta não revela quantos dígitos conferem. */
+    private static boolean codeMatches(String expected, String informed) {
+        if (expected == null || informed == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8), informed.trim().getBytes(StandardCharsets.UTF_8));
     }
 
     private ParcelListResponse toListResponse(Parcel parcel) {
@@ -262,31 +386,33 @@ public class ParcelService {
         );
     }
 
+    private static CursorPage.Cursor position(ParcelListRow row) {
+        return new CursorPage.Cursor(row.createdAt(), row.id());
+    }
+
+    private ParcelListResponse toListResponse(ParcelListRow row) {
+        return new ParcelListResponse(
+                row.id(),
+                row.unitIdentifier(),
+                row.recipientName(),
+                row.receivedByName(),
+                row.carrier(),
+                row.trackingNumber(),
+                row.description(),
+                row.status().name(),
+                row.deliveredAt() != null ? row.deliveredAt().toString() : null,
+                row.createdAt() != null ? row.createdAt().toString() : null
+        );
+    }
+
     private ParcelPhotoDto toPhotoDto(ParcelPhoto photo) {
         return new ParcelPhotoDto(
                 photo.getId(),
                 photo.getPhotoUrl(),
+                photo.getThumbnailUrl(),
+                photo.getPreviewUrl(),
                 photo.getPhotoType(),
                 photo.getCreatedAt() != null ? photo.getCreatedAt().toString() : null
         );
     }
-
-    private boolean hasAuthority(UserPrincipal user, String authority) {
-        for (GrantedAuthority ga : user.getAuthorities()) {
-            if (ga.getAuthority().equals(authority)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private boolean hasAnyRole(UserPrincipal user, String... roles) {
-        for (String role : roles) {
-            String roleAuthority = "ROLE_" + role;
-            if (hasAuthority(user, roleAuthority)) {
-                return true;
-            }
-        }
-        return false;
-    }
 }
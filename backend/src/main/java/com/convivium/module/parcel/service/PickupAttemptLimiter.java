@@ -0,0 +1,111 @@
+package com.convivium.module.parcel.service;
+
+import com.convivium.common.exception.TooManyAttemptsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Limite de códigos de retirada errados por porteiro: janela fixa de
+ * app.parcels.pickup.window-seconds com até max-failed-attempts erros. Com o código de 6
+ * dígitos valendo sozinho na portaria, sem esse limite bastaria testar códigos em sequência.
+ *
+ * Só erros contam (uma portaria movimentada confere dezenas de códigos certos por hora) e
+ * acertos não zeram a janela, senão dava para intercalar palpites com retiradas legítimas.
+ * Contadores em memória, por instância, como no LoginAdmissionControl.
+ * Métrica: convivium.parcel.pickup.throttled.
+ */
+@Component
+public class PickupAttemptLimiter {
+
+    private final Duration window;
+    private final int maxFailedAttempts;
+    private final int maxEntries;
+    private final Clock clock;
+    private final Counter throttled;
+    private final Map<Long, Window> windows = new ConcurrentHashMap<>();
+
+    @Autowired
+    public PickupAttemptLimiter(ParcelPickupProperties properties, MeterRegistry registry) {
+        this(properties, registry, Clock.systemUTC());
+    }
+
+    PickupAttemptLimiter(ParcelPickupProperties properties, MeterRegistry registry, Clock clock) {
+        this.window = Duration.ofSeconds(Math.max(1, properties.getWindowSeconds()));
+        this.maxFailedAttempts = properties.getMaxFailedAttempts();
+        this.maxEntries = Math.max(1, properties.getMaxEntries());
+        this.clock = clock;
+        this.throttled = Counter.builder("convivium.parcel.pickup.throttled").register(registry);
+    }
+
+    /**
+     * Chamado antes de conferir o código.
+     *
+     * @throws TooManyAttemptsException se o porteiro já errou max-failed-attempts vezes na janela atual
+     */
+    public void check(Long doormanId) {
+        if (maxFailedAttempts <= 0) {
+            return;
+        }
+        Instant now = clock.instant();
+        Window current = windows.get(doormanId);
+        if (current != null && !current.isOver(now) && current.failures() >= maxFailedAttempts) {
+            throttled.increment();
+            long retryAfter = Math.max(1, Duration.between(now, current.endsAt()).toSeconds());
+            throw new TooManyAttemptsException("Muitos codigos incorretos. Aguarde alguns minutos e tente novamente.",
+                    "TOO_MANY_PICKUP_ATTEMPTS", retryAfter);
+        }
+    }
+
+    public void recordFailure(Long doormanId) {
+        if (maxFailedAttempts <= 0) {
+            return;
+        }
+        Instant now = clock.instant();
+        if (windows.size() >= maxEntries && !windows.containsKey(doormanId)) {
+            makeRoom();
+        }
+        windows.compute(doormanId, (k, w) ->
+                w == null || w.isOver(now) ? new Window(now.plus(window), 1) : w.increment());
+    }
+
+    /** Remove janelas já encerradas. */
+    @Scheduled(fixedDelayString = "${app.parcels.pickup.evict-interval-ms:60000}")
+    public void evictExpired() {
+        Instant now = clock.instant();
+        windows.values().removeIf(w -> w.isOver(now));
+    }
+
+    public int size() {
+        return windows.size();
+    }
+
+    private void makeRoom() {
+        evictExpired();
+        Iterator<Long> it = windows.keySet().iterator();
+        while (windows.size() >= maxEntries && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private record Window(Instant endsAt, int failures) {
+
+        boolean isOver(Instant now) {
+            return !now.isBefore(endsAt);
+        }
+
+        Window increment() {
+            return new Window(endsAt, failures + 1);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.convivium.module.support.controller;
 
 import com.convivium.common.dto.ApiResponse;
+import com.convivium.common.dto.PageResponse;
 import com.convivium.module.support.dto.MessageCreateRequest;
 import com.convivium.module.support.dto.MessageResponse;
 import com.convivium.module.support.dto.TicketResponse;
@@ -8,7 +9,6 @@ import com.convivium.module.support.service.SupportChatService;
 import com.convivium.security.UserPrincipal;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -32,12 +32,14 @@ public class AdminSupportController {
 
     private final SupportChatService supportChatService;
 
+    /** cursor (opcional): nextCursor da página anterior, para paginar por keyset. */
     @GetMapping
-    public ResponseEntity<ApiResponse<Page<TicketResponse>>> listTickets(
+    public ResponseEntity<ApiResponse<PageResponse<TicketResponse>>> listTickets(
             @RequestParam(required = false) String status,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
-        Page<TicketResponse> result = supportChatService.listAllTickets(status, page, size);
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor) {
+        PageResponse<TicketResponse> result = supportChatService.listAllTickets(status, page, size, cursor);
         return ResponseEntity.ok(ApiResponse.ok(result));
     }
 
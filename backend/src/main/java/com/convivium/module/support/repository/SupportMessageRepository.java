@@ -16,7 +16,7 @@ public interface SupportMessageRepository extends JpaRepository<SupportMessage,
     long countByTicketIdAndReadFalseAndFromAdminFalse(Long ticketId);
 
     @Modifying
-    @Query("UPDATE SupportMessage m SET m.read = true, m.readAt = CURRENT_TIMESTAMP " +
+    @Query("UPDATE SupportMessage m SET m.read = true, m.readAt = CURRENT_INSTANT " +
            "WHERE m.ticket.id = :ticketId AND m.fromAdmin = :fromAdmin AND m.read = false")
     int markAsRead(Long ticketId, boolean fromAdmin);
 }
@@ -1,19 +1,38 @@
 package com.convivium.module.support.repository;
 
 import com.convivium.module.support.entity.SupportTicket;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.List;
 
 public interface SupportTicketRepository extends JpaRepository<SupportTicket, Long> {
 
+    /** Depois do cursor, na ordem de CursorPage.NEWEST_FIRST (keyset, sem OFFSET nem COUNT). */
+    String KEYSET_AFTER = """
+            (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id))
+            ORDER BY t.createdAt DESC, t.id DESC
+            """;
+
     List<SupportTicket> findByUserIdOrderByCreatedAtDesc(Long userId);
 
-    Page<SupportTicket> findAllByOrderByCreatedAtDesc(Pageable pageable);
+    boolean existsByIdAndUserId(Long id, Long userId);
+
+    Page<SupportTicket> findByStatus(String status, Pageable pageable);
+
+    @Query("SELECT t FROM SupportTicket t WHERE " + KEYSET_AFTER)
+    List<SupportTicket> findAllAfter(@Param("createdAt") Instant createdAt, @Param("id") Long id, Limit limit);
 
-    Page<SupportTicket> findByStatusOrderByCreatedAtDesc(String status, Pageable pageable);
+    @Query("SELECT t FROM SupportTicket t WHERE t.status = :status AND " + KEYSET_AFTER)
+    List<SupportTicket> findByStatusAfter(@Param("status") String status,
+                                          @Param("createdAt") Instant createdAt,
+                                          @Param("id") Long id,
+                                          Limit limit);
 
     long countByStatus(String status);
 }
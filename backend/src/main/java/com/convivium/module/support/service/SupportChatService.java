@@ -1,5 +1,7 @@
 package com.convivium.module.support.service;
 
+import com.convivium.common.dto.CursorPage;
+import com.convivium.common.dto.PageResponse;
 import com.convivium.common.exception.BusinessException;
 import com.convivium.module.support.dto.MessageResponse;
 import com.convivium.module.support.dto.TicketResponse;
@@ -74,15 +76,25 @@ public class SupportChatService {
         return toTicketResponse(ticket);
     }
 
+    /**
+     * Chamados mais recentes primeiro. Sem cursor: página numerada com nextCursor.
+     * Com cursor: próxima página por keyset, sem contagem (ver CursorPage).
+     */
     @Transactional(readOnly = true)
-    public Page<TicketResponse> listAllTickets(String status, int page, int size) {
-        Page<SupportTicket> ticketPage;
-        if (status != null && !status.isBlank()) {
-            ticketPage = supportTicketRepository.findByStatusOrderByCreatedAtDesc(status, PageRequest.of(page, size));
-        } else {
-            ticketPage = supportTicketRepository.findAllByOrderByCreatedAtDesc(PageRequest.of(page, size));
+    public PageResponse<TicketResponse> listAllTickets(String status, int page, int size, String cursor) {
+        boolean byStatus = status != null && !status.isBlank();
+        CursorPage.Cursor after = CursorPage.after(cursor);
+        if (after != null) {
+            List<SupportTicket> rows = byStatus
+                    ? supportTicketRepository.findByStatusAfter(status, after.createdAt(), after.id(), CursorPage.fetchLimit(size))
+                    : supportTicketRepository.findAllAfter(after.createdAt(), after.id(), CursorPage.fetchLimit(size));
+            return CursorPage.of(rows, size, SupportChatService::position, this::toTicketResponse).toPageResponse();
         }
-        return ticketPage.map(this::toTicketResponse);
+        PageRequest pageRequest = PageRequest.of(page, size, CursorPage.NEWEST_FIRST);
+        Page<SupportTicket> ticketPage = byStatus
+                ? supportTicketRepository.findByStatus(status, pageRequest)
+                : supportTicketRepository.findAll(pageRequest);
+        return CursorPage.toPageResponse(ticketPage, SupportChatService::position, this::toTicketResponse);
     }
 
     @Transactional
@@ -146,6 +158,10 @@ public class SupportChatService {
 
     // ---- Mappers ----
 
+    private static CursorPage.Cursor position(SupportTicket ticket) {
+        return new CursorPage.Cursor(ticket.getCreatedAt(), ticket.getId());
+    }
+
     private TicketResponse toTicketResponse(SupportTicket ticket) {
         String userName = ticket.getUser() != null ? ticket.getUser().getName() : "Desconhecido";
         String condoName = ticket.getCondominium() != null ? ticket.getCondominium().getName() : null;
@@ -11,7 +11,6 @@ import com.convivium.security.CurrentUser;
 import com.convivium.security.UserPrincipal;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
@@ -25,6 +24,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -37,18 +37,19 @@ public class UserController {
     private final UserService userService;
 
     @GetMapping
-    @PreAuthorize("hasAnyRole('SINDICO', 'SUB_SINDICO', 'PORTEIRO') or hasRole('PLATFORM_ADMIN')")
+    @PreAuthorize("hasPermission(#condoId, 'SINDICO,SUB_SINDICO,PORTEIRO,PLATFORM_ADMIN')")
     public ResponseEntity<ApiResponse<PageResponse<UserResponse>>> listUsers(
             @PathVariable Long condoId,
             @PageableDefault(size = 20) Pageable pageable,
+            @RequestParam(required = false) String cursor,
             @CurrentUser UserPrincipal currentUser) {
 
-        Page<UserResponse> page = userService.listUsers(condoId, pageable);
-        return ResponseEntity.ok(ApiResponse.ok(PageResponse.from(page)));
+        PageResponse<UserResponse> page = userService.listUsers(condoId, pageable, cursor);
+        return ResponseEntity.ok(ApiResponse.ok(page));
     }
 
     @PostMapping
-    @PreAuthorize("hasAnyRole('SINDICO', 'SUB_SINDICO') or hasRole('PLATFORM_ADMIN')")
+    @PreAuthorize("hasPermission(#condoId, 'SINDICO,SUB_SINDICO,PLATFORM_ADMIN')")
     public ResponseEntity<ApiResponse<UserResponse>> createUser(
             @PathVariable Long condoId,
             @Valid @RequestBody UserCreateRequest request,
@@ -60,7 +61,7 @@ public class UserController {
     }
 
     @GetMapping("/{userId}")
-    @PreAuthorize("hasAnyRole('SINDICO', 'SUB_SINDICO', 'PORTEIRO') or hasRole('PLATFORM_ADMIN')")
+    @PreAuthorize("hasPermission(#condoId, 'SINDICO,SUB_SINDICO,PORTEIRO,PLATFORM_ADMIN')")
     public ResponseEntity<ApiResponse<UserResponse>> getUser(
             @PathVariable Long condoId,
             @PathVariable Long userId,
@@ -71,7 +72,7 @@ public class UserController {
     }
 
     @PutMapping("/{userId}")
-    @PreAuthorize("hasAnyRole('SINDICO', 'SUB_SINDICO') or hasRole('PLATFORM_ADMIN')")
+    @PreAuthorize("hasPermission(#condoId, 'SINDICO,SUB_SINDICO,PLATFORM_ADMIN')")
     public ResponseEntity<ApiResponse<UserResponse>> updateUser(
             @PathVariable Long condoId,
             @PathVariable Long userId,
@@ -83,7 +84,7 @@ public class UserController {
     }
 
     @DeleteMapping("/{userId}")
-    @PreAuthorize("hasRole('SINDICO')")
+    @PreAuthorize("hasPermission(#condoId, 'SINDICO')")
     public ResponseEntity<ApiResponse<Void>> deleteUser(
             @PathVariable Long condoId,
             @PathVariable Long userId,
@@ -94,7 +95,7 @@ public class UserController {
     }
 
     @GetMapping("/pending")
-    @PreAuthorize("hasRole('SINDICO') or hasRole('PLATFORM_ADMIN')")
+    @PreAuthorize("hasPermission(#condoId, 'SINDICO,PLATFORM_ADMIN')")
     public ResponseEntity<ApiResponse<List<UserResponse>>> getPendingApprovals(
             @PathVariable Long condoId,
             @CurrentUser UserPrincipal currentUser) {
@@ -104,7 +105,7 @@ public class UserController {
     }
 
     @PatchMapping("/{userId}/approve")
-    @PreAuthorize("hasRole('SINDICO') or hasRole('PLATFORM_ADMIN')")
+    @PreAuthorize("hasPermission(#condoId, 'SINDICO,PLATFORM_ADMIN')")
     public ResponseEntity<ApiResponse<Void>> approveUser(
             @PathVariable Long condoId,
             @PathVariable Long userId,
@@ -116,7 +117,7 @@ public class UserController {
     }
 
     @PatchMapping("/{userId}/reject")
-    @PreAuthorize("hasRole('SINDICO') or hasRole('PLATFORM_ADMIN')")
+    @PreAuthorize("hasPermission(#condoId, 'SINDICO,PLATFORM_ADMIN')")
     public ResponseEntity<ApiResponse<Void>> rejectUser(
             @PathVariable Long condoId,
             @PathVariable Long userId,
@@ -0,0 +1,10 @@
+package com.convivium.module.user.dto;
+
+import com.convivium.module.user.entity.Role;
+
+/** Papel de um usuário em um condomínio, lido sem carregar UserCondominiumRole. */
+public record UserRoleRow(
+        Long userId,
+        Role role
+) {
+}
@@ -1,7 +1,10 @@
 package com.convivium.module.user.repository;
 
+import com.convivium.module.user.dto.UserRoleRow;
 import com.convivium.module.user.entity.Role;
+import com.convivium.module.user.entity.User;
 import com.convivium.module.user.entity.UserCondominiumRole;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -10,6 +13,8 @@ import org.springframework.stereotype.Repository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,12 +26,41 @@ public interface UserCondominiumRoleRepository extends JpaRepository<UserCondomi
 
     List<UserCondominiumRole> findAllByUserIdAndCondominiumId(Long userId, Long condominiumId);
 
+    /** Papéis ativos dos usuários informados neste condomínio (um usuário pode ter mais de um). */
+    @Query("""
+            SELECT new com.convivium.module.user.dto.UserRoleRow(ucr.user.id, ucr.role)
+            FROM UserCondominiumRole ucr
+            WHERE ucr.condominium.id = :condoId AND ucr.user.id IN :userIds AND ucr.status = 'ACTIVE'
+            """)
+    List<UserRoleRow> findActiveRoles(@Param("condoId") Long condoId, @Param("userIds") Collection<Long> userIds);
+
+    /** Usuários informados que têm vínculo ativo neste condomínio; os demais ficam de fora. */
+    @Query("""
+            SELECT DISTINCT ucr.user FROM UserCondominiumRole ucr
+            WHERE ucr.condominium.id = :condoId AND ucr.user.id IN :userIds AND ucr.status = 'ACTIVE'
+            """)
+    List<User> findActiveMembers(@Param("condoId") Long condoId, @Param("userIds") Collection<Long> userIds);
+
     List<UserCondominiumRole> findByCondominiumIdAndStatus(Long condominiumId, String status);
 
     List<UserCondominiumRole> findByCondominiumId(Long condominiumId);
 
     Page<UserCondominiumRole> findByCondominiumId(Long condominiumId, Pageable pageable);
 
+    /** Vínculos depois do cursor, na ordem de CursorPage.NEWEST_FIRST, já com usuário e unidade. */
+    @Query("""
+            SELECT ucr FROM UserCondominiumRole ucr
+            JOIN FETCH ucr.user
+            LEFT JOIN FETCH ucr.unit
+            WHERE ucr.condominium.id = :condoId
+              AND (ucr.createdAt < :createdAt OR (ucr.createdAt = :createdAt AND ucr.id < :id))
+            ORDER BY ucr.createdAt DESC, ucr.id DESC
+            """)
+    List<UserCondominiumRole> findByCondominiumIdAfter(@Param("condoId") Long condoId,
+                                                       @Param("createdAt") Instant createdAt,
+                                                       @Param("id") Long id,
+                                                       Limit limit);
+
     Optional<UserCondominiumRole> findByUserIdAndCondominiumIdAndRole(Long userId, Long condominiumId, Role role);
 
     Optional<UserCondominiumRole> findByUserIdAndCondominiumId(Long userId, Long condominiumId);
@@ -1,5 +1,7 @@
 package com.convivium.module.user.service;
 
+import com.convivium.common.dto.CursorPage;
+import com.convivium.common.dto.PageResponse;
 import com.convivium.common.exception.BusinessException;
 import com.convivium.common.exception.ResourceNotFoundException;
 import com.convivium.common.util.CpfUtil;
@@ -7,6 +9,7 @@ import com.convivium.module.condominium.entity.Condominium;
 import com.convivium.module.condominium.entity.Unit;
 import com.convivium.module.condominium.repository.CondominiumRepository;
 import com.convivium.module.condominium.repository.UnitRepository;
+import com.convivium.module.dashboard.service.DashboardCounterService;
 import com.convivium.module.user.dto.UserCreateRequest;
 import com.convivium.module.user.dto.UserResponse;
 import com.convivium.module.user.dto.UserUpdateRequest;
@@ -15,10 +18,11 @@ import com.convivium.module.user.entity.User;
 import com.convivium.module.user.entity.UserCondominiumRole;
 import com.convivium.module.user.repository.UserCondominiumRoleRepository;
 import com.convivium.module.user.repository.UserRepository;
+import com.convivium.security.UserIdentityCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -34,12 +38,27 @@ public class UserService {
     private final UserCondominiumRoleRepository userCondominiumRoleRepository;
     private final CondominiumRepository condominiumRepository;
     private final UnitRepository unitRepository;
-    private final BCryptPasswordEncoder passwordEncoder;
-
+    private final PasswordEncoder passwordEncoder;
+    private final UserIdentityCache userIdentityCache;
+    private final DashboardCounterService dashboardCounterService;
+
+    /**
+     * Vínculos do condomínio. Sem cursor: página numerada (mais recentes primeiro, salvo sort
+     * pedido), com nextCursor. Com cursor: próxima página por keyset, sem contagem (ver CursorPage).
+     */
     @Transactional(readOnly = true)
-    public Page<UserResponse> listUsers(Long condominiumId, Pageable pageable) {
-        Page<UserCondominiumRole> page = userCondominiumRoleRepository.findByCondominiumId(condominiumId, pageable);
-        return page.map(ucr -> mapToResponse(ucr.getUser(), ucr));
+    public PageResponse<UserResponse> listUsers(Long condominiumId, Pageable pageable, String cursor) {
+        CursorPage.Cursor after = CursorPage.after(cursor);
+        if (after != null) {
+            int size = pageable.getPageSize();
+            List<UserCondominiumRole> rows = userCondominiumRoleRepository.findByCondominiumIdAfter(
+                    condominiumId, after.createdAt(), after.id(), CursorPage.fetchLimit(size));
+            return CursorPage.of(rows, size, UserService::position, ucr -> mapToResponse(ucr.getUser(), ucr))
+                    .toPageResponse();
+        }
+        Page<UserCondominiumRole> page = userCondominiumRoleRepository.findByCondominiumId(
+                condominiumId, CursorPage.newestFirst(pageable));
+        return CursorPage.toPageResponse(page, UserService::position, ucr -> mapToResponse(ucr.getUser(), ucr));
     }
 
     public UserResponse createUser(Long condominiumId, UserCreateRequest request) {
@@ -82,6 +101,7 @@ public class UserService {
                 .build();
 
         ucr = userCondominiumRoleRepository.save(ucr);
+        dashboardCounterService.onMemberAdded(condominiumId, ucr.getStatus());
 
         return mapToResponse(user, ucr);
     }
@@ -122,6 +142,9 @@ public class UserService {
         }
 
         user = userRepository.save(user);
+        if (user.getUuid() != null) {
+            userIdentityCache.evict(user.getUuid().toString());
+        }
 
         if (request.unitId() != null) {
             Unit unit = unitRepository.findByCondominiumIdAndId(condominiumId, request.unitId())
@@ -140,6 +163,7 @@ public class UserService {
                         "Usuario nao pertence a este condominio", "USER_NOT_IN_CONDOMINIUM"));
 
         userCondominiumRoleRepository.delete(ucr);
+        dashboardCounterService.onMemberRemoved(condominiumId, ucr.getStatus());
     }
 
     @Transactional(readOnly = true)
@@ -173,6 +197,7 @@ public class UserService {
         ucr.setApprovedAt(Instant.now());
 
         userCondominiumRoleRepository.save(ucr);
+        dashboardCounterService.onMemberApproved(condominiumId);
     }
 
     public void rejectUser(Long condominiumId, Long userId) {
@@ -186,6 +211,11 @@ public class UserService {
         }
 
         userCondominiumRoleRepository.delete(ucr);
+        dashboardCounterService.onMemberRemoved(condominiumId, ucr.getStatus());
+    }
+
+    private static CursorPage.Cursor position(UserCondominiumRole ucr) {
+        return new CursorPage.Cursor(ucr.getCreatedAt(), ucr.getId());
     }
 
     private UserResponse mapToResponse(User user, UserCondominiumRole ucr) {
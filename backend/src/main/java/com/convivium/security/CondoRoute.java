@@ -0,0 +1,54 @@
+package com.convivium.security;
+
+/**
+ * Rota /api/v1/condos/{id}[/...] extraída do URI em uma única passada, sem regex
+ * e sem criar substrings: o sub-path é consultado direto no URI original a partir
+ * de {@link #subPathStart()}.
+ *
+ * O parse começa após o context-path (ex: "/convivium" em produção), já que
+ * HttpServletRequest.getRequestURI() o inclui.
+ */
+record CondoRoute(long condominiumId, String uri, int subPathStart) {
+
+    private static final String CONDOS_PREFIX = "/api/v1/condos/";
+    private static final long MAX_BEFORE_MULTIPLY = Long.MAX_VALUE / 10;
+
+    /**
+     * Equivale a "/api/v1/condos/(\\d+)(/.*)?" aplicado a uri.substring(offset).
+     * Retorna null se o URI não for de condominio ou se o id não couber em um long.
+     */
+    static CondoRoute parse(String uri, int offset) {
+        if (uri == null || !uri.startsWith(CONDOS_PREFIX, offset)) {
+            return null;
+        }
+        int i = offset + CONDOS_PREFIX.length();
+        int length = uri.length();
+        long id = 0;
+        int digitsStart = i;
+        while (i < length) {
+            char c = uri.charAt(i);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            int digit = c - '0';
+            if (id > MAX_BEFORE_MULTIPLY || (id == MAX_BEFORE_MULTIPLY && digit > Long.MAX_VALUE % 10)) {
+                return null;
+            }
+            id = id * 10 + digit;
+            i++;
+        }
+        if (i == digitsStart || (i < length && uri.charAt(i) != '/')) {
+            return null;
+        }
+        return new CondoRoute(id, uri, i);
+    }
+
+    boolean hasSubPath() {
+        return subPathStart < uri.length();
+    }
+
+    /** Equivale a subPath.startsWith(prefix), sem materializar o sub-path. */
+    boolean subPathStartsWith(String prefix) {
+        return hasSubPath() && uri.startsWith(prefix, subPathStart);
+    }
+}
@@ -0,0 +1,120 @@
+package com.convivium.security;
+
+import com.convivium.module.support.repository.SupportTicketRepository;
+import com.convivium.module.user.entity.Role;
+import com.convivium.security.TenantAccessPolicy.Denial;
+import com.convivium.security.jwt.JwtAuthenticationFilter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Autenticação e autorização das mensagens STOMP recebidas em /ws.
+ *
+ * - CONNECT: header nativo "Authorization: Bearer <access token>" vira o usuário da sessão
+ *   (sem header a sessão continua anônima; token inválido recusa a conexão).
+ * - SUBSCRIBE: lista fechada de destinos exatos, todos exigindo usuário. O SimpleBroker trata
+ *   o destino da assinatura como padrão (AntPathMatcher), então *, ? e { são recusados antes:
+ *   /topic/** receberia os tópicos de todos os condomínios.
+ *   - /topic/condos/{id}/dashboard: regras do TenantFilter (TenantAccessPolicy) e gestão
+ *     (Síndico, Sub, Porteiro) ou admin da plataforma;
+ *   - /topic/support/tickets/{id}: dono do chamado ou admin da plataforma;
+ *   - /topic/support/admin: admin da plataforma.
+ * - SEND direto para /topic/**: recusado, só o servidor publica nos tópicos do broker.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StompAuthorizationInterceptor implements ChannelInterceptor {
+
+    private static final String AUTHORIZATION_HEADER = "Authorization";
+    private static final String TOPIC_PREFIX = "/topic/";
+    private static final Pattern DASHBOARD_TOPIC = Pattern.compile("/topic/condos/([1-9]\\d{0,17})/dashboard");
+    private static final Pattern SUPPORT_TICKET_TOPIC = Pattern.compile("/topic/support/tickets/([1-9]\\d{0,17})");
+    private static final String SUPPORT_ADMIN_TOPIC = "/topic/support/admin";
+
+    private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final TenantAccessPolicy tenantAccessPolicy;
+    private final SupportTicketRepository supportTicketRepository;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+        if (accessor.getCommand() == StompCommand.CONNECT) {
+            authenticate(accessor);
+        } else if (accessor.getCommand() == StompCommand.SUBSCRIBE) {
+            authorizeSubscription(accessor.getDestination(), accessor.getUser());
+        } else if (accessor.getCommand() == StompCommand.SEND) {
+            String destination = accessor.getDestination();
+            if (destination != null && destination.startsWith(TOPIC_PREFIX)) {
+                throw new AccessDeniedException("Envio direto para " + destination + " nao permitido");
+            }
+        }
+        return message;
+    }
+
+    private void authenticate(StompHeaderAccessor accessor) {
+        String header = accessor.getFirstNativeHeader(AUTHORIZATION_HEADER);
+        if (header == null) {
+            return;
+        }
+        UserPrincipal principal = jwtAuthenticationFilter.authenticate(JwtAuthenticationFilter.stripBearer(header))
+                .orElseThrow(() -> new AccessDeniedException("Token invalido"));
+        accessor.setUser(new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    void authorizeSubscription(String destination, Principal user) {
+        if (destination == null || destination.chars().anyMatch(c -> c == '*' || c == '?' || c == '{')) {
+            throw new AccessDeniedException("Destino invalido: " + destination);
+        }
+        Matcher dashboard = DASHBOARD_TOPIC.matcher(destination);
+        Matcher supportTicket = SUPPORT_TICKET_TOPIC.matcher(destination);
+        boolean supportAdmin = SUPPORT_ADMIN_TOPIC.equals(destination);
+        if (!dashboard.matches() && !supportTicket.matches() && !supportAdmin) {
+            throw new AccessDeniedException("Destino invalido: " + destination);
+        }
+
+        if (!(user instanceof UsernamePasswordAuthenticationToken auth)
+                || !(auth.getPrincipal() instanceof UserPrincipal principal)) {
+            throw new AccessDeniedException("Autenticacao necessaria para " + destination);
+        }
+
+        if (dashboard.matches()) {
+            authorizeDashboard(destination, principal, Long.parseLong(dashboard.group(1)));
+        } else if (supportTicket.matches()) {
+            if (!principal.isPlatformAdmin()
+                    && !supportTicketRepository.existsByIdAndUserId(Long.parseLong(supportTicket.group(1)), principal.getId())) {
+                throw new AccessDeniedException("Sem permissao para o chamado");
+            }
+        } else if (!principal.isPlatformAdmin()) {
+            throw new AccessDeniedException("Sem permissao para o suporte da plataforma");
+        }
+    }
+
+    private void authorizeDashboard(String destination, UserPrincipal principal, Long condominiumId) {
+        Optional<Denial> denial = tenantAccessPolicy.check(principal, condominiumId, false);
+        if (denial.isPresent()) {
+            log.warn("User {} denied subscription to {}: {}", principal.getUuid(), destination, denial.get().code());
+            throw new AccessDeniedException(denial.get().message());
+        }
+        if (!principal.isPlatformAdmin() && !principal.hasAnyRole(Role.SINDICO, Role.SUB_SINDICO, Role.PORTEIRO)) {
+            throw new AccessDeniedException("Sem permissao para o painel do condominio");
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.convivium.security;
+
+import com.convivium.module.condominium.repository.CondominiumRepository;
+import com.convivium.module.user.entity.Role;
+import com.convivium.security.TenantStateCache.TenantState;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Regras de acesso a um condominio (bloqueios GENERAL/PAYMENT, status SUSPENDED e
+ * condominio do JWT), compartilhadas pelo TenantFilter (HTTP) e pelo
+ * StompAuthorizationInterceptor (assinaturas WebSocket).
+ */
+@Component
+@RequiredArgsConstructor
+public class TenantAccessPolicy {
+
+    private final CondominiumRepository condominiumRepository;
+    private final TenantStateCache tenantStateCache;
+
+    /** Motivo da recusa; tenantMismatch = usuario de outro condominio (403 sem corpo JSON no HTTP). */
+    public record Denial(String message, String code, boolean tenantMismatch) {}
+
+    /**
+     * @param paymentRoute true se a rota é /payment/** (liberada ao SINDICO no bloqueio PAYMENT)
+     * @return vazio se o acesso é permitido
+     */
+    public Optional<Denial> check(UserPrincipal user, Long condominiumId, boolean paymentRoute) {
+        Optional<TenantState> condoOpt = resolveTenantState(condominiumId);
+
+        if (condoOpt.isPresent()) {
+            TenantState condo = condoOpt.get();
+
+            // 1) Bloqueio GENERAL: apenas PLATFORM_ADMIN acessa
+            if ("GENERAL".equals(condo.blockType()) && !user.isPlatformAdmin()) {
+                return Optional.of(new Denial("Condominio bloqueado. Entre em contato com a plataforma.",
+                        "CONDOMINIUM_GENERAL_BLOCKED", false));
+            }
+
+            // 2) Bloqueio PAYMENT: PLATFORM_ADMIN acessa tudo;
+            //    SINDICO acessa somente /payment/** (/api/v1/auth/me nao e rota de condominio)
+            if ("PAYMENT".equals(condo.blockType()) && !user.isPlatformAdmin()
+                    && !(user.hasRole(Role.SINDICO) && paymentRoute)) {
+                return Optional.of(new Denial("Condominio bloqueado por inadimplencia. Regularize o pagamento.",
+                        "CONDOMINIUM_PAYMENT_BLOCKED", false));
+            }
+
+            // 3) Manter bloqueio por status SUSPENDED (legacy)
+            if ("SUSPENDED".equals(condo.status()) && !user.isPlatformAdmin()) {
+                return Optional.of(new Denial("Condominio suspenso. Regularize sua situacao para acessar.",
+                        "CONDOMINIUM_SUSPENDED", false));
+            }
+        }
+
+        // Platform admins can access any condominium
+        if (!user.isPlatformAdmin()
+                && (user.getCondominiumId() == null || !user.getCondominiumId().equals(condominiumId))) {
+            return Optional.of(new Denial("Access denied to this condominium", "CONDOMINIUM_ACCESS_DENIED", true));
+        }
+        return Optional.empty();
+    }
+
+    /** Bloqueio/status do condominio: cache primeiro, banco apenas no primeiro acesso ou após o TTL. */
+    private Optional<TenantState> resolveTenantState(Long condominiumId) {
+        Optional<TenantState> cached = tenantStateCache.get(condominiumId);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        Optional<TenantState> loaded = condominiumRepository.findById(condominiumId).map(TenantState::of);
+        loaded.ifPresent(state -> tenantStateCache.put(condominiumId, state));
+        return loaded;
+    }
+}
@@ -0,0 +1,130 @@
+package com.convivium.security;
+
+import com.convivium.module.condominium.entity.Condominium;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache em memória id do condominio -> (blockType, status) usado pelo TenantFilter,
+ * evitando carregar a entidade Condominium em toda requisição /api/v1/condos/{id}/**.
+ *
+ * Preenchido sob demanda pelo filtro e atualizado por quem altera bloqueio/status
+ * (refresh). Cada entrada expira após app.security.tenant-cache.ttl-ms, o que também
+ * limita a defasagem entre instâncias; o total é limitado por max-entries.
+ */
+@Component
+public class TenantStateCache {
+
+    private final Duration ttl;
+    private final int maxEntries;
+    private final Clock clock;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TenantStateCache(@Value("${app.security.tenant-cache.ttl-ms:60000}") long ttlMs,
+                            @Value("${app.security.tenant-cache.max-entries:10000}") int maxEntries) {
+        this(ttlMs, maxEntries, Clock.systemUTC());
+    }
+
+    TenantStateCache(long ttlMs, int maxEntries, Clock clock) {
+        this.ttl = Duration.ofMillis(Math.max(0, ttlMs));
+        this.maxEntries = Math.max(1, maxEntries);
+        this.clock = clock;
+    }
+
+    /** Estado em cache do condominio, se ainda dentro do TTL. */
+    public Optional<TenantState> get(Long condominiumId) {
+        if (condominiumId == null) {
+            return Optional.empty();
+        }
+        Entry entry = entries.get(condominiumId);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (isExpired(entry)) {
+            entries.remove(condominiumId, entry);
+            return Optional.empty();
+        }
+        return Optional.of(entry.state());
+    }
+
+    public void put(Long condominiumId, TenantState state) {
+        if (condominiumId == null || state == null) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            evictExpired();
+            Iterator<Long> it = entries.keySet().iterator();
+            while (entries.size() >= maxEntries && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        }
+        entries.put(condominiumId, new Entry(state, clock.instant().plus(ttl)));
+    }
+
+    /**
+     * Atualiza o estado a partir do condominio recém-alterado. Dentro de uma transação
+     * a atualização só é aplicada após o commit, para um rollback não deixar o cache
+     * com um bloqueio/desbloqueio que não foi gravado.
+     */
+    public void refresh(Condominium condominium) {
+        if (condominium == null || condominium.getId() == null) {
+            return;
+        }
+        Long id = condominium.getId();
+        TenantState state = TenantState.of(condominium);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put(id, state);
+                }
+            });
+        } else {
+            put(id, state);
+        }
+    }
+
+    public void evict(Long condominiumId) {
+        if (condominiumId != null) {
+            entries.remove(condominiumId);
+        }
+    }
+
+    /** Remove entradas com TTL vencido. */
+    @Scheduled(fixedDelayString = "${app.security.tenant-cache.ttl-ms:60000}")
+    public void evictExpired() {
+        entries.values().removeIf(this::isExpired);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private boolean isExpired(Entry entry) {
+        return !clock.instant().isBefore(entry.expiresAt());
+    }
+
+    private record Entry(TenantState state, Instant expiresAt) {}
+
+    /** Campos do condominio que o TenantFilter consulta a cada requisição. */
+    public record TenantState(String blockType, String status) {
+
+        public static TenantState of(Condominium condominium) {
+            return new TenantState(condominium.getBlockType(), condominium.getStatus());
+        }
+    }
+}
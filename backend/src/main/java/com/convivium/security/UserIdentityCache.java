@@ -0,0 +1,55 @@
+package com.convivium.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache em memória UUID -> (id, nome) usado pelo JwtAuthenticationFilter quando o
+ * access token não traz as claims "uid"/"name" (tokens emitidos antes delas existirem).
+ * Deve ser invalidado sempre que o nome do usuário mudar.
+ */
+@Component
+public class UserIdentityCache {
+
+    private final int maxEntries;
+    private final Map<String, Identity> entries = new ConcurrentHashMap<>();
+
+    public UserIdentityCache(@Value("${app.security.identity-cache.max-entries:10000}") int maxEntries) {
+        this.maxEntries = Math.max(1, maxEntries);
+    }
+
+    public Optional<Identity> get(String uuid) {
+        return uuid != null ? Optional.ofNullable(entries.get(uuid)) : Optional.empty();
+    }
+
+    public void put(String uuid, Long id, String name) {
+        if (uuid == null || id == null) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            Iterator<String> it = entries.keySet().iterator();
+            while (entries.size() >= maxEntries && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        }
+        entries.put(uuid, new Identity(id, name));
+    }
+
+    public void evict(String uuid) {
+        if (uuid != null) {
+            entries.remove(uuid);
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public record Identity(Long id, String name) {}
+}
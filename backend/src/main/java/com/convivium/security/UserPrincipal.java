@@ -1,7 +1,9 @@
 package com.convivium.security;
 
+import com.convivium.module.user.entity.Role;
 import com.convivium.module.user.entity.User;
-import lombok.AllArgsConstructor;
+import com.convivium.security.permission.AuthorityMask;
+import com.convivium.security.permission.Permission;
 import lombok.Builder;
 import lombok.Getter;
 import org.springframework.security.core.GrantedAuthority;
@@ -13,8 +15,6 @@ import java.util.Collection;
 import java.util.List;
 
 @Getter
-@Builder
-@AllArgsConstructor
 public class UserPrincipal implements UserDetails {
 
     private final Long id;
@@ -27,6 +27,26 @@ public class UserPrincipal implements UserDetails {
     private final boolean active;
     private final Collection<GrantedAuthority> authorities;
 
+    /** Roles/permissões em bits, calculados uma vez a partir de authorities. */
+    private final AuthorityMask authorityMask;
+
+    @Builder
+    public UserPrincipal(Long id, String uuid, String email, String password, String name,
+                         Long condominiumId, boolean isPlatformAdmin, boolean active,
+                         Collection<GrantedAuthority> authorities) {
+        this.id = id;
+        this.uuid = uuid;
+        this.email = email;
+        this.password = password;
+        this.name = name;
+        this.condominiumId = condominiumId;
+        this.isPlatformAdmin = isPlatformAdmin;
+        this.active = active;
+        this.authorities = authorities;
+        AuthorityMask mask = AuthorityMask.of(authorities);
+        this.authorityMask = isPlatformAdmin ? mask.withPlatformAdmin(true) : mask;
+    }
+
     public static UserPrincipal fromUser(User user, Long condominiumId,
                                          List<String> roles, List<String> permissions) {
         List<GrantedAuthority> authorities = new ArrayList<>();
@@ -56,6 +76,24 @@ public class UserPrincipal implements UserDetails {
                 .build();
     }
 
+    /** Equivale a authorities.contains("ROLE_" + role), sem varrer a coleção. */
+    public boolean hasRole(Role role) {
+        return authorityMask.hasRole(role);
+    }
+
+    public boolean hasAnyRole(Role... roles) {
+        for (Role role : roles) {
+            if (authorityMask.hasRole(role)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean hasPermission(Permission permission) {
+        return authorityMask.hasPermission(permission);
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return authorities;
@@ -2,6 +2,7 @@ package com.convivium.security.jwt;
 
 import com.convivium.module.user.entity.User;
 import com.convivium.module.user.repository.UserRepository;
+import com.convivium.security.UserIdentityCache;
 import com.convivium.security.UserPrincipal;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -11,6 +12,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -21,6 +23,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Slf4j
@@ -33,6 +36,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider jwtTokenProvider;
     private final UserRepository userRepository;
+    private final UserIdentityCache userIdentityCache;
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request,
@@ -41,11 +45,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
 
         try {
-            String jwt = extractJwtFromRequest(request);
-
-            if (StringUtils.hasText(jwt) && jwtTokenProvider.validateToken(jwt)) {
-                UserPrincipal userPrincipal = createUserPrincipalFromToken(jwt);
+            UserPrincipal userPrincipal = authenticate(extractJwtFromRequest(request)).orElse(null);
 
+            if (userPrincipal != null) {
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(
                                 userPrincipal,
@@ -65,59 +67,81 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
-    private String extractJwtFromRequest(HttpServletRequest request) {
-        String bearerToken = request.getHeader(AUTHORIZATION_HEADER);
+    /**
+     * Principal a partir de um access token (sem o prefixo "Bearer "); vazio se ausente ou inválido.
+     * Também usado na autenticação do CONNECT STOMP.
+     */
+    public Optional<UserPrincipal> authenticate(String jwt) {
+        if (!StringUtils.hasText(jwt)) {
+            return Optional.empty();
+        }
+        return jwtTokenProvider.parseToken(jwt).map(this::createUserPrincipalFromToken);
+    }
+
+    /** Valor de um header Authorization "Bearer ..." sem o prefixo; null se não for Bearer. */
+    public static String stripBearer(String bearerToken) {
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith(BEARER_PREFIX)) {
             return bearerToken.substring(BEARER_PREFIX.length());
         }
         return null;
     }
 
-    private UserPrincipal createUserPrincipalFromToken(String token) {
-        String uuid = jwtTokenProvider.getSubject(token);
-        String email = jwtTokenProvider.getEmail(token);
-        Long condominiumId = jwtTokenProvider.getCondominiumId(token);
-        List<String> roles = jwtTokenProvider.getRoles(token);
-        List<String> permissions = jwtTokenProvider.getPermissions(token);
+    private String extractJwtFromRequest(HttpServletRequest request) {
+        return stripBearer(request.getHeader(AUTHORIZATION_HEADER));
+    }
 
-        List<SimpleGrantedAuthority> authorities = new ArrayList<>();
+    private UserPrincipal createUserPrincipalFromToken(ParsedToken token) {
+        String uuid = token.subject();
+        List<String> roles = token.roles();
+        List<String> permissions = token.permissions();
 
-        if (roles != null) {
-            roles.stream()
-                    .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
-                    .forEach(authorities::add);
+        List<GrantedAuthority> authorities = new ArrayList<>(roles.size() + permissions.size());
+        for (String role : roles) {
+            authorities.add(new SimpleGrantedAuthority("ROLE_" + role));
         }
-
-        if (permissions != null) {
-            permissions.stream()
-                    .map(SimpleGrantedAuthority::new)
-                    .forEach(authorities::add);
+        for (String permission : permissions) {
+            authorities.add(new SimpleGrantedAuthority(permission));
         }
 
-        boolean isPlatformAdmin = roles != null && roles.contains("PLATFORM_ADMIN");
+        boolean isPlatformAdmin = token.hasRole("PLATFORM_ADMIN");
 
-        // Resolve database ID from UUID
-        Long userId = null;
-        String name = null;
-        try {
-            User user = userRepository.findByUuid(UUID.fromString(uuid)).orElse(null);
-            if (user != null) {
-                userId = user.getId();
-                name = user.getName();
+        // id e nome vêm do próprio token; tokens antigos (sem "uid") caem no cache/banco
+        Long userId = token.userId();
+        String name = token.name();
+        if (userId == null) {
+            UserIdentityCache.Identity identity = resolveIdentity(uuid);
+            if (identity != null) {
+                userId = identity.id();
+                name = identity.name();
             }
-        } catch (Exception ex) {
-            log.warn("Could not resolve user ID from UUID {}: {}", uuid, ex.getMessage());
         }
 
         return UserPrincipal.builder()
                 .id(userId)
                 .uuid(uuid)
-                .email(email)
+                .email(token.email())
                 .name(name)
-                .condominiumId(condominiumId)
+                .condominiumId(token.condominiumId())
                 .isPlatformAdmin(isPlatformAdmin)
                 .active(true)
-                .authorities(new ArrayList<>(authorities))
+                .authorities(authorities)
                 .build();
     }
+
+    private UserIdentityCache.Identity resolveIdentity(String uuid) {
+        UserIdentityCache.Identity cached = userIdentityCache.get(uuid).orElse(null);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            User user = userRepository.findByUuid(UUID.fromString(uuid)).orElse(null);
+            if (user != null) {
+                userIdentityCache.put(uuid, user.getId(), user.getName());
+                return new UserIdentityCache.Identity(user.getId(), user.getName());
+            }
+        } catch (Exception ex) {
+            log.warn("Could not resolve user ID from UUID {}: {}", uuid, ex.getMessage());
+        }
+        return null;
+    }
 }
@@ -12,4 +12,12 @@ public class JwtProperties {
     private String secret;
     private long accessTokenExpiration;
     private long refreshTokenExpiration;
+    private Cache cache = new Cache();
+
+    /** Cache de tokens verificados (VerifiedTokenCache). Desligado por padrão. */
+    @Data
+    public static class Cache {
+        private boolean enabled = false;
+        private int maxEntries = 10_000;
+    }
 }
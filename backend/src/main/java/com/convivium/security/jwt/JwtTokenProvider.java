@@ -3,6 +3,7 @@ package com.convivium.security.jwt;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import jakarta.annotation.PostConstruct;
@@ -14,6 +15,7 @@ import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
 @Slf4j
 @Component
@@ -21,7 +23,10 @@ import java.util.List;
 public class JwtTokenProvider {
 
     private final JwtProperties jwtProperties;
+    private final VerifiedTokenCache verifiedTokenCache;
     private SecretKey signingKey;
+    /** Parser imutável e thread-safe; montado uma vez em vez de a cada verificação. */
+    private JwtParser jwtParser;
 
     /** HS256 exige chave com pelo menos 256 bits (32 bytes). */
     private static final int MIN_SECRET_BYTES = 32;
@@ -36,9 +41,16 @@ public class JwtTokenProvider {
             );
         }
         this.signingKey = Keys.hmacShaKeyFor(secretBytes);
+        this.jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
     }
 
-    public String generateAccessToken(String userUuid, String email,
+    /**
+     * Gera o access token. "uid" e "name" permitem ao JwtAuthenticationFilter montar
+     * o UserPrincipal sem consultar o banco.
+     */
+    public String generateAccessToken(String userUuid, Long userId, String name, String email,
                                        Long condominiumId, List<String> roles,
                                        List<String> permissions) {
         Date now = new Date();
@@ -46,6 +58,8 @@ public class JwtTokenProvider {
 
         var builder = Jwts.builder()
                 .subject(userUuid)
+                .claim("uid", userId)
+                .claim("name", name)
                 .claim("email", email)
                 .claim("roles", roles)
                 .claim("permissions", permissions)
@@ -72,13 +86,20 @@ public class JwtTokenProvider {
                 .compact();
     }
 
-    public boolean validateToken(String token) {
+    /**
+     * Verifica assinatura e expiração e extrai todas as claims numa única passada.
+     * Retorna vazio (com o mesmo log de validateToken) quando o token é inválido.
+     * Com app.jwt.cache.enabled, tokens repetidos são servidos do VerifiedTokenCache.
+     */
+    public Optional<ParsedToken> parseToken(String token) {
+        Optional<ParsedToken> cached = verifiedTokenCache.get(token);
+        if (cached.isPresent()) {
+            return cached;
+        }
         try {
-            Jwts.parser()
-                    .verifyWith(signingKey)
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
+            ParsedToken parsed = ParsedToken.from(getClaims(token));
+            verifiedTokenCache.put(token, parsed);
+            return Optional.of(parsed);
         } catch (ExpiredJwtException ex) {
             log.warn("Expired JWT token: {}", ex.getMessage());
         } catch (JwtException ex) {
@@ -86,15 +107,15 @@ public class JwtTokenProvider {
         } catch (IllegalArgumentException ex) {
             log.warn("JWT claims string is empty: {}", ex.getMessage());
         }
-        return false;
+        return Optional.empty();
+    }
+
+    public boolean validateToken(String token) {
+        return parseToken(token).isPresent();
     }
 
     public Claims getClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(signingKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return jwtParser.parseSignedClaims(token).getPayload();
     }
 
     public String getSubject(String token) {
@@ -0,0 +1,43 @@
+package com.convivium.security.jwt;
+
+import io.jsonwebtoken.Claims;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Claims de um access token já verificado (assinatura e expiração).
+ * Criado uma única vez por requisição, evitando reparsear o JWT para cada claim.
+ */
+public record ParsedToken(
+        String subject,
+        Long userId,
+        String name,
+        String email,
+        Long condominiumId,
+        List<String> roles,
+        List<String> permissions,
+        Instant expiresAt
+) {
+
+    @SuppressWarnings("unchecked")
+    static ParsedToken from(Claims claims) {
+        List<String> roles = claims.get("roles", List.class);
+        List<String> permissions = claims.get("permissions", List.class);
+        return new ParsedToken(
+                claims.getSubject(),
+                claims.get("uid", Long.class),
+                claims.get("name", String.class),
+                claims.get("email", String.class),
+                claims.get("condominiumId", Long.class),
+                roles != null ? roles : Collections.emptyList(),
+                permissions != null ? permissions : Collections.emptyList(),
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null
+        );
+    }
+
+    public boolean hasRole(String role) {
+        return roles.contains(role);
+    }
+}
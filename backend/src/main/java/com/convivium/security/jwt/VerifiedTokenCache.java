@@ -0,0 +1,142 @@
+package com.convivium.security.jwt;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache opcional de access tokens já verificados (app.jwt.cache.enabled).
+ *
+ * A chave é o SHA-256 do token completo, então um token só reaproveita as claims
+ * que ele mesmo produziu. Cada entrada vale até o "exp" do próprio token e o
+ * total de entradas é limitado por app.jwt.cache.max-entries.
+ *
+ * Métricas: convivium.jwt.cache.lookups (tag result = hit, miss), convivium.jwt.cache.evictions
+ * e convivium.jwt.cache.size.
+ */
+@Slf4j
+@Component
+public class VerifiedTokenCache {
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final Clock clock;
+    private final Map<ByteBuffer, ParsedToken> entries = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    @Autowired
+    public VerifiedTokenCache(JwtProperties jwtProperties, MeterRegistry meterRegistry) {
+        this(jwtProperties, meterRegistry, Clock.systemUTC());
+    }
+
+    VerifiedTokenCache(JwtProperties jwtProperties, MeterRegistry meterRegistry, Clock clock) {
+        this.enabled = jwtProperties.getCache().isEnabled();
+        this.maxEntries = Math.max(1, jwtProperties.getCache().getMaxEntries());
+        this.clock = clock;
+        this.hits = Counter.builder("convivium.jwt.cache.lookups").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("convivium.jwt.cache.lookups").tag("result", "miss").register(meterRegistry);
+        this.evictions = Counter.builder("convivium.jwt.cache.evictions").register(meterRegistry);
+        Gauge.builder("convivium.jwt.cache.size", entries, Map::size).register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Retorna as claims em cache se o token ainda não expirou. */
+    public Optional<ParsedToken> get(String token) {
+        if (!enabled || token == null) {
+            return Optional.empty();
+        }
+        ByteBuffer key = keyOf(token);
+        ParsedToken cached = entries.get(key);
+        if (cached == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        if (isExpired(cached)) {
+            if (entries.remove(key, cached)) {
+                evictions.increment();
+            }
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(cached);
+    }
+
+    /** Guarda as claims de um token recém-verificado. Tokens sem "exp" não são cacheados. */
+    public void put(String token, ParsedToken parsed) {
+        if (!enabled || parsed.expiresAt() == null || isExpired(parsed)) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            evictExpired();
+            evictOverflow();
+        }
+        entries.put(keyOf(token), parsed);
+    }
+
+    /** Remove entradas cujo token já expirou. */
+    @Scheduled(fixedDelayString = "${app.jwt.cache.purge-interval-ms:60000}")
+    public void evictExpired() {
+        if (!enabled) {
+            return;
+        }
+        long removed = 0;
+        for (Iterator<ParsedToken> it = entries.values().iterator(); it.hasNext(); ) {
+            if (isExpired(it.next())) {
+                it.remove();
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            evictions.increment(removed);
+            log.debug("VerifiedTokenCache: {} tokens expirados removidos", removed);
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    /** Ainda cheio após remover expirados: descarta entradas arbitrárias até abrir espaço. */
+    private void evictOverflow() {
+        Iterator<ByteBuffer> it = entries.keySet().iterator();
+        while (entries.size() >= maxEntries && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.increment();
+        }
+    }
+
+    private boolean isExpired(ParsedToken parsed) {
+        return !clock.instant().isBefore(parsed.expiresAt());
+    }
+
+    private static ByteBuffer keyOf(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return ByteBuffer.wrap(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponivel", e);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.convivium.security.password;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * PasswordEncoder que executa o encoder real (BCrypt) num pool de tamanho fixo com fila
+ * limitada. A thread da requisição só espera o resultado, então um pico de logins ocupa
+ * no máximo executor.threads núcleos e não deixa os demais endpoints sem CPU.
+ *
+ * Fila cheia ou espera acima de executor.wait-timeout-ms geram PasswordHashBusyException
+ * (PASSWORD_HASH_BUSY), em qualquer uso do encoder e não só no login. upgradeEncoding só devolve true com app.security.password.rehash-on-login.
+ *
+ * Métricas: convivium.password.hash (tag operation), convivium.password.hash.queue.wait,
+ * convivium.password.hash.queue.depth, convivium.password.hash.active e
+ * convivium.password.hash.rejected.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    private static final long BUSY_RETRY_AFTER_SECONDS = 1;
+
+    private final PasswordEncoder delegate;
+    private final boolean rehashOnLogin;
+    private final long waitTimeoutMs;
+    private final BlockingQueue<Runnable> queue;
+    private final ThreadPoolExecutor executor;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Timer queueWaitTimer;
+    private final Counter rejected;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate,
+                                  PasswordHashingProperties.Executor config,
+                                  boolean rehashOnLogin,
+                                  MeterRegistry registry) {
+        this.delegate = delegate;
+        this.rehashOnLogin = rehashOnLogin;
+        this.waitTimeoutMs = Math.max(1, config.getWaitTimeoutMs());
+        int threads = Math.max(1, config.getThreads());
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, config.getQueueCapacity()));
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                queue, new HashThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+
+        this.encodeTimer = Timer.builder("convivium.password.hash")
+                .tag("operation", "encode")
+                .register(registry);
+        this.matchesTimer = Timer.builder("convivium.password.hash")
+                .tag("operation", "matches")
+                .register(registry);
+        this.queueWaitTimer = Timer.builder("convivium.password.hash.queue.wait").register(registry);
+        this.rejected = Counter.builder("convivium.password.hash.rejected").register(registry);
+        Gauge.builder("convivium.password.hash.queue.depth", queue, BlockingQueue::size).register(registry);
+        Gauge.builder("convivium.password.hash.active", executor, ThreadPoolExecutor::getActiveCount).register(registry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /** Barato (só lê o custo do hash), roda na thread de quem chama. */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return rehashOnLogin && delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private <T> T run(Timer timer, Supplier<T> work) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                queueWaitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return timer.record(work);
+            });
+        } catch (RejectedExecutionException ex) {
+            rejected.increment();
+            throw busy();
+        }
+        try {
+            return future.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            future.cancel(true);
+            rejected.increment();
+            throw busy();
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw busy();
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private static PasswordHashBusyException busy() {
+        return new PasswordHashBusyException("Servidor ocupado. Tente novamente em instantes.",
+                BUSY_RETRY_AFTER_SECONDS);
+    }
+
+    private static final class HashThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "password-hash-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.convivium.security.password;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Admissão de tentativas de login antes do BCrypt: janela fixa de
+ * app.security.password.admission.window-seconds com limite por IP e por email.
+ * Acima do limite a tentativa é recusada com LoginThrottledException
+ * (TOO_MANY_LOGIN_ATTEMPTS) sem consumir o pool de hash.
+ *
+ * Contadores em memória, por instância; o total de chaves é limitado por max-entries.
+ * Métrica: convivium.login.admission.rejected (tag key = ip | email).
+ */
+@Component
+public class LoginAdmissionControl {
+
+    private final boolean enabled;
+    private final Duration window;
+    private final int maxAttemptsPerIp;
+    private final int maxAttemptsPerEmail;
+    private final int maxEntries;
+    private final Clock clock;
+    private final Counter ipRejected;
+    private final Counter emailRejected;
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    @Autowired
+    public LoginAdmissionControl(PasswordHashingProperties properties, MeterRegistry registry) {
+        this(properties.getAdmission(), registry, Clock.systemUTC());
+    }
+
+    LoginAdmissionControl(PasswordHashingProperties.Admission config, MeterRegistry registry, Clock clock) {
+        this.enabled = config.isEnabled();
+        this.window = Duration.ofSeconds(Math.max(1, config.getWindowSeconds()));
+        this.maxAttemptsPerIp = config.getMaxAttemptsPerIp();
+        this.maxAttemptsPerEmail = config.getMaxAttemptsPerEmail();
+        this.maxEntries = Math.max(1, config.getMaxEntries());
+        this.clock = clock;
+        this.ipRejected = Counter.builder("convivium.login.admission.rejected").tag("key", "ip").register(registry);
+        this.emailRejected = Counter.builder("convivium.login.admission.rejected").tag("key", "email").register(registry);
+    }
+
+    /**
+     * Conta a tentativa para o IP e para o email.
+     *
+     * @throws LoginThrottledException se algum dos dois passou do limite na janela atual
+     */
+    public void admit(String ip, String email) {
+        if (!enabled) {
+            return;
+        }
+        Instant now = clock.instant();
+        if (ip != null && !ip.isBlank()) {
+            check("ip:" + ip, maxAttemptsPerIp, now, ipRejected);
+        }
+        if (email != null && !email.isBlank()) {
+            check("email:" + email.trim().toLowerCase(Locale.ROOT), maxAttemptsPerEmail, now, emailRejected);
+        }
+    }
+
+    /** Remove janelas já encerradas. */
+    @Scheduled(fixedDelayString = "${app.security.password.admission.evict-interval-ms:60000}")
+    public void evictExpired() {
+        Instant now = clock.instant();
+        windows.values().removeIf(w -> w.isOver(now));
+    }
+
+    public int size() {
+        return windows.size();
+    }
+
+    private void check(String key, int limit, Instant now, Counter rejected) {
+        if (limit <= 0) {
+            return;
+        }
+        if (windows.size() >= maxEntries && !windows.containsKey(key)) {
+            makeRoom();
+        }
+        Window current = windows.compute(key, (k, w) ->
+                w == null || w.isOver(now) ? new Window(now.plus(window), 1) : w.increment());
+        if (current.attempts() > limit) {
+            rejected.increment();
+            long retryAfter = Math.max(1, Duration.between(now, current.endsAt()).toSeconds());
+            throw new LoginThrottledException("Muitas tentativas de login. Tente novamente em instantes.",
+                    "TOO_MANY_LOGIN_ATTEMPTS", retryAfter);
+        }
+    }
+
+    private void makeRoom() {
+        evictExpired();
+        Iterator<String> it = windows.keySet().iterator();
+        while (windows.size() >= maxEntries && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private record Window(Instant endsAt, int attempts) {
+
+        boolean isOver(Instant now) {
+            return !now.isBefore(endsAt);
+        }
+
+        Window increment() {
+            return new Window(endsAt, attempts + 1);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.convivium.security.password;
+
+import lombok.Getter;
+
+/**
+ * Login recusado antes de verificar a senha: limite de tentativas por IP/email
+ * (LoginAdmissionControl). Respondido como 429 com Retry-After.
+ */
+@Getter
+public class LoginThrottledException extends RuntimeException {
+
+    private final String errorCode;
+    private final long retryAfterSeconds;
+
+    public LoginThrottledException(String message, String errorCode, long retryAfterSeconds) {
+        super(message);
+        this.errorCode = errorCode;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,19 @@
+package com.convivium.security.password;
+
+import lombok.Getter;
+
+/**
+ * Pool de BCrypt (BoundedPasswordEncoder) saturado: fila cheia ou espera acima do limite.
+ * Vale para qualquer hash ou verificação de senha (login, cadastro, troca e redefinição),
+ * por isso não é um erro de login. Respondido como 503 com Retry-After.
+ */
+@Getter
+public class PasswordHashBusyException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public PasswordHashBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,42 @@
+package com.convivium.security.password;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.security.password")
+public class PasswordHashingProperties {
+
+    /** Custo do BCrypt (log2 das rodadas) usado nos novos hashes. */
+    private int bcryptStrength = 10;
+
+    /**
+     * Regrava o hash no login quando o custo gravado é menor que bcryptStrength.
+     * BCrypt só "sobe" o custo: reduzir bcryptStrength não regrava hashes existentes.
+     */
+    private boolean rehashOnLogin = false;
+
+    private Executor executor = new Executor();
+    private Admission admission = new Admission();
+
+    /** Pool dedicado ao BCrypt (BoundedPasswordEncoder), fora das threads do Tomcat. */
+    @Data
+    public static class Executor {
+        private int threads = 2;
+        private int queueCapacity = 64;
+        /** Tempo máximo que a requisição espera na fila + hash antes de responder 429. */
+        private long waitTimeoutMs = 5_000;
+    }
+
+    /** Limite de tentativas de login por IP e por email (LoginAdmissionControl). */
+    @Data
+    public static class Admission {
+        private boolean enabled = true;
+        private long windowSeconds = 60;
+        private int maxAttemptsPerIp = 30;
+        private int maxAttemptsPerEmail = 10;
+        private int maxEntries = 100_000;
+    }
+}
@@ -0,0 +1,122 @@
+package com.convivium.security.permission;
+
+import com.convivium.module.user.entity.Role;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Roles e permissões de um usuário como bits (1L << ordinal()), para checagens
+ * sem varrer a lista de GrantedAuthority nem montar "ROLE_" + role a cada chamada.
+ *
+ * PLATFORM_ADMIN não faz parte de {@link Role}; fica em {@link #platformAdmin()}.
+ */
+public record AuthorityMask(long roles, long permissions, boolean platformAdmin) {
+
+    public static final AuthorityMask NONE = new AuthorityMask(0L, 0L, false);
+
+    private static final String ROLE_PREFIX = "ROLE_";
+    private static final String PLATFORM_ADMIN = "PLATFORM_ADMIN";
+    private static final String PLATFORM_ADMIN_AUTHORITY = ROLE_PREFIX + PLATFORM_ADMIN;
+
+    private static final Map<String, Role> ROLES_BY_AUTHORITY = new HashMap<>();
+    private static final Map<String, Role> ROLES_BY_NAME = new HashMap<>();
+    private static final Map<String, Permission> PERMISSIONS_BY_NAME = new HashMap<>();
+
+    static {
+        for (Role role : Role.values()) {
+            ROLES_BY_AUTHORITY.put(ROLE_PREFIX + role.name(), role);
+            ROLES_BY_NAME.put(role.name(), role);
+        }
+        for (Permission permission : Permission.values()) {
+            PERMISSIONS_BY_NAME.put(permission.name(), permission);
+        }
+    }
+
+    public static long bit(Role role) {
+        return 1L << role.ordinal();
+    }
+
+    public static long bit(Permission permission) {
+        return 1L << permission.ordinal();
+    }
+
+    /** Calcula a máscara a partir das authorities ("ROLE_X" para roles, nome puro para permissões). */
+    public static AuthorityMask of(Collection<? extends GrantedAuthority> authorities) {
+        if (authorities == null || authorities.isEmpty()) {
+            return NONE;
+        }
+        long roles = 0L;
+        long permissions = 0L;
+        boolean platformAdmin = false;
+        for (GrantedAuthority authority : authorities) {
+            String value = authority.getAuthority();
+            if (value == null) {
+                continue;
+            }
+            Role role = ROLES_BY_AUTHORITY.get(value);
+            if (role != null) {
+                roles |= bit(role);
+                continue;
+            }
+            Permission permission = PERMISSIONS_BY_NAME.get(value);
+            if (permission != null) {
+                permissions |= bit(permission);
+            } else if (PLATFORM_ADMIN_AUTHORITY.equals(value)) {
+                platformAdmin = true;
+            }
+        }
+        return new AuthorityMask(roles, permissions, platformAdmin);
+    }
+
+    /**
+     * Converte uma lista separada por vírgula de nomes de Role, Permission ou PLATFORM_ADMIN
+     * (ex: "SINDICO,SUB_SINDICO,PLATFORM_ADMIN") na máscara equivalente.
+     *
+     * @throws IllegalArgumentException se algum nome não for Role, Permission nem PLATFORM_ADMIN
+     */
+    public static AuthorityMask parse(String names) {
+        long roles = 0L;
+        long permissions = 0L;
+        boolean platformAdmin = false;
+        for (String raw : names.split(",")) {
+            String name = raw.trim();
+            if (name.startsWith(ROLE_PREFIX)) {
+                name = name.substring(ROLE_PREFIX.length());
+            }
+            Role role = ROLES_BY_NAME.get(name);
+            Permission permission = PERMISSIONS_BY_NAME.get(name);
+            if (role != null) {
+                roles |= bit(role);
+            } else if (permission != null) {
+                permissions |= bit(permission);
+            } else if (PLATFORM_ADMIN.equals(name)) {
+                platformAdmin = true;
+            } else {
+                throw new IllegalArgumentException("Role/permissao desconhecida: " + raw);
+            }
+        }
+        return new AuthorityMask(roles, permissions, platformAdmin);
+    }
+
+    public AuthorityMask withPlatformAdmin(boolean platformAdmin) {
+        return platformAdmin == this.platformAdmin ? this : new AuthorityMask(roles, permissions, platformAdmin);
+    }
+
+    public boolean hasRole(Role role) {
+        return (roles & bit(role)) != 0;
+    }
+
+    public boolean hasPermission(Permission permission) {
+        return (permissions & bit(permission)) != 0;
+    }
+
+    /** true se houver ao menos uma role, permissão ou PLATFORM_ADMIN em comum. */
+    public boolean intersects(AuthorityMask other) {
+        return (roles & other.roles) != 0
+                || (permissions & other.permissions) != 0
+                || (platformAdmin && other.platformAdmin);
+    }
+}
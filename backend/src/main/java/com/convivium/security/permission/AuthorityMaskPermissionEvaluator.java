@@ -0,0 +1,67 @@
+package com.convivium.security.permission;
+
+import com.convivium.security.UserPrincipal;
+import org.springframework.security.access.PermissionEvaluator;
+import org.springframework.security.core.Authentication;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * PermissionEvaluator de {@code hasPermission(#condoId, ...)} nas expressões @PreAuthorize das
+ * rotas de condominio (/condos/{condoId}/**). As rotas da plataforma (/admin/**) não têm
+ * condominio e ficam em {@code hasRole('PLATFORM_ADMIN')}.
+ *
+ * O alvo é o id do condominio da rota: o usuário precisa pertencer a ele (condominio do JWT)
+ * ou ser PLATFORM_ADMIN; alvo nulo, de outro tipo ou autenticação sem UserPrincipal negam.
+ * É a mesma regra de pertencimento do TenantFilter, repetida aqui para que a anotação
+ * signifique o que diz mesmo fora do filtro.
+ *
+ * A permissão é uma lista separada por vírgula de roles, permissões ou PLATFORM_ADMIN
+ * (ex: {@code hasPermission(#condoId, 'SINDICO,SUB_SINDICO,PLATFORM_ADMIN')}) e basta
+ * uma delas. Cada lista é convertida em AuthorityMask uma única vez; a checagem em si é
+ * um AND de bits contra a máscara já calculada no UserPrincipal.
+ */
+public class AuthorityMaskPermissionEvaluator implements PermissionEvaluator {
+
+    /** targetType aceito na forma hasPermission(id, 'Condominium', permissão). */
+    public static final String CONDOMINIUM_TARGET = "Condominium";
+
+    private final Map<String, AuthorityMask> requiredByExpression = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean hasPermission(Authentication authentication, Object targetDomainObject, Object permission) {
+        return check(authentication, targetDomainObject, permission);
+    }
+
+    @Override
+    public boolean hasPermission(Authentication authentication, Serializable targetId, String targetType,
+                                 Object permission) {
+        return CONDOMINIUM_TARGET.equals(targetType) && check(authentication, targetId, permission);
+    }
+
+    private boolean check(Authentication authentication, Object condominium, Object permission) {
+        if (authentication == null || !authentication.isAuthenticated()
+                || !(authentication.getPrincipal() instanceof UserPrincipal principal)
+                || !(condominium instanceof Number condominiumId)) {
+            return false;
+        }
+        AuthorityMask required = required(permission);
+        if (required == null || !principal.getAuthorityMask().intersects(required)) {
+            return false;
+        }
+        return principal.isPlatformAdmin()
+                || (principal.getCondominiumId() != null && principal.getCondominiumId() == condominiumId.longValue());
+    }
+
+    private AuthorityMask required(Object permission) {
+        if (permission instanceof Permission p) {
+            return new AuthorityMask(0L, AuthorityMask.bit(p), false);
+        }
+        if (permission instanceof String names) {
+            return requiredByExpression.computeIfAbsent(names, AuthorityMask::parse);
+        }
+        return null;
+    }
+}
@@ -2,9 +2,15 @@ package com.convivium.storage;
 
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+
 /**
  * Armazena arquivos localmente (pasta do sistema) ou em S3 (online).
  * Retorna a URL ou caminho para acesso ao arquivo.
+ *
+ * O conteúdo é sempre passado como stream: nenhuma implementação carrega o arquivo
+ * inteiro em memória.
  */
 public interface FileStorageService {
 
@@ -14,5 +20,24 @@ public interface FileStorageService {
      * @param file arquivo enviado
      * @return URL (S3) ou path relativo (local, ex: /uploads/parcels/1/abc.jpg)
      */
-    String store(String relativePath, MultipartFile file);
+    default String store(String relativePath, MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("Arquivo vazio");
+        }
+        try (InputStream content = file.getInputStream()) {
+            return store(relativePath, content, file.getSize(), file.getContentType());
+        } catch (IOException e) {
+            throw new StorageException("Erro ao ler arquivo enviado", e);
+        }
+    }
+
+    /**
+     * Armazena size bytes lidos de content (o stream não é fechado aqui).
+     * Se já existir arquivo em relativePath ele é substituído.
+     * @param contentType null = application/octet-stream
+     */
+    String store(String relativePath, InputStream content, long size, String contentType);
+
+    /** Abre um arquivo armazenado para leitura; quem chama fecha o stream. */
+    InputStream open(String relativePath);
 }
@@ -0,0 +1,233 @@
+package com.convivium.storage;
+
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+
+/**
+ * Redimensionamento de fotos com ImageIO (JPEG, PNG, GIF, BMP), sem dependências externas.
+ *
+ * A leitura usa subsampling do decoder: uma foto de celular de 12 MP é decodificada já
+ * reduzida para perto do tamanho final, em vez de abrir um raster de ~48 MB para depois
+ * encolher. A orientação EXIF (fotos "deitadas" de celular) é aplicada, já que o JPEG
+ * gerado não carrega o EXIF original.
+ */
+public final class ImageResizer {
+
+    private static final int EXIF_MARKER = 0xE1;
+    private static final int ORIENTATION_TAG = 0x0112;
+
+    private ImageResizer() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * Decodifica a imagem com o maior lado próximo de (e nunca menor que) maxSize, já na
+     * orientação correta e em RGB. Use {@link #fit} para chegar ao tamanho exato.
+     *
+     * @throws IOException se o conteúdo não for uma imagem suportada
+     */
+    public static BufferedImage read(InputStream source, int maxSize) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source)) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new IOException("Formato de imagem nao suportado");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, false);
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, longest / Math.max(1, maxSize));
+                param.setSourceSubsampling(step, step, 0, 0);
+                int orientation = exifOrientation(reader);
+                return orient(toRgb(reader.read(0, param)), orientation);
+            } catch (RuntimeException e) {
+                // decoders do JDK lançam IllegalArgumentException etc. para arquivos corrompidos
+                throw new IOException("Imagem invalida: " + e.getMessage(), e);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /** Reduz para o maior lado = maxSize (nunca amplia), em passos de metade para não serrilhar. */
+    public static BufferedImage fit(BufferedImage image, int maxSize) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        double scale = (double) maxSize / Math.max(width, height);
+        if (scale >= 1) {
+            return image;
+        }
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+        BufferedImage current = image;
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            current = draw(current, width, height);
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    /** quality entre 0 e 1. */
+    public static byte[] toJpeg(BufferedImage image, float quality) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(bytes)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(Math.max(0f, Math.min(1f, quality)));
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    /** JPEG não tem alfa: PNG/GIF transparentes vão para fundo branco. */
+    private static BufferedImage toRgb(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+            return image;
+        }
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = rgb.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, image.getWidth(), image.getHeight());
+            g.drawImage(image, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return rgb;
+    }
+
+    /** Orientações 3, 6 e 8 (rotações); as espelhadas são raras em câmeras e ficam como estão. */
+    private static BufferedImage orient(BufferedImage image, int orientation) {
+        int quarterTurns = switch (orientation) {
+            case 6 -> 1;
+            case 3 -> 2;
+            case 8 -> 3;
+            default -> 0;
+        };
+        if (quarterTurns == 0) {
+            return image;
+        }
+        int width = image.getWidth();
+        int height = image.getHeight();
+        boolean swap = quarterTurns % 2 == 1;
+        BufferedImage rotated = new BufferedImage(swap ? height : width, swap ? width : height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = rotated.createGraphics();
+        try {
+            g.translate(rotated.getWidth() / 2.0, rotated.getHeight() / 2.0);
+            g.rotate(Math.PI / 2 * quarterTurns);
+            g.translate(-width / 2.0, -height / 2.0);
+            g.drawImage(image, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return rotated;
+    }
+
+    /** Tag Orientation do segmento APP1/Exif de um JPEG; 1 (normal) se ausente ou ilegível. */
+    private static int exifOrientation(ImageReader reader) {
+        try {
+            IIOMetadata metadata = reader.getImageMetadata(0);
+            if (metadata == null || !"javax_imageio_jpeg_image_1.0".equals(metadata.getNativeMetadataFormatName())) {
+                return 1;
+            }
+            Node markers = child(metadata.getAsTree("javax_imageio_jpeg_image_1.0"), "markerSequence");
+            for (Node node = markers != null ? markers.getFirstChild() : null; node != null; node = node.getNextSibling()) {
+                NamedNodeMap attributes = node.getAttributes();
+                Node tag = attributes != null ? attributes.getNamedItem("MarkerTag") : null;
+                if ("unknown".equals(node.getNodeName()) && tag != null
+                        && Integer.parseInt(tag.getNodeValue()) == EXIF_MARKER
+                        && node instanceof IIOMetadataNode iioNode
+                        && iioNode.getUserObject() instanceof byte[] data) {
+                    return parseOrientation(data);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // metadados corrompidos: segue sem rotação
+        }
+        return 1;
+    }
+
+    private static Node child(Node parent, String name) {
+        for (Node node = parent.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (name.equals(node.getNodeName())) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    /** data = "Exif\0\0" + cabeçalho TIFF + IFD0. */
+    static int parseOrientation(byte[] data) {
+        if (data.length < 14 || data[0] != 'E' || data[1] != 'x' || data[2] != 'i' || data[3] != 'f') {
+            return 1;
+        }
+        int tiff = 6;
+        boolean littleEndian = data[tiff] == 'I';
+        int ifd = tiff + readInt(data, tiff + 4, littleEndian);
+        if (ifd + 2 > data.length) {
+            return 1;
+        }
+        int entries = readShort(data, ifd, littleEndian);
+        for (int i = 0; i < entries; i++) {
+            int entry = ifd + 2 + i * 12;
+            if (entry + 12 > data.length) {
+                break;
+            }
+            if (readShort(data, entry, littleEndian) == ORIENTATION_TAG) {
+                return readShort(data, entry + 8, littleEndian);
+            }
+        }
+        return 1;
+    }
+
+    private static int readShort(byte[] data, int offset, boolean littleEndian) {
+        int a = data[offset] & 0xFF;
+        int b = data[offset + 1] & 0xFF;
+        return littleEndian ? (b << 8) | a : (a << 8) | b;
+    }
+
+    private static int readInt(byte[] data, int offset, boolean littleEndian) {
+        int high = readShort(data, offset + (littleEndian ? 2 : 0), littleEndian);
+        int low = readShort(data, offset + (littleEndian ? 0 : 2), littleEndian);
+        return (high << 16) | low;
+    }
+}
@@ -4,13 +4,13 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.UUID;
+import java.nio.file.StandardCopyOption;
 
 @Service
 @Slf4j
@@ -30,21 +30,32 @@ public class LocalFileStorageService implements FileStorageService {
     }
 
     @Override
-    public String store(String relativePath, MultipartFile file) {
-        if (file == null || file.isEmpty()) {
-            throw new IllegalArgumentException("Arquivo vazio");
-        }
+    public String store(String relativePath, InputStream content, long size, String contentType) {
+        Path target = resolve(relativePath);
         try {
-            Path target = basePath.resolve(relativePath).normalize();
-            if (!target.startsWith(basePath)) {
-                throw new IllegalArgumentException("Path invalido");
-            }
             Files.createDirectories(target.getParent());
-            Files.copy(file.getInputStream(), target);
+            Files.copy(content, target, StandardCopyOption.REPLACE_EXISTING);
             return "/uploads/" + relativePath.replace("\\", "/");
         } catch (IOException e) {
             log.error("Erro ao salvar arquivo local: {}", relativePath, e);
-            throw new RuntimeException("Erro ao salvar arquivo", e);
+            throw new StorageException("Erro ao salvar arquivo", e);
+        }
+    }
+
+    @Override
+    public InputStream open(String relativePath) {
+        try {
+            return Files.newInputStream(resolve(relativePath));
+        } catch (IOException e) {
+            throw new StorageException("Erro ao ler arquivo " + relativePath, e);
+        }
+    }
+
+    private Path resolve(String relativePath) {
+        Path target = basePath.resolve(relativePath).normalize();
+        if (!target.startsWith(basePath)) {
+            throw new IllegalArgumentException("Path invalido");
         }
+        return target;
     }
 }
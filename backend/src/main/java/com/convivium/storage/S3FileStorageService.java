@@ -4,17 +4,18 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.exception.SdkException;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.S3ClientBuilder;
 import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 
-import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 
 @Service
@@ -58,22 +59,27 @@ public class S3FileStorageService implements FileStorageService {
     }
 
     @Override
-    public String store(String relativePath, MultipartFile file) {
-        if (file == null || file.isEmpty()) {
-            throw new IllegalArgumentException("Arquivo vazio");
-        }
+    public String store(String relativePath, InputStream content, long size, String contentType) {
         try {
-            String contentType = file.getContentType() != null ? file.getContentType() : "application/octet-stream";
             PutObjectRequest request = PutObjectRequest.builder()
                     .bucket(bucketName)
                     .key(relativePath)
-                    .contentType(contentType)
+                    .contentType(contentType != null ? contentType : "application/octet-stream")
                     .build();
-            s3Client.putObject(request, RequestBody.fromInputStream(file.getInputStream(), file.getSize()));
+            s3Client.putObject(request, RequestBody.fromInputStream(content, size));
             return publicBaseUrl + "/" + relativePath;
-        } catch (IOException e) {
+        } catch (SdkException e) {
             log.error("Erro ao enviar arquivo para S3: {}", relativePath, e);
-            throw new RuntimeException("Erro ao salvar arquivo", e);
+            throw new StorageException("Erro ao salvar arquivo", e);
+        }
+    }
+
+    @Override
+    public InputStream open(String relativePath) {
+        try {
+            return s3Client.getObject(GetObjectRequest.builder().bucket(bucketName).key(relativePath).build());
+        } catch (SdkException e) {
+            throw new StorageException("Erro ao ler arquivo " + relativePath, e);
         }
     }
 }
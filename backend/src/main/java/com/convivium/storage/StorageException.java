@@ -0,0 +1,9 @@
+package com.convivium.storage;
+
+/** Falha de I/O no armazenamento de arquivos (disco local ou S3). */
+public class StorageException extends RuntimeException {
+
+    public StorageException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,14 @@
+-- =============================================
+-- V25: refresh_tokens guarda SHA-256 (hex) do token em vez do JWT completo
+-- =============================================
+
+ALTER TABLE refresh_tokens ADD COLUMN token_hash VARCHAR(64);
+
+UPDATE refresh_tokens SET token_hash = encode(sha256(convert_to(token, 'UTF8')), 'hex');
+
+ALTER TABLE refresh_tokens ALTER COLUMN token_hash SET NOT NULL;
+ALTER TABLE refresh_tokens ADD CONSTRAINT uk_refresh_tokens_token_hash UNIQUE (token_hash);
+
+-- O índice único de token_hash substitui idx_refresh_tokens_token e a UNIQUE de token
+DROP INDEX IF EXISTS idx_refresh_tokens_token;
+ALTER TABLE refresh_tokens DROP COLUMN token;
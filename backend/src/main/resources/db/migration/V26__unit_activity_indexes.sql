@@ -0,0 +1,9 @@
+-- =============================================
+-- V26: Índices da linha do tempo de atividades (DashboardService.getUnitActivity)
+-- Cada ramo da UNION ALL lê em ordem (created_at, id) desc e para após a página
+-- =============================================
+
+CREATE INDEX idx_complaints_condo_complainant_created ON complaints (condominium_id, complainant_id, created_at DESC, id DESC);
+CREATE INDEX idx_complaints_condo_unit_created ON complaints (condominium_id, unit_id, created_at DESC, id DESC);
+CREATE INDEX idx_parcels_condo_recipient_created ON parcels (condominium_id, recipient_id, created_at DESC, id DESC);
+CREATE INDEX idx_parcels_condo_unit_created ON parcels (condominium_id, unit_id, created_at DESC, id DESC);
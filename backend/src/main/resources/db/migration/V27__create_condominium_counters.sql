@@ -0,0 +1,24 @@
+-- =============================================
+-- V27: Contadores do dashboard por condomínio (DashboardCounterService)
+-- Mantidos nas transições de estado; DashboardCountersReconciliationJob corrige divergências
+-- =============================================
+
+CREATE TABLE condominium_counters (
+    condominium_id          BIGINT          PRIMARY KEY REFERENCES condominiums (id),
+    total_moradores         BIGINT          NOT NULL DEFAULT 0,
+    denuncias_abertas       BIGINT          NOT NULL DEFAULT 0,
+    encomendas_pendentes    BIGINT          NOT NULL DEFAULT 0,
+    reconciled_at           TIMESTAMPTZ,
+    updated_at              TIMESTAMPTZ     DEFAULT now()
+);
+
+INSERT INTO condominium_counters (condominium_id, total_moradores, denuncias_abertas, encomendas_pendentes, reconciled_at)
+SELECT c.id,
+       (SELECT COUNT(*) FROM user_condominium_roles ucr WHERE ucr.condominium_id = c.id),
+       (SELECT COUNT(*) FROM complaints co WHERE co.condominium_id = c.id AND co.status = 'OPEN'),
+       (SELECT COUNT(*) FROM parcels p WHERE p.condominium_id = c.id AND p.status <> 'DELIVERED'),
+       now()
+FROM condominiums c;
+
+-- reservasHoje: reservas que começam no dia, por condomínio
+CREATE INDEX idx_bookings_condo_start ON bookings (condominium_id, start_time);
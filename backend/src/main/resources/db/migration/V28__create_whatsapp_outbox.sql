@@ -0,0 +1,31 @@
+-- =============================================
+-- V28: Outbox de mensagens WhatsApp
+-- Gravada na transação do evento (ex.: encomenda recebida) e entregue pelo
+-- WhatsAppOutboxDispatcher. O status por mensagem fica em notifications.delivery_status.
+-- =============================================
+
+CREATE TABLE whatsapp_outbox (
+    id                  BIGSERIAL       PRIMARY KEY,
+    notification_id     BIGINT          REFERENCES notifications (id) ON DELETE SET NULL,
+    idempotency_key     VARCHAR(100)    NOT NULL,
+    message_type        VARCHAR(30)     NOT NULL
+                        CONSTRAINT ck_whatsapp_outbox_message_type
+                        CHECK (message_type IN ('ENCOMENDA_TEMPLATE', 'ENCOMENDA_PHOTO')),
+    to_phone            VARCHAR(30)     NOT NULL,
+    payload             TEXT            NOT NULL,
+    status              VARCHAR(20)     NOT NULL DEFAULT 'PENDING'
+                        CONSTRAINT ck_whatsapp_outbox_status
+                        CHECK (status IN ('PENDING', 'SENT', 'FAILED')),
+    attempts            INT             NOT NULL DEFAULT 0,
+    next_attempt_at     TIMESTAMPTZ     NOT NULL DEFAULT now(),
+    claim_token         VARCHAR(36),
+    claimed_until       TIMESTAMPTZ,
+    last_error          VARCHAR(500),
+    created_at          TIMESTAMPTZ     NOT NULL DEFAULT now(),
+    sent_at             TIMESTAMPTZ,
+    CONSTRAINT uk_whatsapp_outbox_idempotency_key UNIQUE (idempotency_key)
+);
+
+-- Fila do dispatcher: só mensagens pendentes, pela próxima tentativa
+CREATE INDEX idx_whatsapp_outbox_due ON whatsapp_outbox (next_attempt_at, id) WHERE status = 'PENDING';
+CREATE INDEX idx_whatsapp_outbox_claim ON whatsapp_outbox (claim_token) WHERE claim_token IS NOT NULL;
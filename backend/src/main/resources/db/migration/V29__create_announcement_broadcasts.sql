@@ -0,0 +1,36 @@
+-- =============================================
+-- V29: Disparo de comunicados por WhatsApp
+-- Uma linha por comunicado disparado; cursor_user_id é o checkpoint (último destinatário
+-- concluído, destinatários percorridos por users.id), então um disparo interrompido
+-- continua de onde parou.
+-- =============================================
+
+CREATE TABLE announcement_broadcasts (
+    id                  BIGSERIAL       PRIMARY KEY,
+    announcement_id     BIGINT          NOT NULL REFERENCES announcements (id) ON DELETE CASCADE,
+    condominium_id      BIGINT          NOT NULL REFERENCES condominiums (id),
+    is_emergency        BOOLEAN         NOT NULL DEFAULT false,
+    status              VARCHAR(20)     NOT NULL DEFAULT 'PENDING'
+                        CONSTRAINT ck_announcement_broadcasts_status
+                        CHECK (status IN ('PENDING', 'RUNNING', 'COMPLETED')),
+    cursor_user_id      BIGINT          NOT NULL DEFAULT 0,
+    total_recipients    INT             NOT NULL DEFAULT 0,
+    sent_count          INT             NOT NULL DEFAULT 0,
+    failed_count        INT             NOT NULL DEFAULT 0,
+    claim_token         VARCHAR(36),
+    claimed_until       TIMESTAMPTZ,
+    requested_by        BIGINT          REFERENCES users (id),
+    started_at          TIMESTAMPTZ,
+    finished_at         TIMESTAMPTZ,
+    created_at          TIMESTAMPTZ     NOT NULL DEFAULT now(),
+    updated_at          TIMESTAMPTZ     NOT NULL DEFAULT now(),
+    CONSTRAINT uk_announcement_broadcasts_announcement UNIQUE (announcement_id)
+);
+
+-- Fila do AnnouncementBroadcastJob: emergências primeiro
+CREATE INDEX idx_announcement_broadcasts_open ON announcement_broadcasts (is_emergency DESC, id)
+    WHERE status <> 'COMPLETED';
+
+-- Destinatários do disparo: ativos do condomínio percorridos por user_id
+CREATE INDEX IF NOT EXISTS idx_user_condo_roles_condo_status_user
+    ON user_condominium_roles (condominium_id, status, user_id);
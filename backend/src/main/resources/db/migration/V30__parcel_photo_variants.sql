@@ -0,0 +1,24 @@
+-- =============================================
+-- V30: Pipeline de fotos de encomendas
+-- storage_key: caminho no armazenamento (endereçado pelo conteúdo: {sha256}.{ext})
+-- content_hash: SHA-256 do arquivo, para reaproveitar o mesmo upload no condomínio
+-- thumbnail_url / preview_url: variantes JPEG geradas em background (listas / WhatsApp)
+-- variants_status: PENDING até as variantes existirem; NULL nas fotos anteriores a esta versão
+-- =============================================
+
+ALTER TABLE parcel_photos
+    ADD COLUMN storage_key      VARCHAR(300),
+    ADD COLUMN content_hash     VARCHAR(64),
+    ADD COLUMN size_bytes       BIGINT,
+    ADD COLUMN thumbnail_url    VARCHAR(500),
+    ADD COLUMN preview_url      VARCHAR(500),
+    ADD COLUMN variants_status  VARCHAR(20)
+               CONSTRAINT ck_parcel_photos_variants_status
+               CHECK (variants_status IN ('PENDING', 'READY', 'FAILED'));
+
+CREATE INDEX idx_parcel_photos_content_hash ON parcel_photos (content_hash)
+    WHERE content_hash IS NOT NULL;
+
+-- Varredura do ParcelPhotoVariantJob
+CREATE INDEX idx_parcel_photos_variants_pending ON parcel_photos (id)
+    WHERE variants_status = 'PENDING';
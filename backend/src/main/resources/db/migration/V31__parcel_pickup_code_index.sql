@@ -0,0 +1,8 @@
+-- =============================================
+-- V31: Retirada de encomenda só com o código do morador
+-- Busca por (condominium_id, resident_code) entre as encomendas ainda não entregues;
+-- as entregues (a maioria da tabela com o tempo) ficam fora do índice.
+-- =============================================
+
+CREATE INDEX idx_parcels_condo_resident_code_pending ON parcels (condominium_id, resident_code)
+    WHERE status <> 'DELIVERED' AND resident_code IS NOT NULL;
@@ -0,0 +1,7 @@
+-- =============================================
+-- V32: Respostas de denúncias por denúncia
+-- A listagem conta as respostas de cada denúncia da página e o detalhe as lê em ordem
+-- cronológica; sem índice em complaint_id ambos varriam complaint_responses inteira.
+-- =============================================
+
+CREATE INDEX idx_complaint_responses_complaint_created ON complaint_responses (complaint_id, created_at);
@@ -0,0 +1,17 @@
+-- =============================================
+-- V33: Busca textual em denúncias (GET /complaints/search)
+-- search_vector: título (peso A) + descrição (peso B) com o dicionário portuguese
+-- (stemming: "vazamentos" encontra "vazamento"). Coluna gerada: o banco mantém em
+-- INSERT/UPDATE, sem trigger nem código na aplicação.
+-- A busca é sempre por condomínio: o GIN acha as denúncias com os termos e
+-- condominium_id filtra as do tenant.
+-- =============================================
+
+ALTER TABLE complaints
+    ADD COLUMN search_vector tsvector
+        GENERATED ALWAYS AS (
+            setweight(to_tsvector('portuguese', coalesce(title, '')), 'A')
+            || setweight(to_tsvector('portuguese', coalesce(description, '')), 'B')
+        ) STORED;
+
+CREATE INDEX idx_complaints_search_vector ON complaints USING GIN (search_vector);
@@ -0,0 +1,50 @@
+-- =============================================
+-- V34: Índices no formato das consultas quentes dos repositórios
+-- Listagens leem (created_at, id) desc a partir do filtro (página numerada e keyset,
+-- ver CursorPage) e param após LIMIT; contadores do dashboard e não lidas do suporte
+-- usam índices parciais. Os índices de uma coluna que viraram prefixo dos novos saem.
+-- =============================================
+
+-- Denúncias: listagem do condomínio, com e sem status; contagem de abertas
+CREATE INDEX idx_complaints_condo_created ON complaints (condominium_id, created_at DESC, id DESC);
+CREATE INDEX idx_complaints_condo_status_created ON complaints (condominium_id, status, created_at DESC, id DESC);
+DROP INDEX IF EXISTS idx_complaints_condominium_id;
+DROP INDEX IF EXISTS idx_complaints_condominium_status;
+
+-- Denúncias do morador por status (listagem "minhas" e contador do dashboard)
+CREATE INDEX idx_complaints_condo_complainant_status_created
+    ON complaints (condominium_id, complainant_id, status, created_at DESC, id DESC);
+
+-- Anexos do detalhe da denúncia (a FK sozinha não cria índice no PostgreSQL)
+CREATE INDEX idx_complaint_attachments_complaint_id ON complaint_attachments (complaint_id);
+
+-- Encomendas: listagem do condomínio, com e sem status
+CREATE INDEX idx_parcels_condo_created ON parcels (condominium_id, created_at DESC, id DESC);
+CREATE INDEX idx_parcels_condo_status_created ON parcels (condominium_id, status, created_at DESC, id DESC);
+DROP INDEX IF EXISTS idx_parcels_condominium_id;
+DROP INDEX IF EXISTS idx_parcels_condominium_status;
+
+-- Encomendas do morador (listagem "minhas", com e sem status)
+CREATE INDEX idx_parcels_recipient_created ON parcels (recipient_id, created_at DESC, id DESC);
+CREATE INDEX idx_parcels_recipient_status_created ON parcels (recipient_id, status, created_at DESC, id DESC);
+DROP INDEX IF EXISTS idx_parcels_recipient_id;
+
+-- Encomendas pendentes (contadores): as entregues, a maior parte da tabela, ficam fora
+CREATE INDEX idx_parcels_condo_pending ON parcels (condominium_id) WHERE status <> 'DELIVERED';
+CREATE INDEX idx_parcels_recipient_pending ON parcels (recipient_id) WHERE status <> 'DELIVERED';
+
+-- Vínculos do condomínio (listagem de usuários)
+CREATE INDEX idx_user_condominium_roles_condo_created
+    ON user_condominium_roles (condominium_id, created_at DESC, id DESC);
+DROP INDEX IF EXISTS idx_user_condominium_roles_condominium_id;
+
+-- Chamados de suporte (painel do admin), com e sem status
+CREATE INDEX idx_support_tickets_created ON support_tickets (created_at DESC, id DESC);
+CREATE INDEX idx_support_tickets_status_created ON support_tickets (status, created_at DESC, id DESC);
+DROP INDEX IF EXISTS idx_support_tickets_status;
+
+-- Mensagens não lidas por chamado (contador de cada chamado na listagem)
+CREATE INDEX idx_support_messages_ticket_unread_from_user ON support_messages (ticket_id)
+    WHERE is_read = false AND is_from_admin = false;
+CREATE INDEX idx_support_messages_ticket_unread_from_admin ON support_messages (ticket_id)
+    WHERE is_read = false AND is_from_admin = true;
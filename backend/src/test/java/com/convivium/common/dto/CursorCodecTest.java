@@ -0,0 +1,43 @@
+package com.convivium.common.dto;
+
+import com.convivium.common.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorCodecTest {
+
+    @Test
+    void decode_returnsTheEncodedFields() {
+        String value = CursorCodec.encode("2026-03-01T12:30:45Z", 1, 42L);
+
+        assertArrayEquals(new String[]{"2026-03-01T12:30:45Z", "1", "42"}, CursorCodec.decode(value, 3, parts -> parts));
+        assertFalse(value.contains("="));
+    }
+
+    @Test
+    void decode_rejectsWrongFieldCountAndParserFailures() {
+        String twoFields = CursorCodec.encode("a", "b");
+        String trailingEmpty = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("a|b|".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(IllegalArgumentException.class, () -> CursorCodec.decode(twoFields, 3, parts -> parts));
+        assertThrows(IllegalArgumentException.class, () -> CursorCodec.decode(trailingEmpty, 2, parts -> parts));
+        assertThrows(IllegalArgumentException.class, () -> CursorCodec.decode("%%%", 2, parts -> parts));
+        assertThrows(IllegalArgumentException.class,
+                () -> CursorCodec.decode(twoFields, 2, parts -> Long.parseLong(parts[0])));
+    }
+
+    @Test
+    void fromRequest_mapsInvalidTextToInvalidCursor() {
+        assertNull(CursorCodec.fromRequest(null, CursorPage.Cursor::decode));
+        assertNull(CursorCodec.fromRequest(" ", CursorPage.Cursor::decode));
+
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> CursorCodec.fromRequest("nao-e-cursor", CursorPage.Cursor::decode));
+        assertEquals("INVALID_CURSOR", ex.getErrorCode());
+    }
+}
@@ -0,0 +1,84 @@
+package com.convivium.common.dto;
+
+import com.convivium.common.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorPageTest {
+
+    private static final Instant CREATED_AT = Instant.parse("2026-03-01T12:30:45.123456Z");
+
+    @Test
+    void cursor_roundTripsThroughOpaqueText() {
+        CursorPage.Cursor cursor = new CursorPage.Cursor(CREATED_AT, 42L);
+
+        assertEquals(cursor, CursorPage.after(cursor.encode()));
+        assertNull(CursorPage.after(" "));
+    }
+
+    @Test
+    void after_rejectsForeignText() {
+        BusinessException ex = assertThrows(BusinessException.class, () -> CursorPage.after("nao-e-cursor"));
+        assertEquals("INVALID_CURSOR", ex.getErrorCode());
+    }
+
+    @Test
+    void of_extraRowBecomesNextCursor() {
+        CursorPage<String> page = CursorPage.of(List.of(3L, 2L, 1L), 2,
+                id -> new CursorPage.Cursor(CREATED_AT, id), id -> "item " + id);
+
+        assertEquals(List.of("item 3", "item 2"), page.content());
+        assertFalse(page.last());
+        assertEquals(new CursorPage.Cursor(CREATED_AT, 2L), CursorPage.Cursor.decode(page.nextCursor()));
+
+        PageResponse<String> response = page.toPageResponse();
+        assertEquals(-1, response.getTotalElements());
+        assertEquals(-1, response.getTotalPages());
+        assertFalse(response.isLast());
+        assertEquals(page.nextCursor(), response.getNextCursor());
+    }
+
+    @Test
+    void of_lastPageHasNoCursor() {
+        CursorPage<Long> page = CursorPage.of(List.of(1L), 2, id -> new CursorPage.Cursor(CREATED_AT, id), id -> id);
+
+        assertTrue(page.last());
+        assertNull(page.toPageResponse().getNextCursor());
+    }
+
+    @Test
+    void cursorMode_clampsRequestedSize() {
+        assertEquals(CursorPage.MAX_SIZE + 1, CursorPage.fetchLimit(10_000).max());
+        assertEquals(2, CursorPage.fetchLimit(0).max());
+
+        List<Long> rows = LongStream.rangeClosed(1, CursorPage.MAX_SIZE + 1).boxed().toList();
+        CursorPage<Long> page = CursorPage.of(rows, 10_000, id -> new CursorPage.Cursor(CREATED_AT, id), id -> id);
+
+        assertEquals(CursorPage.MAX_SIZE, page.content().size());
+        assertEquals(CursorPage.MAX_SIZE, page.size());
+        assertFalse(page.last());
+    }
+
+    @Test
+    void toPageResponse_numberedPageCarriesCursorOnlyInDefaultOrder() {
+        Pageable newestFirst = CursorPage.newestFirst(PageRequest.of(0, 2));
+        PageResponse<Long> response = CursorPage.toPageResponse(new PageImpl<>(List.of(5L, 4L), newestFirst, 5),
+                id -> new CursorPage.Cursor(CREATED_AT, id), id -> id);
+        PageResponse<Long> sortedByClient = CursorPage.toPageResponse(
+                new PageImpl<>(List.of(1L, 2L), PageRequest.of(0, 2, Sort.by("id")), 5),
+                id -> new CursorPage.Cursor(CREATED_AT, id), id -> id);
+
+        assertEquals(5, response.getTotalElements());
+        assertEquals(new CursorPage.Cursor(CREATED_AT, 4L), CursorPage.Cursor.decode(response.getNextCursor()));
+        assertNull(sortedByClient.getNextCursor());
+    }
+}
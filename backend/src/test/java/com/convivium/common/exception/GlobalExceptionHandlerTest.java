@@ -2,7 +2,10 @@ package com.convivium.common.exception;
 
 import com.convivium.common.dto.ApiResponse;
 import com.convivium.integration.google.GoogleIdTokenVerifier.InvalidGoogleTokenException;
+import com.convivium.security.password.LoginThrottledException;
+import com.convivium.security.password.PasswordHashBusyException;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -60,6 +63,26 @@ class GlobalExceptionHandlerTest {
         assertEquals("INTERNAL_ERROR", response.getBody().getErrorCode());
     }
 
+    @Test
+    void handleLoginThrottled_returns429WithRetryAfter() {
+        LoginThrottledException ex = new LoginThrottledException("Muitas tentativas", "TOO_MANY_LOGIN_ATTEMPTS", 42);
+        ResponseEntity<ApiResponse<Void>> response = handler.handleLoginThrottled(ex);
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("42", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertNotNull(response.getBody());
+        assertEquals("TOO_MANY_LOGIN_ATTEMPTS", response.getBody().getErrorCode());
+    }
+
+    @Test
+    void handlePasswordHashBusy_returns503WithRetryAfter() {
+        PasswordHashBusyException ex = new PasswordHashBusyException("Servidor ocupado", 1);
+        ResponseEntity<ApiResponse<Void>> response = handler.handlePasswordHashBusy(ex);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertNotNull(response.getBody());
+        assertEquals("PASSWORD_HASH_BUSY", response.getBody().getErrorCode());
+    }
+
     @Test
     void handleInvalidGoogleToken_returns401() {
         InvalidGoogleTokenException ex = new InvalidGoogleTokenException("Token invalido");
@@ -0,0 +1,99 @@
+package com.convivium.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketRateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    /** Relógio simulado: esperar é avançar o relógio até o prazo. */
+    private final AtomicLong clock = new AtomicLong(1_000L);
+
+    private TokenBucketRateLimiter limiter(double perSecond, int burst) {
+        return new TokenBucketRateLimiter(perSecond, burst, clock::get,
+                deadline -> clock.accumulateAndGet(deadline, Math::max));
+    }
+
+    @Test
+    void burstIsImmediateThenRateApplies() throws Exception {
+        TokenBucketRateLimiter limiter = limiter(10, 5);
+        long start = clock.get();
+
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire();
+        }
+        assertEquals(start, clock.get());
+
+        limiter.acquire();
+        assertEquals(start + SECOND / 10, clock.get());
+    }
+
+    @Test
+    void sustainedRateMatchesConfiguredPermitsPerSecond() throws Exception {
+        TokenBucketRateLimiter limiter = limiter(80, 80);
+        long start = clock.get();
+
+        for (int i = 0; i < 2_000; i++) {
+            limiter.acquire();
+        }
+
+        // 80 do burst saem na hora, os 1.920 restantes a 80/s
+        double seconds = (clock.get() - start) / (double) SECOND;
+        assertEquals(24.0, seconds, 0.01);
+    }
+
+    @Test
+    void idleTimeRefillsOnlyUpToBurst() throws Exception {
+        TokenBucketRateLimiter limiter = limiter(10, 2);
+        limiter.acquire();
+        limiter.acquire();
+
+        clock.addAndGet(60 * SECOND);
+        long afterIdle = clock.get();
+        limiter.acquire();
+        limiter.acquire();
+        assertEquals(afterIdle, clock.get());
+
+        limiter.acquire();
+        assertEquals(afterIdle + SECOND / 10, clock.get());
+    }
+
+    @Test
+    void concurrentCallersNeverExceedTheRate() throws Exception {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(200, 1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 60; i++) {
+                futures.add(executor.submit(() -> {
+                    limiter.acquire();
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+            // 59 fichas após a primeira a 200/s: pelo menos 295 ms
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(290));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void rejectsInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketRateLimiter(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketRateLimiter(10, 0));
+    }
+}
@@ -0,0 +1,27 @@
+package com.convivium.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenHashUtilTest {
+
+    @Test
+    void sha256Hex_returnsFixedWidthLowercaseHex() {
+        String hash = TokenHashUtil.sha256Hex("eyJhbGciOiJIUzI1NiJ9.payload.signature");
+
+        assertEquals(64, hash.length());
+        assertTrue(hash.matches("[0-9a-f]{64}"));
+    }
+
+    @Test
+    void sha256Hex_knownVector() {
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad",
+                TokenHashUtil.sha256Hex("abc"));
+    }
+
+    @Test
+    void sha256Hex_null_throws() {
+        assertThrows(IllegalArgumentException.class, () -> TokenHashUtil.sha256Hex(null));
+    }
+}
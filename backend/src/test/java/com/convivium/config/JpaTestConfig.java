@@ -0,0 +1,20 @@
+package com.convivium.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+
+/**
+ * Configuração para testes @DataJpaTest (perfil "test", H2 em modo PostgreSQL).
+ * Habilita o auditing (created_at/updated_at) e expõe o StatementCounter.
+ */
+@TestConfiguration
+@EnableJpaAuditing
+public class JpaTestConfig {
+
+    @Bean
+    public StatementCounter statementCounter(EntityManagerFactory entityManagerFactory) {
+        return new StatementCounter(entityManagerFactory);
+    }
+}
@@ -1,5 +1,8 @@
 package com.convivium.config;
 
+import com.convivium.security.TenantAccessPolicy;
+import com.convivium.security.TenantStateCache;
+import com.convivium.security.UserIdentityCache;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
@@ -13,9 +16,10 @@ import org.springframework.web.context.WebApplicationContext;
  * (ex: SecurityMockMvcRequestPostProcessors.authentication) funcionem corretamente
  * na resolução de @CurrentUser / @AuthenticationPrincipal.
  * Também importa WebMvcConfig para garantir que CurrentUserArgumentResolver seja carregado.
+ * Registra os caches em memória usados pelos filtros de segurança (sem dependências de banco).
  */
 @TestConfiguration
-@Import({WebMvcConfig.class, TestSecurityConfig.class})
+@Import({WebMvcConfig.class, TestSecurityConfig.class, TenantAccessPolicy.class})
 public class MockMvcSecurityConfig {
 
     @Bean
@@ -25,4 +29,14 @@ public class MockMvcSecurityConfig {
                 .apply(SecurityMockMvcConfigurers.springSecurity())
                 .build();
     }
+
+    @Bean
+    public UserIdentityCache userIdentityCache() {
+        return new UserIdentityCache(100);
+    }
+
+    @Bean
+    public TenantStateCache tenantStateCache() {
+        return new TenantStateCache(60_000L, 100);
+    }
 }
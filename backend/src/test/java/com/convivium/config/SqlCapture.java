@@ -0,0 +1,47 @@
+package com.convivium.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Guarda o SQL que o Hibernate prepara (StatementInspector), para testes que inspecionam
+ * o plano das consultas. Uso: @Import(SqlCapture.Config.class), reset(), executa, statements().
+ */
+public class SqlCapture implements StatementInspector {
+
+    private final List<String> statements = new ArrayList<>();
+
+    @Override
+    public synchronized String inspect(String sql) {
+        statements.add(sql);
+        return sql;
+    }
+
+    public synchronized void reset() {
+        statements.clear();
+    }
+
+    public synchronized List<String> statements() {
+        return List.copyOf(statements);
+    }
+
+    @TestConfiguration
+    public static class Config {
+
+        @Bean
+        public SqlCapture sqlCapture() {
+            return new SqlCapture();
+        }
+
+        @Bean
+        public HibernatePropertiesCustomizer sqlCaptureCustomizer(SqlCapture sqlCapture) {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlCapture);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.convivium.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+/**
+ * Conta os statements SQL preparados pelo Hibernate (hibernate.generate_statistics).
+ * Uso: reset(), executa o código sob teste, count().
+ */
+public class StatementCounter {
+
+    private final Statistics statistics;
+
+    public StatementCounter(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.statistics.setStatisticsEnabled(true);
+    }
+
+    public void reset() {
+        statistics.clear();
+    }
+
+    public long count() {
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -2,6 +2,7 @@ package com.convivium.config;
 
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
 import org.springframework.core.annotation.Order;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -16,6 +17,7 @@ import org.springframework.security.web.SecurityFilterChain;
 @TestConfiguration
 @EnableWebSecurity
 @EnableMethodSecurity
+@Import(MethodSecurityConfig.class)
 public class TestSecurityConfig {
 
     @Bean
@@ -31,9 +33,10 @@ public class TestSecurityConfig {
                                 "/swagger-ui/**",
                                 "/v3/api-docs/**",
                                 "/ws/**",
-                                "/uploads/**"
+                                "/uploads/**",
+                                "/actuator/health"
                         ).permitAll()
-                        .requestMatchers("/api/v1/admin/**").hasRole("PLATFORM_ADMIN")
+                        .requestMatchers("/api/v1/admin/**", "/actuator/**").hasRole("PLATFORM_ADMIN")
                         .anyRequest().authenticated()
                 );
         return http.build();
@@ -0,0 +1,304 @@
+package com.convivium.db;
+
+import com.convivium.common.dto.CursorPage;
+import com.convivium.config.JpaTestConfig;
+import com.convivium.config.SqlCapture;
+import com.convivium.module.complaint.entity.ComplaintStatus;
+import com.convivium.module.complaint.repository.ComplaintRepository;
+import com.convivium.module.complaint.repository.ComplaintResponseRepository;
+import com.convivium.module.parcel.entity.ParcelStatus;
+import com.convivium.module.parcel.repository.ParcelRepository;
+import com.convivium.module.support.repository.SupportMessageRepository;
+import com.convivium.module.support.repository.SupportTicketRepository;
+import com.convivium.module.user.repository.UserCondominiumRoleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.repository.config.BootstrapMode;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Forma dos índices das consultas quentes dos repositórios: cada uma tem de achar, entre os
+ * índices das migrations, um que cubra o seu filtro. Confere só isso; não é o plano do
+ * PostgreSQL. Quem escolhe o plano aqui é o otimizador do H2, com outras estatísticas e
+ * custos, e os predicados dos índices parciais são descartados. Se o PostgreSQL usa de fato
+ * o índice (parcial ou não) em produção só se vê com EXPLAIN lá.
+ *
+ * Não há PostgreSQL no ambiente de teste, então o H2 (modo PostgreSQL, banco próprio) faz
+ * as vezes: as FKs do schema gerado pelo Hibernate saem (o H2 cria índice para cada FK, o
+ * PostgreSQL não), os CREATE/DROP INDEX das migrations são aplicados e o SQL que cada
+ * método realmente emite passa por EXPLAIN. Falha se o plano tiver tableScan ou usar
+ * índice que não venha das migrations.
+ *
+ * O H2 não tem índice parcial: a condição WHERE é descartada, então aqui só se confere que
+ * as colunas do índice batem com o filtro. Índice de migration que não aplica no H2 falha o
+ * teste, exceto os de {@link #POSTGRES_ONLY} e {@link #UNMAPPED_TABLES}; todos os outros
+ * têm de existir ao final.
+ */
+@DataJpaTest(bootstrapMode = BootstrapMode.LAZY, properties =
+        "spring.datasource.url=jdbc:h2:mem:query_plan;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH")
+@ActiveProfiles("test")
+@Import({JpaTestConfig.class, SqlCapture.Config.class})
+class HotQueryPlanTest {
+
+    private static final Pattern VERSION = Pattern.compile("V(\\d+)__");
+    private static final Pattern INDEX_DDL = Pattern.compile("(?is)^(CREATE\\s+(UNIQUE\\s+)?INDEX|DROP\\s+INDEX)\\b.*");
+    private static final Pattern PARTIAL = Pattern.compile("(?is)^(CREATE\\s+.*?\\))\\s+WHERE\\s+.*$");
+    private static final Pattern INDEX_NAME = Pattern.compile("(?is)INDEX\\s+(?:IF\\s+(?:NOT\\s+)?EXISTS\\s+)?([a-z0-9_]+)");
+    private static final Pattern INDEX_TABLE = Pattern.compile("(?is)\\sON\\s+([a-z0-9_]+)");
+    private static final Pattern INDEX_IN_PLAN = Pattern.compile("/\\* public\\.([a-z0-9_]+)");
+    private static final Instant CURSOR_AT = Instant.parse("2026-03-01T10:00:00Z");
+
+    /** Índices que só existem no PostgreSQL (GIN); qualquer outro DDL que falhe no H2 derruba o teste. */
+    private static final Set<String> POSTGRES_ONLY = Set.of("idx_complaints_search_vector");
+
+    /** Tabelas das migrations ainda sem entidade: o schema do Hibernate não as cria, seus índices ficam de fora. */
+    private static final Set<String> UNMAPPED_TABLES = Set.of("audit_logs", "bookings", "common_areas",
+            "condo_documents", "maintenance_requests", "monthly_fees", "visitor_logs", "visitors");
+
+    /** O banco query_plan é só desta classe: os índices entram uma vez por contexto. */
+    private static boolean migrationIndexesApplied;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private SqlCapture sqlCapture;
+    @Autowired
+    private ComplaintRepository complaintRepository;
+    @Autowired
+    private ComplaintResponseRepository complaintResponseRepository;
+    @Autowired
+    private ParcelRepository parcelRepository;
+    @Autowired
+    private UserCondominiumRoleRepository userCondominiumRoleRepository;
+    @Autowired
+    private SupportTicketRepository supportTicketRepository;
+    @Autowired
+    private SupportMessageRepository supportMessageRepository;
+
+    private final List<String> problems = new ArrayList<>();
+
+    @BeforeEach
+    void applyMigrationIndexes() throws IOException {
+        if (migrationIndexesApplied) {
+            return;
+        }
+        List<String[]> foreignKeys = jdbcTemplate.query("""
+                SELECT table_name, constraint_name FROM information_schema.table_constraints
+                WHERE table_schema = 'public' AND constraint_type = 'FOREIGN KEY'
+                """, (row, i) -> new String[]{row.getString(1), row.getString(2)});
+        for (String[] foreignKey : foreignKeys) {
+            jdbcTemplate.execute("ALTER TABLE " + foreignKey[0] + " DROP CONSTRAINT " + foreignKey[1]);
+        }
+        Map<String, String> indexes = migrationIndexes();
+        assertThat(indexes).containsKeys(POSTGRES_ONLY.toArray(String[]::new));
+        List<String> tables = jdbcTemplate.queryForList(
+                "SELECT table_name FROM information_schema.tables WHERE table_schema = 'public'", String.class);
+        assertThat(tables).doesNotContainAnyElementsOf(UNMAPPED_TABLES);
+        for (Map.Entry<String, String> index : indexes.entrySet()) {
+            if (!appliesOnH2(index.getValue())) {
+                continue;
+            }
+            // o @Index das entidades pode ter criado um homônimo: vale a definição da migration
+            jdbcTemplate.execute("DROP INDEX IF EXISTS " + index.getKey());
+            try {
+                jdbcTemplate.execute(h2Form(index.getValue()));
+            } catch (DataAccessException e) {
+                throw new IllegalStateException("Indice da migration nao aplica no H2: " + index.getValue(), e);
+            }
+        }
+        migrationIndexesApplied = true;
+    }
+
+    @Test
+    void migrationIndexes_allExistAfterSetup() throws IOException {
+        Set<String> expected = new LinkedHashSet<>();
+        migrationIndexes().forEach((name, statement) -> {
+            if (appliesOnH2(statement)) {
+                expected.add(name);
+            }
+        });
+        List<String> existing = jdbcTemplate.queryForList(
+                "SELECT index_name FROM information_schema.indexes WHERE table_schema = 'public'", String.class);
+
+        assertThat(expected).contains("idx_complaints_condo_unit_created", "idx_parcels_condo_resident_code_pending",
+                "idx_parcels_condo_created", "idx_support_messages_ticket_unread_from_admin");
+        assertThat(existing).containsAll(expected);
+    }
+
+    @Test
+    void complaintQueries_useIndexes() {
+        PageRequest page = PageRequest.of(0, 20, CursorPage.NEWEST_FIRST);
+        check("complaints do condominio", () -> complaintRepository.findListRowsByCondominiumId(1L, page));
+        check("complaints por status", () -> complaintRepository.findListRowsByCondominiumIdAndStatus(
+                1L, ComplaintStatus.OPEN, page));
+        check("complaints keyset", () -> complaintRepository.findListRowsByCondominiumIdAfter(
+                1L, CURSOR_AT, 10L, Limit.of(21)));
+        check("complaints keyset por status", () -> complaintRepository.findListRowsByCondominiumIdAndStatusAfter(
+                1L, ComplaintStatus.OPEN, CURSOR_AT, 10L, Limit.of(21)));
+        check("minhas complaints por status", () -> complaintRepository.findListRowsByCondominiumIdAndComplainantIdAndStatus(
+                1L, 2L, ComplaintStatus.OPEN, page));
+        check("complaints abertas (contador)", () -> complaintRepository.countByCondominiumIdAndStatus(
+                1L, ComplaintStatus.OPEN));
+        check("minhas complaints abertas (contador)", () -> complaintRepository.countByCondominiumIdAndComplainantIdAndStatus(
+                1L, 2L, ComplaintStatus.OPEN));
+        check("detalhe da complaint", () -> complaintRepository.findDetailByIdAndCondominiumId(10L, 1L));
+        check("respostas da complaint", () -> complaintResponseRepository.findForDetail(10L, false));
+
+        assertThat(problems).isEmpty();
+    }
+
+    @Test
+    void parcelQueries_useIndexes() {
+        PageRequest page = PageRequest.of(0, 20, CursorPage.NEWEST_FIRST);
+        check("parcels do condominio", () -> parcelRepository.findListRowsByCondominiumId(1L, page));
+        check("parcels por status", () -> parcelRepository.findListRowsByCondominiumIdAndStatus(
+                1L, ParcelStatus.RECEIVED, page));
+        check("parcels keyset", () -> parcelRepository.findListRowsByCondominiumIdAfter(1L, CURSOR_AT, 10L, Limit.of(21)));
+        check("parcels keyset por status", () -> parcelRepository.findListRowsByCondominiumIdAndStatusAfter(
+                1L, ParcelStatus.RECEIVED, CURSOR_AT, 10L, Limit.of(21)));
+        check("minhas parcels", () -> parcelRepository.findListRowsByRecipientId(2L, page));
+        check("minhas parcels por status", () -> parcelRepository.findListRowsByRecipientIdAndStatus(
+                2L, ParcelStatus.RECEIVED, page));
+        check("parcels pendentes (contador)", () -> parcelRepository.countPendingByCondominiumId(1L));
+        check("minhas parcels pendentes (contador)", () -> parcelRepository.countPendingByRecipientId(2L));
+        check("retirada por codigo", () -> parcelRepository.findPendingByResidentCode(1L, "123456", Limit.of(2)));
+
+        assertThat(problems).isEmpty();
+    }
+
+    @Test
+    void userAndSupportQueries_useIndexes() {
+        check("usuarios do condominio", () -> userCondominiumRoleRepository.findByCondominiumId(
+                1L, PageRequest.of(0, 20, CursorPage.NEWEST_FIRST)));
+        check("usuarios keyset", () -> userCondominiumRoleRepository.findByCondominiumIdAfter(
+                1L, CURSOR_AT, 10L, Limit.of(21)));
+        check("chamados", () -> supportTicketRepository.findAll(PageRequest.of(0, 20, CursorPage.NEWEST_FIRST)));
+        check("chamados por status", () -> supportTicketRepository.findByStatus(
+                "OPEN", PageRequest.of(0, 20, CursorPage.NEWEST_FIRST)));
+        check("chamados keyset", () -> supportTicketRepository.findAllAfter(CURSOR_AT, 10L, Limit.of(21)));
+        check("chamados keyset por status", () -> supportTicketRepository.findByStatusAfter(
+                "OPEN", CURSOR_AT, 10L, Limit.of(21)));
+        check("mensagens nao lidas do chamado", () -> supportMessageRepository.countByTicketIdAndReadFalseAndFromAdminFalse(10L));
+
+        assertThat(problems).isEmpty();
+    }
+
+    /** Executa a consulta e registra em problems cada statement sem plano por índice. */
+    private void check(String name, Runnable query) {
+        sqlCapture.reset();
+        query.run();
+        List<String> statements = sqlCapture.statements();
+        if (statements.isEmpty()) {
+            problems.add(name + ": nenhum SQL capturado");
+        }
+        for (String sql : statements) {
+            String plan = explain(sql);
+            if (plan.contains("tableScan")) {
+                problems.add(name + ": varredura da tabela\n" + plan);
+                continue;
+            }
+            Matcher index = INDEX_IN_PLAN.matcher(plan);
+            while (index.find()) {
+                String indexName = index.group(1);
+                if (!indexName.startsWith("idx_") && !indexName.startsWith("primary_key")) {
+                    problems.add(name + ": indice " + indexName + " nao vem das migrations\n" + plan);
+                }
+            }
+        }
+    }
+
+    /** EXPLAIN com todos os parâmetros nulos: o plano depende só da forma da consulta. */
+    private String explain(String sql) {
+        return jdbcTemplate.execute((java.sql.Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setObject(i, null);
+                }
+                try (ResultSet plan = statement.executeQuery()) {
+                    plan.next();
+                    return plan.getString(1);
+                }
+            }
+        });
+    }
+
+    /**
+     * Índices que sobram depois de todas as migrations, na ordem das versões: nome → CREATE.
+     * Os que uma migration posterior remove ficam de fora (a coluna pode nem existir mais).
+     */
+    private static Map<String, String> migrationIndexes() throws IOException {
+        Resource[] migrations = new PathMatchingResourcePatternResolver().getResources("classpath:db/migration/V*__*.sql");
+        Arrays.sort(migrations, Comparator.comparingInt(HotQueryPlanTest::version));
+        Map<String, String> indexes = new LinkedHashMap<>();
+        for (Resource migration : migrations) {
+            String script = migration.getContentAsString(StandardCharsets.UTF_8).replaceAll("(?m)--.*$", "");
+            for (String raw : script.split(";")) {
+                String statement = raw.strip();
+                if (!INDEX_DDL.matcher(statement).matches()) {
+                    continue;
+                }
+                if (statement.toUpperCase().startsWith("DROP")) {
+                    indexes.remove(indexName(statement));
+                } else {
+                    indexes.put(indexName(statement), statement);
+                }
+            }
+        }
+        return indexes;
+    }
+
+    private static boolean appliesOnH2(String statement) {
+        Matcher table = INDEX_TABLE.matcher(statement);
+        if (!table.find()) {
+            throw new IllegalStateException("CREATE INDEX sem tabela: " + statement);
+        }
+        return !POSTGRES_ONLY.contains(indexName(statement)) && !UNMAPPED_TABLES.contains(table.group(1).toLowerCase());
+    }
+
+    /** O H2 não tem índice parcial: fica só a lista de colunas. */
+    private static String h2Form(String statement) {
+        Matcher partial = PARTIAL.matcher(statement);
+        return partial.matches() ? partial.group(1) : statement;
+    }
+
+    private static String indexName(String statement) {
+        Matcher matcher = INDEX_NAME.matcher(statement);
+        if (!matcher.find()) {
+            throw new IllegalStateException("DDL de indice sem nome: " + statement);
+        }
+        return matcher.group(1).toLowerCase();
+    }
+
+    private static int version(Resource migration) {
+        Matcher matcher = VERSION.matcher(String.valueOf(migration.getFilename()));
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : 0;
+    }
+}
@@ -0,0 +1,162 @@
+package com.convivium.integration.google;
+
+import com.convivium.integration.google.GoogleIdTokenVerifier.GoogleUserInfo;
+import com.convivium.integration.google.GoogleIdTokenVerifier.InvalidGoogleTokenException;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Roda sem rede: tokens assinados com um par RSA gerado no teste. */
+class GoogleIdTokenVerifierTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-10T12:00:00Z");
+    private static final String CLIENT_ID = "convivium.apps.googleusercontent.com";
+    private static final String KID = "kid-1";
+
+    private static KeyPair googleKeys;
+    private static KeyPair otherKeys;
+
+    private final Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+
+    @BeforeAll
+    static void generateKeys() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        googleKeys = generator.generateKeyPair();
+        otherKeys = generator.generateKeyPair();
+    }
+
+    @Test
+    void verify_returnsUserInfoForValidToken() {
+        GoogleIdTokenVerifier verifier = verifier(CLIENT_ID);
+
+        GoogleUserInfo info = verifier.verify(token(KID, googleKeys.getPrivate(), CLIENT_ID, NOW.plusSeconds(3600), true));
+
+        assertEquals("morador@gmail.com", info.email());
+        assertEquals("Morador Teste", info.name());
+        assertEquals("https://lh3.googleusercontent.com/foto", info.picture());
+    }
+
+    @Test
+    void verify_acceptsTokenFromJwksFile(@TempDir Path dir) throws Exception {
+        Path jwks = dir.resolve("google-jwks.json");
+        Files.writeString(jwks, jwks(KID, (RSAPublicKey) googleKeys.getPublic()));
+        GoogleKeyCache cache = new GoogleKeyCache(new FileGoogleKeySource(new FileSystemResource(jwks)), 3_600_000L, 0L, clock);
+        GoogleIdTokenVerifier verifier = new GoogleIdTokenVerifier(cache, CLIENT_ID, clock);
+
+        GoogleUserInfo info = verifier.verify(token(KID, googleKeys.getPrivate(), CLIENT_ID, NOW.plusSeconds(3600), true));
+
+        assertEquals("morador@gmail.com", info.email());
+    }
+
+    @Test
+    void verify_rejectsTokenSignedWithAnotherKey() {
+        GoogleIdTokenVerifier verifier = verifier(CLIENT_ID);
+
+        assertThrows(InvalidGoogleTokenException.class, () ->
+                verifier.verify(token(KID, otherKeys.getPrivate(), CLIENT_ID, NOW.plusSeconds(3600), true)));
+    }
+
+    @Test
+    void verify_rejectsExpiredToken() {
+        GoogleIdTokenVerifier verifier = verifier(CLIENT_ID);
+
+        assertThrows(InvalidGoogleTokenException.class, () ->
+                verifier.verify(token(KID, googleKeys.getPrivate(), CLIENT_ID, NOW.minusSeconds(120), true)));
+    }
+
+    @Test
+    void verify_rejectsOtherAudienceOnlyWhenClientIdConfigured() {
+        String token = token(KID, googleKeys.getPrivate(), "outro-app", NOW.plusSeconds(3600), true);
+
+        InvalidGoogleTokenException ex = assertThrows(InvalidGoogleTokenException.class,
+                () -> verifier(CLIENT_ID).verify(token));
+        assertEquals("Token não é para este app", ex.getMessage());
+        assertEquals("morador@gmail.com", verifier("").verify(token).email());
+    }
+
+    @Test
+    void verify_rejectsUnverifiedEmail() {
+        GoogleIdTokenVerifier verifier = verifier(CLIENT_ID);
+
+        assertThrows(InvalidGoogleTokenException.class, () ->
+                verifier.verify(token(KID, googleKeys.getPrivate(), CLIENT_ID, NOW.plusSeconds(3600), false)));
+    }
+
+    @Test
+    void verify_unknownKidRefreshesKeysOnce() {
+        AtomicInteger fetches = new AtomicInteger();
+        GoogleKeyCache cache = new GoogleKeyCache(() -> {
+            fetches.incrementAndGet();
+            return Map.of(KID, googleKeys.getPublic());
+        }, 3_600_000L, 30_000L, clock);
+        GoogleIdTokenVerifier verifier = new GoogleIdTokenVerifier(cache, CLIENT_ID, clock);
+        verifier.verify(token(KID, googleKeys.getPrivate(), CLIENT_ID, NOW.plusSeconds(3600), true));
+
+        String unknownKid = token("kid-desconhecido", googleKeys.getPrivate(), CLIENT_ID, NOW.plusSeconds(3600), true);
+        assertThrows(InvalidGoogleTokenException.class, () -> verifier.verify(unknownKid));
+        assertThrows(InvalidGoogleTokenException.class, () -> verifier.verify(unknownKid));
+
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    void verify_rejectsBlankToken() {
+        assertThrows(InvalidGoogleTokenException.class, () -> verifier(CLIENT_ID).verify(" "));
+    }
+
+    private GoogleIdTokenVerifier verifier(String clientId) {
+        GoogleKeyCache cache = new GoogleKeyCache(() -> Map.of(KID, googleKeys.getPublic()), 3_600_000L, 0L, clock);
+        return new GoogleIdTokenVerifier(cache, clientId, clock);
+    }
+
+    private static String token(String kid, PrivateKey key, String audience, Instant expiresAt, boolean emailVerified) {
+        return Jwts.builder()
+                .header().keyId(kid).and()
+                .issuer("https://accounts.google.com")
+                .audience().add(audience).and()
+                .subject("109876543210")
+                .claim("email", "morador@gmail.com")
+                .claim("email_verified", emailVerified)
+                .claim("name", "Morador Teste")
+                .claim("picture", "https://lh3.googleusercontent.com/foto")
+                .issuedAt(Date.from(expiresAt.minusSeconds(3600)))
+                .expiration(Date.from(expiresAt))
+                .signWith(key, Jwts.SIG.RS256)
+                .compact();
+    }
+
+    private static String jwks(String kid, RSAPublicKey key) {
+        return """
+                {"keys":[{"kty":"RSA","alg":"RS256","use":"sig","kid":"%s","n":"%s","e":"%s"}]}
+                """.formatted(kid, base64Url(key.getModulus()), base64Url(key.getPublicExponent()));
+    }
+
+    private static String base64Url(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
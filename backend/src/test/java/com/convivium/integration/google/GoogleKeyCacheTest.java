@@ -0,0 +1,109 @@
+package com.convivium.integration.google;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GoogleKeyCacheTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-10T12:00:00Z");
+
+    private static PublicKey key1;
+    private static PublicKey key2;
+
+    @BeforeAll
+    static void generateKeys() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        key1 = generator.generateKeyPair().getPublic();
+        key2 = generator.generateKeyPair().getPublic();
+    }
+
+    @Test
+    void getKey_loadsOnceAndServesFromMemoryWithinTtl() {
+        AtomicInteger fetches = new AtomicInteger();
+        MutableClock clock = new MutableClock(NOW);
+        GoogleKeyCache cache = new GoogleKeyCache(() -> {
+            fetches.incrementAndGet();
+            return Map.of("k1", key1);
+        }, 60_000L, 0L, clock);
+
+        assertEquals(key1, cache.getKey("k1").orElseThrow());
+        clock.now = NOW.plusSeconds(59);
+        assertEquals(key1, cache.getKey("k1").orElseThrow());
+        assertEquals(1, fetches.get());
+
+        clock.now = NOW.plusSeconds(60);
+        cache.getKey("k1");
+        assertEquals(2, fetches.get());
+    }
+
+    @Test
+    void getKey_picksUpRotatedKeyAfterRefresh() {
+        MutableClock clock = new MutableClock(NOW);
+        AtomicReference<Map<String, PublicKey>> published = new AtomicReference<>(Map.of("k1", key1));
+        GoogleKeyCache cache = new GoogleKeyCache(published::get, 3_600_000L, 30_000L, clock);
+        cache.refresh();
+
+        published.set(Map.of("k1", key1, "k2", key2));
+        assertTrue(cache.getKey("k2").isEmpty()); // dentro do min-refresh-interval da carga inicial
+
+        clock.now = NOW.plusSeconds(30);
+        assertEquals(key2, cache.getKey("k2").orElseThrow());
+    }
+
+    @Test
+    void refresh_keepsPreviousKeysWhenSourceFails() {
+        MutableClock clock = new MutableClock(NOW);
+        AtomicBoolean fail = new AtomicBoolean();
+        GoogleKeyCache cache = new GoogleKeyCache(() -> {
+            if (fail.get()) {
+                throw new IllegalStateException("sem rede");
+            }
+            return Map.of("k1", key1);
+        }, 60_000L, 0L, clock);
+        cache.refresh();
+
+        fail.set(true);
+        clock.now = NOW.plusSeconds(120);
+        cache.refresh();
+
+        assertEquals(key1, cache.getKey("k1").orElseThrow());
+        assertEquals(1, cache.size());
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.convivium.integration.whatsapp;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mensagens/s do MetaWhatsAppService contra a Graph API falsa (WhatsAppStubServer) em localhost,
+ * com 8 workers enviando em paralelo (como o WhatsAppOutboxDispatcher).
+ *
+ * legacyRestTemplate: fluxo antigo (RestTemplate padrão, sem timeouts, corpo montado com
+ * Map.of e serializado por árvore a cada mensagem).
+ * pooledHttpClient: MetaWhatsAppService atual (HttpClient compartilhado, records + ObjectWriter fixo).
+ *
+ * latencyMs simula o tempo de resposta da Meta.
+ *
+ * Rodar com: mvn -Pbenchmark test-compile exec:exec -Djmh.include=MetaWhatsAppServiceBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class MetaWhatsAppServiceBenchmark {
+
+    private static final String PHONE_NUMBER_ID = "1234567890";
+    private static final String TOKEN = "token-benchmark";
+
+    @Param({"0", "20"})
+    public long latencyMs;
+
+    private WhatsAppStubServer stub;
+    private MetaWhatsAppService service;
+    private RestTemplate legacyRestTemplate;
+    private ObjectMapper legacyObjectMapper;
+    private String legacyUrl;
+
+    @Setup
+    public void setUp() throws Exception {
+        stub = new WhatsAppStubServer();
+        stub.recordBodies(false);
+        stub.delay(latencyMs);
+        service = new MetaWhatsAppService(PHONE_NUMBER_ID, TOKEN, "encomenda_na_portaria",
+                "comunicado_condominio", "comunicado_emergencia", "https://app.convivium.com.br", stub.baseUrl(), 3_000, 10_000);
+        legacyRestTemplate = new RestTemplate();
+        legacyObjectMapper = new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        legacyUrl = stub.baseUrl() + "/" + PHONE_NUMBER_ID + "/messages";
+    }
+
+    @TearDown
+    public void tearDown() {
+        service.close();
+        stub.close();
+    }
+
+    @Benchmark
+    public void legacyRestTemplate() throws Exception {
+        Map<String, Object> body = Map.of(
+                "messaging_product", "whatsapp",
+                "to", "5511999999999",
+                "type", "template",
+                "template", Map.of(
+                        "name", "encomenda_na_portaria",
+                        "language", Map.of("code", "pt_BR"),
+                        "components", List.of(Map.of(
+                                "type", "body",
+                                "parameters", List.of(
+                                        Map.of("type", "text", "text", "Morador"),
+                                        Map.of("type", "text", "text", "123456"))))));
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setBearerAuth(TOKEN);
+        String json = legacyObjectMapper.writeValueAsString(body);
+        legacyRestTemplate.postForEntity(legacyUrl, new HttpEntity<>(json, headers), String.class);
+    }
+
+    @Benchmark
+    public void pooledHttpClient() {
+        service.sendEncomendaNotification("5511999999999", "Morador", "123456", "parcel:1:received");
+    }
+}
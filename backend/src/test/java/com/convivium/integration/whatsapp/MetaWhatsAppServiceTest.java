@@ -0,0 +1,134 @@
+package com.convivium.integration.whatsapp;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Contra a Graph API falsa (WhatsAppStubServer), sem rede externa. */
+class MetaWhatsAppServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private WhatsAppStubServer stub;
+    private MetaWhatsAppService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = new WhatsAppStubServer();
+        service = service(stub.baseUrl(), "token-teste", 2_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.close();
+        stub.close();
+    }
+
+    @Test
+    void sendEncomendaNotification_postsTemplateWithBearerToken() throws Exception {
+        service.sendEncomendaNotification("(11) 99999-9999", "Ana", "123456", "parcel:10:received");
+
+        WhatsAppStubServer.Received request = stub.lastRequest();
+        assertEquals("/v21.0/1234567890/messages", request.path());
+        assertEquals("Bearer token-teste", request.authorization());
+        assertEquals("application/json", request.contentType());
+        JsonNode body = objectMapper.readTree(request.body());
+        assertEquals("whatsapp", body.get("messaging_product").asText());
+        assertEquals("5511999999999", body.get("to").asText());
+        assertEquals("template", body.get("type").asText());
+        assertEquals("parcel:10:received", body.get("biz_opaque_callback_data").asText());
+        assertEquals("encomenda_na_portaria", body.at("/template/name").asText());
+        assertEquals("pt_BR", body.at("/template/language/code").asText());
+        assertEquals("Ana", body.at("/template/components/0/parameters/0/text").asText());
+        assertEquals("123456", body.at("/template/components/0/parameters/1/text").asText());
+        assertFalse(body.has("image"));
+    }
+
+    @Test
+    void sendEncomendaPhoto_makesRelativeUrlAbsolute() throws Exception {
+        service.sendEncomendaPhoto("5511999999999", "/uploads/parcels/10/a.jpg", "parcel:10:photo:7");
+
+        JsonNode body = objectMapper.readTree(stub.lastRequest().body());
+        assertEquals("image", body.get("type").asText());
+        assertEquals("https://app.convivium.com.br/uploads/parcels/10/a.jpg", body.at("/image/link").asText());
+        assertFalse(body.has("template"));
+    }
+
+    @Test
+    void sendComunicado_usesEmergencyTemplateForEmergencies() throws Exception {
+        service.sendComunicado("5511999999999", "Falta de agua", "Sem agua ate 18h", true, "announcement:7:user:3");
+
+        JsonNode body = objectMapper.readTree(stub.lastRequest().body());
+        assertEquals("comunicado_emergencia", body.at("/template/name").asText());
+        assertEquals("Falta de agua", body.at("/template/components/0/parameters/0/text").asText());
+        assertEquals("Sem agua ate 18h", body.at("/template/components/0/parameters/1/text").asText());
+        assertEquals("announcement:7:user:3", body.get("biz_opaque_callback_data").asText());
+
+        service.sendComunicado("5511999999999", "Assembleia", "Dia 20", false, "announcement:8:user:3");
+        assertEquals("comunicado_condominio",
+                objectMapper.readTree(stub.lastRequest().body()).at("/template/name").asText());
+    }
+
+    @Test
+    void errors_areRetryableOnlyForServerSideFailures() {
+        stub.respondWith(503);
+        assertTrue(assertThrows(WhatsAppDeliveryException.class, this::send).isRetryable());
+
+        stub.respondWith(429);
+        assertTrue(assertThrows(WhatsAppDeliveryException.class, this::send).isRetryable());
+
+        stub.respondWith(400);
+        WhatsAppDeliveryException badRequest = assertThrows(WhatsAppDeliveryException.class, this::send);
+        assertFalse(badRequest.isRetryable());
+        assertTrue(badRequest.getMessage().contains("400"));
+    }
+
+    @Test
+    void slowResponse_timesOutAsRetryable() {
+        MetaWhatsAppService impatient = service(stub.baseUrl(), "token-teste", 100);
+        stub.delay(1_000);
+        try {
+            assertTrue(assertThrows(WhatsAppDeliveryException.class, () ->
+                    impatient.sendEncomendaNotification("5511999999999", "Ana", "1", "k")).isRetryable());
+        } finally {
+            impatient.close();
+        }
+    }
+
+    @Test
+    void invalidPhoneOrMissingCredentials_failWithoutCallingTheApi() {
+        assertFalse(assertThrows(WhatsAppDeliveryException.class, () ->
+                service.sendEncomendaNotification("123", "Ana", "1", "k")).isRetryable());
+
+        MetaWhatsAppService unconfigured = service(stub.baseUrl(), "", 2_000);
+        try {
+            assertFalse(assertThrows(WhatsAppDeliveryException.class, () ->
+                    unconfigured.sendEncomendaNotification("5511999999999", "Ana", "1", "k")).isRetryable());
+        } finally {
+            unconfigured.close();
+        }
+        assertEquals(0, stub.requestCount());
+    }
+
+    @Test
+    void connectionsAreReusedAcrossMessages() {
+        for (int i = 0; i < 50; i++) {
+            send();
+        }
+        assertEquals(50, stub.requestCount());
+        assertEquals(1, stub.connectionCount());
+    }
+
+    private void send() {
+        service.sendEncomendaNotification("5511999999999", "Ana", "123456", "k");
+    }
+
+    private static MetaWhatsAppService service(String graphApiBase, String accessToken, long requestTimeoutMs) {
+        return new MetaWhatsAppService("1234567890", accessToken, "encomenda_na_portaria",
+                "comunicado_condominio", "comunicado_emergencia", "https://app.convivium.com.br/", graphApiBase, 1_000, requestTimeoutMs);
+    }
+}
@@ -0,0 +1,112 @@
+package com.convivium.integration.whatsapp;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Graph API falsa em localhost para testes e benchmark do MetaWhatsAppService.
+ * Responde POST /{phone-number-id}/messages com status e atraso configuráveis e guarda
+ * o que recebeu.
+ */
+class WhatsAppStubServer implements AutoCloseable {
+
+    static {
+        // Sem TCP_NODELAY o HttpServer do JDK espera o ACK atrasado (~40 ms) entre cabeçalho e corpo da resposta
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    record Received(String path, String authorization, String contentType, String body) {}
+
+    private static final byte[] OK_BODY =
+            "{\"messaging_product\":\"whatsapp\",\"messages\":[{\"id\":\"wamid.stub\"}]}".getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer server;
+    private final ConcurrentLinkedQueue<Received> received = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private volatile int status = 200;
+    private volatile long delayMs;
+    private volatile boolean recordBodies = true;
+
+    WhatsAppStubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", exchange -> {
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            requests.incrementAndGet();
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            if (recordBodies) {
+                received.add(new Received(exchange.getRequestURI().getPath(),
+                        exchange.getRequestHeaders().getFirst("Authorization"),
+                        exchange.getRequestHeaders().getFirst("Content-Type"),
+                        new String(body, StandardCharsets.UTF_8)));
+            }
+            if (delayMs > 0) {
+                try {
+                    Thread.sleep(delayMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            int currentStatus = status;
+            byte[] response = currentStatus == 200 ? OK_BODY
+                    : ("{\"error\":{\"code\":" + currentStatus + "}}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(currentStatus, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        });
+        server.start();
+    }
+
+    /** Base a usar como app.whatsapp.graph-api-base. */
+    String baseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/v21.0";
+    }
+
+    void respondWith(int status) {
+        this.status = status;
+    }
+
+    void delay(long delayMs) {
+        this.delayMs = delayMs;
+    }
+
+    /** Benchmark: não guarda os corpos (só conta as requisições). */
+    void recordBodies(boolean recordBodies) {
+        this.recordBodies = recordBodies;
+    }
+
+    int requestCount() {
+        return requests.get();
+    }
+
+    /** Conexões TCP distintas usadas pelos clientes até agora. */
+    int connectionCount() {
+        return clientPorts.size();
+    }
+
+    Received lastRequest() {
+        Received last = null;
+        for (Received r : received) {
+            last = r;
+        }
+        return last;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
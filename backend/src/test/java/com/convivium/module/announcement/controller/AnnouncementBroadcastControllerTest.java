@@ -0,0 +1,70 @@
+package com.convivium.module.announcement.controller;
+
+import com.convivium.config.MockMvcSecurityConfig;
+import com.convivium.module.announcement.dto.AnnouncementBroadcastResponse;
+import com.convivium.module.announcement.service.AnnouncementBroadcastService;
+import com.convivium.module.condominium.repository.CondominiumRepository;
+import com.convivium.module.user.repository.UserRepository;
+import com.convivium.security.jwt.JwtTokenProvider;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static com.convivium.security.TestSecurityUtils.withUserPrincipal;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = AnnouncementBroadcastController.class, excludeAutoConfiguration = SecurityAutoConfiguration.class)
+@Import(MockMvcSecurityConfig.class)
+class AnnouncementBroadcastControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private AnnouncementBroadcastService broadcastService;
+
+    @MockBean
+    private JwtTokenProvider jwtTokenProvider;
+
+    @MockBean
+    private UserRepository userRepository;
+
+    @MockBean
+    private CondominiumRepository condominiumRepository;
+
+    private final AnnouncementBroadcastResponse response =
+            new AnnouncementBroadcastResponse(3L, 5L, "PENDING", true, 2_000, 0, 0, null, null);
+
+    @Test
+    void startBroadcast_returnsAccepted() throws Exception {
+        when(broadcastService.startBroadcast(1L, 5L, 1L)).thenReturn(response);
+        mockMvc.perform(post("/api/v1/condos/1/announcements/5/broadcast").with(withUserPrincipal()).with(csrf()))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.data.totalRecipients").value(2000));
+    }
+
+    @Test
+    void startBroadcast_asMorador_returnsForbidden() throws Exception {
+        mockMvc.perform(post("/api/v1/condos/1/announcements/5/broadcast")
+                        .with(withUserPrincipal(1L, 1L, "MORADOR")).with(csrf()))
+                .andExpect(status().isForbidden());
+        verify(broadcastService, never()).startBroadcast(any(), any(), any());
+    }
+
+    @Test
+    void getBroadcast_returnsProgress() throws Exception {
+        when(broadcastService.getBroadcast(1L, 5L)).thenReturn(response);
+        mockMvc.perform(get("/api/v1/condos/1/announcements/5/broadcast").with(withUserPrincipal()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.status").value("PENDING"));
+    }
+}
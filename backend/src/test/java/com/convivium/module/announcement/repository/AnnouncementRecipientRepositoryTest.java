@@ -0,0 +1,123 @@
+package com.convivium.module.announcement.repository;
+
+import com.convivium.config.JpaTestConfig;
+import com.convivium.module.announcement.dto.BroadcastRecipient;
+import com.convivium.module.condominium.entity.Condominium;
+import com.convivium.module.user.entity.Role;
+import com.convivium.module.user.entity.User;
+import com.convivium.module.user.entity.UserCondominiumRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.repository.config.BootstrapMode;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(bootstrapMode = BootstrapMode.LAZY)
+@ActiveProfiles("test")
+@Import({JpaTestConfig.class, AnnouncementRecipientRepository.class})
+class AnnouncementRecipientRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private AnnouncementRecipientRepository repository;
+
+    private Condominium condo;
+    private User sindico;
+    private User morador;
+    private User porteiro;
+
+    @BeforeEach
+    void setUp() {
+        condo = persistCondo("residencial-teste");
+        Condominium outro = persistCondo("outro-condominio");
+
+        sindico = persistUser("sindico@condominio.com", "11999990001", true);
+        morador = persistUser("morador@condominio.com", "11999990002", true);
+        porteiro = persistUser("porteiro@condominio.com", "11999990003", true);
+        User semTelefone = persistUser("semtelefone@condominio.com", null, true);
+        User inativo = persistUser("inativo@condominio.com", "11999990004", false);
+        User pendente = persistUser("pendente@condominio.com", "11999990005", true);
+        User deOutroCondominio = persistUser("outro@condominio.com", "11999990006", true);
+
+        persistRole(sindico, condo, Role.SINDICO, "ACTIVE");
+        persistRole(sindico, condo, Role.MORADOR, "ACTIVE");
+        persistRole(morador, condo, Role.MORADOR, "ACTIVE");
+        persistRole(porteiro, condo, Role.PORTEIRO, "ACTIVE");
+        persistRole(semTelefone, condo, Role.MORADOR, "ACTIVE");
+        persistRole(inativo, condo, Role.MORADOR, "ACTIVE");
+        persistRole(pendente, condo, Role.MORADOR, "PENDING");
+        persistRole(deOutroCondominio, outro, Role.MORADOR, "ACTIVE");
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findChunk_returnsActiveReachableUsersOncePerUser() {
+        List<BroadcastRecipient> recipients = repository.findChunk(condo.getId(), null, 0, 10);
+
+        assertThat(recipients).extracting(BroadcastRecipient::userId)
+                .containsExactly(sindico.getId(), morador.getId(), porteiro.getId());
+        assertThat(recipients.get(1).phone()).isEqualTo("11999990002");
+        assertThat(repository.count(condo.getId(), null)).isEqualTo(3);
+    }
+
+    @Test
+    void findChunk_filtersByTargetRoles() {
+        assertThat(repository.findChunk(condo.getId(), "morador, SINDICO", 0, 10))
+                .extracting(BroadcastRecipient::userId)
+                .containsExactly(sindico.getId(), morador.getId());
+        assertThat(repository.findChunk(condo.getId(), "PORTEIRO", 0, 10))
+                .extracting(BroadcastRecipient::userId)
+                .containsExactly(porteiro.getId());
+        assertThat(repository.count(condo.getId(), "ZELADOR")).isZero();
+    }
+
+    @Test
+    void findChunk_pagesByKeysetFromCursor() {
+        List<Long> seen = new ArrayList<>();
+        long cursor = 0;
+        List<BroadcastRecipient> chunk;
+        while (!(chunk = repository.findChunk(condo.getId(), "", cursor, 2)).isEmpty()) {
+            assertThat(chunk).hasSizeLessThanOrEqualTo(2);
+            chunk.forEach(recipient -> seen.add(recipient.userId()));
+            cursor = chunk.get(chunk.size() - 1).userId();
+        }
+
+        assertThat(seen).containsExactly(sindico.getId(), morador.getId(), porteiro.getId());
+    }
+
+    private Condominium persistCondo(String slug) {
+        return entityManager.persist(Condominium.builder()
+                .name(slug)
+                .slug(slug)
+                .build());
+    }
+
+    private User persistUser(String email, String phone, boolean active) {
+        return entityManager.persist(User.builder()
+                .email(email)
+                .name(email)
+                .passwordHash("hash")
+                .phone(phone)
+                .isActive(active)
+                .build());
+    }
+
+    private void persistRole(User user, Condominium condominium, Role role, String status) {
+        entityManager.persist(UserCondominiumRole.builder()
+                .user(user)
+                .condominium(condominium)
+                .role(role)
+                .status(status)
+                .build());
+    }
+}
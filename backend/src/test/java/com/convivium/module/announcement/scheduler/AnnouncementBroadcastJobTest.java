@@ -0,0 +1,337 @@
+package com.convivium.module.announcement.scheduler;
+
+import com.convivium.common.util.TokenBucketRateLimiter;
+import com.convivium.config.JpaTestConfig;
+import com.convivium.integration.whatsapp.WhatsAppDeliveryException;
+import com.convivium.integration.whatsapp.WhatsAppNotificationService;
+import com.convivium.module.announcement.entity.Announcement;
+import com.convivium.module.announcement.entity.AnnouncementBroadcast;
+import com.convivium.module.announcement.entity.BroadcastStatus;
+import com.convivium.module.announcement.repository.AnnouncementBroadcastRepository;
+import com.convivium.module.announcement.repository.AnnouncementRecipientRepository;
+import com.convivium.module.announcement.repository.AnnouncementRepository;
+import com.convivium.module.announcement.service.AnnouncementBroadcastProperties;
+import com.convivium.module.condominium.entity.Condominium;
+import com.convivium.module.condominium.repository.CondominiumRepository;
+import com.convivium.module.user.entity.Role;
+import com.convivium.module.user.entity.User;
+import com.convivium.module.user.entity.UserCondominiumRole;
+import com.convivium.module.user.repository.UserCondominiumRoleRepository;
+import com.convivium.module.user.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.repository.config.BootstrapMode;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Sem transação de teste: o job grava checkpoints em transações próprias, a partir de várias threads. */
+@DataJpaTest(bootstrapMode = BootstrapMode.LAZY)
+@ActiveProfiles("test")
+@Import({JpaTestConfig.class, AnnouncementRecipientRepository.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AnnouncementBroadcastJobTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-10T12:00:00Z");
+
+    @Autowired
+    private AnnouncementBroadcastRepository broadcastRepository;
+    @Autowired
+    private AnnouncementRecipientRepository recipientRepository;
+    @Autowired
+    private AnnouncementRepository announcementRepository;
+    @Autowired
+    private CondominiumRepository condominiumRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private UserCondominiumRoleRepository roleRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final RecordingTransport transport = new RecordingTransport();
+    private final AnnouncementBroadcastProperties properties = new AnnouncementBroadcastProperties();
+    /** Relógio simulado do token bucket: esperar avança o tempo, sem dormir. */
+    private final AtomicLong limiterClock = new AtomicLong();
+    private final ExecutorService sendExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private Condominium condo;
+
+    @BeforeEach
+    void setUp() {
+        properties.setRetryDelayMs(0);
+        condo = condominiumRepository.save(Condominium.builder().name("Residencial Teste").slug("residencial-teste").build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        sendExecutor.shutdownNow();
+        broadcastRepository.deleteAll();
+        announcementRepository.deleteAll();
+        roleRepository.deleteAll();
+        userRepository.deleteAll();
+        condominiumRepository.deleteAll();
+    }
+
+    @Test
+    void runNext_sendsToEveryRecipientAndCompletes() {
+        List<User> users = residents(5);
+        Announcement announcement = announcement("Assembleia", "Dia 20\n\nas   19h", false);
+        AnnouncementBroadcast broadcast = broadcast(announcement);
+        properties.setChunkSize(2);
+
+        assertThat(job().runNext()).isTrue();
+
+        assertThat(transport.keys()).containsExactlyInAnyOrderElementsOf(keys(announcement, users));
+        assertThat(transport.summaries).containsOnly("Dia 20 as 19h");
+        AnnouncementBroadcast done = broadcastRepository.findById(broadcast.getId()).orElseThrow();
+        assertThat(done.getStatus()).isEqualTo(BroadcastStatus.COMPLETED);
+        assertThat(done.getSentCount()).isEqualTo(5);
+        assertThat(done.getCursorUserId()).isEqualTo(users.get(4).getId());
+        assertThat(done.getClaimToken()).isNull();
+        assertThat(done.getFinishedAt()).isNotNull();
+        assertThat(job().runNext()).isFalse();
+    }
+
+    @Test
+    void runNext_resumesFromCheckpointAfterWorkerCrash() {
+        List<User> users = residents(6);
+        Announcement announcement = announcement("Obra", "Pintura da fachada", false);
+        AnnouncementBroadcast broadcast = broadcast(announcement);
+        // worker anterior caiu após gravar o checkpoint do 1º bloco; lease já expirado
+        broadcast.setStatus(BroadcastStatus.RUNNING);
+        broadcast.setCursorUserId(users.get(2).getId());
+        broadcast.setSentCount(3);
+        broadcast.setClaimToken("worker-que-caiu");
+        broadcast.setClaimedUntil(NOW.minusSeconds(1));
+        broadcastRepository.save(broadcast);
+
+        assertThat(job().runNext()).isTrue();
+
+        assertThat(transport.keys()).containsExactlyInAnyOrderElementsOf(keys(announcement, users.subList(3, 6)));
+        AnnouncementBroadcast done = broadcastRepository.findById(broadcast.getId()).orElseThrow();
+        assertThat(done.getStatus()).isEqualTo(BroadcastStatus.COMPLETED);
+        assertThat(done.getSentCount()).isEqualTo(6);
+    }
+
+    @Test
+    void runNext_leavesBroadcastAloneWhileAnotherWorkerHoldsTheLease() {
+        residents(2);
+        AnnouncementBroadcast broadcast = broadcast(announcement("Obra", "Pintura", false));
+        broadcast.setStatus(BroadcastStatus.RUNNING);
+        broadcast.setClaimToken("outro-worker");
+        broadcast.setClaimedUntil(NOW.plusSeconds(30));
+        broadcastRepository.save(broadcast);
+
+        assertThat(job().runNext()).isFalse();
+        assertThat(transport.keys()).isEmpty();
+    }
+
+    @Test
+    void runNext_waitsForConcurrentClaimOfAnotherBroadcastAndBacksOff() throws Exception {
+        residents(2);
+        AnnouncementBroadcast normal = broadcast(announcement("Assembleia", "Dia 20", false));
+        broadcast(announcement("Vazamento de gas", "Evacuar o bloco A", true));
+        CountDownLatch claimedByOther = new CountDownLatch(1);
+        CountDownLatch commitOther = new CountDownLatch(1);
+        // outra instância reserva o disparo comum e ainda não fez commit
+        Future<Integer> other = sendExecutor.submit(() -> new TransactionTemplate(transactionManager).execute(status -> {
+            broadcastRepository.lockOpen();
+            int updated = broadcastRepository.claim(normal.getId(), "outra-instancia", NOW.plusSeconds(30), NOW);
+            claimedByOther.countDown();
+            try {
+                commitOther.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return updated;
+        }));
+        assertThat(claimedByOther.await(5, TimeUnit.SECONDS)).isTrue();
+
+        Future<Boolean> mine = sendExecutor.submit(() -> job().runNext());
+        Thread.sleep(200);
+        assertThat(mine).isNotDone();
+        commitOther.countDown();
+
+        assertThat(other.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(mine.get(5, TimeUnit.SECONDS)).isFalse();
+        assertThat(transport.keys()).isEmpty();
+    }
+
+    @Test
+    void emergency_runsFirstAndPreemptsRunningBroadcastAtChunkBoundary() {
+        List<User> users = residents(6);
+        Announcement normal = announcement("Assembleia", "Dia 20", false);
+        AnnouncementBroadcast normalBroadcast = broadcast(normal);
+        Announcement emergency = announcement("Vazamento de gas", "Evacuar o bloco A", true);
+        properties.setChunkSize(2);
+        // a emergência é criada enquanto o 1º bloco do comunicado comum está sendo enviado
+        AtomicInteger created = new AtomicInteger();
+        transport.onSend = key -> {
+            if (created.getAndIncrement() == 0) {
+                broadcast(emergency);
+            }
+        };
+        AnnouncementBroadcastJob job = job();
+
+        assertThat(job.runNext()).isTrue();
+        AnnouncementBroadcast paused = broadcastRepository.findById(normalBroadcast.getId()).orElseThrow();
+        assertThat(paused.getStatus()).isEqualTo(BroadcastStatus.PENDING);
+        assertThat(paused.getSentCount()).isEqualTo(2);
+        assertThat(paused.getClaimToken()).isNull();
+
+        assertThat(job.runNext()).isTrue();
+        assertThat(job.runNext()).isTrue();
+        assertThat(job.runNext()).isFalse();
+
+        List<String> sent = transport.keys();
+        assertThat(sent).hasSize(12);
+        assertThat(sent.subList(0, 2)).allMatch(key -> key.startsWith("announcement:" + normal.getId() + ":"));
+        assertThat(sent.subList(2, 8)).containsExactlyInAnyOrderElementsOf(keys(emergency, users));
+        assertThat(sent.subList(8, 12)).containsExactlyInAnyOrderElementsOf(keys(normal, users.subList(2, 6)));
+        assertThat(transport.emergencyFlags.get("announcement:" + emergency.getId() + ":user:" + users.get(0).getId()))
+                .isTrue();
+    }
+
+    @Test
+    void retryableFailures_areRetriedAndPermanentOnesCounted() {
+        List<User> users = residents(3);
+        Announcement announcement = announcement("Aviso", "Texto", false);
+        AnnouncementBroadcast broadcast = broadcast(announcement);
+        String flaky = "announcement:" + announcement.getId() + ":user:" + users.get(0).getId();
+        String invalid = "announcement:" + announcement.getId() + ":user:" + users.get(1).getId();
+        Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+        transport.onSend = key -> {
+            int call = calls.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+            if (key.equals(flaky) && call == 1) {
+                throw new WhatsAppDeliveryException("WhatsApp API respondeu 503", true);
+            }
+            if (key.equals(invalid)) {
+                throw new WhatsAppDeliveryException("WhatsApp: telefone invalido", false);
+            }
+        };
+
+        job().runNext();
+
+        AnnouncementBroadcast done = broadcastRepository.findById(broadcast.getId()).orElseThrow();
+        assertThat(done.getStatus()).isEqualTo(BroadcastStatus.COMPLETED);
+        assertThat(done.getSentCount()).isEqualTo(2);
+        assertThat(done.getFailedCount()).isEqualTo(1);
+        assertThat(calls.get(flaky)).hasValue(2);
+        assertThat(calls.get(invalid)).hasValue(1);
+    }
+
+    @Test
+    void emergency_reaches2000RecipientsWithinAMinuteAtConfiguredRate() {
+        residents(2_000);
+        Announcement announcement = announcement("Falta de energia", "Geradores acionados", true);
+        AnnouncementBroadcast broadcast = broadcast(announcement);
+
+        job().runNext();
+
+        double seconds = limiterClock.get() / (double) TimeUnit.SECONDS.toNanos(1);
+        AnnouncementBroadcast done = broadcastRepository.findById(broadcast.getId()).orElseThrow();
+        assertThat(done.getSentCount()).isEqualTo(2_000);
+        assertThat(transport.keys()).doesNotHaveDuplicates();
+        // token bucket a 60 msg/s com burst 20: (2000 - 20) / 60 = 33 s
+        assertThat(seconds).isBetween(32.0, 34.0);
+    }
+
+    private AnnouncementBroadcastJob job() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(properties.getMessagesPerSecond(), properties.getBurst(),
+                limiterClock::get, deadline -> limiterClock.accumulateAndGet(deadline, Math::max));
+        return new AnnouncementBroadcastJob(broadcastRepository, recipientRepository, announcementRepository, transport,
+                properties, new TransactionTemplate(transactionManager), limiter, sendExecutor, new SimpleMeterRegistry(), Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    private List<User> residents(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(User.builder()
+                    .email("morador" + i + "@condominio.com")
+                    .name("Morador " + i)
+                    .passwordHash("hash")
+                    .phone("1199999" + String.format("%04d", i))
+                    .build());
+        }
+        users = userRepository.saveAll(users);
+        roleRepository.saveAll(users.stream()
+                .map(user -> UserCondominiumRole.builder().user(user).condominium(condo).role(Role.MORADOR).build())
+                .toList());
+        return users;
+    }
+
+    private Announcement announcement(String title, String content, boolean emergency) {
+        return announcementRepository.save(Announcement.builder()
+                .condominiumId(condo.getId())
+                .title(title)
+                .content(content)
+                .isEmergency(emergency)
+                .build());
+    }
+
+    private AnnouncementBroadcast broadcast(Announcement announcement) {
+        return broadcastRepository.save(AnnouncementBroadcast.builder()
+                .announcementId(announcement.getId())
+                .condominiumId(condo.getId())
+                .isEmergency(announcement.isEmergency())
+                .build());
+    }
+
+    private static List<String> keys(Announcement announcement, List<User> users) {
+        return users.stream().map(user -> "announcement:" + announcement.getId() + ":user:" + user.getId()).toList();
+    }
+
+    private static final class RecordingTransport implements WhatsAppNotificationService {
+
+        private final List<String> sent = new CopyOnWriteArrayList<>();
+        private final List<String> summaries = new CopyOnWriteArrayList<>();
+        private final Map<String, Boolean> emergencyFlags = new ConcurrentHashMap<>();
+        private volatile Consumer<String> onSend = key -> { };
+
+        @Override
+        public void sendComunicado(String toPhone, String title, String summary, boolean emergency, String idempotencyKey) {
+            onSend.accept(idempotencyKey);
+            sent.add(idempotencyKey);
+            summaries.add(summary);
+            emergencyFlags.put(idempotencyKey, emergency);
+        }
+
+        List<String> keys() {
+            return List.copyOf(sent);
+        }
+
+        @Override
+        public void sendEncomendaNotification(String toPhone, String residentName, String residentCode, String idempotencyKey) {
+        }
+
+        @Override
+        public void sendEncomendaPhoto(String toPhone, String imageUrl, String idempotencyKey) {
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.convivium.module.announcement.service;
+
+import com.convivium.common.exception.BusinessException;
+import com.convivium.common.exception.ResourceNotFoundException;
+import com.convivium.module.announcement.dto.AnnouncementBroadcastResponse;
+import com.convivium.module.announcement.entity.Announcement;
+import com.convivium.module.announcement.entity.AnnouncementBroadcast;
+import com.convivium.module.announcement.entity.BroadcastStatus;
+import com.convivium.module.announcement.repository.AnnouncementBroadcastRepository;
+import com.convivium.module.announcement.repository.AnnouncementRecipientRepository;
+import com.convivium.module.announcement.repository.AnnouncementRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AnnouncementBroadcastServiceTest {
+
+    @Mock
+    private AnnouncementRepository announcementRepository;
+    @Mock
+    private AnnouncementBroadcastRepository broadcastRepository;
+    @Mock
+    private AnnouncementRecipientRepository recipientRepository;
+
+    private AnnouncementBroadcastService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new AnnouncementBroadcastService(announcementRepository, broadcastRepository, recipientRepository, true);
+    }
+
+    @Test
+    void startBroadcast_queuesBroadcastWithRecipientCount() {
+        Announcement announcement = Announcement.builder().id(5L).condominiumId(1L).title("Falta de agua")
+                .isEmergency(true).targetRoles("MORADOR").build();
+        when(announcementRepository.findByIdAndCondominiumId(5L, 1L)).thenReturn(Optional.of(announcement));
+        when(broadcastRepository.existsByAnnouncementId(5L)).thenReturn(false);
+        when(recipientRepository.count(1L, "MORADOR")).thenReturn(1_950);
+        when(broadcastRepository.save(any(AnnouncementBroadcast.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        AnnouncementBroadcastResponse response = service.startBroadcast(1L, 5L, 9L);
+
+        assertEquals("PENDING", response.status());
+        assertTrue(response.isEmergency());
+        assertEquals(1_950, response.totalRecipients());
+        verify(broadcastRepository).save(argThat(b -> b.getRequestedBy().equals(9L) && b.getCondominiumId().equals(1L)));
+    }
+
+    @Test
+    void startBroadcast_rejectsSecondBroadcastOfSameAnnouncement() {
+        when(announcementRepository.findByIdAndCondominiumId(5L, 1L))
+                .thenReturn(Optional.of(Announcement.builder().id(5L).condominiumId(1L).title("Aviso").build()));
+        when(broadcastRepository.existsByAnnouncementId(5L)).thenReturn(true);
+
+        assertThrows(BusinessException.class, () -> service.startBroadcast(1L, 5L, 9L));
+        verify(broadcastRepository, never()).save(any());
+    }
+
+    @Test
+    void startBroadcast_failsWhenWhatsAppDisabledOrAnnouncementMissing() {
+        AnnouncementBroadcastService disabled =
+                new AnnouncementBroadcastService(announcementRepository, broadcastRepository, recipientRepository, false);
+        assertThrows(BusinessException.class, () -> disabled.startBroadcast(1L, 5L, 9L));
+
+        when(announcementRepository.findByIdAndCondominiumId(5L, 1L)).thenReturn(Optional.empty());
+        assertThrows(ResourceNotFoundException.class, () -> service.startBroadcast(1L, 5L, 9L));
+    }
+
+    @Test
+    void getBroadcast_hidesBroadcastsOfOtherCondominiums() {
+        AnnouncementBroadcast broadcast = AnnouncementBroadcast.builder().id(3L).announcementId(5L).condominiumId(2L)
+                .status(BroadcastStatus.RUNNING).sentCount(10).build();
+        when(broadcastRepository.findByAnnouncementId(5L)).thenReturn(Optional.of(broadcast));
+
+        assertEquals(10, service.getBroadcast(2L, 5L).sentCount());
+        assertThrows(ResourceNotFoundException.class, () -> service.getBroadcast(1L, 5L));
+    }
+}
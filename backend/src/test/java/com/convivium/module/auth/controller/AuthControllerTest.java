@@ -8,6 +8,8 @@ import com.convivium.module.auth.service.AuthService;
 import com.convivium.module.condominium.repository.CondominiumRepository;
 import com.convivium.module.user.repository.UserRepository;
 import com.convivium.security.jwt.JwtTokenProvider;
+import com.convivium.security.password.LoginAdmissionControl;
+import com.convivium.security.password.LoginThrottledException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,6 +23,11 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -48,6 +55,9 @@ class AuthControllerTest {
     @MockBean
     private CondominiumRepository condominiumRepository;
 
+    @MockBean
+    private LoginAdmissionControl loginAdmissionControl;
+
     @Test
     void login_returnsOkWhenValid() throws Exception {
         LoginResponse response = new LoginResponse(
@@ -67,6 +77,23 @@ class AuthControllerTest {
                 .andExpect(jsonPath("$.data.accessToken").value("accessToken"));
     }
 
+    @Test
+    void login_returns429WhenAdmissionRejects() throws Exception {
+        doThrow(new LoginThrottledException("Muitas tentativas de login. Tente novamente em instantes.",
+                "TOO_MANY_LOGIN_ATTEMPTS", 30))
+                .when(loginAdmissionControl).admit(anyString(), eq("a@b.com"));
+
+        mockMvc.perform(post("/api/v1/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest("a@b.com", "senha123")))
+                        .with(csrf()))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "30"))
+                .andExpect(jsonPath("$.errorCode").value("TOO_MANY_LOGIN_ATTEMPTS"));
+
+        verify(authService, never()).login(any());
+    }
+
     @Test
     void listCondominiums_returnsOk() throws Exception {
         when(authService.listCondominiumsForRegistration()).thenReturn(List.of());
@@ -0,0 +1,75 @@
+package com.convivium.module.auth.repository;
+
+import com.convivium.common.util.TokenHashUtil;
+import com.convivium.config.JpaTestConfig;
+import com.convivium.module.auth.entity.RefreshToken;
+import com.convivium.module.auth.scheduler.RefreshTokenPruningJob;
+import com.convivium.module.user.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.repository.config.BootstrapMode;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(bootstrapMode = BootstrapMode.LAZY)
+@ActiveProfiles("test")
+@Import(JpaTestConfig.class)
+class RefreshTokenRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Test
+    void findByTokenHash_findsStoredToken() {
+        User user = persistUser();
+        persistToken(user, "jwt-ativo", Instant.now().plusSeconds(3600), false);
+
+        assertThat(refreshTokenRepository.findByTokenHash(TokenHashUtil.sha256Hex("jwt-ativo"))).isPresent();
+        assertThat(refreshTokenRepository.findByTokenHash(TokenHashUtil.sha256Hex("outro"))).isEmpty();
+    }
+
+    @Test
+    void prune_removesOnlyExpiredAndRevokedTokensInBatches() {
+        User user = persistUser();
+        Instant now = Instant.now();
+        for (int i = 0; i < 5; i++) {
+            persistToken(user, "expirado-" + i, now.minusSeconds(60), false);
+        }
+        persistToken(user, "revogado", now.plusSeconds(3600), true);
+        persistToken(user, "ativo", now.plusSeconds(3600), false);
+        entityManager.flush();
+        entityManager.clear();
+
+        long removed = new RefreshTokenPruningJob(refreshTokenRepository, 2).prune();
+
+        assertThat(removed).isEqualTo(6);
+        assertThat(refreshTokenRepository.findAll())
+                .extracting(RefreshToken::getTokenHash)
+                .containsExactly(TokenHashUtil.sha256Hex("ativo"));
+    }
+
+    private User persistUser() {
+        return entityManager.persist(User.builder()
+                .email("morador@condominio.com")
+                .name("Morador")
+                .passwordHash("hash")
+                .build());
+    }
+
+    private void persistToken(User user, String token, Instant expiresAt, boolean revoked) {
+        entityManager.persist(RefreshToken.builder()
+                .user(user)
+                .tokenHash(TokenHashUtil.sha256Hex(token))
+                .expiresAt(expiresAt)
+                .revoked(revoked)
+                .build());
+    }
+}
@@ -0,0 +1,49 @@
+package com.convivium.module.auth.scheduler;
+
+import com.convivium.module.auth.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenPruningJobTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-10T03:30:00Z");
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Test
+    void prune_walksBatchesByKeysetAndReturnsRemovedCount() {
+        RefreshTokenPruningJob job = new RefreshTokenPruningJob(refreshTokenRepository, 2, Clock.fixed(NOW, ZoneOffset.UTC));
+        when(refreshTokenRepository.findPrunableIds(0L, NOW, Limit.of(2))).thenReturn(List.of(3L, 7L));
+        when(refreshTokenRepository.findPrunableIds(7L, NOW, Limit.of(2))).thenReturn(List.of(9L));
+        when(refreshTokenRepository.deleteByIdIn(List.of(3L, 7L))).thenReturn(2);
+        when(refreshTokenRepository.deleteByIdIn(List.of(9L))).thenReturn(1);
+
+        long removed = job.prune();
+
+        assertThat(removed).isEqualTo(3);
+        verify(refreshTokenRepository, times(2)).findPrunableIds(anyLong(), eq(NOW), any());
+    }
+
+    @Test
+    void prune_nothingToRemove_doesNotDelete() {
+        RefreshTokenPruningJob job = new RefreshTokenPruningJob(refreshTokenRepository, 100, Clock.fixed(NOW, ZoneOffset.UTC));
+        when(refreshTokenRepository.findPrunableIds(0L, NOW, Limit.of(100))).thenReturn(List.of());
+
+        assertThat(job.prune()).isZero();
+        verify(refreshTokenRepository, never()).deleteByIdIn(anyCollection());
+    }
+}
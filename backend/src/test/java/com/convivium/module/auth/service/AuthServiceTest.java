@@ -1,12 +1,14 @@
 package com.convivium.module.auth.service;
 
 import com.convivium.common.exception.BusinessException;
+import com.convivium.common.util.TokenHashUtil;
 import com.convivium.common.exception.ResourceNotFoundException;
 import com.convivium.module.auth.dto.*;
 import com.convivium.module.auth.entity.PasswordResetToken;
 import com.convivium.module.auth.entity.RefreshToken;
 import com.convivium.module.condominium.entity.Condominium;
 import com.convivium.module.condominium.entity.Unit;
+import com.convivium.module.dashboard.service.DashboardCounterService;
 import com.convivium.module.user.entity.Role;
 import com.convivium.module.user.entity.User;
 import com.convivium.module.user.entity.UserCondominiumRole;
@@ -14,14 +16,19 @@ import com.convivium.module.user.repository.UserCondominiumRoleRepository;
 import com.convivium.module.user.repository.UserRepository;
 import com.convivium.security.jwt.JwtProperties;
 import com.convivium.security.jwt.JwtTokenProvider;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.quality.Strictness;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
 import java.util.List;
@@ -67,9 +74,27 @@ class AuthServiceTest {
     @Mock
     private com.convivium.integration.google.GoogleIdTokenVerifier googleIdTokenVerifier;
 
+    @Mock
+    private com.convivium.security.UserIdentityCache userIdentityCache;
+
+    @Mock
+    private LastLoginTracker lastLoginTracker;
+
+    @Mock
+    private DashboardCounterService dashboardCounterService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @InjectMocks
     private AuthService authService;
 
+    @BeforeEach
+    void runTransactionCallbacks() {
+        when(transactionTemplate.execute(any())).thenAnswer(inv ->
+                inv.<TransactionCallback<?>>getArgument(0).doInTransaction(mock(TransactionStatus.class)));
+    }
+
     @Test
     void login_throwsWhenUserNotFound() {
         when(userRepository.findByEmail("a@b.com")).thenReturn(Optional.empty());
@@ -107,8 +132,9 @@ class AuthServiceTest {
                 .condominiumRoles(List.of())
                 .build();
         when(userRepository.findByEmail("a@b.com")).thenReturn(Optional.of(user));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
         when(passwordEncoder.matches("senha", "hash")).thenReturn(true);
-        when(jwtTokenProvider.generateAccessToken(any(), any(), any(), any(), any())).thenReturn("accessToken");
+        when(jwtTokenProvider.generateAccessToken(any(), any(), any(), any(), any(), any(), any())).thenReturn("accessToken");
         when(jwtTokenProvider.generateRefreshToken(any())).thenReturn("refreshToken");
         when(refreshTokenRepository.save(any())).thenAnswer(i -> i.getArgument(0));
         when(userRepository.save(any())).thenAnswer(i -> i.getArgument(0));
@@ -119,6 +145,36 @@ class AuthServiceTest {
         assertEquals("accessToken", response.accessToken());
         assertEquals("refreshToken", response.refreshToken());
         assertNotNull(response.user());
+        verify(refreshTokenRepository).save(argThat(rt ->
+                TokenHashUtil.sha256Hex("refreshToken").equals(rt.getTokenHash())));
+        verify(lastLoginTracker).recordLogin(user);
+    }
+
+    @Test
+    void login_rehashesWhenEncoderRequestsUpgrade() {
+        when(jwtProperties.getAccessTokenExpiration()).thenReturn(900_000L);
+        when(jwtProperties.getRefreshTokenExpiration()).thenReturn(604_800_000L);
+        User user = User.builder()
+                .id(1L)
+                .uuid(java.util.UUID.randomUUID())
+                .email("a@b.com")
+                .passwordHash("hash-custo-baixo")
+                .name("User")
+                .isActive(true)
+                .condominiumRoles(List.of())
+                .build();
+        when(userRepository.findByEmail("a@b.com")).thenReturn(Optional.of(user));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches("senha", "hash-custo-baixo")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("hash-custo-baixo")).thenReturn(true);
+        when(passwordEncoder.encode("senha")).thenReturn("hash-custo-novo");
+        when(jwtTokenProvider.generateAccessToken(any(), any(), any(), any(), any(), any(), any())).thenReturn("accessToken");
+        when(jwtTokenProvider.generateRefreshToken(any())).thenReturn("refreshToken");
+
+        authService.login(new LoginRequest("a@b.com", "senha"));
+
+        assertEquals("hash-custo-novo", user.getPasswordHash());
+        verify(userRepository).save(user);
     }
 
     @Test
@@ -142,14 +198,71 @@ class AuthServiceTest {
         assertEquals("ACCOUNT_DISABLED", ex.getErrorCode());
     }
 
+    @Test
+    void login_inactiveAccount_isNeverRehashedNorWritten() {
+        User user = User.builder().id(1L).email("a@b.com").passwordHash("hash-custo-baixo").isActive(false).build();
+        when(userRepository.findByEmail("a@b.com")).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches("senha", "hash-custo-baixo")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("hash-custo-baixo")).thenReturn(true);
+
+        assertThrows(BusinessException.class, () -> authService.login(new LoginRequest("a@b.com", "senha")));
+
+        verify(passwordEncoder, never()).encode(any());
+        verify(userRepository, never()).save(any());
+        verifyNoInteractions(transactionTemplate, refreshTokenRepository);
+    }
+
+    @Test
+    void login_passwordCheckedOutsideTransaction_writesInsideIt() {
+        User user = User.builder()
+                .id(1L)
+                .uuid(UUID.randomUUID())
+                .email("a@b.com")
+                .passwordHash("hash")
+                .name("User")
+                .isActive(true)
+                .condominiumRoles(List.of())
+                .build();
+        when(userRepository.findByEmail("a@b.com")).thenReturn(Optional.of(user));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches("senha", "hash")).thenReturn(true);
+        when(jwtTokenProvider.generateRefreshToken(any())).thenReturn("refreshToken");
+
+        authService.login(new LoginRequest("a@b.com", "senha"));
+
+        InOrder order = inOrder(passwordEncoder, transactionTemplate, refreshTokenRepository);
+        order.verify(passwordEncoder).matches("senha", "hash");
+        order.verify(transactionTemplate).execute(any());
+        order.verify(refreshTokenRepository).save(any());
+    }
+
+    @Test
+    void login_passwordChangedDuringCheck_isRejectedWithoutWrites() {
+        User snapshot = User.builder().id(1L).email("a@b.com").passwordHash("hash-antigo").isActive(true).build();
+        User current = User.builder().id(1L).email("a@b.com").passwordHash("hash-novo").isActive(true).build();
+        when(userRepository.findByEmail("a@b.com")).thenReturn(Optional.of(snapshot));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(current));
+        when(passwordEncoder.matches("senha", "hash-antigo")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("hash-antigo")).thenReturn(true);
+        when(passwordEncoder.encode("senha")).thenReturn("hash-rehash");
+
+        BusinessException ex = assertThrows(BusinessException.class, () ->
+                authService.login(new LoginRequest("a@b.com", "senha")));
+
+        assertEquals("INVALID_CREDENTIALS", ex.getErrorCode());
+        assertEquals("hash-novo", current.getPasswordHash());
+        verify(userRepository, never()).save(any());
+        verifyNoInteractions(refreshTokenRepository);
+    }
+
     @Test
     void refreshToken_returnsNewTokens() {
         when(jwtProperties.getAccessTokenExpiration()).thenReturn(900_000L);
         when(jwtProperties.getRefreshTokenExpiration()).thenReturn(604_800_000L);
         User user = User.builder().id(1L).uuid(UUID.randomUUID()).email("a@b.com").isActive(true).condominiumRoles(List.of()).build();
-        RefreshToken storedToken = RefreshToken.builder().user(user).token("oldRt").expiresAt(Instant.now().plusSeconds(3600)).revoked(false).build();
-        when(refreshTokenRepository.findByToken("oldRt")).thenReturn(Optional.of(storedToken));
-        when(jwtTokenProvider.generateAccessToken(any(), any(), any(), any(), any())).thenReturn("newAt");
+        RefreshToken storedToken = RefreshToken.builder().user(user).tokenHash(TokenHashUtil.sha256Hex("oldRt")).expiresAt(Instant.now().plusSeconds(3600)).revoked(false).build();
+        when(refreshTokenRepository.findByTokenHash(TokenHashUtil.sha256Hex("oldRt"))).thenReturn(Optional.of(storedToken));
+        when(jwtTokenProvider.generateAccessToken(any(), any(), any(), any(), any(), any(), any())).thenReturn("newAt");
         when(jwtTokenProvider.generateRefreshToken(any())).thenReturn("newRt");
         when(refreshTokenRepository.save(any())).thenAnswer(i -> i.getArgument(0));
         when(userRepository.save(any())).thenAnswer(i -> i.getArgument(0));
@@ -163,14 +276,14 @@ class AuthServiceTest {
 
     @Test
     void refreshToken_throwsWhenInvalid() {
-        when(refreshTokenRepository.findByToken("invalid")).thenReturn(Optional.empty());
+        when(refreshTokenRepository.findByTokenHash(TokenHashUtil.sha256Hex("invalid"))).thenReturn(Optional.empty());
         assertThrows(BusinessException.class, () -> authService.refreshToken("invalid"));
     }
 
     @Test
     void refreshToken_throwsWhenRevoked() {
         RefreshToken token = RefreshToken.builder().revoked(true).build();
-        when(refreshTokenRepository.findByToken("rt")).thenReturn(Optional.of(token));
+        when(refreshTokenRepository.findByTokenHash(TokenHashUtil.sha256Hex("rt"))).thenReturn(Optional.of(token));
         assertThrows(BusinessException.class, () -> authService.refreshToken("rt"));
     }
 
@@ -214,6 +327,7 @@ class AuthServiceTest {
 
         UserInfoResponse response = authService.updateMyProfile(userUuid.toString(), new UpdateMyProfileRequest("New Name", null));
         assertEquals("New Name", response.name());
+        verify(userIdentityCache).evict(userUuid.toString());
     }
 
     @Test
@@ -331,7 +445,7 @@ class AuthServiceTest {
     @Test
     void refreshToken_throwsWhenExpired() {
         RefreshToken token = RefreshToken.builder().expiresAt(Instant.now().minusSeconds(1)).revoked(false).build();
-        when(refreshTokenRepository.findByToken("expired")).thenReturn(Optional.of(token));
+        when(refreshTokenRepository.findByTokenHash(TokenHashUtil.sha256Hex("expired"))).thenReturn(Optional.of(token));
         assertThrows(BusinessException.class, () -> authService.refreshToken("expired"));
     }
 
@@ -0,0 +1,124 @@
+package com.convivium.module.auth.service;
+
+import com.convivium.config.JpaTestConfig;
+import com.convivium.module.user.entity.User;
+import com.convivium.module.user.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.repository.config.BootstrapMode;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(bootstrapMode = BootstrapMode.LAZY)
+@ActiveProfiles("test")
+@Import(JpaTestConfig.class)
+class LastLoginTrackerTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-10T08:00:00Z");
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void writeBehind_coalescesLoginsPerUserAndFlushesInBatches() {
+        User first = persistUser("a@condominio.com");
+        User second = persistUser("b@condominio.com");
+        User third = persistUser("c@condominio.com");
+        MutableClock clock = new MutableClock(NOW);
+        LastLoginTracker tracker = new LastLoginTracker(userRepository, jdbcTemplate, true, 2, clock);
+
+        tracker.recordLogin(first);
+        clock.now = NOW.plusSeconds(30);
+        tracker.recordLogin(first);
+        tracker.recordLogin(second);
+        tracker.recordLogin(third);
+
+        assertThat(tracker.pendingCount()).isEqualTo(3);
+        assertThat(lastLoginAt(first)).isNull();
+
+        assertThat(tracker.flush()).isEqualTo(3);
+        assertThat(tracker.pendingCount()).isZero();
+        assertThat(lastLoginAt(first)).isEqualTo(NOW.plusSeconds(30));
+        assertThat(lastLoginAt(second)).isEqualTo(NOW.plusSeconds(30));
+        assertThat(tracker.flush()).isZero();
+    }
+
+    @Test
+    void writeBehind_neverMovesLastLoginBackwards() {
+        User user = persistUser("a@condominio.com");
+        jdbcTemplate.update("UPDATE users SET last_login_at = ? WHERE id = ?",
+                java.sql.Timestamp.from(NOW.plusSeconds(3600)), user.getId());
+        LastLoginTracker tracker = new LastLoginTracker(userRepository, jdbcTemplate, true, 10,
+                Clock.fixed(NOW, ZoneOffset.UTC));
+
+        tracker.recordLogin(user);
+        tracker.flush();
+
+        assertThat(lastLoginAt(user)).isEqualTo(NOW.plusSeconds(3600));
+    }
+
+    @Test
+    void synchronousMode_savesUserImmediately() {
+        User user = persistUser("a@condominio.com");
+        LastLoginTracker tracker = new LastLoginTracker(userRepository, jdbcTemplate, false, 10,
+                Clock.fixed(NOW, ZoneOffset.UTC));
+
+        tracker.recordLogin(user);
+        entityManager.flush();
+
+        assertThat(tracker.pendingCount()).isZero();
+        assertThat(lastLoginAt(user)).isEqualTo(NOW);
+    }
+
+    private User persistUser(String email) {
+        return entityManager.persistFlushFind(User.builder()
+                .email(email)
+                .name("Morador")
+                .passwordHash("hash")
+                .build());
+    }
+
+    private Instant lastLoginAt(User user) {
+        java.sql.Timestamp ts = jdbcTemplate.queryForObject(
+                "SELECT last_login_at FROM users WHERE id = ?", java.sql.Timestamp.class, user.getId());
+        return ts != null ? ts.toInstant().truncatedTo(ChronoUnit.SECONDS) : null;
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.convivium.module.auth.service;
+
+import com.convivium.integration.google.GoogleIdTokenVerifier;
+import com.convivium.module.auth.dto.LoginRequest;
+import com.convivium.module.auth.dto.LoginResponse;
+import com.convivium.module.auth.repository.PasswordResetTokenRepository;
+import com.convivium.module.auth.repository.RefreshTokenRepository;
+import com.convivium.module.condominium.repository.CondominiumRepository;
+import com.convivium.module.condominium.repository.UnitRepository;
+import com.convivium.module.dashboard.service.DashboardCounterService;
+import com.convivium.module.user.entity.User;
+import com.convivium.module.user.repository.UserCondominiumRoleRepository;
+import com.convivium.module.user.repository.UserRepository;
+import com.convivium.security.UserIdentityCache;
+import com.convivium.security.jwt.JwtProperties;
+import com.convivium.security.jwt.JwtTokenProvider;
+import com.convivium.security.jwt.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Latência do AuthService.login sob pico de logins (ex: manhã de assembleia).
+ *
+ * As escritas no banco são simuladas: cada save/batchUpdate ocupa uma de POOL_SIZE conexões
+ * (o pool de produção) por writeLatencyMs. Com write-behind=false cada login faz duas escritas
+ * (refresh token + users.last_login_at); com write-behind=true só a do refresh token, e o
+ * last_login_at sai num único batchUpdate no flush.
+ *
+ * BCrypt usa strength 4 para que a fila do pool, e não o hash, domine o resultado.
+ *
+ * Rodar com: mvn -Pbenchmark test-compile exec:exec -Djmh.include=LoginLoadBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(32)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class LoginLoadBenchmark {
+
+    private static final String SECRET = "a1b2c3d4e5f6g7h8i9j0k1l2m3n4o5p6q7r8s9t0u1v2w3x4y5z6";
+    private static final int POOL_SIZE = 10;
+    private static final int USERS = 1_000;
+    private static final String PASSWORD = "senha123";
+
+    @Param({"false", "true"})
+    public boolean writeBehind;
+
+    @Param({"20"})
+    public long writeLatencyMs;
+
+    private final Semaphore connections = new Semaphore(POOL_SIZE, true);
+    private final AtomicInteger next = new AtomicInteger();
+    private final Map<String, User> usersByEmail = new HashMap<>();
+    private final Map<Long, User> usersById = new HashMap<>();
+    private String[] emails;
+    private LastLoginTracker lastLoginTracker;
+    private AuthService authService;
+
+    @Setup
+    public void setUp() {
+        BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+        String passwordHash = passwordEncoder.encode(PASSWORD);
+        emails = new String[USERS];
+        for (int i = 0; i < USERS; i++) {
+            User user = User.builder()
+                    .id((long) i + 1)
+                    .uuid(UUID.randomUUID())
+                    .email("morador" + i + "@condominio.com")
+                    .name("Morador " + i)
+                    .passwordHash(passwordHash)
+                    .build();
+            emails[i] = user.getEmail();
+            usersByEmail.put(user.getEmail(), user);
+            usersById.put(user.getId(), user);
+        }
+
+        UserRepository userRepository = mock(UserRepository.class, withSettings().stubOnly());
+        when(userRepository.findByEmail(anyString()))
+                .thenAnswer(inv -> Optional.ofNullable(usersByEmail.get(inv.<String>getArgument(0))));
+        when(userRepository.findById(any()))
+                .thenAnswer(inv -> Optional.ofNullable(usersById.get(inv.<Long>getArgument(0))));
+        when(userRepository.save(any(User.class))).thenAnswer(inv -> {
+            write();
+            return inv.getArgument(0);
+        });
+
+        RefreshTokenRepository refreshTokenRepository = mock(RefreshTokenRepository.class, withSettings().stubOnly());
+        when(refreshTokenRepository.save(any())).thenAnswer(inv -> {
+            write();
+            return inv.getArgument(0);
+        });
+
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class, withSettings().stubOnly());
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(inv -> {
+            write();
+            return new int[inv.<List<?>>getArgument(1).size()];
+        });
+
+        JwtProperties props = new JwtProperties();
+        props.setSecret(SECRET);
+        props.setAccessTokenExpiration(900_000L);
+        props.setRefreshTokenExpiration(604_800_000L);
+        JwtTokenProvider jwtTokenProvider = new JwtTokenProvider(props, new VerifiedTokenCache(props, new SimpleMeterRegistry()));
+        jwtTokenProvider.init();
+
+        // sem banco: a transação curta das escritas do login só executa o callback
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class, withSettings().stubOnly());
+        when(transactionTemplate.execute(any())).thenAnswer(inv ->
+                inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+        lastLoginTracker = new LastLoginTracker(userRepository, jdbcTemplate, writeBehind, 500);
+        authService = new AuthService(
+                userRepository,
+                mock(UserCondominiumRoleRepository.class),
+                refreshTokenRepository,
+                mock(PasswordResetTokenRepository.class),
+                mock(CondominiumRepository.class),
+                mock(UnitRepository.class),
+                jwtTokenProvider,
+                props,
+                passwordEncoder,
+                mock(GoogleIdTokenVerifier.class),
+                new UserIdentityCache(USERS),
+                lastLoginTracker,
+                mock(DashboardCounterService.class),
+                transactionTemplate);
+    }
+
+    @TearDown(Level.Iteration)
+    public void flush() {
+        lastLoginTracker.flush();
+    }
+
+    @Benchmark
+    public LoginResponse login() {
+        String email = emails[Math.floorMod(next.getAndIncrement(), USERS)];
+        return authService.login(new LoginRequest(email, PASSWORD));
+    }
+
+    private void write() {
+        connections.acquireUninterruptibly();
+        try {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(writeLatencyMs));
+        } finally {
+            connections.release();
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.convivium.module.billing.repository.PlatformInvoiceRepository;
 import com.convivium.module.condominium.entity.Condominium;
 import com.convivium.module.condominium.entity.Plan;
 import com.convivium.module.condominium.repository.CondominiumRepository;
+import com.convivium.security.TenantStateCache;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -33,6 +34,9 @@ class InvoiceSchedulerTest {
     @Mock
     private PlatformInvoiceRepository platformInvoiceRepository;
 
+    @Mock
+    private TenantStateCache tenantStateCache;
+
     @InjectMocks
     private InvoiceScheduler invoiceScheduler;
 
@@ -182,6 +186,7 @@ class InvoiceSchedulerTest {
         assertThat(condo.getBlockedAt()).isNotNull();
         assertThat(condo.getBlockedReason()).contains("inadimplencia");
         verify(condominiumRepository).save(condo);
+        verify(tenantStateCache).refresh(condo);
     }
 
     @Test
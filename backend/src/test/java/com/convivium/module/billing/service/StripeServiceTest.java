@@ -8,6 +8,7 @@ import com.convivium.module.condominium.entity.Condominium;
 import com.convivium.module.condominium.entity.Plan;
 import com.convivium.module.condominium.repository.CondominiumRepository;
 import com.convivium.module.condominium.repository.PlanRepository;
+import com.convivium.security.TenantStateCache;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -34,6 +35,9 @@ class StripeServiceTest {
     @Mock
     private PlatformInvoiceRepository platformInvoiceRepository;
 
+    @Mock
+    private TenantStateCache tenantStateCache;
+
     @InjectMocks
     private StripeService stripeService;
 
@@ -289,6 +293,7 @@ class StripeServiceTest {
         assertThat(condo.getBlockedAt()).isNull();
         assertThat(condo.getBlockedReason()).isNull();
         verify(condominiumRepository).save(condo);
+        verify(tenantStateCache).refresh(condo);
     }
 
     @Test
@@ -1,8 +1,11 @@
 package com.convivium.module.complaint.controller;
 
+import com.convivium.common.dto.PageResponse;
 import com.convivium.config.MockMvcSecurityConfig;
 import com.convivium.module.complaint.dto.ComplaintCreateRequest;
 import com.convivium.module.complaint.dto.ComplaintListResponse;
+import com.convivium.module.complaint.dto.ComplaintSearchResult;
+import com.convivium.module.complaint.entity.ComplaintStatus;
 import com.convivium.module.complaint.service.ComplaintService;
 import com.convivium.module.condominium.repository.CondominiumRepository;
 import com.convivium.module.user.repository.UserRepository;
@@ -52,11 +55,23 @@ class ComplaintControllerTest {
     @Test
     void listComplaints_returnsOk() throws Exception {
         ComplaintListResponse clr = new ComplaintListResponse(1L, null, false, "NOISE", "Titulo", "OPEN", "MEDIUM", null, null, 0);
-        when(complaintService.listComplaints(eq(1L), eq(null), any())).thenReturn(new PageImpl<>(List.of(clr)));
+        when(complaintService.listComplaints(eq(1L), eq(null), any(), eq(null))).thenReturn(PageResponse.from(new PageImpl<>(List.of(clr))));
         mockMvc.perform(get("/api/v1/condos/1/complaints").with(withUserPrincipal()))
                 .andExpect(status().isOk()).andExpect(jsonPath("$.success").value(true));
     }
 
+    @Test
+    void searchComplaints_returnsOk() throws Exception {
+        PageResponse<ComplaintSearchResult> page = new PageResponse<>();
+        page.setContent(List.of());
+        page.setLast(true);
+        when(complaintService.searchComplaints(1L, "vazamento", ComplaintStatus.OPEN, 10, null)).thenReturn(page);
+        mockMvc.perform(get("/api/v1/condos/1/complaints/search")
+                        .param("q", "vazamento").param("status", "open").param("size", "10")
+                        .with(withUserPrincipal()))
+                .andExpect(status().isOk()).andExpect(jsonPath("$.data.last").value(true));
+    }
+
     @Test
     void createComplaint_returnsCreated() throws Exception {
         ComplaintListResponse clr = new ComplaintListResponse(1L, null, false, "NOISE", "Titulo", "OPEN", "MEDIUM", null, null, 0);
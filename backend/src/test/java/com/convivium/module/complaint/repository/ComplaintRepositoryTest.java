@@ -0,0 +1,262 @@
+package com.convivium.module.complaint.repository;
+
+import com.convivium.common.dto.CursorPage;
+import com.convivium.config.JpaTestConfig;
+import com.convivium.config.StatementCounter;
+import com.convivium.module.complaint.dto.ComplaintListRow;
+import com.convivium.module.complaint.entity.Complaint;
+import com.convivium.module.complaint.entity.ComplaintAttachment;
+import com.convivium.module.complaint.entity.ComplaintCategory;
+import com.convivium.module.complaint.entity.ComplaintResponse;
+import com.convivium.module.complaint.entity.ComplaintStatus;
+import com.convivium.module.condominium.entity.Condominium;
+import com.convivium.module.condominium.entity.Unit;
+import com.convivium.module.user.dto.UserRoleRow;
+import com.convivium.module.user.entity.Role;
+import com.convivium.module.user.entity.User;
+import com.convivium.module.user.entity.UserCondominiumRole;
+import com.convivium.module.user.repository.UserCondominiumRoleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.config.BootstrapMode;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(bootstrapMode = BootstrapMode.LAZY)
+@ActiveProfiles("test")
+@Import(JpaTestConfig.class)
+class ComplaintRepositoryTest {
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "id");
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private ComplaintRepository complaintRepository;
+    @Autowired
+    private ComplaintResponseRepository responseRepository;
+    @Autowired
+    private UserCondominiumRoleRepository roleRepository;
+    @Autowired
+    private StatementCounter statementCounter;
+
+    private Long condoId;
+    private User morador;
+
+    @BeforeEach
+    void setUp() {
+        condoId = entityManager.persistFlushFind(Condominium.builder()
+                .name("Residencial Teste")
+                .slug("residencial-teste")
+                .build()).getId();
+        morador = persistUser("morador@condominio.com", "Morador");
+        User sindico = persistUser("sindico@condominio.com", "Sindico");
+
+        // denunciante/unidade distintos e i respostas por denúncia: no modelo antigo, 3 lazy loads por linha
+        for (int i = 0; i < 25; i++) {
+            Unit unit = entityManager.persist(Unit.builder()
+                    .condominiumId(condoId)
+                    .identifier("Apto " + (100 + i))
+                    .build());
+            User complainant = i % 2 == 0 ? morador : persistUser("vizinho" + i + "@condominio.com", "Vizinho " + i);
+            Complaint complaint = entityManager.persist(Complaint.builder()
+                    .condominiumId(condoId)
+                    .complainant(complainant)
+                    .isAnonymous(i % 4 == 1)
+                    .category(ComplaintCategory.NOISE)
+                    .title("Barulho " + i)
+                    .unit(unit)
+                    .status(i % 5 == 0 ? ComplaintStatus.RESOLVED : ComplaintStatus.OPEN)
+                    .build());
+            for (int r = 0; r < i % 4; r++) {
+                entityManager.persist(ComplaintResponse.builder()
+                        .complaint(complaint)
+                        .responder(sindico)
+                        .message("Resposta " + r)
+                        .isInternal(r == 0)
+                        .build());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findListRowsByCondominiumId_mapsJoinedColumnsAndResponseCounts() {
+        Page<ComplaintListRow> page = complaintRepository.findListRowsByCondominiumId(condoId, PageRequest.of(0, 5, NEWEST_FIRST));
+
+        assertThat(page.getTotalElements()).isEqualTo(25);
+        // ids decrescentes: i = 24, 23, 22, 21, 20 -> i % 4 respostas (internas incluídas)
+        assertThat(page.getContent()).extracting(ComplaintListRow::responseCount).containsExactly(0L, 3L, 2L, 1L, 0L);
+        assertThat(page.getContent()).allSatisfy(row -> {
+            assertThat(row.unitIdentifier()).startsWith("Apto ");
+            assertThat(row.complainantName()).isNotBlank();
+            assertThat(row.category()).isEqualTo(ComplaintCategory.NOISE);
+            assertThat(row.createdAt()).isNotNull();
+        });
+    }
+
+    @Test
+    void findListRowsByCondominiumId_keepsComplaintsWithoutUnitOrComplainant() {
+        entityManager.persistAndFlush(Complaint.builder()
+                .condominiumId(condoId)
+                .category(ComplaintCategory.OTHER)
+                .title("Sem unidade")
+                .build());
+
+        ComplaintListRow first = complaintRepository
+                .findListRowsByCondominiumId(condoId, PageRequest.of(0, 1, NEWEST_FIRST))
+                .getContent().get(0);
+
+        assertThat(first.title()).isEqualTo("Sem unidade");
+        assertThat(first.unitIdentifier()).isNull();
+        assertThat(first.complainantName()).isNull();
+        assertThat(first.responseCount()).isZero();
+    }
+
+    @Test
+    void findListRowsByCondominiumIdAfter_walksSameOrderAsNumberedPages() {
+        List<Long> expected = complaintRepository
+                .findListRowsByCondominiumId(condoId, PageRequest.of(0, 25, CursorPage.NEWEST_FIRST))
+                .map(ComplaintListRow::id).getContent();
+
+        List<Long> seen = new ArrayList<>();
+        CursorPage.Cursor cursor = new CursorPage.Cursor(Instant.parse("9999-01-01T00:00:00Z"), Long.MAX_VALUE);
+        List<ComplaintListRow> rows;
+        while (!(rows = complaintRepository.findListRowsByCondominiumIdAfter(
+                condoId, cursor.createdAt(), cursor.id(), Limit.of(7))).isEmpty()) {
+            rows.forEach(row -> seen.add(row.id()));
+            ComplaintListRow last = rows.get(rows.size() - 1);
+            cursor = new CursorPage.Cursor(last.createdAt(), last.id());
+        }
+
+        assertThat(seen).containsExactlyElementsOf(expected);
+        assertThat(complaintRepository.findListRowsByCondominiumIdAndStatusAfter(condoId, ComplaintStatus.RESOLVED,
+                Instant.parse("9999-01-01T00:00:00Z"), Long.MAX_VALUE, Limit.of(10)))
+                .hasSize(5)
+                .allSatisfy(row -> assertThat(row.status()).isEqualTo(ComplaintStatus.RESOLVED));
+    }
+
+    @Test
+    void condominiumListing_statementCountDoesNotGrowWithPageSize() {
+        long small = statementsFor(() -> complaintRepository.findListRowsByCondominiumId(condoId, PageRequest.of(0, 5, NEWEST_FIRST)));
+        long large = statementsFor(() -> complaintRepository.findListRowsByCondominiumId(condoId, PageRequest.of(0, 20, NEWEST_FIRST)));
+        long filtered = statementsFor(() -> complaintRepository.findListRowsByCondominiumIdAndStatus(
+                condoId, ComplaintStatus.OPEN, PageRequest.of(0, 20, NEWEST_FIRST)));
+
+        assertThat(small).isLessThanOrEqualTo(2); // página + count
+        assertThat(large).isEqualTo(small);
+        assertThat(filtered).isEqualTo(small);
+    }
+
+    @Test
+    void complainantListing_statementCountDoesNotGrowWithPageSize() {
+        long small = statementsFor(() -> complaintRepository.findListRowsByCondominiumIdAndComplainantId(
+                condoId, morador.getId(), PageRequest.of(0, 3, NEWEST_FIRST)));
+        long large = statementsFor(() -> complaintRepository.findListRowsByCondominiumIdAndComplainantIdAndStatus(
+                condoId, morador.getId(), ComplaintStatus.OPEN, PageRequest.of(0, 10, NEWEST_FIRST)));
+        Page<ComplaintListRow> page = complaintRepository.findListRowsByCondominiumIdAndComplainantId(
+                condoId, morador.getId(), PageRequest.of(0, 20, NEWEST_FIRST));
+
+        assertThat(small).isLessThanOrEqualTo(2);
+        assertThat(large).isEqualTo(small);
+        assertThat(page.getTotalElements()).isEqualTo(13);
+        assertThat(page.getContent()).extracting(ComplaintListRow::complainantName).containsOnly("Morador");
+    }
+
+    @Test
+    void detailReadPath_loadsComplaintResponsesAndRolesInThreeStatements() {
+        Condominium condo = entityManager.find(Condominium.class, condoId);
+        Condominium outro = entityManager.persist(Condominium.builder().name("Outro").slug("outro").build());
+        User sindico = persistUser("sindica@condominio.com", "Sindica");
+        User porteiro = persistUser("porteiro@condominio.com", "Porteiro");
+        persistRole(sindico, condo, Role.MORADOR, "ACTIVE");
+        persistRole(sindico, condo, Role.SINDICO, "ACTIVE");
+        persistRole(sindico, outro, Role.ZELADOR, "ACTIVE");
+        persistRole(porteiro, condo, Role.PORTEIRO, "ACTIVE");
+        persistRole(porteiro, condo, Role.SINDICO, "PENDING");
+        Complaint complaint = entityManager.persist(Complaint.builder()
+                .condominiumId(condoId)
+                .complainant(morador)
+                .unit(entityManager.persist(Unit.builder().condominiumId(condoId).identifier("Apto 900").build()))
+                .category(ComplaintCategory.NOISE)
+                .title("Obra fora de hora")
+                .build());
+        for (int i = 0; i < 2; i++) {
+            entityManager.persist(ComplaintAttachment.builder()
+                    .complaint(complaint)
+                    .fileName("foto" + i + ".jpg")
+                    .fileUrl("/uploads/foto" + i + ".jpg")
+                    .build());
+        }
+        persistResponse(complaint, sindico, "Vamos verificar", false);
+        persistResponse(complaint, porteiro, "Obra do 902", true);
+        persistResponse(complaint, porteiro, "Obra encerrada", false);
+        entityManager.flush();
+        entityManager.clear();
+
+        statementCounter.reset();
+        Complaint detail = complaintRepository.findDetailByIdAndCondominiumId(complaint.getId(), condoId).orElseThrow();
+        List<ComplaintResponse> responses = responseRepository.findForDetail(complaint.getId(), false);
+        List<UserRoleRow> roles = roleRepository.findActiveRoles(condoId, responses.stream()
+                .map(r -> r.getResponder().getId()).collect(Collectors.toSet()));
+
+        assertThat(detail.getComplainant().getName()).isEqualTo("Morador");
+        assertThat(detail.getUnit().getIdentifier()).isEqualTo("Apto 900");
+        assertThat(detail.getAttachments()).hasSize(2);
+        assertThat(responses).extracting(ComplaintResponse::getMessage).containsExactly("Vamos verificar", "Obra encerrada");
+        assertThat(responses).extracting(r -> r.getResponder().getName()).containsExactly("Sindica", "Porteiro");
+        assertThat(roles).containsExactlyInAnyOrder(new UserRoleRow(sindico.getId(), Role.MORADOR),
+                new UserRoleRow(sindico.getId(), Role.SINDICO), new UserRoleRow(porteiro.getId(), Role.PORTEIRO));
+        assertThat(statementCounter.count()).isEqualTo(3);
+
+        assertThat(responseRepository.findForDetail(complaint.getId(), true)).hasSize(3);
+    }
+
+    private long statementsFor(Runnable query) {
+        entityManager.clear();
+        statementCounter.reset();
+        query.run();
+        return statementCounter.count();
+    }
+
+    private void persistRole(User user, Condominium condominium, Role role, String status) {
+        entityManager.persist(UserCondominiumRole.builder()
+                .user(user)
+                .condominium(condominium)
+                .role(role)
+                .status(status)
+                .build());
+    }
+
+    private void persistResponse(Complaint complaint, User responder, String message, boolean internal) {
+        entityManager.persist(ComplaintResponse.builder()
+                .complaint(complaint)
+                .responder(responder)
+                .message(message)
+                .isInternal(internal)
+                .build());
+    }
+
+    private User persistUser(String email, String name) {
+        return entityManager.persist(User.builder()
+                .email(email)
+                .name(name)
+                .passwordHash("hash")
+                .build());
+    }
+}
@@ -0,0 +1,140 @@
+package com.convivium.module.complaint.repository;
+
+import com.convivium.module.complaint.dto.ComplaintSearchCursor;
+import com.convivium.module.complaint.entity.ComplaintStatus;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Executa a busca no PostgreSQL de verdade (websearch_to_tsquery, ts_rank_cd, ts_headline e o
+ * keyset por rank real), que o H2 dos demais testes não tem. Opcional: só roda com
+ * CONVIVIUM_TEST_POSTGRES_URL (e _USER / _PASSWORD) apontando para um banco descartável, ex.
+ * <pre>
+ * CONVIVIUM_TEST_POSTGRES_URL=jdbc:postgresql://localhost:5432/convivium_test \
+ * CONVIVIUM_TEST_POSTGRES_USER=postgres CONVIVIUM_TEST_POSTGRES_PASSWORD=postgres \
+ * mvn test -Dtest=ComplaintSearchRepositoryPostgresTest
+ * </pre>
+ * As migrations rodam num schema próprio, removido no fim.
+ */
+@EnabledIfEnvironmentVariable(named = "CONVIVIUM_TEST_POSTGRES_URL", matches = ".+")
+class ComplaintSearchRepositoryPostgresTest {
+
+    private static final String SCHEMA = "complaint_search_" + UUID.randomUUID().toString().replace("-", "");
+
+    private static JdbcTemplate jdbc;
+    private static ComplaintSearchRepository repository;
+    private static long condoId;
+    private static long otherCondoId;
+
+    @BeforeAll
+    static void migrate() {
+        String url = System.getenv("CONVIVIUM_TEST_POSTGRES_URL");
+        String user = System.getenv().getOrDefault("CONVIVIUM_TEST_POSTGRES_USER", "postgres");
+        String password = System.getenv().getOrDefault("CONVIVIUM_TEST_POSTGRES_PASSWORD", "");
+        Flyway.configure()
+                .dataSource(url, user, password)
+                .schemas(SCHEMA)
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(url, user, password);
+        Properties properties = new Properties();
+        properties.setProperty("currentSchema", SCHEMA);
+        dataSource.setConnectionProperties(properties);
+        jdbc = new JdbcTemplate(dataSource);
+        repository = new ComplaintSearchRepository(new NamedParameterJdbcTemplate(dataSource));
+
+        condoId = insertCondo("busca-condominio");
+        otherCondoId = insertCondo("busca-outro");
+    }
+
+    @AfterAll
+    static void dropSchema() {
+        if (jdbc != null) {
+            jdbc.execute("DROP SCHEMA " + SCHEMA + " CASCADE");
+        }
+    }
+
+    @Test
+    void search_ranksTitleAboveDescriptionAndStaysInTheCondo() {
+        long inTitle = insertComplaint(condoId, "Infiltracao na garagem", "Mancha no teto do subsolo", "OPEN");
+        long inDescription = insertComplaint(condoId, "Problema no subsolo", "Infiltracao perto da vaga 12", "OPEN");
+        insertComplaint(otherCondoId, "Infiltracao no salao", "Outro condominio", "OPEN");
+
+        List<ComplaintSearchRepository.Row> rows = repository.search(condoId, "infiltracao", null, null, 10);
+
+        assertEquals(List.of(inTitle, inDescription), rows.stream().map(ComplaintSearchRepository.Row::id).toList());
+        assertTrue(rows.get(0).rank() > rows.get(1).rank());
+        assertEquals("\u0001Infiltracao\u0002 na garagem", rows.get(0).titleHighlight());
+        assertTrue(rows.get(1).snippet().contains("\u0001Infiltracao\u0002"));
+        assertTrue(repository.search(condoId, "infiltracao", ComplaintStatus.RESOLVED, null, 10).isEmpty());
+    }
+
+    @Test
+    void search_dropsDelimitersTypedByTheUser() {
+        long id = insertComplaint(condoId, "Portao \u0001quebrado\u0002 de novo", "Portao eletronico travado", "OPEN");
+
+        ComplaintSearchRepository.Row row = repository.search(condoId, "portao", null, null, 10).stream()
+                .filter(r -> r.id() == id)
+                .findFirst()
+                .orElseThrow();
+
+        assertEquals("\u0001Portao\u0002 quebrado de novo", row.titleHighlight());
+        assertFalse(row.snippet().contains("\u0001quebrado"));
+    }
+
+    @Test
+    void search_keysetWalksTiedRanksOnceEachThroughTheEncodedCursor() {
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            expected.add(insertComplaint(condoId, "Barulho de obra " + i, "Reforma no apartamento", "IN_REVIEW"));
+        }
+        expected.add(insertComplaint(condoId, "Obra", "Barulho de obra a tarde toda, obra sem fim", "IN_REVIEW"));
+
+        List<Long> seen = new ArrayList<>();
+        float previousRank = Float.MAX_VALUE;
+        ComplaintSearchCursor cursor = null;
+        for (int page = 0; page < 10; page++) {
+            List<ComplaintSearchRepository.Row> rows = repository.search(condoId, "obra", ComplaintStatus.IN_REVIEW,
+                    cursor, 3);
+            if (rows.isEmpty()) {
+                break;
+            }
+            for (ComplaintSearchRepository.Row row : rows) {
+                assertTrue(row.rank() <= previousRank);
+                previousRank = row.rank();
+                seen.add(row.id());
+            }
+            ComplaintSearchRepository.Row last = rows.get(rows.size() - 1);
+            cursor = ComplaintSearchCursor.decode(new ComplaintSearchCursor(last.rank(), last.id()).encode());
+        }
+
+        assertEquals(expected.size(), seen.size());
+        assertTrue(seen.containsAll(expected));
+    }
+
+    private static long insertCondo(String slug) {
+        return jdbc.queryForObject("INSERT INTO condominiums (name, slug) VALUES (?, ?) RETURNING id",
+                Long.class, slug, slug);
+    }
+
+    private static long insertComplaint(long condominiumId, String title, String description, String status) {
+        return jdbc.queryForObject("INSERT INTO complaints (condominium_id, category, title, description, status) "
+                        + "VALUES (?, 'OTHER', ?, ?, ?) RETURNING id",
+                Long.class, condominiumId, title, description, status);
+    }
+}
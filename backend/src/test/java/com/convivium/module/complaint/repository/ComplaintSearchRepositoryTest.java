@@ -0,0 +1,89 @@
+package com.convivium.module.complaint.repository;
+
+import com.convivium.module.complaint.dto.ComplaintSearchCursor;
+import com.convivium.module.complaint.entity.ComplaintStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Forma do SQL da busca (exclusivo do PostgreSQL, não roda no H2). A execução de verdade fica
+ * em ComplaintSearchRepositoryPostgresTest, opcional.
+ */
+@ExtendWith(MockitoExtension.class)
+class ComplaintSearchRepositoryTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Test
+    void search_firstPage_ranksMatchesOfTheCondoAndHighlightsOnlyThePage() {
+        new ComplaintSearchRepository(jdbcTemplate).search(1L, "vazamento garagem", null, null, 21);
+
+        String sql = capturedSql();
+        MapSqlParameterSource params = capturedParams();
+        assertTrue(sql.contains("websearch_to_tsquery('portuguese', :query)"));
+        assertTrue(sql.contains("ts_rank_cd(c.search_vector, q.query, 1)"));
+        assertTrue(sql.contains("c.condominium_id = :condominiumId AND c.search_vector @@ q.query"));
+        assertFalse(sql.contains(":status"));
+        assertFalse(sql.contains(":cursorRank"));
+        // ts_headline só depois do LIMIT, sobre o texto sem os delimitadores digitados pelo usuário
+        assertTrue(sql.indexOf("LIMIT :limit") < sql.indexOf("ts_headline"));
+        assertTrue(sql.contains("ts_headline('portuguese', translate(c.title, :markers, ''), q.query, :titleOptions)"));
+        assertTrue(sql.contains("translate(coalesce(c.description, ''), :markers, '')"));
+        assertEquals("\u0001\u0002", params.getValue("markers"));
+        assertEquals("StartSel=\u0001, StopSel=\u0002, HighlightAll=true", params.getValue("titleOptions"));
+        assertEquals("vazamento garagem", params.getValue("query"));
+        assertEquals(21, params.getValue("limit"));
+    }
+
+    @Test
+    void search_afterCursor_comparesRankAsRealAndBreaksTiesById() {
+        ComplaintSearchCursor after = ComplaintSearchCursor.decode(new ComplaintSearchCursor(0.1f, 8L).encode());
+
+        new ComplaintSearchRepository(jdbcTemplate).search(1L, "ruido", ComplaintStatus.OPEN, after, 3);
+
+        String sql = capturedSql();
+        MapSqlParameterSource params = capturedParams();
+        assertTrue(sql.contains("c.search_vector @@ q.query AND c.status = :status"));
+        assertTrue(sql.contains("WHERE (ranked.rank < CAST(:cursorRank AS real)"
+                + " OR (ranked.rank = CAST(:cursorRank AS real) AND ranked.id < :cursorId))"));
+        assertEquals("OPEN", params.getValue("status"));
+        assertEquals(8L, params.getValue("cursorId"));
+        // float (real no banco) e não double: 0.1f como double seria 0.10000000149011612
+        Object rank = params.getValue("cursorRank");
+        assertInstanceOf(Float.class, rank);
+        assertEquals(Float.floatToIntBits(0.1f), Float.floatToIntBits((Float) rank));
+    }
+
+    @Test
+    void cursor_roundTripsEveryFloatBitExactly() {
+        float[] ranks = {0.1f, 1f / 3, 0.033333335f, Float.MIN_VALUE, Float.MIN_NORMAL, 1.0E-7f, 0f, Float.MAX_VALUE};
+        for (float rank : ranks) {
+            ComplaintSearchCursor decoded = ComplaintSearchCursor.decode(new ComplaintSearchCursor(rank, 5L).encode());
+            assertEquals(Float.floatToIntBits(rank), Float.floatToIntBits(decoded.rank()), () -> "rank " + rank);
+        }
+    }
+
+    private String capturedSql() {
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).query(sql.capture(), any(MapSqlParameterSource.class), ArgumentMatchers.<RowMapper<ComplaintSearchRepository.Row>>any());
+        return sql.getValue();
+    }
+
+    private MapSqlParameterSource capturedParams() {
+        ArgumentCaptor<MapSqlParameterSource> params = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        verify(jdbcTemplate).query(any(String.class), params.capture(), ArgumentMatchers.<RowMapper<ComplaintSearchRepository.Row>>any());
+        return params.getValue();
+    }
+}
@@ -1,18 +1,29 @@
 package com.convivium.module.complaint.service;
 
+import com.convivium.common.dto.CursorPage;
+import com.convivium.common.dto.PageResponse;
 import com.convivium.common.exception.BusinessException;
 import com.convivium.common.exception.ResourceNotFoundException;
 import com.convivium.module.complaint.dto.ComplaintCreateRequest;
 import com.convivium.module.complaint.dto.ComplaintListResponse;
+import com.convivium.module.complaint.dto.ComplaintListRow;
 import com.convivium.module.complaint.dto.ComplaintResponseCreateRequest;
+import com.convivium.module.complaint.dto.ComplaintResponseDto;
+import com.convivium.module.complaint.dto.ComplaintSearchCursor;
+import com.convivium.module.complaint.dto.ComplaintSearchResult;
 import com.convivium.module.complaint.entity.Complaint;
 import com.convivium.module.complaint.entity.ComplaintCategory;
 import com.convivium.module.complaint.entity.ComplaintResponse;
 import com.convivium.module.complaint.entity.ComplaintStatus;
 import com.convivium.module.complaint.repository.ComplaintRepository;
 import com.convivium.module.complaint.repository.ComplaintResponseRepository;
+import com.convivium.module.complaint.repository.ComplaintSearchRepository;
 import com.convivium.module.condominium.repository.UnitRepository;
+import com.convivium.module.dashboard.service.DashboardCounterService;
+import com.convivium.module.user.dto.UserRoleRow;
+import com.convivium.module.user.entity.Role;
 import com.convivium.module.user.entity.User;
+import com.convivium.module.user.repository.UserCondominiumRoleRepository;
 import com.convivium.module.user.repository.UserRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -21,10 +32,13 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -43,30 +57,110 @@ class ComplaintServiceTest {
     private UserRepository userRepository;
     @Mock
     private UnitRepository unitRepository;
+    @Mock
+    private UserCondominiumRoleRepository userCondominiumRoleRepository;
+    @Mock
+    private ComplaintSearchRepository complaintSearchRepository;
+
+    @Mock
+    private DashboardCounterService dashboardCounterService;
 
     @InjectMocks
     private ComplaintService complaintService;
 
     @Test
     void listComplaints_returnsPage() {
-        Complaint c = createComplaint(1L);
-        when(complaintRepository.findByCondominiumId(eq(1L), any(Pageable.class))).thenReturn(new PageImpl<>(List.of(c)));
-        Page<ComplaintListResponse> result = complaintService.listComplaints(1L, null, Pageable.unpaged());
+        when(complaintRepository.findListRowsByCondominiumId(eq(1L), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(row(1L, false, 3))));
+        PageResponse<ComplaintListResponse> result = complaintService.listComplaints(1L, null, Pageable.unpaged(), null);
         assertNotNull(result);
         assertEquals(1, result.getContent().size());
+        assertEquals(3, result.getContent().get(0).responseCount());
+        assertEquals("Morador", result.getContent().get(0).complainantName());
+    }
+
+    @Test
+    void listComplaints_withCursor_readsNextRowsByKeyset() {
+        CursorPage.Cursor cursor = new CursorPage.Cursor(Instant.parse("2026-03-01T10:00:00Z"), 30L);
+        when(complaintRepository.findListRowsByCondominiumIdAndStatusAfter(
+                1L, ComplaintStatus.OPEN, cursor.createdAt(), 30L, CursorPage.fetchLimit(20)))
+                .thenReturn(List.of(row(29L, false, 0), row(28L, false, 1)));
+
+        PageResponse<ComplaintListResponse> result = complaintService.listComplaints(
+                1L, ComplaintStatus.OPEN, PageRequest.of(3, 20), cursor.encode());
+
+        assertEquals(2, result.getContent().size());
+        assertTrue(result.isLast());
+        assertNull(result.getNextCursor());
+        assertEquals(-1, result.getTotalElements());
+        verify(complaintRepository, never()).findListRowsByCondominiumIdAndStatus(any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    void listComplaints_numberedPage_defaultsToNewestFirstAndOffersCursor() {
+        when(complaintRepository.findListRowsByCondominiumId(eq(1L), any(Pageable.class))).thenAnswer(invocation ->
+                new PageImpl<>(List.of(row(9L, false, 0)), invocation.getArgument(1, Pageable.class), 5));
+
+        PageResponse<ComplaintListResponse> result = complaintService.listComplaints(1L, null, PageRequest.of(0, 1), null);
+
+        verify(complaintRepository).findListRowsByCondominiumId(1L, PageRequest.of(0, 1, CursorPage.NEWEST_FIRST));
+        assertEquals(5, result.getTotalElements());
+        assertEquals(9L, CursorPage.Cursor.decode(result.getNextCursor()).id());
+    }
+
+    @Test
+    void searchComplaints_escapesTextAndMarksHighlights() {
+        when(complaintSearchRepository.search(1L, "vazamento", null, null, 21)).thenReturn(List.of(
+                searchRow(7L, true, "\u0001Vazamento\u0002 na <garagem>", 0.5f)));
+
+        PageResponse<ComplaintSearchResult> result = complaintService.searchComplaints(1L, "  vazamento ", null, 20, null);
+
+        ComplaintSearchResult item = result.getContent().get(0);
+        assertEquals("<mark>Vazamento</mark> na &lt;garagem&gt;", item.titleHighlight());
+        assertNull(item.complainantName());
+        assertTrue(result.isLast());
+        assertNull(result.getNextCursor());
+        assertEquals(-1, result.getTotalElements());
+    }
+
+    @Test
+    void searchComplaints_returnsCursorForNextPage() {
+        when(complaintSearchRepository.search(eq(1L), eq("ruido"), eq(ComplaintStatus.OPEN), any(), eq(3)))
+                .thenReturn(List.of(searchRow(9L, false, "a", 0.9f), searchRow(8L, false, "b", 0.4f),
+                        searchRow(5L, false, "c", 0.4f)));
+
+        PageResponse<ComplaintSearchResult> first = complaintService.searchComplaints(1L, "ruido", ComplaintStatus.OPEN, 2, null);
+
+        assertEquals(2, first.getContent().size());
+        assertFalse(first.isLast());
+        assertEquals(new ComplaintSearchCursor(0.4f, 8L), ComplaintSearchCursor.decode(first.getNextCursor()));
+
+        complaintService.searchComplaints(1L, "ruido", ComplaintStatus.OPEN, 2, first.getNextCursor());
+        verify(complaintSearchRepository).search(1L, "ruido", ComplaintStatus.OPEN, new ComplaintSearchCursor(0.4f, 8L), 3);
+    }
+
+    @Test
+    void searchComplaints_rejectsBlankQueryAndInvalidCursor() {
+        BusinessException blank = assertThrows(BusinessException.class,
+                () -> complaintService.searchComplaints(1L, "   ", null, 20, null));
+        assertEquals("SEARCH_QUERY_REQUIRED", blank.getErrorCode());
+        BusinessException cursor = assertThrows(BusinessException.class,
+                () -> complaintService.searchComplaints(1L, "ruido", null, 20, "nao-e-cursor"));
+        assertEquals("INVALID_CURSOR", cursor.getErrorCode());
+        verifyNoInteractions(complaintSearchRepository);
     }
 
     @Test
     void getComplaint_throwsWhenNotFound() {
-        when(complaintRepository.findByIdAndCondominiumId(1L, 1L)).thenReturn(Optional.empty());
+        when(complaintRepository.findDetailByIdAndCondominiumId(1L, 1L)).thenReturn(Optional.empty());
         assertThrows(ResourceNotFoundException.class, () -> complaintService.getComplaint(1L, 1L));
     }
 
     @Test
     void getComplaint_success() {
         Complaint c = createComplaint(1L);
-        when(complaintRepository.findByIdAndCondominiumId(1L, 1L)).thenReturn(Optional.of(c));
-        when(complaintResponseRepository.findByComplaintIdOrderByCreatedAtAsc(1L)).thenReturn(List.of());
+        when(complaintRepository.findDetailByIdAndCondominiumId(1L, 1L)).thenReturn(Optional.of(c));
+        when(complaintResponseRepository.findForDetail(1L, true)).thenReturn(List.of());
         var r = complaintService.getComplaint(1L, 1L);
         assertNotNull(r);
         assertEquals("Reclamacao", r.title());
@@ -96,6 +190,7 @@ class ComplaintServiceTest {
         ComplaintListResponse r = complaintService.createComplaint(1L, 1L, req);
         assertNotNull(r);
         verify(complaintRepository).save(any(Complaint.class));
+        verify(dashboardCounterService).onComplaintStatusChange(1L, null, ComplaintStatus.OPEN);
     }
 
     @Test
@@ -113,9 +208,12 @@ class ComplaintServiceTest {
         when(complaintResponseRepository.save(any())).thenReturn(cr);
         when(complaintRepository.save(any())).thenReturn(c);
         ComplaintResponseCreateRequest req = new ComplaintResponseCreateRequest("Resposta", false);
+        when(userCondominiumRoleRepository.findActiveRoles(1L, Set.of(1L))).thenReturn(List.of(new UserRoleRow(1L, Role.SINDICO)));
         var r = complaintService.addResponse(1L, 1L, 1L, req);
         assertNotNull(r);
         assertEquals("Resposta", r.message());
+        assertEquals("SINDICO", r.responderRole());
+        verify(dashboardCounterService).onComplaintStatusChange(1L, ComplaintStatus.OPEN, ComplaintStatus.RESPONDED);
     }
 
     @Test
@@ -134,13 +232,13 @@ class ComplaintServiceTest {
         when(complaintRepository.save(any())).thenReturn(c);
         complaintService.updateStatus(1L, 1L, "RESOLVED");
         verify(complaintRepository).save(argThat(x -> ComplaintStatus.RESOLVED == x.getStatus()));
+        verify(dashboardCounterService).onComplaintStatusChange(1L, ComplaintStatus.IN_REVIEW, ComplaintStatus.RESOLVED);
     }
 
     @Test
     void getMyComplaints_returnsPage() {
-        Complaint c = createComplaint(1L);
-        when(complaintRepository.findByCondominiumIdAndComplainantId(eq(1L), eq(1L), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(c)));
+        when(complaintRepository.findListRowsByCondominiumIdAndComplainantId(eq(1L), eq(1L), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(row(1L, false, 0))));
         Page<ComplaintListResponse> result = complaintService.getMyComplaints(1L, 1L, null, Pageable.unpaged());
         assertNotNull(result);
         assertEquals(1, result.getContent().size());
@@ -148,19 +246,19 @@ class ComplaintServiceTest {
 
     @Test
     void listComplaints_withStatus() {
-        Complaint c = createComplaint(1L);
-        when(complaintRepository.findByCondominiumIdAndStatus(eq(1L), eq(ComplaintStatus.OPEN), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(c)));
-        Page<ComplaintListResponse> result = complaintService.listComplaints(1L, ComplaintStatus.OPEN, Pageable.unpaged());
+        when(complaintRepository.findListRowsByCondominiumIdAndStatus(eq(1L), eq(ComplaintStatus.OPEN), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(row(1L, true, 0))));
+        PageResponse<ComplaintListResponse> result = complaintService.listComplaints(1L, ComplaintStatus.OPEN, Pageable.unpaged(), null);
         assertNotNull(result);
         assertEquals(1, result.getContent().size());
+        assertNull(result.getContent().get(0).complainantName());
     }
 
     @Test
     void getComplaintFiltered_throwsWhenMoradorOnlyAndNotOwner() {
         Complaint c = createComplaint(1L);
         c.setComplainant(createUser(99L));
-        when(complaintRepository.findByIdAndCondominiumId(1L, 1L)).thenReturn(Optional.of(c));
+        when(complaintRepository.findDetailByIdAndCondominiumId(1L, 1L)).thenReturn(Optional.of(c));
         assertThrows(org.springframework.security.access.AccessDeniedException.class, () ->
                 complaintService.getComplaintFiltered(1L, 1L, false, 1L, true));
     }
@@ -169,11 +267,34 @@ class ComplaintServiceTest {
     void getComplaintFiltered_successForOwner() {
         Complaint c = createComplaint(1L);
         c.setComplainant(createUser(1L));
-        when(complaintRepository.findByIdAndCondominiumId(1L, 1L)).thenReturn(Optional.of(c));
-        when(complaintResponseRepository.findByComplaintIdOrderByCreatedAtAsc(1L)).thenReturn(List.of());
+        when(complaintRepository.findDetailByIdAndCondominiumId(1L, 1L)).thenReturn(Optional.of(c));
+        when(complaintResponseRepository.findForDetail(1L, false)).thenReturn(List.of());
         var r = complaintService.getComplaintFiltered(1L, 1L, false, 1L, true);
         assertNotNull(r);
         assertEquals("Reclamacao", r.title());
+        verifyNoInteractions(userCondominiumRoleRepository);
+    }
+
+    @Test
+    void getComplaintFiltered_resolvesResponderRoleInThisCondominium() {
+        Complaint c = createComplaint(1L);
+        User sindico = createUser(5L);
+        User porteiro = createUser(6L);
+        ComplaintResponse first = ComplaintResponse.builder().id(1L).complaint(c).responder(sindico).message("Em analise").build();
+        ComplaintResponse second = ComplaintResponse.builder().id(2L).complaint(c).responder(porteiro).message("Verificado").build();
+        ComplaintResponse third = ComplaintResponse.builder().id(3L).complaint(c).responder(sindico).message("Resolvido").build();
+        when(complaintRepository.findDetailByIdAndCondominiumId(1L, 1L)).thenReturn(Optional.of(c));
+        when(complaintResponseRepository.findForDetail(1L, true)).thenReturn(List.of(first, second, third));
+        when(userCondominiumRoleRepository.findActiveRoles(eq(1L), argThat(ids -> ids.size() == 2
+                && ids.containsAll(List.of(5L, 6L)))))
+                .thenReturn(List.of(new UserRoleRow(5L, Role.MORADOR), new UserRoleRow(5L, Role.SINDICO),
+                        new UserRoleRow(6L, Role.PORTEIRO)));
+
+        var r = complaintService.getComplaintFiltered(1L, 1L, true, 5L, false);
+
+        assertEquals(List.of("SINDICO", "PORTEIRO", "SINDICO"),
+                r.responses().stream().map(ComplaintResponseDto::responderRole).toList());
+        verify(userCondominiumRoleRepository, times(1)).findActiveRoles(any(), any());
     }
 
     @Test
@@ -238,6 +359,16 @@ class ComplaintServiceTest {
         assertThrows(BusinessException.class, () -> complaintService.updateStatus(1L, 1L, "INVALID_STATUS"));
     }
 
+    private static ComplaintListRow row(Long id, boolean anonymous, long responseCount) {
+        return new ComplaintListRow(id, "Morador", anonymous, ComplaintCategory.NOISE, "Reclamacao",
+                ComplaintStatus.OPEN, "MEDIUM", "101", Instant.parse("2026-03-01T09:00:00Z"), responseCount);
+    }
+
+    private static ComplaintSearchRepository.Row searchRow(long id, boolean anonymous, String titleHighlight, float rank) {
+        return new ComplaintSearchRepository.Row(id, "Morador", anonymous, ComplaintCategory.MAINTENANCE, "Titulo",
+                titleHighlight, "trecho", ComplaintStatus.OPEN, "MEDIUM", "101", null, rank);
+    }
+
     private Complaint createComplaint(Long id) {
         Complaint c = new Complaint();
         c.setId(id);
@@ -18,6 +18,7 @@ import com.convivium.module.condominium.repository.CondominiumRepository;
 import com.convivium.module.condominium.repository.PlanRepository;
 import com.convivium.module.condominium.repository.UnitRepository;
 import com.convivium.module.user.repository.UserCondominiumRoleRepository;
+import com.convivium.security.TenantStateCache;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -50,6 +51,9 @@ class CondominiumServiceTest {
     @Mock
     private UserCondominiumRoleRepository userCondominiumRoleRepository;
 
+    @Mock
+    private TenantStateCache tenantStateCache;
+
     @InjectMocks
     private CondominiumService condominiumService;
 
@@ -102,6 +106,7 @@ class CondominiumServiceTest {
         when(condominiumRepository.save(any())).thenAnswer(i -> i.getArgument(0));
         condominiumService.updateStatus(1L, "SUSPENDED");
         verify(condominiumRepository).save(argThat(x -> "SUSPENDED".equals(x.getStatus())));
+        verify(tenantStateCache).refresh(c);
     }
 
     @Test
@@ -22,6 +22,7 @@ import java.util.List;
 import static com.convivium.security.TestSecurityUtils.withUserPrincipal;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -61,8 +62,22 @@ class DashboardControllerTest {
         activity.setTotalElements(0);
         activity.setTotalPages(0);
         activity.setLast(true);
-        when(dashboardService.getUnitActivity(eq(1L), any(), eq(0), eq(10))).thenReturn(activity);
+        when(dashboardService.getUnitActivity(eq(1L), any(), eq(0), eq(10), isNull())).thenReturn(activity);
         mockMvc.perform(get("/api/v1/condos/1/dashboard/activity?page=0&size=10").with(withUserPrincipal()))
-                .andExpect(status().isOk()).andExpect(jsonPath("$.success").value(true));
+                .andExpect(status().isOk()).andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void getUnitActivity_passesCursorAndReturnsNextCursor() throws Exception {
+        PageResponse<UnitActivityItemDto> activity = new PageResponse<>();
+        activity.setContent(List.of());
+        activity.setSize(10);
+        activity.setTotalElements(-1);
+        activity.setTotalPages(-1);
+        activity.setNextCursor("proximo");
+        when(dashboardService.getUnitActivity(eq(1L), any(), eq(0), eq(10), eq("abc"))).thenReturn(activity);
+        mockMvc.perform(get("/api/v1/condos/1/dashboard/activity?size=10&cursor=abc").with(withUserPrincipal()))
+                .andExpect(status().isOk()).andExpect(jsonPath("$.data.nextCursor").value("proximo"));
     }
 }
@@ -0,0 +1,135 @@
+package com.convivium.module.dashboard.repository;
+
+import com.convivium.config.JpaTestConfig;
+import com.convivium.module.dashboard.dto.UnitActivityCursor;
+import com.convivium.module.dashboard.repository.UnitActivityRepository.Owner;
+import com.convivium.module.dashboard.repository.UnitActivityRepository.Row;
+import com.convivium.module.user.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.repository.config.BootstrapMode;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(bootstrapMode = BootstrapMode.LAZY)
+@ActiveProfiles("test")
+@Import({JpaTestConfig.class, UnitActivityRepository.class})
+class UnitActivityRepositoryTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-10T12:00:00Z");
+    private static final Instant SINCE = NOW.minusSeconds(30L * 24 * 60 * 60);
+    private static final long CONDO = 1L;
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private UnitActivityRepository repository;
+
+    private User morador;
+    private User vizinho;
+
+    @BeforeEach
+    void setUp() {
+        morador = persistUser("morador@condominio.com");
+        vizinho = persistUser("vizinho@condominio.com");
+    }
+
+    @Test
+    void findPage_mergesComplaintsAndParcelsNewestFirst() {
+        insertComplaint(morador, "Barulho", "x".repeat(200), NOW.minusSeconds(10));
+        insertParcel(morador, null, "Correios", NOW.minusSeconds(5));
+        insertParcel(morador, "Caixa grande", null, NOW.minusSeconds(20));
+        insertComplaint(morador, "Antiga", "fora do periodo", SINCE.minusSeconds(1));
+        insertComplaint(vizinho, "De outro", "nao aparece", NOW);
+
+        List<Row> rows = repository.findPage(CONDO, Owner.USER, morador.getId(), SINCE, null, 0, 10);
+
+        assertThat(rows).extracting(Row::kind).containsExactly(
+                UnitActivityCursor.KIND_PARCEL, UnitActivityCursor.KIND_COMPLAINT, UnitActivityCursor.KIND_PARCEL);
+        assertThat(rows.get(0).description()).isEqualTo("Correios");
+        assertThat(rows.get(1).title()).isEqualTo("Barulho");
+        assertThat(rows.get(1).description()).hasSize(81);
+        assertThat(rows.get(2).description()).isEqualTo("Caixa grande");
+        assertThat(repository.count(CONDO, Owner.USER, morador.getId(), SINCE)).isEqualTo(3);
+    }
+
+    @Test
+    void findPage_cursorWalksEveryItemOnceIncludingTimestampTies() {
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            Instant at = NOW.minusSeconds(i / 2); // pares de itens com o mesmo created_at
+            expected.add("C" + insertComplaint(morador, "Denuncia " + i, "d", at));
+            expected.add("P" + insertParcel(morador, "Pacote " + i, null, at));
+        }
+
+        List<String> seen = new ArrayList<>();
+        UnitActivityCursor cursor = null;
+        int pages = 0;
+        while (true) {
+            List<Row> rows = repository.findPage(CONDO, Owner.USER, morador.getId(), SINCE, cursor, 0, 4);
+            rows.forEach(r -> seen.add((r.kind() == UnitActivityCursor.KIND_COMPLAINT ? "C" : "P") + r.id()));
+            pages++;
+            if (rows.size() < 4) {
+                break;
+            }
+            Row last = rows.get(rows.size() - 1);
+            cursor = new UnitActivityCursor(last.createdAt(), last.kind(), last.id());
+        }
+
+        assertThat(seen).hasSize(expected.size()).containsExactlyInAnyOrderElementsOf(expected);
+        assertThat(pages).isEqualTo(4);
+    }
+
+    @Test
+    void findPage_offsetMatchesCursorOrder() {
+        for (int i = 0; i < 5; i++) {
+            insertComplaint(morador, "Denuncia " + i, "d", NOW.minusSeconds(i * 2L));
+            insertParcel(morador, "Pacote " + i, null, NOW.minusSeconds(i * 2L + 1));
+        }
+
+        List<Row> all = repository.findPage(CONDO, Owner.USER, morador.getId(), SINCE, null, 0, 10);
+        List<Row> secondPage = repository.findPage(CONDO, Owner.USER, morador.getId(), SINCE, null, 3, 3);
+
+        assertThat(secondPage).containsExactlyElementsOf(all.subList(3, 6));
+    }
+
+    private User persistUser(String email) {
+        return entityManager.persistFlushFind(User.builder()
+                .email(email)
+                .name("Morador")
+                .passwordHash("hash")
+                .build());
+    }
+
+    private long insertComplaint(User complainant, String title, String description, Instant createdAt) {
+        jdbcTemplate.update("""
+                        INSERT INTO complaints (condominium_id, complainant_id, is_anonymous, category, title, description,
+                                                status, priority, created_at)
+                        VALUES (?, ?, false, 'NOISE', ?, ?, 'OPEN', 'MEDIUM', ?)
+                        """,
+                CONDO, complainant.getId(), title, description, Timestamp.from(createdAt));
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM complaints", Long.class);
+    }
+
+    private long insertParcel(User recipient, String description, String carrier, Instant createdAt) {
+        jdbcTemplate.update("""
+                        INSERT INTO parcels (condominium_id, recipient_id, description, carrier, status, created_at)
+                        VALUES (?, ?, ?, ?, 'RECEIVED', ?)
+                        """,
+                CONDO, recipient.getId(), description, carrier, Timestamp.from(createdAt));
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM parcels", Long.class);
+    }
+}
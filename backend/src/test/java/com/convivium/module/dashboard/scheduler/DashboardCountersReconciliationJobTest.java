@@ -0,0 +1,38 @@
+package com.convivium.module.dashboard.scheduler;
+
+import com.convivium.module.condominium.repository.CondominiumRepository;
+import com.convivium.module.dashboard.service.DashboardCounterService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardCountersReconciliationJobTest {
+
+    @Mock
+    private CondominiumRepository condominiumRepository;
+
+    @Mock
+    private DashboardCounterService dashboardCounterService;
+
+    @InjectMocks
+    private DashboardCountersReconciliationJob job;
+
+    @Test
+    void reconcileAll_countsRepairedAndContinuesAfterFailure() {
+        when(condominiumRepository.findAllIds()).thenReturn(List.of(1L, 2L, 3L));
+        when(dashboardCounterService.reconcile(1L)).thenReturn(true);
+        when(dashboardCounterService.reconcile(2L)).thenThrow(new IllegalStateException("lock timeout"));
+        when(dashboardCounterService.reconcile(3L)).thenReturn(false);
+
+        assertEquals(1, job.reconcileAll());
+        verify(dashboardCounterService).reconcile(3L);
+    }
+}
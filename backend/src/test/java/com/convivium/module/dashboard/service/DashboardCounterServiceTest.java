@@ -0,0 +1,131 @@
+package com.convivium.module.dashboard.service;
+
+import com.convivium.config.JpaTestConfig;
+import com.convivium.module.complaint.entity.ComplaintStatus;
+import com.convivium.module.dashboard.entity.CondominiumCounters;
+import com.convivium.module.dashboard.repository.CondominiumCountersRepository;
+import com.convivium.module.parcel.entity.ParcelStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.repository.config.BootstrapMode;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Incrementos, reconciliação e a leitura do dashboard contra o banco (H2 em modo PostgreSQL). */
+@DataJpaTest(bootstrapMode = BootstrapMode.LAZY)
+@ActiveProfiles("test")
+@Import({JpaTestConfig.class, DashboardCounterService.class, DashboardDeltaPublisher.class})
+class DashboardCounterServiceTest {
+
+    private static final long CONDO = 1L;
+    private static final Instant DAY_START = Instant.parse("2026-01-09T03:00:00Z");
+    private static final Instant DAY_END = Instant.parse("2026-01-10T03:00:00Z");
+
+    @Autowired
+    private DashboardCounterService counterService;
+    @Autowired
+    private CondominiumCountersRepository countersRepository;
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void transitions_createRowAndApplyOnlyDeltas() {
+        counterService.onMemberAdded(CONDO, "ACTIVE");
+        counterService.onMemberAdded(CONDO, "ACTIVE");
+        counterService.onComplaintStatusChange(CONDO, null, ComplaintStatus.OPEN);
+        counterService.onComplaintStatusChange(CONDO, null, ComplaintStatus.OPEN);
+        counterService.onComplaintStatusChange(CONDO, ComplaintStatus.OPEN, ComplaintStatus.IN_REVIEW);
+        counterService.onComplaintStatusChange(CONDO, ComplaintStatus.IN_REVIEW, ComplaintStatus.RESOLVED);
+        counterService.onParcelStatusChange(CONDO, null, ParcelStatus.RECEIVED);
+        counterService.onParcelStatusChange(CONDO, ParcelStatus.RECEIVED, ParcelStatus.DELIVERED);
+        counterService.onParcelStatusChange(CONDO, null, ParcelStatus.RECEIVED);
+        counterService.onMemberRemoved(CONDO, "ACTIVE");
+
+        CondominiumCounters counters = reload();
+        assertThat(counters.getTotalMoradores()).isEqualTo(1);
+        assertThat(counters.getDenunciasAbertas()).isEqualTo(1);
+        assertThat(counters.getEncomendasPendentes()).isEqualTo(1);
+    }
+
+    @Test
+    void reconcile_repairsDriftFromSourceTables() {
+        insertComplaint("OPEN");
+        insertComplaint("OPEN");
+        insertComplaint("CLOSED");
+        insertParcel("RECEIVED");
+        insertParcel("DELIVERED");
+        counterService.onComplaintStatusChange(CONDO, null, ComplaintStatus.OPEN); // linha com 1 denúncia: divergente
+
+        assertThat(counterService.reconcile(CONDO)).isTrue();
+
+        CondominiumCounters counters = reload();
+        assertThat(counters.getDenunciasAbertas()).isEqualTo(2);
+        assertThat(counters.getEncomendasPendentes()).isEqualTo(1);
+        assertThat(counters.getTotalMoradores()).isZero();
+        assertThat(counters.getReconciledAt()).isNotNull();
+        assertThat(counterService.reconcile(CONDO)).isFalse();
+    }
+
+    @Test
+    void findStats_readsCountersAndBookingsStartingToday() {
+        createBookingsTable();
+        insertBooking(DAY_START, "CONFIRMED");
+        insertBooking(DAY_END.minusSeconds(1), "PENDING");
+        insertBooking(DAY_START.plusSeconds(3600), "CANCELLED");
+        insertBooking(DAY_END, "CONFIRMED");
+        counterService.onMemberAdded(CONDO, "ACTIVE");
+
+        CondominiumCountersRepository.StatsView stats = countersRepository.findStats(CONDO, DAY_START, DAY_END)
+                .orElseThrow();
+
+        assertThat(stats.getTotalMoradores()).isEqualTo(1);
+        assertThat(stats.getReservasHoje()).isEqualTo(2);
+        assertThat(countersRepository.findStats(2L, DAY_START, DAY_END)).isEmpty();
+    }
+
+    private CondominiumCounters reload() {
+        entityManager.flush();
+        entityManager.clear();
+        return countersRepository.findById(CONDO).orElseThrow();
+    }
+
+    private void insertComplaint(String status) {
+        jdbcTemplate.update("""
+                INSERT INTO complaints (condominium_id, is_anonymous, category, title, description, status, priority, created_at)
+                VALUES (?, false, 'NOISE', 'Barulho', 'd', ?, 'MEDIUM', CURRENT_TIMESTAMP)
+                """, CONDO, status);
+    }
+
+    private void insertParcel(String status) {
+        jdbcTemplate.update("""
+                INSERT INTO parcels (condominium_id, status, created_at) VALUES (?, ?, CURRENT_TIMESTAMP)
+                """, CONDO, status);
+    }
+
+    /** bookings ainda não tem entidade JPA, então o schema de teste não a cria. */
+    private void createBookingsTable() {
+        jdbcTemplate.execute("""
+                CREATE TABLE IF NOT EXISTS bookings (
+                    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                    condominium_id BIGINT NOT NULL,
+                    user_id BIGINT NOT NULL,
+                    start_time TIMESTAMP WITH TIME ZONE NOT NULL,
+                    status VARCHAR(20) DEFAULT 'CONFIRMED')
+                """);
+    }
+
+    private void insertBooking(Instant start, String status) {
+        jdbcTemplate.update("INSERT INTO bookings (condominium_id, user_id, start_time, status) VALUES (?, 1, ?, ?)",
+                CONDO, Timestamp.from(start), status);
+    }
+}
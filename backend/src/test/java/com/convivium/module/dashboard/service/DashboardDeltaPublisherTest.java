@@ -0,0 +1,69 @@
+package com.convivium.module.dashboard.service;
+
+import com.convivium.module.dashboard.dto.DashboardDeltaMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.Mockito.*;
+
+class DashboardDeltaPublisherTest {
+
+    private final SimpMessagingTemplate template = mock(SimpMessagingTemplate.class);
+    private final DashboardDeltaPublisher publisher = new DashboardDeltaPublisher(Optional.of(template));
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(publisher);
+    }
+
+    @Test
+    void publish_withoutTransaction_sendsImmediately() {
+        publisher.publish(1L, new DashboardDeltaMessage(0, 1, 0, 0));
+
+        verify(template).convertAndSend("/topic/condos/1/dashboard", new DashboardDeltaMessage(0, 1, 0, 0));
+    }
+
+    @Test
+    void publish_inTransaction_sendsOneSummedDeltaPerCondoAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        publisher.publish(1L, new DashboardDeltaMessage(0, 0, 1, 0));
+        publisher.publish(1L, new DashboardDeltaMessage(0, 0, 1, 0));
+        publisher.publish(2L, new DashboardDeltaMessage(1, 0, 0, 1));
+        verifyNoInteractions(template);
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        verify(template).convertAndSend("/topic/condos/1/dashboard", new DashboardDeltaMessage(0, 0, 2, 0));
+        verify(template).convertAndSend("/topic/condos/2/dashboard", new DashboardDeltaMessage(1, 0, 0, 1));
+        verifyNoMoreInteractions(template);
+    }
+
+    @Test
+    void publish_inTransaction_dropsDeltasOnRollbackAndWhenTheyCancelOut() {
+        TransactionSynchronizationManager.initSynchronization();
+        publisher.publish(1L, new DashboardDeltaMessage(0, 1, 0, 0));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        TransactionSynchronizationManager.initSynchronization();
+        publisher.publish(1L, new DashboardDeltaMessage(0, 1, 0, 0));
+        publisher.publish(1L, new DashboardDeltaMessage(0, -1, 0, 0));
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        verifyNoInteractions(template);
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(s -> s.afterCompletion(status));
+    }
+}
@@ -1,24 +1,31 @@
 package com.convivium.module.dashboard.service;
 
-import com.convivium.module.complaint.entity.Complaint;
+import com.convivium.common.dto.CursorPage;
+import com.convivium.common.exception.BusinessException;
 import com.convivium.module.complaint.entity.ComplaintStatus;
 import com.convivium.module.complaint.repository.ComplaintRepository;
+import com.convivium.module.dashboard.dto.UnitActivityCursor;
 import com.convivium.module.dashboard.dto.UnitActivityItemDto;
-import com.convivium.module.parcel.entity.Parcel;
-import com.convivium.module.parcel.entity.ParcelStatus;
+import com.convivium.module.dashboard.repository.BookingCountRepository;
+import com.convivium.module.dashboard.repository.CondominiumCountersRepository;
+import com.convivium.module.dashboard.repository.UnitActivityRepository;
+import com.convivium.module.dashboard.repository.UnitActivityRepository.Row;
 import com.convivium.module.parcel.repository.ParcelRepository;
 import com.convivium.module.condominium.entity.Unit;
+import com.convivium.module.user.entity.UserCondominiumRole;
 import com.convivium.module.user.repository.UserCondominiumRoleRepository;
 import com.convivium.security.UserPrincipal;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
+import java.time.Clock;
 import java.time.Instant;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -39,9 +46,28 @@ class DashboardServiceTest {
     @Mock
     private ParcelRepository parcelRepository;
 
-    @InjectMocks
+    @Mock
+    private UnitActivityRepository unitActivityRepository;
+
+    @Mock
+    private CondominiumCountersRepository countersRepository;
+
+    @Mock
+    private BookingCountRepository bookingCountRepository;
+
+    // 02h UTC = 23h do dia 9 em São Paulo
+    private final Clock clock = Clock.fixed(Instant.parse("2026-01-10T02:00:00Z"), ZoneId.of("America/Sao_Paulo"));
+    private final Instant dayStart = Instant.parse("2026-01-09T03:00:00Z");
+    private final Instant dayEnd = Instant.parse("2026-01-10T03:00:00Z");
+
     private DashboardService dashboardService;
 
+    @BeforeEach
+    void setUp() {
+        dashboardService = new DashboardService(userCondominiumRoleRepository, complaintRepository, parcelRepository,
+                unitActivityRepository, countersRepository, bookingCountRepository, clock);
+    }
+
     private UserPrincipal createUser(List<String> roles) {
         List<GrantedAuthority> authorities = new ArrayList<>();
         roles.forEach(r -> authorities.add(new SimpleGrantedAuthority("ROLE_" + r)));
@@ -59,52 +85,142 @@ class DashboardServiceTest {
     }
 
     @Test
-    void getStats_paraSindico_retornaTotais() {
+    void getStats_paraSindico_leLinhaDeContadoresComReservasDoDia() {
+        UserPrincipal user = createUser(List.of("SINDICO"));
+        CondominiumCountersRepository.StatsView view = mock(CondominiumCountersRepository.StatsView.class);
+        when(view.getTotalMoradores()).thenReturn(10L);
+        when(view.getDenunciasAbertas()).thenReturn(2L);
+        when(view.getEncomendasPendentes()).thenReturn(1L);
+        when(view.getReservasHoje()).thenReturn(3L);
+        when(countersRepository.findStats(1L, dayStart, dayEnd)).thenReturn(Optional.of(view));
+
+        var stats = dashboardService.getStats(1L, user);
+
+        assertEquals(10L, stats.getTotalMoradores());
+        assertEquals(2L, stats.getDenunciasAbertas());
+        assertEquals(1L, stats.getEncomendasPendentes());
+        assertEquals(3L, stats.getReservasHoje());
+        verifyNoInteractions(userCondominiumRoleRepository, complaintRepository, parcelRepository, bookingCountRepository);
+    }
+
+    @Test
+    void getStats_paraSindicoSemLinhaDeContadores_contaNasTabelas() {
         UserPrincipal user = createUser(List.of("SINDICO"));
+        when(countersRepository.findStats(1L, dayStart, dayEnd)).thenReturn(Optional.empty());
         when(userCondominiumRoleRepository.countByCondominiumId(1L)).thenReturn(10L);
         when(complaintRepository.countByCondominiumIdAndStatus(1L, ComplaintStatus.OPEN)).thenReturn(2L);
-        when(parcelRepository.countByCondominiumIdAndStatusNot(1L, ParcelStatus.DELIVERED)).thenReturn(1L);
+        when(parcelRepository.countPendingByCondominiumId(1L)).thenReturn(1L);
+        when(bookingCountRepository.countStartingBetween(1L, null, dayStart, dayEnd)).thenReturn(4L);
 
         var stats = dashboardService.getStats(1L, user);
 
-        assertNotNull(stats);
         assertEquals(10L, stats.getTotalMoradores());
+        assertEquals(4L, stats.getReservasHoje());
     }
 
     @Test
     void getStats_paraMorador_retornaMinhasEstatisticas() {
         UserPrincipal user = createUser(List.of("MORADOR"));
         when(complaintRepository.countByCondominiumIdAndComplainantIdAndStatus(1L, 1L, ComplaintStatus.OPEN)).thenReturn(0L);
-        when(parcelRepository.countByRecipientIdAndStatusNot(1L, ParcelStatus.DELIVERED)).thenReturn(1L);
+        when(parcelRepository.countPendingByRecipientId(1L)).thenReturn(1L);
+        when(bookingCountRepository.countStartingBetween(1L, 1L, dayStart, dayEnd)).thenReturn(1L);
 
         var stats = dashboardService.getStats(1L, user);
 
         assertNotNull(stats);
         assertEquals(1L, stats.getEncomendasPendentes());
+        assertEquals(1L, stats.getReservasHoje());
+        verifyNoInteractions(countersRepository);
+    }
+
+    @Test
+    void getUnitActivity_paraMorador_mapeiaLinhasEContaTotal() {
+        UserPrincipal user = createUser(List.of("MORADOR"));
+        Instant now = Instant.now();
+        when(unitActivityRepository.findPage(eq(1L), eq(UnitActivityRepository.Owner.USER), eq(1L), any(Instant.class),
+                isNull(), eq(0L), eq(11)))
+                .thenReturn(List.of(
+                        new Row(UnitActivityCursor.KIND_PARCEL, 7L, null, "Pacote", now),
+                        new Row(UnitActivityCursor.KIND_COMPLAINT, 3L, "Reclamacao", "x".repeat(81), now.minusSeconds(5))));
+        when(unitActivityRepository.count(eq(1L), eq(UnitActivityRepository.Owner.USER), eq(1L), any(Instant.class)))
+                .thenReturn(2L);
+
+        var result = dashboardService.getUnitActivity(1L, user, 0, 10, null);
+
+        assertEquals(2, result.getContent().size());
+        UnitActivityItemDto parcel = result.getContent().get(0);
+        assertEquals("PARCEL", parcel.type());
+        assertEquals("Encomenda", parcel.title());
+        UnitActivityItemDto complaint = result.getContent().get(1);
+        assertEquals("COMPLAINT", complaint.type());
+        assertEquals("x".repeat(80) + "...", complaint.description());
+        assertEquals(2, result.getTotalElements());
+        assertEquals(1, result.getTotalPages());
+        assertTrue(result.isLast());
+        assertNull(result.getNextCursor());
     }
 
     @Test
-    void getUnitActivity_paraMorador_retornaDenunciasEEncomendas() {
+    void getUnitActivity_comCursor_paginaPorKeysetSemContar() {
         UserPrincipal user = createUser(List.of("MORADOR"));
-        Complaint c = new Complaint();
-        c.setId(1L);
-        c.setTitle("Reclamacao");
-        c.setDescription("Desc");
-        c.setCreatedAt(Instant.now());
-        Parcel p = new Parcel();
-        p.setId(1L);
-        p.setDescription("Pacote");
-        p.setCreatedAt(Instant.now());
-        when(complaintRepository.findByCondominiumIdAndComplainantIdAndCreatedAtGreaterThanEqualOrderByCreatedAtDesc(
-                eq(1L), eq(1L), any(Instant.class))).thenReturn(List.of(c));
-        when(parcelRepository.findByCondominiumIdAndRecipientIdAndCreatedAtGreaterThanEqualOrderByCreatedAtDesc(
-                eq(1L), eq(1L), any(Instant.class))).thenReturn(List.of(p));
-
-        var result = dashboardService.getUnitActivity(1L, user, 0, 10);
+        Instant now = Instant.now();
+        UnitActivityCursor after = new UnitActivityCursor(now, UnitActivityCursor.KIND_COMPLAINT, 9L);
+        when(unitActivityRepository.findPage(eq(1L), eq(UnitActivityRepository.Owner.USER), eq(1L), any(Instant.class),
+                eq(after), eq(0L), eq(3)))
+                .thenReturn(List.of(
+                        new Row(UnitActivityCursor.KIND_PARCEL, 5L, null, "a", now.minusSeconds(1)),
+                        new Row(UnitActivityCursor.KIND_COMPLAINT, 4L, "b", "b", now.minusSeconds(2)),
+                        new Row(UnitActivityCursor.KIND_PARCEL, 3L, null, "c", now.minusSeconds(3))));
+
+        var result = dashboardService.getUnitActivity(1L, user, 1, 2, after.encode());
+
+        assertEquals(2, result.getContent().size());
+        assertFalse(result.isLast());
+        assertEquals(new UnitActivityCursor(now.minusSeconds(2), UnitActivityCursor.KIND_COMPLAINT, 4L),
+                UnitActivityCursor.decode(result.getNextCursor()));
+        assertEquals(-1, result.getTotalElements());
+        verify(unitActivityRepository, never()).count(any(), any(), any(), any());
+    }
 
-        assertNotNull(result);
-        assertNotNull(result.getContent());
-        assertTrue(result.getContent().size() >= 1);
+    @Test
+    void getUnitActivity_semCursor_limitaTamanhoECalculaOffsetSemEstourar() {
+        UserPrincipal user = createUser(List.of("MORADOR"));
+        when(unitActivityRepository.findPage(eq(1L), eq(UnitActivityRepository.Owner.USER), eq(1L), any(Instant.class),
+                isNull(), anyLong(), anyInt())).thenReturn(List.of());
+
+        var result = dashboardService.getUnitActivity(1L, user, Integer.MAX_VALUE, Integer.MAX_VALUE, null);
+
+        verify(unitActivityRepository).findPage(eq(1L), eq(UnitActivityRepository.Owner.USER), eq(1L),
+                any(Instant.class), isNull(), eq((long) Integer.MAX_VALUE * CursorPage.MAX_SIZE),
+                eq(CursorPage.MAX_SIZE + 1));
+        assertEquals(CursorPage.MAX_SIZE, result.getSize());
+        assertTrue(result.getContent().isEmpty());
+    }
+
+    @Test
+    void getUnitActivity_comCursorInvalido_lancaBusinessException() {
+        UserPrincipal user = createUser(List.of("MORADOR"));
+
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> dashboardService.getUnitActivity(1L, user, 0, 10, "nao-e-cursor"));
+        assertEquals("INVALID_CURSOR", ex.getErrorCode());
+    }
+
+    @Test
+    void getUnitActivity_paraFuncionarioComUnidade_filtraPorUnidade() {
+        UserPrincipal user = createUser(List.of("PORTEIRO"));
+        Unit unit = new Unit();
+        unit.setId(42L);
+        UserCondominiumRole ucr = new UserCondominiumRole();
+        ucr.setUnit(unit);
+        when(userCondominiumRoleRepository.findByUserIdAndCondominiumId(1L, 1L)).thenReturn(Optional.of(ucr));
+        when(unitActivityRepository.findPage(eq(1L), eq(UnitActivityRepository.Owner.UNIT), eq(42L), any(Instant.class),
+                isNull(), eq(0L), eq(11))).thenReturn(List.of());
+
+        var result = dashboardService.getUnitActivity(1L, user, 0, 10, null);
+
+        assertTrue(result.getContent().isEmpty());
+        verify(unitActivityRepository).count(eq(1L), eq(UnitActivityRepository.Owner.UNIT), eq(42L), any(Instant.class));
     }
 
     @Test
@@ -112,9 +228,10 @@ class DashboardServiceTest {
         UserPrincipal user = createUser(List.of("SINDICO"));
         when(userCondominiumRoleRepository.findByUserIdAndCondominiumId(1L, 1L)).thenReturn(Optional.empty());
 
-        var result = dashboardService.getUnitActivity(1L, user, 0, 10);
+        var result = dashboardService.getUnitActivity(1L, user, 0, 10, null);
 
         assertNotNull(result);
         assertTrue(result.getContent().isEmpty());
+        verifyNoInteractions(unitActivityRepository);
     }
 }
@@ -0,0 +1,248 @@
+package com.convivium.module.notification.scheduler;
+
+import com.convivium.config.JpaTestConfig;
+import com.convivium.integration.whatsapp.WhatsAppDeliveryException;
+import com.convivium.integration.whatsapp.WhatsAppNotificationService;
+import com.convivium.module.notification.entity.Notification;
+import com.convivium.module.notification.entity.WhatsAppMessageType;
+import com.convivium.module.notification.entity.WhatsAppOutboxMessage;
+import com.convivium.module.notification.entity.WhatsAppOutboxStatus;
+import com.convivium.module.notification.repository.NotificationRepository;
+import com.convivium.module.notification.repository.WhatsAppOutboxRepository;
+import com.convivium.module.notification.service.WhatsAppOutboxProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.repository.config.BootstrapMode;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/** Sem transação de teste: o dispatcher usa transações próprias e um pool de threads real. */
+@DataJpaTest(bootstrapMode = BootstrapMode.LAZY)
+@ActiveProfiles("test")
+@Import(JpaTestConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class WhatsAppOutboxDispatcherTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-10T12:00:00Z");
+
+    @Autowired
+    private WhatsAppOutboxRepository outboxRepository;
+    @Autowired
+    private NotificationRepository notificationRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final WhatsAppNotificationService transport = mock(WhatsAppNotificationService.class);
+    private final WhatsAppOutboxProperties properties = new WhatsAppOutboxProperties();
+    private final MutableClock clock = new MutableClock(NOW);
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private WhatsAppOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        properties.setMaxAttempts(3);
+        properties.setBackoffBaseMs(5_000);
+        properties.setBackoffMaxMs(60_000);
+        dispatcher = new WhatsAppOutboxDispatcher(outboxRepository, notificationRepository, transport, properties,
+                new ObjectMapper(), new TransactionTemplate(transactionManager), executor, Duration.ofSeconds(13),
+                new SimpleMeterRegistry(), clock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        outboxRepository.deleteAll();
+        notificationRepository.deleteAll();
+    }
+
+    @Test
+    void dispatchDue_sendsWithIdempotencyKeyAndMarksNotificationSent() {
+        WhatsAppOutboxMessage message = persist("parcel:10:received", WhatsAppMessageType.ENCOMENDA_TEMPLATE,
+                "{\"residentName\":\"Ana\",\"residentCode\":\"123456\"}");
+
+        assertThat(dispatcher.dispatchDue()).isEqualTo(1);
+
+        verify(transport).sendEncomendaNotification("11999999999", "Ana", "123456", "parcel:10:received");
+        WhatsAppOutboxMessage stored = outboxRepository.findById(message.getId()).orElseThrow();
+        assertThat(stored.getStatus()).isEqualTo(WhatsAppOutboxStatus.SENT);
+        assertThat(stored.getAttempts()).isEqualTo(1);
+        assertThat(stored.getClaimToken()).isNull();
+        Notification notification = notificationRepository.findById(message.getNotificationId()).orElseThrow();
+        assertThat(notification.getDeliveryStatus()).isEqualTo("SENT");
+        assertThat(notification.getSentAt()).isEqualTo(NOW);
+        assertThat(dispatcher.dispatchDue()).isZero();
+    }
+
+    @Test
+    void dispatchDue_retriesTransientFailureWithBackoff() {
+        WhatsAppOutboxMessage message = persist("parcel:10:photo:7", WhatsAppMessageType.ENCOMENDA_PHOTO,
+                "{\"imageUrl\":\"/uploads/a.jpg\"}");
+        doThrow(new WhatsAppDeliveryException("WhatsApp API respondeu 503", true))
+                .doNothing()
+                .when(transport).sendEncomendaPhoto(any(), any(), any());
+
+        dispatcher.dispatchDue();
+
+        WhatsAppOutboxMessage stored = outboxRepository.findById(message.getId()).orElseThrow();
+        assertThat(stored.getStatus()).isEqualTo(WhatsAppOutboxStatus.PENDING);
+        assertThat(stored.getAttempts()).isEqualTo(1);
+        assertThat(stored.getNextAttemptAt()).isEqualTo(NOW.plusSeconds(5));
+        assertThat(stored.getLastError()).contains("503");
+        assertThat(dispatcher.dispatchDue()).isZero(); // ainda no backoff
+
+        clock.now = NOW.plusSeconds(5);
+        assertThat(dispatcher.dispatchDue()).isEqualTo(1);
+
+        assertThat(outboxRepository.findById(message.getId()).orElseThrow().getStatus()).isEqualTo(WhatsAppOutboxStatus.SENT);
+        verify(transport, times(2)).sendEncomendaPhoto("11999999999", "/uploads/a.jpg", "parcel:10:photo:7");
+    }
+
+    @Test
+    void dispatchDue_marksFailedOnPermanentErrorOrAfterMaxAttempts() {
+        WhatsAppOutboxMessage invalid = persist("parcel:10:received", WhatsAppMessageType.ENCOMENDA_TEMPLATE, "{}");
+        WhatsAppOutboxMessage flaky = persist("parcel:11:photo:8", WhatsAppMessageType.ENCOMENDA_PHOTO,
+                "{\"imageUrl\":\"/uploads/b.jpg\"}");
+        doThrow(new WhatsAppDeliveryException("WhatsApp: telefone invalido", false))
+                .when(transport).sendEncomendaNotification(any(), any(), any(), any());
+        doThrow(new IllegalStateException("timeout"))
+                .when(transport).sendEncomendaPhoto(any(), any(), any());
+
+        for (int i = 0; i < properties.getMaxAttempts(); i++) {
+            dispatcher.dispatchDue();
+            clock.now = clock.now.plus(Duration.ofMinutes(5));
+        }
+
+        assertThat(outboxRepository.findById(invalid.getId()).orElseThrow().getAttempts()).isEqualTo(1);
+        assertThat(outboxRepository.findById(flaky.getId()).orElseThrow().getAttempts()).isEqualTo(3);
+        for (WhatsAppOutboxMessage message : new WhatsAppOutboxMessage[]{invalid, flaky}) {
+            assertThat(outboxRepository.findById(message.getId()).orElseThrow().getStatus())
+                    .isEqualTo(WhatsAppOutboxStatus.FAILED);
+            assertThat(notificationRepository.findById(message.getNotificationId()).orElseThrow().getDeliveryStatus())
+                    .isEqualTo("FAILED");
+        }
+        verify(transport, times(1)).sendEncomendaNotification(any(), any(), any(), any());
+    }
+
+    @Test
+    void dispatchDue_skipsMessagesLeasedByAnotherWorker() {
+        WhatsAppOutboxMessage message = persist("parcel:10:received", WhatsAppMessageType.ENCOMENDA_TEMPLATE,
+                "{\"residentName\":\"Ana\",\"residentCode\":\"123456\"}");
+        message.setClaimToken("outro-worker");
+        message.setClaimedUntil(NOW.plusSeconds(60));
+        outboxRepository.save(message);
+
+        assertThat(dispatcher.dispatchDue()).isZero();
+
+        clock.now = NOW.plusSeconds(61); // worker caiu: lease expirou
+        assertThat(dispatcher.dispatchDue()).isEqualTo(1);
+        verify(transport).sendEncomendaNotification("11999999999", "Ana", "123456", "parcel:10:received");
+    }
+
+    @Test
+    void claimSize_fitsWorstCaseSendsInHalfTheLease() {
+        properties.setConcurrency(4);
+        properties.setLeaseMs(60_000);
+        properties.setBatchSize(50);
+        assertThat(dispatcher.claimSize()).isEqualTo(8); // 30 s / 13 s = 2 rodadas de 4
+
+        properties.setLeaseMs(10_000); // lease menor que um envio: ainda uma rodada por reserva
+        assertThat(dispatcher.claimSize()).isEqualTo(4);
+
+        properties.setLeaseMs(600_000);
+        properties.setBatchSize(10);
+        assertThat(dispatcher.claimSize()).isEqualTo(10);
+    }
+
+    @Test
+    void dispatchDue_claimsInLeaseSizedChunksUpToBatchSize() {
+        properties.setConcurrency(2);
+        properties.setLeaseMs(26_000); // 13 s / 13 s = 1 rodada: reservas de 2
+        properties.setBatchSize(5);
+        for (int i = 0; i < 7; i++) {
+            persist("parcel:" + i + ":received", WhatsAppMessageType.ENCOMENDA_TEMPLATE,
+                    "{\"residentName\":\"Ana\",\"residentCode\":\"123456\"}");
+        }
+        WhatsAppOutboxRepository spyRepository = spy(outboxRepository);
+        dispatcher = new WhatsAppOutboxDispatcher(spyRepository, notificationRepository, transport, properties,
+                new ObjectMapper(), new TransactionTemplate(transactionManager), executor, Duration.ofSeconds(13),
+                new SimpleMeterRegistry(), clock);
+
+        assertThat(dispatcher.dispatchDue()).isEqualTo(5);
+        assertThat(dispatcher.dispatchDue()).isEqualTo(2);
+
+        verify(spyRepository, times(4)).claim(argThat(ids -> ids.size() <= 2), any(), eq(NOW.plusMillis(26_000)), any());
+        verify(transport, times(7)).sendEncomendaNotification(any(), any(), any(), any());
+        assertThat(outboxRepository.findAll()).allMatch(m -> m.getStatus() == WhatsAppOutboxStatus.SENT);
+    }
+
+    @Test
+    void backoff_doublesUpToMax() {
+        assertThat(dispatcher.backoff(1)).isEqualTo(Duration.ofSeconds(5));
+        assertThat(dispatcher.backoff(2)).isEqualTo(Duration.ofSeconds(10));
+        assertThat(dispatcher.backoff(4)).isEqualTo(Duration.ofSeconds(40));
+        assertThat(dispatcher.backoff(10)).isEqualTo(Duration.ofSeconds(60));
+    }
+
+    private WhatsAppOutboxMessage persist(String key, WhatsAppMessageType type, String payload) {
+        Notification notification = notificationRepository.save(Notification.builder()
+                .userId(5L)
+                .condominiumId(1L)
+                .title(type.getTitle())
+                .message(type.getMessage())
+                .type(type.getNotificationType())
+                .channel("WHATSAPP")
+                .build());
+        return outboxRepository.save(WhatsAppOutboxMessage.builder()
+                .notificationId(notification.getId())
+                .idempotencyKey(key)
+                .messageType(type)
+                .toPhone("11999999999")
+                .payload(payload)
+                .nextAttemptAt(NOW)
+                .createdAt(NOW)
+                .build());
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.convivium.module.notification.service;
+
+import com.convivium.config.JpaTestConfig;
+import com.convivium.module.notification.dto.WhatsAppOutboxRequest;
+import com.convivium.module.notification.entity.Notification;
+import com.convivium.module.notification.entity.WhatsAppMessageType;
+import com.convivium.module.notification.entity.WhatsAppOutboxMessage;
+import com.convivium.module.notification.entity.WhatsAppOutboxStatus;
+import com.convivium.module.notification.repository.NotificationRepository;
+import com.convivium.module.notification.repository.WhatsAppOutboxInsertRepository;
+import com.convivium.module.notification.repository.WhatsAppOutboxRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.repository.config.BootstrapMode;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(bootstrapMode = BootstrapMode.LAZY)
+@ActiveProfiles("test")
+@Import({JpaTestConfig.class, WhatsAppOutboxInsertRepository.class})
+class WhatsAppOutboxServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-10T12:00:00Z");
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private WhatsAppOutboxInsertRepository insertRepository;
+    @Autowired
+    private WhatsAppOutboxRepository outboxRepository;
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Test
+    void enqueueAll_writesPendingNotificationAndOutboxRowPerMessage() {
+        WhatsAppOutboxService service = service(true);
+
+        int written = service.enqueueAll(List.of(
+                WhatsAppOutboxRequest.encomenda(1L, 10L, 5L, "11999999999", "Ana", "123456"),
+                WhatsAppOutboxRequest.encomendaPhoto(1L, 10L, 7L, 5L, "11999999999", "/uploads/parcels/10/a.jpg")));
+        entityManager.clear();
+
+        assertThat(written).isEqualTo(2);
+        List<WhatsAppOutboxMessage> messages = outboxRepository.findAll();
+        assertThat(messages).extracting(WhatsAppOutboxMessage::getIdempotencyKey)
+                .containsExactlyInAnyOrder("parcel:10:received", "parcel:10:photo:7");
+        WhatsAppOutboxMessage template = messages.stream()
+                .filter(m -> m.getMessageType() == WhatsAppMessageType.ENCOMENDA_TEMPLATE).findFirst().orElseThrow();
+        assertThat(template.getStatus()).isEqualTo(WhatsAppOutboxStatus.PENDING);
+        assertThat(template.getNextAttemptAt()).isEqualTo(NOW);
+        assertThat(template.getPayload()).contains("\"residentCode\":\"123456\"");
+
+        Notification notification = notificationRepository.findById(template.getNotificationId()).orElseThrow();
+        assertThat(notification.getUserId()).isEqualTo(5L);
+        assertThat(notification.getChannel()).isEqualTo("WHATSAPP");
+        assertThat(notification.getType()).isEqualTo("PARCEL_RECEIVED");
+        assertThat(notification.getReferenceId()).isEqualTo(10L);
+        assertThat(notification.getDeliveryStatus()).isEqualTo("PENDING");
+    }
+
+    @Test
+    void enqueueAll_skipsKnownKeysDuplicatesAndRecipientsWithoutPhone() {
+        WhatsAppOutboxService service = service(true);
+        service.enqueue(WhatsAppOutboxRequest.encomenda(1L, 10L, 5L, "11999999999", "Ana", "123456"));
+
+        int written = service.enqueueAll(List.of(
+                WhatsAppOutboxRequest.encomenda(1L, 10L, 5L, "11999999999", "Ana", "123456"),
+                WhatsAppOutboxRequest.encomenda(1L, 11L, 6L, "11888888888", "Bia", "654321"),
+                WhatsAppOutboxRequest.encomenda(1L, 11L, 6L, "11888888888", "Bia", "654321"),
+                WhatsAppOutboxRequest.encomenda(1L, 12L, 7L, " ", "Caio", "111111")));
+
+        assertThat(written).isEqualTo(1);
+        assertThat(outboxRepository.count()).isEqualTo(2);
+        assertThat(notificationRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void enqueueAll_doesNothingWhenWhatsAppIsDisabled() {
+        int written = service(false).enqueueAll(List.of(
+                WhatsAppOutboxRequest.encomenda(1L, 10L, 5L, "11999999999", "Ana", "123456")));
+
+        assertThat(written).isZero();
+        assertThat(outboxRepository.count()).isZero();
+    }
+
+    private WhatsAppOutboxService service(boolean enabled) {
+        return new WhatsAppOutboxService(insertRepository, outboxRepository, new ObjectMapper(), enabled,
+                Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+}
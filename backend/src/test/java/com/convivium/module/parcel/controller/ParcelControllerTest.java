@@ -1,9 +1,13 @@
 package com.convivium.module.parcel.controller;
 
+import com.convivium.common.dto.PageResponse;
+import com.convivium.common.exception.TooManyAttemptsException;
 import com.convivium.config.MockMvcSecurityConfig;
 import com.convivium.module.condominium.repository.CondominiumRepository;
+import com.convivium.module.parcel.dto.ParcelBatchCreateRequest;
 import com.convivium.module.parcel.dto.ParcelCreateRequest;
 import com.convivium.module.parcel.dto.ParcelListResponse;
+import com.convivium.module.parcel.dto.ParcelVerifyRequest;
 import com.convivium.module.parcel.service.ParcelService;
 import com.convivium.module.user.repository.UserRepository;
 import com.convivium.security.TestSecurityUtils;
@@ -23,6 +27,7 @@ import java.util.List;
 
 import static com.convivium.security.TestSecurityUtils.withUserPrincipal;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
@@ -52,7 +57,7 @@ class ParcelControllerTest {
     @Test
     void listParcels_returnsOk() throws Exception {
         ParcelListResponse plr = new ParcelListResponse(1L, "101", null, null, null, null, null, "RECEIVED", null, null);
-        when(parcelService.listParcels(eq(1L), any(), any())).thenReturn(new PageImpl<>(List.of(plr)));
+        when(parcelService.listParcels(eq(1L), any(), any(), any())).thenReturn(PageResponse.from(new PageImpl<>(List.of(plr))));
         mockMvc.perform(get("/api/v1/condos/1/parcels").with(withUserPrincipal()))
                 .andExpect(status().isOk()).andExpect(jsonPath("$.success").value(true));
     }
@@ -70,6 +75,97 @@ class ParcelControllerTest {
                 .andExpect(status().isCreated()).andExpect(jsonPath("$.success").value(true));
     }
 
+    @Test
+    void createParcels_returnsCreated() throws Exception {
+        ParcelListResponse plr = new ParcelListResponse(1L, "101", null, null, "Correios", null, null, "RECEIVED", null, null);
+        when(parcelService.createParcels(eq(1L), eq(1L), anyList())).thenReturn(List.of(plr, plr));
+        ParcelBatchCreateRequest req = new ParcelBatchCreateRequest(List.of(
+                new ParcelCreateRequest(10L, null, "Correios", null, null),
+                new ParcelCreateRequest(11L, null, "Correios", null, null)));
+        mockMvc.perform(post("/api/v1/condos/1/parcels/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(req))
+                        .with(withUserPrincipal())
+                        .with(csrf()))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.data.length()").value(2));
+    }
+
+    @Test
+    void createParcels_rejectsItemWithoutUnit() throws Exception {
+        ParcelBatchCreateRequest req = new ParcelBatchCreateRequest(List.of(
+                new ParcelCreateRequest(null, null, "Correios", null, null)));
+        mockMvc.perform(post("/api/v1/condos/1/parcels/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(req))
+                        .with(withUserPrincipal())
+                        .with(csrf()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void createParcels_asMorador_returnsForbidden() throws Exception {
+        ParcelBatchCreateRequest req = new ParcelBatchCreateRequest(List.of(
+                new ParcelCreateRequest(10L, null, "Correios", null, null)));
+        mockMvc.perform(post("/api/v1/condos/1/parcels/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(req))
+                        .with(withUserPrincipal(1L, 1L, "MORADOR"))
+                        .with(csrf()))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void pickupByCode_returnsDeliveredParcel() throws Exception {
+        ParcelListResponse plr = new ParcelListResponse(7L, "101", "Morador", null, "Correios", null, null, "DELIVERED", null, null);
+        when(parcelService.pickupByCode(eq(1L), any(ParcelVerifyRequest.class), eq(1L))).thenReturn(plr);
+        mockMvc.perform(post("/api/v1/condos/1/parcels/pickup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ParcelVerifyRequest("482913", null)))
+                        .with(withUserPrincipal(1L, 1L, "PORTEIRO"))
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.id").value(7))
+                .andExpect(jsonPath("$.data.status").value("DELIVERED"));
+    }
+
+    @Test
+    void pickupByCode_whenThrottled_returnsTooManyRequests() throws Exception {
+        when(parcelService.pickupByCode(eq(1L), any(ParcelVerifyRequest.class), eq(1L)))
+                .thenThrow(new TooManyAttemptsException("Muitos codigos incorretos.", "TOO_MANY_PICKUP_ATTEMPTS", 120));
+        mockMvc.perform(post("/api/v1/condos/1/parcels/pickup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ParcelVerifyRequest("000000", null)))
+                        .with(withUserPrincipal(1L, 1L, "PORTEIRO"))
+                        .with(csrf()))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "120"))
+                .andExpect(jsonPath("$.errorCode").value("TOO_MANY_PICKUP_ATTEMPTS"));
+    }
+
+    @Test
+    void pickupByCode_asMorador_returnsForbidden() throws Exception {
+        mockMvc.perform(post("/api/v1/condos/1/parcels/pickup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ParcelVerifyRequest("482913", null)))
+                        .with(withUserPrincipal(1L, 1L, "MORADOR"))
+                        .with(csrf()))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void listParcels_asMorador_returnsForbidden() throws Exception {
+        mockMvc.perform(get("/api/v1/condos/1/parcels").with(withUserPrincipal(1L, 1L, "MORADOR")))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void listParcels_asPlatformAdmin_returnsOk() throws Exception {
+        when(parcelService.listParcels(eq(1L), any(), any(), any())).thenReturn(PageResponse.from(new PageImpl<>(List.of())));
+        mockMvc.perform(get("/api/v1/condos/1/parcels").with(withUserPrincipal(1L, 1L, "PLATFORM_ADMIN")))
+                .andExpect(status().isOk());
+    }
+
     @Test
     void getMyParcels_returnsOk() throws Exception {
         when(parcelService.getMyParcels(eq(1L), eq(1L), eq(null), any())).thenReturn(new PageImpl<>(List.of()));
@@ -0,0 +1,71 @@
+package com.convivium.module.parcel.repository;
+
+import com.convivium.config.JpaTestConfig;
+import com.convivium.module.condominium.entity.Condominium;
+import com.convivium.module.condominium.entity.Unit;
+import com.convivium.module.parcel.entity.Parcel;
+import com.convivium.module.parcel.entity.ParcelStatus;
+import com.convivium.module.user.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.repository.config.BootstrapMode;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(bootstrapMode = BootstrapMode.LAZY)
+@ActiveProfiles("test")
+@Import({JpaTestConfig.class, ParcelBatchInsertRepository.class})
+class ParcelBatchInsertRepositoryTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-10T12:00:00Z");
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private ParcelBatchInsertRepository batchInsertRepository;
+    @Autowired
+    private ParcelRepository parcelRepository;
+
+    @Test
+    void insertAll_assignsGeneratedIdsInRequestOrder() {
+        Long condoId = entityManager.persist(Condominium.builder().name("Residencial").slug("residencial").build()).getId();
+        Unit unit = entityManager.persist(Unit.builder().condominiumId(condoId).identifier("101").build());
+        User porteiro = entityManager.persist(User.builder().email("porteiro@condominio.com").name("Porteiro").passwordHash("hash").build());
+        User morador = entityManager.persist(User.builder().email("morador@condominio.com").name("Morador").passwordHash("hash").build());
+        entityManager.flush();
+
+        List<Parcel> parcels = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            parcels.add(Parcel.builder()
+                    .condominiumId(condoId)
+                    .unit(unit)
+                    .recipient(i % 3 == 0 ? null : morador)
+                    .receivedBy(porteiro)
+                    .carrier("Transportadora " + i)
+                    .status(ParcelStatus.RECEIVED)
+                    .residentCode(String.format("%06d", i))
+                    .build());
+        }
+
+        batchInsertRepository.insertAll(parcels, NOW);
+        entityManager.clear();
+
+        assertThat(parcels).allSatisfy(p -> assertThat(p.getId()).isNotNull());
+        assertThat(parcels).extracting(Parcel::getId).doesNotHaveDuplicates().isSorted();
+        for (Parcel inserted : parcels) {
+            Parcel stored = parcelRepository.findByIdAndCondominiumId(inserted.getId(), condoId).orElseThrow();
+            assertThat(stored.getCarrier()).isEqualTo(inserted.getCarrier());
+            assertThat(stored.getResidentCode()).isEqualTo(inserted.getResidentCode());
+            assertThat(stored.getRecipient() == null).isEqualTo(inserted.getRecipient() == null);
+            assertThat(stored.getCreatedAt()).isEqualTo(NOW);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.convivium.module.parcel.repository;
+
+import com.convivium.common.dto.CursorPage;
+import com.convivium.config.JpaTestConfig;
+import com.convivium.config.StatementCounter;
+import com.convivium.module.condominium.entity.Condominium;
+import com.convivium.module.condominium.entity.Unit;
+import com.convivium.module.parcel.dto.ParcelListRow;
+import com.convivium.module.parcel.entity.Parcel;
+import com.convivium.module.parcel.entity.ParcelStatus;
+import com.convivium.module.user.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.config.BootstrapMode;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(bootstrapMode = BootstrapMode.LAZY)
+@ActiveProfiles("test")
+@Import(JpaTestConfig.class)
+class ParcelRepositoryTest {
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "id");
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private ParcelRepository parcelRepository;
+    @Autowired
+    private StatementCounter statementCounter;
+
+    private Long condoId;
+    private User morador;
+
+    @BeforeEach
+    void setUp() {
+        condoId = entityManager.persistFlushFind(Condominium.builder()
+                .name("Residencial Teste")
+                .slug("residencial-teste")
+                .build()).getId();
+        morador = persistUser("morador@condominio.com", "Morador");
+        User porteiro = persistUser("porteiro@condominio.com", "Porteiro");
+
+        // cada encomenda em unidade/destinatário distintos: no modelo antigo seriam 3 lazy loads por linha
+        for (int i = 0; i < 25; i++) {
+            Unit unit = entityManager.persist(Unit.builder()
+                    .condominiumId(condoId)
+                    .identifier("Apto " + (100 + i))
+                    .build());
+            User recipient = i % 2 == 0 ? morador : persistUser("vizinho" + i + "@condominio.com", "Vizinho " + i);
+            entityManager.persist(Parcel.builder()
+                    .condominiumId(condoId)
+                    .unit(unit)
+                    .recipient(recipient)
+                    .receivedBy(porteiro)
+                    .carrier("Correios")
+                    .status(i % 5 == 0 ? ParcelStatus.DELIVERED : ParcelStatus.RECEIVED)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findListRowsByCondominiumId_mapsJoinedColumns() {
+        Page<ParcelListRow> page = parcelRepository.findListRowsByCondominiumId(condoId, PageRequest.of(0, 5, NEWEST_FIRST));
+
+        assertThat(page.getTotalElements()).isEqualTo(25);
+        assertThat(page.getContent()).hasSize(5).allSatisfy(row -> {
+            assertThat(row.unitIdentifier()).startsWith("Apto ");
+            assertThat(row.recipientName()).isNotBlank();
+            assertThat(row.receivedByName()).isEqualTo("Porteiro");
+            assertThat(row.carrier()).isEqualTo("Correios");
+            assertThat(row.createdAt()).isNotNull();
+        });
+    }
+
+    @Test
+    void findListRowsByCondominiumId_keepsParcelsWithoutUnitOrPorter() {
+        entityManager.persistAndFlush(Parcel.builder()
+                .condominiumId(condoId)
+                .description("Sem unidade")
+                .build());
+
+        ParcelListRow first = parcelRepository
+                .findListRowsByCondominiumId(condoId, PageRequest.of(0, 1, NEWEST_FIRST))
+                .getContent().get(0);
+
+        assertThat(first.description()).isEqualTo("Sem unidade");
+        assertThat(first.unitIdentifier()).isNull();
+        assertThat(first.recipientName()).isNull();
+        assertThat(first.receivedByName()).isNull();
+    }
+
+    @Test
+    void findListRowsByCondominiumIdAfter_continuesFromCursorWithoutCount() {
+        List<ParcelListRow> firstPage = parcelRepository
+                .findListRowsByCondominiumId(condoId, PageRequest.of(0, 10, CursorPage.NEWEST_FIRST)).getContent();
+        ParcelListRow last = firstPage.get(firstPage.size() - 1);
+
+        statementCounter.reset();
+        List<ParcelListRow> next = parcelRepository.findListRowsByCondominiumIdAfter(
+                condoId, last.createdAt(), last.id(), Limit.of(10));
+
+        assertThat(statementCounter.count()).isEqualTo(1);
+        List<Long> expected = parcelRepository
+                .findListRowsByCondominiumId(condoId, PageRequest.of(1, 10, CursorPage.NEWEST_FIRST))
+                .map(ParcelListRow::id).getContent();
+        assertThat(next).extracting(ParcelListRow::id).containsExactlyElementsOf(expected);
+        assertThat(parcelRepository.findListRowsByCondominiumIdAndStatusAfter(
+                condoId, ParcelStatus.DELIVERED, last.createdAt(), last.id(), Limit.of(10)))
+                .hasSize(3)
+                .allSatisfy(row -> assertThat(row.status()).isEqualTo(ParcelStatus.DELIVERED));
+    }
+
+    @Test
+    void condominiumListing_statementCountDoesNotGrowWithPageSize() {
+        long small = statementsFor(() -> parcelRepository.findListRowsByCondominiumId(condoId, PageRequest.of(0, 5, NEWEST_FIRST)));
+        long large = statementsFor(() -> parcelRepository.findListRowsByCondominiumId(condoId, PageRequest.of(0, 20, NEWEST_FIRST)));
+        long filtered = statementsFor(() -> parcelRepository.findListRowsByCondominiumIdAndStatus(
+                condoId, ParcelStatus.RECEIVED, PageRequest.of(0, 20, NEWEST_FIRST)));
+
+        assertThat(small).isLessThanOrEqualTo(2); // página + count
+        assertThat(large).isEqualTo(small);
+        assertThat(filtered).isEqualTo(small);
+    }
+
+    @Test
+    void recipientListing_statementCountDoesNotGrowWithPageSize() {
+        long small = statementsFor(() -> parcelRepository.findListRowsByRecipientId(morador.getId(), PageRequest.of(0, 3, NEWEST_FIRST)));
+        long large = statementsFor(() -> parcelRepository.findListRowsByRecipientIdAndStatus(
+                morador.getId(), ParcelStatus.RECEIVED, PageRequest.of(0, 3, NEWEST_FIRST)));
+        Page<ParcelListRow> page = parcelRepository.findListRowsByRecipientId(morador.getId(), PageRequest.of(0, 20, NEWEST_FIRST));
+
+        assertThat(small).isLessThanOrEqualTo(2);
+        assertThat(large).isEqualTo(small);
+        assertThat(page.getTotalElements()).isEqualTo(13);
+        assertThat(page.getContent()).extracting(ParcelListRow::recipientName).containsOnly("Morador");
+    }
+
+    @Test
+    void findPendingByResidentCode_matchesOnlyUndeliveredParcelsOfCondominium() {
+        Long outroCondo = entityManager.persist(Condominium.builder().name("Outro").slug("outro").build()).getId();
+        Parcel pending = persistWithCode(condoId, "482913", ParcelStatus.NOTIFIED);
+        persistWithCode(condoId, "482913", ParcelStatus.DELIVERED);
+        persistWithCode(outroCondo, "482913", ParcelStatus.RECEIVED);
+        persistWithCode(condoId, "111111", ParcelStatus.RECEIVED);
+        entityManager.flush();
+        entityManager.clear();
+
+        statementCounter.reset();
+        var matches = parcelRepository.findPendingByResidentCode(condoId, "482913", Limit.of(2));
+
+        assertThat(matches).extracting(Parcel::getId).containsExactly(pending.getId());
+        assertThat(matches.get(0).getRecipient().getName()).isEqualTo("Morador");
+        assertThat(statementCounter.count()).isEqualTo(1);
+        assertThat(parcelRepository.findPendingByResidentCode(condoId, "000000", Limit.of(2))).isEmpty();
+    }
+
+    @Test
+    void markDelivered_updatesOnlyWhileNotDelivered() {
+        Parcel parcel = persistWithCode(condoId, "482913", ParcelStatus.NOTIFIED);
+        entityManager.flush();
+        Instant now = Instant.parse("2026-03-01T12:00:00Z");
+
+        assertThat(parcelRepository.markDelivered(parcel.getId(), morador, now)).isEqualTo(1);
+        // segunda confirmação da mesma retirada (outra portaria): nada muda
+        assertThat(parcelRepository.markDelivered(parcel.getId(), morador, now.plusSeconds(1))).isZero();
+
+        Parcel delivered = parcelRepository.findById(parcel.getId()).orElseThrow();
+        assertThat(delivered.getStatus()).isEqualTo(ParcelStatus.DELIVERED);
+        assertThat(delivered.getDeliveredAt()).isEqualTo(now);
+        assertThat(delivered.getPickedUpBy().getId()).isEqualTo(morador.getId());
+    }
+
+    private long statementsFor(Runnable query) {
+        entityManager.clear();
+        statementCounter.reset();
+        query.run();
+        return statementCounter.count();
+    }
+
+    private Parcel persistWithCode(Long condominiumId, String code, ParcelStatus status) {
+        return entityManager.persist(Parcel.builder()
+                .condominiumId(condominiumId)
+                .recipient(morador)
+                .residentCode(code)
+                .status(status)
+                .build());
+    }
+
+    private User persistUser(String email, String name) {
+        return entityManager.persist(User.builder()
+                .email(email)
+                .name(name)
+                .passwordHash("hash")
+                .build());
+    }
+}
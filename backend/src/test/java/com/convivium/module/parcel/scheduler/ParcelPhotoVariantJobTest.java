@@ -0,0 +1,44 @@
+package com.convivium.module.parcel.scheduler;
+
+import com.convivium.module.parcel.repository.ParcelPhotoRepository;
+import com.convivium.module.parcel.service.ParcelPhotoProperties;
+import com.convivium.module.parcel.service.ParcelPhotoService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ParcelPhotoVariantJobTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-10T12:00:00Z");
+
+    @Mock
+    private ParcelPhotoRepository photoRepository;
+    @Mock
+    private ParcelPhotoService photoService;
+
+    @Test
+    void resubmitPending_requeuesPhotosOlderThanRecoveryDelay() {
+        ParcelPhotoProperties properties = new ParcelPhotoProperties();
+        properties.setRecoveryDelayMs(120_000);
+        properties.setRecoveryBatchSize(10);
+        ParcelPhotoVariantJob job = new ParcelPhotoVariantJob(photoRepository, photoService, properties,
+                Clock.fixed(NOW, ZoneOffset.UTC));
+        when(photoRepository.findPendingVariantIds(NOW.minusSeconds(120), Limit.of(10))).thenReturn(List.of(4L, 9L));
+
+        assertThat(job.resubmitPending()).isEqualTo(2);
+
+        verify(photoService).submit(4L);
+        verify(photoService).submit(9L);
+    }
+}
@@ -0,0 +1,216 @@
+package com.convivium.module.parcel.service;
+
+import com.convivium.config.JpaTestConfig;
+import com.convivium.module.condominium.entity.Condominium;
+import com.convivium.module.condominium.repository.CondominiumRepository;
+import com.convivium.module.notification.dto.WhatsAppOutboxRequest;
+import com.convivium.module.notification.service.WhatsAppOutboxService;
+import com.convivium.module.parcel.entity.Parcel;
+import com.convivium.module.parcel.entity.ParcelPhoto;
+import com.convivium.module.parcel.entity.ParcelStatus;
+import com.convivium.module.parcel.entity.PhotoVariantsStatus;
+import com.convivium.module.parcel.repository.ParcelPhotoRepository;
+import com.convivium.module.parcel.repository.ParcelRepository;
+import com.convivium.module.user.entity.User;
+import com.convivium.module.user.repository.UserRepository;
+import com.convivium.storage.LocalFileStorageService;
+import com.convivium.storage.StorageException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.repository.config.BootstrapMode;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/** Sem transação de teste: as variantes são geradas após o commit, em outra thread. */
+@DataJpaTest(bootstrapMode = BootstrapMode.LAZY)
+@ActiveProfiles("test")
+@Import(JpaTestConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ParcelPhotoServiceTest {
+
+    @TempDir
+    Path uploads;
+
+    @Autowired
+    private ParcelPhotoRepository photoRepository;
+    @Autowired
+    private ParcelRepository parcelRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CondominiumRepository condominiumRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final WhatsAppOutboxService whatsAppOutbox = mock(WhatsAppOutboxService.class);
+    private final ParcelPhotoProperties properties = new ParcelPhotoProperties();
+    private ExecutorService executor;
+    private TransactionTemplate transactionTemplate;
+    private LocalFileStorageService storage;
+    private ParcelPhotoService service;
+    private Condominium condo;
+    private User morador;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        executor = Executors.newSingleThreadExecutor();
+        storage = spy(new LocalFileStorageService(uploads.toString()));
+        service = new ParcelPhotoService(photoRepository, storage, whatsAppOutbox, properties, transactionTemplate, executor);
+        condo = condominiumRepository.save(Condominium.builder().name("Residencial Teste").slug("residencial-teste").build());
+        morador = userRepository.save(User.builder().email("morador@condominio.com").name("Morador")
+                .passwordHash("hash").phone("11999990000").build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        photoRepository.deleteAll();
+        parcelRepository.deleteAll();
+        userRepository.deleteAll();
+        condominiumRepository.deleteAll();
+    }
+
+    @Test
+    void upload_storesByContentHashAndGeneratesVariantsAfterCommit() throws Exception {
+        Long parcelId = parcel();
+        MockMultipartFile file = jpeg("foto.jpg", 2000, 1500);
+
+        Long photoId = upload(parcelId, file, "jpg");
+        ParcelPhoto pending = photoRepository.findById(photoId).orElseThrow();
+        assertThat(pending.getStorageKey()).matches("parcels/photos/" + condo.getId() + "/[0-9a-f]{64}\\.jpg");
+        assertThat(pending.getPhotoUrl()).isEqualTo("/uploads/" + pending.getStorageKey());
+        assertThat(pending.getSizeBytes()).isEqualTo(file.getSize());
+
+        drain();
+
+        ParcelPhoto photo = photoRepository.findById(photoId).orElseThrow();
+        assertThat(photo.getVariantsStatus()).isEqualTo(PhotoVariantsStatus.READY);
+        assertThat(dimensions(photo.getThumbnailUrl())).containsExactly(320, 240);
+        assertThat(dimensions(photo.getPreviewUrl())).containsExactly(1280, 960);
+        ArgumentCaptor<WhatsAppOutboxRequest> request = ArgumentCaptor.forClass(WhatsAppOutboxRequest.class);
+        verify(whatsAppOutbox).enqueue(request.capture());
+        assertThat(request.getValue().params()).containsEntry("imageUrl", photo.getPreviewUrl());
+        assertThat(request.getValue().idempotencyKey()).isEqualTo("parcel:" + parcelId + ":photo:" + photoId);
+    }
+
+    @Test
+    void upload_sameContentInCondominium_reusesStoredObjectAndVariants() throws Exception {
+        MockMultipartFile file = jpeg("foto.jpg", 800, 600);
+        Long first = upload(parcel(), file, "jpg");
+        drain();
+        ParcelPhoto original = photoRepository.findById(first).orElseThrow();
+        clearInvocations(storage, whatsAppOutbox);
+
+        Long otherParcel = parcel();
+        Long second = upload(otherParcel, jpeg("outra-copia.jpg", 800, 600), "jpg");
+
+        ParcelPhoto copy = photoRepository.findById(second).orElseThrow();
+        assertThat(copy.getStorageKey()).isEqualTo(original.getStorageKey());
+        assertThat(copy.getVariantsStatus()).isEqualTo(PhotoVariantsStatus.READY);
+        assertThat(copy.getThumbnailUrl()).isEqualTo(original.getThumbnailUrl());
+        verify(storage, never()).store(anyString(), any(InputStream.class), anyLong(), any());
+        verify(whatsAppOutbox).enqueue(argThat(r -> r.parcelId().equals(otherParcel)
+                && original.getPreviewUrl().equals(r.params().get("imageUrl"))));
+        try (Stream<Path> files = Files.walk(uploads)) {
+            assertThat(files.filter(Files::isRegularFile)).hasSize(3);
+        }
+    }
+
+    @Test
+    void upload_sameFileTwiceOnSameParcel_keepsOnePhoto() throws Exception {
+        Long parcelId = parcel();
+        Long first = upload(parcelId, jpeg("foto.jpg", 400, 300), "jpg");
+        Long retry = upload(parcelId, jpeg("foto.jpg", 400, 300), "jpg");
+
+        assertThat(retry).isEqualTo(first);
+        assertThat(photoRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void generateVariants_undecodableFile_marksFailedAndSendsOriginal() {
+        Long photoId = upload(parcel(), new MockMultipartFile("file", "foto.jpg", "image/jpeg",
+                "nao e uma imagem".getBytes()), "jpg");
+
+        drain();
+
+        ParcelPhoto photo = photoRepository.findById(photoId).orElseThrow();
+        assertThat(photo.getVariantsStatus()).isEqualTo(PhotoVariantsStatus.FAILED);
+        assertThat(photo.getThumbnailUrl()).isNull();
+        verify(whatsAppOutbox).enqueue(argThat(r -> photo.getPhotoUrl().equals(r.params().get("imageUrl"))));
+    }
+
+    @Test
+    void generateVariants_storageFailure_leavesPhotoPendingForRetry() throws Exception {
+        Long photoId = upload(parcel(), jpeg("foto.jpg", 400, 300), "jpg");
+        doThrow(new StorageException("indisponivel", null)).when(storage).open(anyString());
+
+        drain();
+
+        assertThat(photoRepository.findById(photoId).orElseThrow().getVariantsStatus())
+                .isEqualTo(PhotoVariantsStatus.PENDING);
+        verifyNoInteractions(whatsAppOutbox);
+    }
+
+    private Long parcel() {
+        return parcelRepository.save(Parcel.builder()
+                .condominiumId(condo.getId())
+                .recipient(morador)
+                .carrier("Correios")
+                .status(ParcelStatus.RECEIVED)
+                .build()).getId();
+    }
+
+    private Long upload(Long parcelId, MockMultipartFile file, String extension) {
+        return transactionTemplate.execute(status -> {
+            Parcel parcel = parcelRepository.findById(parcelId).orElseThrow();
+            return service.upload(parcel, file, extension, "RECEIPT", morador.getId()).getId();
+        });
+    }
+
+    /** Espera as variantes agendadas no commit. */
+    private void drain() {
+        executor.shutdown();
+        try {
+            assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int[] dimensions(String url) throws IOException {
+        BufferedImage image = ImageIO.read(uploads.resolve(url.substring("/uploads/".length())).toFile());
+        return new int[]{image.getWidth(), image.getHeight()};
+    }
+
+    private static MockMultipartFile jpeg(String name, int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "jpg", out);
+        return new MockMultipartFile("file", name, "image/jpeg", out.toByteArray());
+    }
+}
@@ -1,29 +1,38 @@
 package com.convivium.module.parcel.service;
 
+import com.convivium.common.dto.PageResponse;
 import com.convivium.common.exception.BusinessException;
 import com.convivium.common.exception.ResourceNotFoundException;
+import com.convivium.common.exception.TooManyAttemptsException;
 import com.convivium.module.condominium.entity.Unit;
 import com.convivium.module.condominium.repository.UnitRepository;
+import com.convivium.module.dashboard.service.DashboardCounterService;
+import com.convivium.module.notification.dto.WhatsAppOutboxRequest;
+import com.convivium.module.notification.entity.WhatsAppMessageType;
+import com.convivium.module.notification.service.WhatsAppOutboxService;
 import com.convivium.module.parcel.dto.ParcelCreateRequest;
 import com.convivium.module.parcel.dto.ParcelListResponse;
+import com.convivium.module.parcel.dto.ParcelListRow;
 import com.convivium.module.parcel.dto.ParcelVerifyRequest;
 import com.convivium.module.parcel.entity.Parcel;
 import com.convivium.module.parcel.entity.ParcelStatus;
+import com.convivium.module.parcel.repository.ParcelBatchInsertRepository;
 import com.convivium.module.parcel.repository.ParcelRepository;
 import com.convivium.module.parcel.repository.ParcelVerificationRepository;
 import com.convivium.module.user.entity.User;
+import com.convivium.module.user.repository.UserCondominiumRoleRepository;
 import com.convivium.module.user.repository.UserRepository;
 import com.convivium.security.UserPrincipal;
-import com.convivium.integration.whatsapp.WhatsAppNotificationService;
-import com.convivium.storage.FileStorageService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
 import java.util.List;
@@ -31,6 +40,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -44,11 +54,20 @@ class ParcelServiceTest {
     @Mock
     private UserRepository userRepository;
     @Mock
+    private UserCondominiumRoleRepository userCondominiumRoleRepository;
+    @Mock
     private UnitRepository unitRepository;
     @Mock
-    private FileStorageService fileStorageService;
+    private ParcelPhotoService parcelPhotoService;
+    @Mock
+    private WhatsAppOutboxService whatsAppOutbox;
+
+    @Mock
+    private DashboardCounterService dashboardCounterService;
+    @Mock
+    private ParcelBatchInsertRepository parcelBatchInsertRepository;
     @Mock
-    private WhatsAppNotificationService whatsAppService;
+    private PickupAttemptLimiter pickupAttemptLimiter;
 
     @InjectMocks
     private ParcelService parcelService;
@@ -56,8 +75,8 @@ class ParcelServiceTest {
     @Test
     void listParcels_returnsPage() {
         Parcel p = createParcel(1L);
-        when(parcelRepository.findByCondominiumId(eq(1L), any(Pageable.class))).thenReturn(new PageImpl<>(List.of(p)));
-        Page<ParcelListResponse> result = parcelService.listParcels(1L, null, Pageable.unpaged());
+        when(parcelRepository.findListRowsByCondominiumId(eq(1L), any(Pageable.class))).thenReturn(new PageImpl<>(List.of(row(p))));
+        PageResponse<ParcelListResponse> result = parcelService.listParcels(1L, null, Pageable.unpaged(), null);
         assertNotNull(result);
         assertEquals(1, result.getContent().size());
     }
@@ -65,9 +84,9 @@ class ParcelServiceTest {
     @Test
     void listParcels_withStatus() {
         Parcel p = createParcel(1L);
-        when(parcelRepository.findByCondominiumIdAndStatus(eq(1L), eq(ParcelStatus.RECEIVED), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(p)));
-        Page<ParcelListResponse> result = parcelService.listParcels(1L, ParcelStatus.RECEIVED, Pageable.unpaged());
+        when(parcelRepository.findListRowsByCondominiumIdAndStatus(eq(1L), eq(ParcelStatus.RECEIVED), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(row(p))));
+        PageResponse<ParcelListResponse> result = parcelService.listParcels(1L, ParcelStatus.RECEIVED, Pageable.unpaged(), null);
         assertNotNull(result);
         assertEquals(1, result.getContent().size());
     }
@@ -104,6 +123,29 @@ class ParcelServiceTest {
 
         assertNotNull(r);
         verify(parcelRepository).save(any(Parcel.class));
+        verify(dashboardCounterService).onParcelStatusChange(1L, null, ParcelStatus.RECEIVED);
+    }
+
+    @Test
+    void addPhoto_normalizesTypeAndExtensionBeforeUpload() {
+        Parcel p = createParcel(1L);
+        when(parcelRepository.findByIdAndCondominiumId(1L, 1L)).thenReturn(Optional.of(p));
+        MockMultipartFile file = new MockMultipartFile("file", "etiqueta.PNG", "image/png", new byte[]{1, 2, 3});
+
+        parcelService.addPhoto(1L, 1L, file, "label", 5L);
+        parcelService.addPhoto(1L, 1L, new MockMultipartFile("file", "foto.heic", "image/heic", new byte[]{4}), "outro", 5L);
+
+        verify(parcelPhotoService).upload(p, file, "png", "LABEL", 5L);
+        verify(parcelPhotoService).upload(eq(p), any(), eq("jpg"), eq("RECEIPT"), eq(5L));
+    }
+
+    @Test
+    void addPhoto_rejectsEmptyFile() {
+        when(parcelRepository.findByIdAndCondominiumId(1L, 1L)).thenReturn(Optional.of(createParcel(1L)));
+        MockMultipartFile empty = new MockMultipartFile("file", new byte[0]);
+
+        assertThrows(BusinessException.class, () -> parcelService.addPhoto(1L, 1L, empty, "RECEIPT", 5L));
+        verifyNoInteractions(parcelPhotoService);
     }
 
     @Test
@@ -131,12 +173,104 @@ class ParcelServiceTest {
         when(parcelRepository.findByIdAndCondominiumId(1L, 1L)).thenReturn(Optional.of(p));
         ParcelVerifyRequest req = new ParcelVerifyRequest("999999", "CODE");
         assertThrows(BusinessException.class, () -> parcelService.verifyPickup(1L, 1L, req, 1L));
+        verify(pickupAttemptLimiter).recordFailure(1L);
+    }
+
+    @Test
+    void verifyPickup_throttledDoesNotLoadParcel() {
+        doThrow(new TooManyAttemptsException("Muitos codigos incorretos.", "TOO_MANY_PICKUP_ATTEMPTS", 60))
+                .when(pickupAttemptLimiter).check(1L);
+        ParcelVerifyRequest req = new ParcelVerifyRequest("123456", "CODE");
+        assertThrows(TooManyAttemptsException.class, () -> parcelService.verifyPickup(1L, 1L, req, 1L));
+        verifyNoInteractions(parcelRepository);
+    }
+
+    @Test
+    void pickupByCode_deliversSingleMatch() {
+        Parcel p = createParcel(5L);
+        p.setResidentCode("482913");
+        p.setRecipient(createUser(2L));
+        when(parcelRepository.findPendingByResidentCode(1L, "482913", Limit.of(2))).thenReturn(List.of(p));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(createUser(1L)));
+        when(parcelRepository.markDelivered(eq(5L), eq(p.getRecipient()), any())).thenReturn(1);
+
+        ParcelListResponse result = parcelService.pickupByCode(1L, new ParcelVerifyRequest(" 482913 ", null), 1L);
+
+        assertEquals(5L, result.id());
+        assertEquals("DELIVERED", result.status());
+        verify(parcelVerificationRepository).save(argThat(v -> v.getParcel() == p && v.isVerified()));
+        verify(dashboardCounterService).onParcelStatusChange(1L, ParcelStatus.RECEIVED, ParcelStatus.DELIVERED);
+        verify(pickupAttemptLimiter, never()).recordFailure(any());
+        verify(parcelRepository, never()).save(any());
+    }
+
+    @Test
+    void verifyPickup_concurrentConfirmationDeliversOnce() {
+        // duas portarias carregaram a encomenda ainda pendente; a segunda perde o UPDATE condicional
+        Parcel first = createParcel(1L);
+        first.setResidentCode("123456");
+        first.setRecipient(createUser(2L));
+        Parcel second = createParcel(1L);
+        second.setResidentCode("123456");
+        second.setRecipient(first.getRecipient());
+        when(parcelRepository.findByIdAndCondominiumId(1L, 1L))
+                .thenReturn(Optional.of(first))
+                .thenReturn(Optional.of(second));
+        when(userRepository.findById(anyLong())).thenAnswer(i -> Optional.of(createUser(i.getArgument(0))));
+        when(parcelRepository.markDelivered(eq(1L), any(), any())).thenReturn(1, 0);
+        ParcelVerifyRequest req = new ParcelVerifyRequest("123456", "CODE");
+
+        parcelService.verifyPickup(1L, 1L, req, 10L);
+        BusinessException ex = assertThrows(BusinessException.class, () -> parcelService.verifyPickup(1L, 1L, req, 11L));
+
+        assertEquals("PARCEL_ALREADY_DELIVERED", ex.getErrorCode());
+        verify(parcelVerificationRepository, times(1)).save(any());
+        verify(dashboardCounterService, times(1)).onParcelStatusChange(1L, ParcelStatus.RECEIVED, ParcelStatus.DELIVERED);
+    }
+
+    @Test
+    void verifyPickup_alreadyDeliveredParcelIsRejected() {
+        Parcel p = createParcel(1L);
+        p.setResidentCode("123456");
+        p.setRecipient(createUser(2L));
+        p.setStatus(ParcelStatus.DELIVERED);
+        when(parcelRepository.findByIdAndCondominiumId(1L, 1L)).thenReturn(Optional.of(p));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(createUser(1L)));
+
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> parcelService.verifyPickup(1L, 1L, new ParcelVerifyRequest("123456", "CODE"), 1L));
+
+        assertEquals("PARCEL_ALREADY_DELIVERED", ex.getErrorCode());
+        verify(parcelRepository, never()).markDelivered(any(), any(), any());
+        verifyNoInteractions(parcelVerificationRepository, dashboardCounterService);
+    }
+
+    @Test
+    void pickupByCode_unknownCodeCountsFailure() {
+        when(parcelRepository.findPendingByResidentCode(1L, "000000", Limit.of(2))).thenReturn(List.of());
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> parcelService.pickupByCode(1L, new ParcelVerifyRequest("000000", null), 1L));
+        assertEquals("CODE_MISMATCH", ex.getErrorCode());
+        verify(pickupAttemptLimiter).recordFailure(1L);
+    }
+
+    @Test
+    void pickupByCode_collidingCodesRequireParcelVerification() {
+        Parcel a = createParcel(5L);
+        a.setResidentCode("482913");
+        Parcel b = createParcel(6L);
+        b.setResidentCode("482913");
+        when(parcelRepository.findPendingByResidentCode(1L, "482913", Limit.of(2))).thenReturn(List.of(a, b));
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> parcelService.pickupByCode(1L, new ParcelVerifyRequest("482913", null), 1L));
+        assertEquals("CODE_AMBIGUOUS", ex.getErrorCode());
+        verify(parcelRepository, never()).save(any());
     }
 
     @Test
     void getMyParcels_returnsPage() {
         Parcel p = createParcel(1L);
-        when(parcelRepository.findByRecipientId(eq(1L), any(Pageable.class))).thenReturn(new PageImpl<>(List.of(p)));
+        when(parcelRepository.findListRowsByRecipientId(eq(1L), any(Pageable.class))).thenReturn(new PageImpl<>(List.of(row(p))));
         Page<ParcelListResponse> result = parcelService.getMyParcels(1L, 1L, null, Pageable.unpaged());
         assertNotNull(result);
         assertEquals(1, result.getContent().size());
@@ -145,8 +279,8 @@ class ParcelServiceTest {
     @Test
     void getMyParcels_withStatus() {
         Parcel p = createParcel(1L);
-        when(parcelRepository.findByRecipientIdAndStatus(eq(1L), eq(ParcelStatus.RECEIVED), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(p)));
+        when(parcelRepository.findListRowsByRecipientIdAndStatus(eq(1L), eq(ParcelStatus.RECEIVED), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(row(p))));
         Page<ParcelListResponse> result = parcelService.getMyParcels(1L, 1L, ParcelStatus.RECEIVED, Pageable.unpaged());
         assertNotNull(result);
         assertEquals(1, result.getContent().size());
@@ -173,9 +307,11 @@ class ParcelServiceTest {
         when(parcelRepository.findByIdAndCondominiumId(1L, 1L)).thenReturn(Optional.of(p));
         when(userRepository.findById(1L)).thenReturn(Optional.of(doorman));
         when(parcelVerificationRepository.save(any())).thenAnswer(i -> i.getArgument(0));
-        when(parcelRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+        when(parcelRepository.markDelivered(eq(1L), eq(p.getRecipient()), any())).thenReturn(1);
         parcelService.verifyPickup(1L, 1L, new ParcelVerifyRequest("123456", "CODE"), 1L);
-        verify(parcelRepository).save(argThat(x -> ParcelStatus.DELIVERED == x.getStatus()));
+        assertEquals(ParcelStatus.DELIVERED, p.getStatus());
+        verify(parcelRepository, never()).save(any());
+        verify(dashboardCounterService).onParcelStatusChange(1L, ParcelStatus.RECEIVED, ParcelStatus.DELIVERED);
     }
 
     @Test
@@ -219,7 +355,69 @@ class ParcelServiceTest {
         ParcelCreateRequest req = new ParcelCreateRequest(10L, 2L, "Correios", null, "Pacote");
         ParcelListResponse r = parcelService.createParcel(1L, 1L, req);
         assertNotNull(r);
-        verify(whatsAppService).sendEncomendaNotification(eq("11999999999"), any(), any());
+        verify(whatsAppOutbox).enqueue(argThat(m -> "11999999999".equals(m.phone())
+                && m.type() == WhatsAppMessageType.ENCOMENDA_TEMPLATE
+                && "parcel:1:received".equals(m.idempotencyKey())));
+    }
+
+    @Test
+    void createParcels_resolvesLookupsOnceAndInsertsInOneBatch() {
+        User receivedBy = createUser(1L);
+        User recipient = createUser(2L);
+        recipient.setPhone("11999999999");
+        Unit u10 = Unit.builder().id(10L).identifier("101").condominiumId(1L).build();
+        Unit u11 = Unit.builder().id(11L).identifier("102").condominiumId(1L).build();
+        when(userRepository.findById(1L)).thenReturn(Optional.of(receivedBy));
+        when(unitRepository.findByCondominiumIdAndIdIn(eq(1L), any())).thenReturn(List.of(u10, u11));
+        when(userCondominiumRoleRepository.findActiveMembers(eq(1L), any())).thenReturn(List.of(recipient));
+        doAnswer(inv -> {
+            List<Parcel> parcels = inv.getArgument(0);
+            for (int i = 0; i < parcels.size(); i++) {
+                parcels.get(i).setId(100L + i);
+            }
+            return null;
+        }).when(parcelBatchInsertRepository).insertAll(anyList(), any());
+
+        List<ParcelListResponse> r = parcelService.createParcels(1L, 1L, List.of(
+                new ParcelCreateRequest(10L, 2L, "Correios", null, null),
+                new ParcelCreateRequest(11L, null, "Loggi", null, null),
+                new ParcelCreateRequest(10L, 2L, "Jadlog", null, null)));
+
+        assertEquals(List.of(100L, 101L, 102L), r.stream().map(ParcelListResponse::id).toList());
+        assertEquals("102", r.get(1).unitIdentifier());
+        verify(unitRepository).findByCondominiumIdAndIdIn(eq(1L), argThat(ids -> ids.size() == 2));
+        verify(userCondominiumRoleRepository).findActiveMembers(eq(1L), argThat(ids -> ids.iterator().next().equals(2L)));
+        verify(parcelBatchInsertRepository).insertAll(argThat(list -> list.size() == 3), any());
+        verify(parcelRepository, never()).save(any());
+        verify(dashboardCounterService).onParcelsReceived(1L, 3);
+        verify(whatsAppOutbox).enqueueAll(argThat(list -> list.stream().map(WhatsAppOutboxRequest::idempotencyKey).toList()
+                .equals(List.of("parcel:100:received", "parcel:102:received"))));
+    }
+
+    @Test
+    void createParcels_rejectsWholeBatchWhenUnitIsNotInCondominium() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(createUser(1L)));
+        when(unitRepository.findByCondominiumIdAndIdIn(eq(1L), any()))
+                .thenReturn(List.of(Unit.builder().id(10L).identifier("101").condominiumId(1L).build()));
+
+        assertThrows(ResourceNotFoundException.class, () -> parcelService.createParcels(1L, 1L, List.of(
+                new ParcelCreateRequest(10L, null, "Correios", null, null),
+                new ParcelCreateRequest(99L, null, "Correios", null, null))));
+        verifyNoInteractions(parcelBatchInsertRepository, whatsAppOutbox, dashboardCounterService);
+    }
+
+    @Test
+    void createParcels_rejectsWholeBatchWhenRecipientHasNoActiveLinkInCondominium() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(createUser(1L)));
+        when(unitRepository.findByCondominiumIdAndIdIn(eq(1L), any()))
+                .thenReturn(List.of(Unit.builder().id(10L).identifier("101").condominiumId(1L).build()));
+        when(userCondominiumRoleRepository.findActiveMembers(eq(1L), any())).thenReturn(List.of(createUser(2L)));
+
+        assertThrows(ResourceNotFoundException.class, () -> parcelService.createParcels(1L, 1L, List.of(
+                new ParcelCreateRequest(10L, 2L, "Correios", null, null),
+                new ParcelCreateRequest(10L, 3L, "Correios", null, null))));
+        verify(userRepository, never()).findAllById(any());
+        verifyNoInteractions(parcelBatchInsertRepository, whatsAppOutbox, dashboardCounterService);
     }
 
     private Parcel createParcel(Long id) {
@@ -255,4 +453,9 @@ class ParcelServiceTest {
                 .authorities(new java.util.ArrayList<>(List.of(new SimpleGrantedAuthority(role))))
                 .build();
     }
+
+    private static ParcelListRow row(Parcel p) {
+        return new ParcelListRow(p.getId(), null, null, null, p.getCarrier(), p.getTrackingNumber(),
+                p.getDescription(), p.getStatus(), p.getDeliveredAt(), p.getCreatedAt());
+    }
 }
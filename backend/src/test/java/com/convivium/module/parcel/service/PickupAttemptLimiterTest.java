@@ -0,0 +1,110 @@
+package com.convivium.module.parcel.service;
+
+import com.convivium.common.exception.TooManyAttemptsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PickupAttemptLimiterTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-10T12:00:00Z");
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void check_rejectsDoormanAfterMaxFailuresUntilWindowEnds() {
+        MutableClock clock = new MutableClock(NOW);
+        PickupAttemptLimiter limiter = new PickupAttemptLimiter(properties(3), registry, clock);
+
+        for (int i = 0; i < 3; i++) {
+            limiter.check(7L);
+            limiter.recordFailure(7L);
+        }
+        clock.now = NOW.plusSeconds(100);
+        TooManyAttemptsException ex = assertThrows(TooManyAttemptsException.class, () -> limiter.check(7L));
+        assertEquals("TOO_MANY_PICKUP_ATTEMPTS", ex.getErrorCode());
+        assertEquals(200, ex.getRetryAfterSeconds());
+        assertEquals(1.0, registry.counter("convivium.parcel.pickup.throttled").count());
+        assertDoesNotThrow(() -> limiter.check(8L));
+
+        clock.now = NOW.plusSeconds(300);
+        assertDoesNotThrow(() -> limiter.check(7L));
+    }
+
+    @Test
+    void check_ignoresSuccessfulLookups() {
+        PickupAttemptLimiter limiter = new PickupAttemptLimiter(properties(2), registry, new MutableClock(NOW));
+
+        for (int i = 0; i < 50; i++) {
+            limiter.check(7L);
+        }
+        limiter.recordFailure(7L);
+
+        assertDoesNotThrow(() -> limiter.check(7L));
+    }
+
+    @Test
+    void recordFailure_keepsEntriesBounded() {
+        ParcelPickupProperties properties = properties(3);
+        properties.setMaxEntries(2);
+        MutableClock clock = new MutableClock(NOW);
+        PickupAttemptLimiter limiter = new PickupAttemptLimiter(properties, registry, clock);
+
+        limiter.recordFailure(1L);
+        limiter.recordFailure(2L);
+        limiter.recordFailure(3L);
+        assertEquals(2, limiter.size());
+
+        clock.now = NOW.plusSeconds(300);
+        limiter.evictExpired();
+        assertEquals(0, limiter.size());
+    }
+
+    @Test
+    void check_disabledWhenMaxFailuresIsZero() {
+        PickupAttemptLimiter limiter = new PickupAttemptLimiter(properties(0), registry, new MutableClock(NOW));
+
+        limiter.recordFailure(7L);
+        limiter.recordFailure(7L);
+
+        assertDoesNotThrow(() -> limiter.check(7L));
+        assertEquals(0, limiter.size());
+    }
+
+    private static ParcelPickupProperties properties(int maxFailedAttempts) {
+        ParcelPickupProperties properties = new ParcelPickupProperties();
+        properties.setWindowSeconds(300);
+        properties.setMaxFailedAttempts(maxFailedAttempts);
+        return properties;
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.convivium.module.support.repository;
+
+import com.convivium.common.dto.CursorPage;
+import com.convivium.config.JpaTestConfig;
+import com.convivium.module.support.entity.SupportTicket;
+import com.convivium.module.user.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.repository.config.BootstrapMode;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(bootstrapMode = BootstrapMode.LAZY)
+@ActiveProfiles("test")
+@Import(JpaTestConfig.class)
+class SupportTicketRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private SupportTicketRepository ticketRepository;
+
+    @BeforeEach
+    void setUp() {
+        User user = entityManager.persist(User.builder()
+                .email("morador@condominio.com")
+                .name("Morador")
+                .passwordHash("hash")
+                .build());
+        for (int i = 0; i < 9; i++) {
+            entityManager.persist(SupportTicket.builder()
+                    .user(user)
+                    .subject("Chamado " + i)
+                    .status(i % 3 == 0 ? "CLOSED" : "OPEN")
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findAllAfter_continuesNumberedFirstPageInSameOrder() {
+        List<SupportTicket> firstPage = ticketRepository.findAll(PageRequest.of(0, 4, CursorPage.NEWEST_FIRST)).getContent();
+        List<Long> expected = ticketRepository.findAll(PageRequest.of(0, 9, CursorPage.NEWEST_FIRST))
+                .map(SupportTicket::getId).getContent();
+
+        List<Long> seen = new ArrayList<>(firstPage.stream().map(SupportTicket::getId).toList());
+        List<SupportTicket> rows = firstPage;
+        while (!rows.isEmpty()) {
+            SupportTicket last = rows.get(rows.size() - 1);
+            rows = ticketRepository.findAllAfter(last.getCreatedAt(), last.getId(), Limit.of(4));
+            rows.forEach(ticket -> seen.add(ticket.getId()));
+        }
+
+        assertThat(seen).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void findByStatusAfter_keepsStatusFilter() {
+        SupportTicket newest = ticketRepository.findAll(PageRequest.of(0, 1, CursorPage.NEWEST_FIRST)).getContent().get(0);
+
+        assertThat(ticketRepository.findByStatusAfter("CLOSED", newest.getCreatedAt(), newest.getId(), Limit.of(10)))
+                .hasSize(3)
+                .allSatisfy(ticket -> assertThat(ticket.getStatus()).isEqualTo("CLOSED"));
+    }
+}
@@ -1,5 +1,7 @@
 package com.convivium.module.support.service;
 
+import com.convivium.common.dto.CursorPage;
+import com.convivium.common.dto.PageResponse;
 import com.convivium.common.exception.BusinessException;
 import com.convivium.module.support.dto.MessageResponse;
 import com.convivium.module.support.dto.TicketResponse;
@@ -152,11 +154,11 @@ class SupportChatServiceTest {
         SupportTicket ticket = createTicket(1L, user, "Test", "OPEN");
         Page<SupportTicket> page = new PageImpl<>(List.of(ticket));
 
-        when(supportTicketRepository.findByStatusOrderByCreatedAtDesc("OPEN", PageRequest.of(0, 20)))
+        when(supportTicketRepository.findByStatus("OPEN", PageRequest.of(0, 20, CursorPage.NEWEST_FIRST)))
                 .thenReturn(page);
         when(supportMessageRepository.countByTicketIdAndReadFalseAndFromAdminFalse(1L)).thenReturn(0L);
 
-        Page<TicketResponse> result = supportChatService.listAllTickets("OPEN", 0, 20);
+        PageResponse<TicketResponse> result = supportChatService.listAllTickets("OPEN", 0, 20, null);
 
         assertThat(result.getTotalElements()).isEqualTo(1);
     }
@@ -167,15 +169,36 @@ class SupportChatServiceTest {
         SupportTicket ticket = createTicket(1L, user, "Test", "OPEN");
         Page<SupportTicket> page = new PageImpl<>(List.of(ticket));
 
-        when(supportTicketRepository.findAllByOrderByCreatedAtDesc(PageRequest.of(0, 20)))
+        when(supportTicketRepository.findAll(PageRequest.of(0, 20, CursorPage.NEWEST_FIRST)))
                 .thenReturn(page);
         when(supportMessageRepository.countByTicketIdAndReadFalseAndFromAdminFalse(1L)).thenReturn(0L);
 
-        Page<TicketResponse> result = supportChatService.listAllTickets(null, 0, 20);
+        PageResponse<TicketResponse> result = supportChatService.listAllTickets(null, 0, 20, null);
 
         assertThat(result.getTotalElements()).isEqualTo(1);
     }
 
+    @Test
+    void listAllTickets_withCursor_readsByKeysetWithoutCount() {
+        User user = createUser(1L, "Joao");
+        SupportTicket newer = createTicket(5L, user, "Mais novo", "OPEN");
+        SupportTicket older = createTicket(4L, user, "Mais antigo", "OPEN");
+        CursorPage.Cursor cursor = new CursorPage.Cursor(Instant.parse("2026-03-01T10:00:00Z"), 6L);
+
+        when(supportTicketRepository.findAllAfter(cursor.createdAt(), 6L, CursorPage.fetchLimit(1)))
+                .thenReturn(List.of(newer, older));
+        when(supportMessageRepository.countByTicketIdAndReadFalseAndFromAdminFalse(5L)).thenReturn(0L);
+
+        PageResponse<TicketResponse> result = supportChatService.listAllTickets(null, 0, 1, cursor.encode());
+
+        assertThat(result.getContent()).extracting(TicketResponse::id).containsExactly(5L);
+        assertThat(result.getTotalElements()).isEqualTo(-1);
+        assertThat(result.isLast()).isFalse();
+        assertThat(CursorPage.Cursor.decode(result.getNextCursor()))
+                .isEqualTo(new CursorPage.Cursor(newer.getCreatedAt(), 5L));
+        verify(supportTicketRepository, never()).findAll(any(PageRequest.class));
+    }
+
     // ---- updateTicketStatus ----
 
     @Test
@@ -1,5 +1,6 @@
 package com.convivium.module.user.controller;
 
+import com.convivium.common.dto.PageResponse;
 import com.convivium.config.MockMvcSecurityConfig;
 import com.convivium.module.condominium.repository.CondominiumRepository;
 import com.convivium.module.user.dto.UserCreateRequest;
@@ -53,7 +54,7 @@ class UserControllerTest {
     @Test
     void listUsers_returnsOk() throws Exception {
         UserResponse ur = new UserResponse(1L, "uuid", "a@b.com", "User", null, null, null, true, "MORADOR", "ACTIVE", null, null, null);
-        when(userService.listUsers(eq(1L), any())).thenReturn(new PageImpl<>(List.of(ur)));
+        when(userService.listUsers(eq(1L), any(), eq(null))).thenReturn(PageResponse.from(new PageImpl<>(List.of(ur))));
         mockMvc.perform(get("/api/v1/condos/1/users").with(withUserPrincipal()))
                 .andExpect(status().isOk()).andExpect(jsonPath("$.success").value(true));
     }
@@ -0,0 +1,102 @@
+package com.convivium.module.user.repository;
+
+import com.convivium.common.dto.CursorPage;
+import com.convivium.config.JpaTestConfig;
+import com.convivium.config.StatementCounter;
+import com.convivium.module.condominium.entity.Condominium;
+import com.convivium.module.condominium.entity.Unit;
+import com.convivium.module.user.entity.Role;
+import com.convivium.module.user.entity.User;
+import com.convivium.module.user.entity.UserCondominiumRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.repository.config.BootstrapMode;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(bootstrapMode = BootstrapMode.LAZY)
+@ActiveProfiles("test")
+@Import(JpaTestConfig.class)
+class UserCondominiumRoleRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private UserCondominiumRoleRepository roleRepository;
+    @Autowired
+    private StatementCounter statementCounter;
+
+    private Long condoId;
+    private List<Long> userIds;
+
+    @BeforeEach
+    void setUp() {
+        Condominium condo = entityManager.persist(Condominium.builder().name("Residencial Teste").slug("residencial-teste").build());
+        Condominium outro = entityManager.persist(Condominium.builder().name("Outro").slug("outro").build());
+        condoId = condo.getId();
+        userIds = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            User user = entityManager.persist(User.builder()
+                    .email("morador" + i + "@condominio.com")
+                    .name("Morador " + i)
+                    .passwordHash("hash")
+                    .build());
+            userIds.add(user.getId());
+            Unit unit = i % 2 == 0 ? entityManager.persist(Unit.builder()
+                    .condominiumId(condoId)
+                    .identifier("Apto " + (100 + i))
+                    .build()) : null;
+            entityManager.persist(UserCondominiumRole.builder()
+                    .user(user)
+                    .condominium(i == 7 ? outro : condo)
+                    .role(Role.MORADOR)
+                    .unit(unit)
+                    .status(i == 6 ? "INACTIVE" : "ACTIVE")
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findByCondominiumIdAfter_returnsNextLinksWithUserAndUnitInOneStatement() {
+        List<UserCondominiumRole> firstPage = roleRepository
+                .findByCondominiumId(condoId, PageRequest.of(0, 3, CursorPage.NEWEST_FIRST)).getContent();
+        UserCondominiumRole last = firstPage.get(firstPage.size() - 1);
+        List<Long> expected = roleRepository
+                .findByCondominiumId(condoId, PageRequest.of(1, 3, CursorPage.NEWEST_FIRST))
+                .map(UserCondominiumRole::getId).getContent();
+        entityManager.clear();
+
+        statementCounter.reset();
+        List<UserCondominiumRole> next = roleRepository.findByCondominiumIdAfter(
+                condoId, last.getCreatedAt(), last.getId(), Limit.of(3));
+        next.forEach(ucr -> {
+            assertThat(ucr.getUser().getName()).startsWith("Morador ");
+            if (ucr.getUnit() != null) {
+                assertThat(ucr.getUnit().getIdentifier()).startsWith("Apto ");
+            }
+        });
+
+        assertThat(statementCounter.count()).isEqualTo(1);
+        assertThat(next).extracting(UserCondominiumRole::getId).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void findActiveMembers_skipsInactiveLinksAndOtherCondominiums() {
+        // 6: vínculo inativo; 7: outro condomínio
+        List<User> members = roleRepository.findActiveMembers(condoId, userIds.subList(4, 8));
+
+        assertThat(members).extracting(User::getId).containsExactlyInAnyOrder(userIds.get(4), userIds.get(5));
+    }
+}
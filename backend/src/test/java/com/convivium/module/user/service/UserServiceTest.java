@@ -1,11 +1,13 @@
 package com.convivium.module.user.service;
 
+import com.convivium.common.dto.PageResponse;
 import com.convivium.common.exception.BusinessException;
 import com.convivium.common.exception.ResourceNotFoundException;
 import com.convivium.module.condominium.entity.Condominium;
 import com.convivium.module.condominium.entity.Unit;
 import com.convivium.module.condominium.repository.CondominiumRepository;
 import com.convivium.module.condominium.repository.UnitRepository;
+import com.convivium.module.dashboard.service.DashboardCounterService;
 import com.convivium.module.user.dto.UserCreateRequest;
 import com.convivium.module.user.dto.UserResponse;
 import com.convivium.module.user.dto.UserUpdateRequest;
@@ -22,7 +24,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.List;
 import java.util.Optional;
@@ -50,7 +52,13 @@ class UserServiceTest {
     private UnitRepository unitRepository;
 
     @Mock
-    private BCryptPasswordEncoder passwordEncoder;
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private com.convivium.security.UserIdentityCache userIdentityCache;
+
+    @Mock
+    private DashboardCounterService dashboardCounterService;
 
     @InjectMocks
     private UserService userService;
@@ -73,7 +81,7 @@ class UserServiceTest {
         when(userCondominiumRoleRepository.findByCondominiumId(eq(condoId), any(Pageable.class)))
                 .thenReturn(page);
 
-        Page<UserResponse> result = userService.listUsers(condoId, Pageable.unpaged());
+        PageResponse<UserResponse> result = userService.listUsers(condoId, Pageable.unpaged(), null);
 
         assertNotNull(result);
         assertEquals(1, result.getContent().size());
@@ -146,6 +154,7 @@ class UserServiceTest {
         assertEquals("MORADOR", response.role());
         verify(userRepository).save(any(User.class));
         verify(userCondominiumRoleRepository).save(any(UserCondominiumRole.class));
+        verify(dashboardCounterService).onMemberAdded(condoId, "ACTIVE");
     }
 
     @Test
@@ -224,6 +233,7 @@ class UserServiceTest {
         userService.deleteUser(1L, 1L);
 
         verify(userCondominiumRoleRepository).delete(ucr);
+        verify(dashboardCounterService).onMemberRemoved(1L, "ACTIVE");
     }
 
     @Test
@@ -275,6 +285,7 @@ class UserServiceTest {
 
         verify(userCondominiumRoleRepository).save(argThat(u ->
                 "ACTIVE".equals(u.getStatus()) && u.getApprovedBy() != null));
+        verify(dashboardCounterService).onMemberApproved(1L);
     }
 
     @Test
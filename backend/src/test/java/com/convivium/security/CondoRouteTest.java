@@ -0,0 +1,58 @@
+package com.convivium.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CondoRouteTest {
+
+    @Test
+    void parse_condoPathWithSubPath() {
+        CondoRoute route = CondoRoute.parse("/api/v1/condos/42/payment/checkout-session", 0);
+
+        assertNotNull(route);
+        assertEquals(42L, route.condominiumId());
+        assertTrue(route.hasSubPath());
+        assertTrue(route.subPathStartsWith("/payment"));
+        assertFalse(route.subPathStartsWith("/parcels"));
+    }
+
+    @Test
+    void parse_condoPathWithoutSubPath() {
+        CondoRoute route = CondoRoute.parse("/api/v1/condos/7", 0);
+
+        assertNotNull(route);
+        assertEquals(7L, route.condominiumId());
+        assertFalse(route.hasSubPath());
+        assertFalse(route.subPathStartsWith("/payment"));
+    }
+
+    @Test
+    void parse_skipsContextPath() {
+        String uri = "/convivium/api/v1/condos/3/parcels";
+
+        CondoRoute route = CondoRoute.parse(uri, "/convivium".length());
+
+        assertNotNull(route);
+        assertEquals(3L, route.condominiumId());
+        assertTrue(route.subPathStartsWith("/parcels"));
+        assertNull(CondoRoute.parse(uri, 0));
+    }
+
+    @Test
+    void parse_rejectsNonCondoPaths() {
+        assertNull(CondoRoute.parse(null, 0));
+        assertNull(CondoRoute.parse("/api/v1/auth/me", 0));
+        assertNull(CondoRoute.parse("/api/v1/condos/", 0));
+        assertNull(CondoRoute.parse("/api/v1/condos/abc/parcels", 0));
+        assertNull(CondoRoute.parse("/api/v1/condos/12abc", 0));
+        assertNull(CondoRoute.parse("/api/v1/condos", 0));
+    }
+
+    @Test
+    void parse_rejectsIdOverflowingLong() {
+        assertEquals(Long.MAX_VALUE, CondoRoute.parse("/api/v1/condos/9223372036854775807", 0).condominiumId());
+        assertNull(CondoRoute.parse("/api/v1/condos/9223372036854775808", 0));
+        assertNull(CondoRoute.parse("/api/v1/condos/99999999999999999999/parcels", 0));
+    }
+}
@@ -0,0 +1,206 @@
+package com.convivium.security;
+
+import com.convivium.module.condominium.entity.Condominium;
+import com.convivium.module.condominium.repository.CondominiumRepository;
+import com.convivium.module.support.repository.SupportTicketRepository;
+import com.convivium.security.jwt.JwtAuthenticationFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StompAuthorizationInterceptorTest {
+
+    @Mock
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @Mock
+    private CondominiumRepository condominiumRepository;
+
+    @Mock
+    private SupportTicketRepository supportTicketRepository;
+
+    private StompAuthorizationInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        TenantAccessPolicy policy = new TenantAccessPolicy(condominiumRepository, new TenantStateCache(60_000L, 100));
+        interceptor = new StompAuthorizationInterceptor(jwtAuthenticationFilter, policy, supportTicketRepository);
+    }
+
+    @Test
+    void connect_withBearerToken_setsSessionUser() {
+        UserPrincipal sindico = user(1L, "SINDICO");
+        when(jwtAuthenticationFilter.authenticate("token")).thenReturn(Optional.of(sindico));
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        accessor.addNativeHeader("Authorization", "Bearer token");
+        accessor.setLeaveMutable(true);
+        Message<byte[]> message = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+
+        interceptor.preSend(message, null);
+
+        Principal principal = StompHeaderAccessor.wrap(message).getUser();
+        assertSame(sindico, ((UsernamePasswordAuthenticationToken) principal).getPrincipal());
+    }
+
+    @Test
+    void connect_withInvalidToken_isRejected() {
+        when(jwtAuthenticationFilter.authenticate("expirado")).thenReturn(Optional.empty());
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        accessor.addNativeHeader("Authorization", "Bearer expirado");
+        accessor.setLeaveMutable(true);
+
+        assertThrows(AccessDeniedException.class, () ->
+                interceptor.preSend(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()), null));
+    }
+
+    @Test
+    void subscribe_dashboard_allowsStaffOfSameActiveCondominium() {
+        activeCondo();
+
+        assertDoesNotThrow(() -> interceptor.authorizeSubscription("/topic/condos/1/dashboard", auth(user(1L, "PORTEIRO"))));
+    }
+
+    @Test
+    void subscribe_dashboard_rejectsAnonymousResidentAndOtherCondominium() {
+        activeCondo();
+
+        assertThrows(AccessDeniedException.class,
+                () -> interceptor.authorizeSubscription("/topic/condos/1/dashboard", null));
+        assertThrows(AccessDeniedException.class,
+                () -> interceptor.authorizeSubscription("/topic/condos/1/dashboard", auth(user(1L, "MORADOR"))));
+        assertThrows(AccessDeniedException.class,
+                () -> interceptor.authorizeSubscription("/topic/condos/1/dashboard", auth(user(2L, "SINDICO"))));
+    }
+
+    @Test
+    void subscribe_dashboard_appliesTenantBlocks() {
+        when(condominiumRepository.findById(1L)).thenReturn(Optional.of(
+                Condominium.builder().id(1L).name("Condo").slug("condo").status("ACTIVE").blockType("PAYMENT").build()));
+
+        AccessDeniedException ex = assertThrows(AccessDeniedException.class,
+                () -> interceptor.authorizeSubscription("/topic/condos/1/dashboard", auth(user(1L, "SINDICO"))));
+        assertTrue(ex.getMessage().contains("inadimplencia"));
+    }
+
+    @Test
+    void subscribe_rejectsDestinationsOutsideTheAllowList() {
+        activeCondo();
+        Principal sindico = auth(user(1L, "SINDICO"));
+
+        for (String destination : List.of("/topic/condos/1/outro", "/topic/condos/abc/dashboard",
+                "/topic/condos/01/dashboard", "/topic/condos/1/dashboard/", "/topic/condos/1/dashboard/extra",
+                "/topic/condominios/1/dashboard", "/topic/outro", "/app/condos/1/dashboard", "/queue/x")) {
+            assertThrows(AccessDeniedException.class, () -> interceptor.authorizeSubscription(destination, sindico),
+                    destination);
+        }
+    }
+
+    @Test
+    void subscribe_rejectsBrokerPatternsWithOrWithoutUser() {
+        activeCondo();
+
+        for (String destination : List.of("/topic/**", "/topic/*/1/dashboard", "/topic/cond*/1/dashboard",
+                "/topic/condos/*/dashboard", "/topic/condos/?/dashboard", "/topic/condos/{id}/dashboard",
+                "/topic/support/tickets/*", "/topic/support/**")) {
+            assertThrows(AccessDeniedException.class, () -> interceptor.authorizeSubscription(destination, null),
+                    destination);
+            assertThrows(AccessDeniedException.class,
+                    () -> interceptor.authorizeSubscription(destination, auth(user(1L, "SINDICO"))), destination);
+        }
+        verifyNoInteractions(supportTicketRepository);
+    }
+
+    @Test
+    void subscribe_supportTicket_allowsOnlyOwnerOrPlatformAdmin() {
+        when(supportTicketRepository.existsByIdAndUserId(5L, 1L)).thenReturn(true);
+        when(supportTicketRepository.existsByIdAndUserId(6L, 1L)).thenReturn(false);
+
+        assertDoesNotThrow(() -> interceptor.authorizeSubscription("/topic/support/tickets/5", auth(user(1L, "MORADOR"))));
+        assertThrows(AccessDeniedException.class,
+                () -> interceptor.authorizeSubscription("/topic/support/tickets/6", auth(user(1L, "MORADOR"))));
+        assertThrows(AccessDeniedException.class,
+                () -> interceptor.authorizeSubscription("/topic/support/tickets/5", null));
+        assertDoesNotThrow(() -> interceptor.authorizeSubscription("/topic/support/tickets/6", auth(platformAdmin())));
+    }
+
+    @Test
+    void subscribe_supportAdmin_onlyForPlatformAdmin() {
+        assertDoesNotThrow(() -> interceptor.authorizeSubscription("/topic/support/admin", auth(platformAdmin())));
+        assertThrows(AccessDeniedException.class,
+                () -> interceptor.authorizeSubscription("/topic/support/admin", auth(user(1L, "SINDICO"))));
+        assertThrows(AccessDeniedException.class,
+                () -> interceptor.authorizeSubscription("/topic/support/admin", null));
+    }
+
+    @Test
+    void subscribe_wildcardThroughPreSend_isRejectedForAnonymousSession() {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setDestination("/topic/**");
+        accessor.setSubscriptionId("sub-0");
+
+        assertThrows(AccessDeniedException.class, () ->
+                interceptor.preSend(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()), null));
+    }
+
+    @Test
+    void send_toBrokerTopic_isRejected() {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SEND);
+        accessor.setDestination("/topic/condos/1/dashboard");
+
+        assertThrows(AccessDeniedException.class, () ->
+                interceptor.preSend(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()), null));
+    }
+
+    private void activeCondo() {
+        lenient().when(condominiumRepository.findById(1L)).thenReturn(Optional.of(
+                Condominium.builder().id(1L).name("Condo").slug("condo").status("ACTIVE").build()));
+    }
+
+    private static UserPrincipal user(Long condominiumId, String role) {
+        return UserPrincipal.builder()
+                .id(1L)
+                .uuid("uuid")
+                .email("a@b.com")
+                .password("")
+                .name("User")
+                .condominiumId(condominiumId)
+                .isPlatformAdmin(false)
+                .active(true)
+                .authorities(List.of(new SimpleGrantedAuthority("ROLE_" + role)))
+                .build();
+    }
+
+    private static UserPrincipal platformAdmin() {
+        return UserPrincipal.builder()
+                .id(9L)
+                .uuid("admin")
+                .email("admin@b.com")
+                .password("")
+                .name("Admin")
+                .isPlatformAdmin(true)
+                .active(true)
+                .authorities(List.of(new SimpleGrantedAuthority("ROLE_PLATFORM_ADMIN")))
+                .build();
+    }
+
+    private static Principal auth(UserPrincipal principal) {
+        return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+}
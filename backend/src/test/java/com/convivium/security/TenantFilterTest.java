@@ -8,16 +8,18 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,12 +37,15 @@ class TenantFilterTest {
     @Mock
     private FilterChain filterChain;
 
-    @InjectMocks
+    @Spy
+    private TenantStateCache tenantStateCache = new TenantStateCache(60_000L, 100);
+
     private TenantFilter tenantFilter;
 
     @BeforeEach
     void setUp() {
         TenantContext.clear();
+        tenantFilter = new TenantFilter(new TenantAccessPolicy(condominiumRepository, tenantStateCache));
     }
 
     @Test
@@ -74,4 +79,95 @@ class TenantFilterTest {
 
         verify(filterChain).doFilter(request, response);
     }
+
+    @Test
+    void doFilterInternal_repeatedCondoRequests_loadCondominiumOnce() throws Exception {
+        authenticateAs(resident(1L));
+        when(request.getRequestURI()).thenReturn("/api/v1/condos/1/parcels");
+        when(condominiumRepository.findById(1L)).thenReturn(Optional.of(Condominium.builder().id(1L).name("Condo").slug("condo").status("ACTIVE").build()));
+
+        tenantFilter.doFilterInternal(request, response, filterChain);
+        tenantFilter.doFilterInternal(request, response, filterChain);
+
+        verify(condominiumRepository, times(1)).findById(1L);
+        verify(filterChain, times(2)).doFilter(request, response);
+    }
+
+    @Test
+    void doFilterInternal_blockRefreshedInCache_blocksWithoutReload() throws Exception {
+        authenticateAs(resident(1L));
+        when(request.getRequestURI()).thenReturn("/api/v1/condos/1/parcels");
+        Condominium condo = Condominium.builder().id(1L).name("Condo").slug("condo").status("ACTIVE").build();
+        when(condominiumRepository.findById(1L)).thenReturn(Optional.of(condo));
+        tenantFilter.doFilterInternal(request, response, filterChain);
+
+        condo.setBlockType("GENERAL");
+        tenantStateCache.refresh(condo);
+        StringWriter body = new StringWriter();
+        when(response.getWriter()).thenReturn(new PrintWriter(body));
+
+        tenantFilter.doFilterInternal(request, response, filterChain);
+
+        verify(condominiumRepository, times(1)).findById(1L);
+        verify(filterChain, times(1)).doFilter(request, response);
+        verify(response).setStatus(HttpServletResponse.SC_FORBIDDEN);
+        assertTrue(body.toString().contains("CONDOMINIUM_GENERAL_BLOCKED"));
+    }
+
+    @Test
+    void doFilterInternal_paymentBlock_allowsSindicoOnPaymentRouteBehindContextPath() throws Exception {
+        UserPrincipal sindico = UserPrincipal.builder()
+                .id(1L)
+                .uuid("uuid")
+                .email("s@b.com")
+                .password("")
+                .name("Sindico")
+                .condominiumId(1L)
+                .isPlatformAdmin(false)
+                .active(true)
+                .authorities(java.util.List.of(new SimpleGrantedAuthority("ROLE_SINDICO")))
+                .build();
+        authenticateAs(sindico);
+        when(request.getContextPath()).thenReturn("/convivium");
+        when(request.getRequestURI()).thenReturn("/convivium/api/v1/condos/1/payment/checkout-session");
+        when(condominiumRepository.findById(1L)).thenReturn(Optional.of(Condominium.builder().id(1L).name("Condo").slug("condo").status("ACTIVE").blockType("PAYMENT").build()));
+
+        tenantFilter.doFilterInternal(request, response, filterChain);
+
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    void doFilterInternal_paymentBlock_blocksResidentBehindContextPath() throws Exception {
+        authenticateAs(resident(1L));
+        when(request.getContextPath()).thenReturn("/convivium");
+        when(request.getRequestURI()).thenReturn("/convivium/api/v1/condos/1/payment/checkout-session");
+        when(condominiumRepository.findById(1L)).thenReturn(Optional.of(Condominium.builder().id(1L).name("Condo").slug("condo").status("ACTIVE").blockType("PAYMENT").build()));
+        StringWriter body = new StringWriter();
+        when(response.getWriter()).thenReturn(new PrintWriter(body));
+
+        tenantFilter.doFilterInternal(request, response, filterChain);
+
+        verify(filterChain, never()).doFilter(request, response);
+        assertTrue(body.toString().contains("CONDOMINIUM_PAYMENT_BLOCKED"));
+    }
+
+    private static UserPrincipal resident(Long condominiumId) {
+        return UserPrincipal.builder()
+                .id(1L)
+                .uuid("uuid")
+                .email("a@b.com")
+                .password("")
+                .name("User")
+                .condominiumId(condominiumId)
+                .isPlatformAdmin(false)
+                .active(true)
+                .authorities(java.util.List.of())
+                .build();
+    }
+
+    private static void authenticateAs(UserPrincipal principal) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
 }
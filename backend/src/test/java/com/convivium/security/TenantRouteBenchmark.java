@@ -0,0 +1,120 @@
+package com.convivium.security;
+
+import com.convivium.module.user.entity.Role;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Custo por requisição do roteamento do TenantFilter (id do condominio, sub-path e checagem de SINDICO).
+ *
+ * legacyRegex: fluxo antigo (regex aplicada duas vezes, SimpleGrantedAuthority novo + contains, Set de prefixos).
+ * singlePass: CondoRoute.parse + UserPrincipal.hasRole.
+ *
+ * O mix de URIs alterna rotas com e sem context-path ("/convivium" em produção) e rotas fora de condominio.
+ *
+ * Rodar com: mvn -Pbenchmark test-compile exec:exec -Djmh.include=TenantRouteBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TenantRouteBenchmark {
+
+    private static final Pattern CONDO_PATH_PATTERN = Pattern.compile("/api/v1/condos/(\\d+)(/.*)?");
+    private static final Set<String> PAYMENT_ALLOWED_PREFIXES = Set.of("/payment", "/payment/");
+
+    private static final String[] URIS = {
+            "/api/v1/condos/12/parcels",
+            "/convivium/api/v1/condos/12/parcels",
+            "/api/v1/condos/42/payment/checkout-session",
+            "/convivium/api/v1/condos/42/payment/checkout-session",
+            "/api/v1/condos/1234/complaints/98/responses",
+            "/convivium/api/v1/condos/1234/dashboard/stats",
+            "/api/v1/auth/me",
+            "/convivium/api/v1/admin/billing/condominiums",
+    };
+    private static final int[] CONTEXT_PATH_LENGTHS = new int[URIS.length];
+
+    static {
+        for (int i = 0; i < URIS.length; i++) {
+            CONTEXT_PATH_LENGTHS[i] = URIS[i].startsWith("/convivium/") ? "/convivium".length() : 0;
+        }
+    }
+
+    private UserPrincipal principal;
+
+    @Setup
+    public void setUp() {
+        principal = UserPrincipal.builder()
+                .id(1L)
+                .uuid("5f0c1c9e-2b7a-4a57-9f5e-0d3c2a9b8e11")
+                .email("sindico@condominio.com")
+                .password("")
+                .name("Sindico")
+                .condominiumId(42L)
+                .isPlatformAdmin(false)
+                .active(true)
+                .authorities(List.of(
+                        new SimpleGrantedAuthority("ROLE_MORADOR"),
+                        new SimpleGrantedAuthority("ROLE_SINDICO"),
+                        new SimpleGrantedAuthority("MANAGE_PARCELS"),
+                        new SimpleGrantedAuthority("VIEW_DASHBOARD")))
+                .build();
+    }
+
+    @Benchmark
+    public void legacyRegex(Blackhole bh) {
+        for (String uri : URIS) {
+            Long condoId = null;
+            Matcher matcher = CONDO_PATH_PATTERN.matcher(uri);
+            if (matcher.matches()) {
+                condoId = Long.parseLong(matcher.group(1));
+            }
+            bh.consume(condoId);
+            if (condoId != null) {
+                Matcher subMatcher = CONDO_PATH_PATTERN.matcher(uri);
+                String subPath = subMatcher.matches() ? subMatcher.group(2) : null;
+                boolean isSindico = principal.getAuthorities().contains(new SimpleGrantedAuthority("ROLE_SINDICO"));
+                boolean isPaymentRoute = false;
+                if (subPath != null) {
+                    for (String prefix : PAYMENT_ALLOWED_PREFIXES) {
+                        if (subPath.equals(prefix) || subPath.startsWith(prefix)) {
+                            isPaymentRoute = true;
+                            break;
+                        }
+                    }
+                }
+                bh.consume(isSindico && isPaymentRoute);
+            }
+        }
+    }
+
+    @Benchmark
+    public void singlePass(Blackhole bh) {
+        for (int i = 0; i < URIS.length; i++) {
+            CondoRoute route = CondoRoute.parse(URIS[i], CONTEXT_PATH_LENGTHS[i]);
+            bh.consume(route != null ? route.condominiumId() : -1L);
+            if (route != null) {
+                bh.consume(principal.hasRole(Role.SINDICO) && route.subPathStartsWith("/payment"));
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.convivium.security;
+
+import com.convivium.module.condominium.entity.Condominium;
+import com.convivium.security.TenantStateCache.TenantState;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TenantStateCacheTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-10T12:00:00Z");
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void get_expiresEntryAfterTtl() {
+        MutableClock clock = new MutableClock(NOW);
+        TenantStateCache cache = new TenantStateCache(60_000L, 10, clock);
+        cache.put(1L, new TenantState("PAYMENT", "ACTIVE"));
+
+        assertEquals("PAYMENT", cache.get(1L).orElseThrow().blockType());
+
+        clock.now = NOW.plusSeconds(60);
+        assertTrue(cache.get(1L).isEmpty());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void put_staysWithinMaxEntries() {
+        TenantStateCache cache = new TenantStateCache(60_000L, 2, Clock.fixed(NOW, ZoneOffset.UTC));
+        cache.put(1L, new TenantState(null, "ACTIVE"));
+        cache.put(2L, new TenantState(null, "ACTIVE"));
+        cache.put(3L, new TenantState(null, "ACTIVE"));
+
+        assertEquals(2, cache.size());
+        assertTrue(cache.get(3L).isPresent());
+    }
+
+    @Test
+    void refresh_outsideTransaction_appliesImmediately() {
+        TenantStateCache cache = new TenantStateCache(60_000L, 10, Clock.fixed(NOW, ZoneOffset.UTC));
+        Condominium condo = Condominium.builder().id(1L).status("SUSPENDED").blockType("GENERAL").build();
+
+        cache.refresh(condo);
+
+        assertEquals(new TenantState("GENERAL", "SUSPENDED"), cache.get(1L).orElseThrow());
+    }
+
+    @Test
+    void refresh_insideTransaction_appliesOnlyAfterCommit() {
+        TenantStateCache cache = new TenantStateCache(60_000L, 10, Clock.fixed(NOW, ZoneOffset.UTC));
+        cache.put(1L, new TenantState("PAYMENT", "ACTIVE"));
+        Condominium condo = Condominium.builder().id(1L).status("ACTIVE").blockType(null).build();
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.refresh(condo);
+        assertEquals("PAYMENT", cache.get(1L).orElseThrow().blockType());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertNull(cache.get(1L).orElseThrow().blockType());
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.convivium.security;
 
+import com.convivium.module.user.entity.Role;
 import com.convivium.module.user.entity.User;
 import org.junit.jupiter.api.Test;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -35,6 +36,9 @@ class UserPrincipalTest {
         assertTrue(principal.getAuthorities().stream().anyMatch(a -> "ROLE_SINDICO".equals(a.getAuthority())));
         assertTrue(principal.getAuthorities().stream().anyMatch(a -> "ROLE_MORADOR".equals(a.getAuthority())));
         assertTrue(principal.getAuthorities().stream().anyMatch(a -> "MANAGE_PARCELS".equals(a.getAuthority())));
+        assertTrue(principal.hasRole(Role.SINDICO));
+        assertTrue(principal.hasRole(Role.MORADOR));
+        assertFalse(principal.hasRole(Role.PORTEIRO));
     }
 
     @Test
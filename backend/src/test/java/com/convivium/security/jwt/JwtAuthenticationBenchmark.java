@@ -0,0 +1,113 @@
+package com.convivium.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo por requisição da leitura do access token no JwtAuthenticationFilter.
+ *
+ * legacyFreshParserPerClaim: fluxo antigo (validateToken + 5 getters, cada um criando um parser novo).
+ * sharedParserPerClaim: getters atuais, parser compartilhado mas ainda 6 verificações HMAC.
+ * parseOnce: parseToken, uma verificação e um parse JSON por requisição.
+ * parseOnceCached: parseToken com VerifiedTokenCache ligado (token repetido, só o SHA-256).
+ *
+ * Rodar com: mvn -Pbenchmark test-compile exec:exec -Djmh.include=JwtAuthenticationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationBenchmark {
+
+    private static final String SECRET = "a1b2c3d4e5f6g7h8i9j0k1l2m3n4o5p6q7r8s9t0u1v2w3x4y5z6";
+
+    private JwtTokenProvider provider;
+    private JwtTokenProvider cachedProvider;
+    private SecretKey signingKey;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtProperties props = new JwtProperties();
+        props.setSecret(SECRET);
+        props.setAccessTokenExpiration(900_000L);
+        props.setRefreshTokenExpiration(604_800_000L);
+        provider = new JwtTokenProvider(props, new VerifiedTokenCache(props, new SimpleMeterRegistry()));
+        provider.init();
+
+        JwtProperties cachedProps = new JwtProperties();
+        cachedProps.setSecret(SECRET);
+        cachedProps.setAccessTokenExpiration(900_000L);
+        cachedProps.getCache().setEnabled(true);
+        cachedProvider = new JwtTokenProvider(cachedProps, new VerifiedTokenCache(cachedProps, new SimpleMeterRegistry()));
+        cachedProvider.init();
+
+        signingKey = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        token = provider.generateAccessToken(
+                "5f0c1c9e-2b7a-4a57-9f5e-0d3c2a9b8e11",
+                7L,
+                "Sindico",
+                "sindico@condominio.com",
+                42L,
+                List.of("SINDICO"),
+                List.of("MANAGE_PARCELS", "VIEW_DASHBOARD"));
+    }
+
+    @Benchmark
+    public void legacyFreshParserPerClaim(Blackhole bh) {
+        legacyClaims(token);
+        bh.consume(legacyClaims(token).getSubject());
+        bh.consume(legacyClaims(token).get("email", String.class));
+        bh.consume(legacyClaims(token).get("condominiumId", Long.class));
+        bh.consume(legacyClaims(token).get("roles", List.class));
+        bh.consume(legacyClaims(token).get("permissions", List.class));
+    }
+
+    @Benchmark
+    public void sharedParserPerClaim(Blackhole bh) {
+        bh.consume(provider.validateToken(token));
+        bh.consume(provider.getSubject(token));
+        bh.consume(provider.getEmail(token));
+        bh.consume(provider.getCondominiumId(token));
+        bh.consume(provider.getRoles(token));
+        bh.consume(provider.getPermissions(token));
+    }
+
+    @Benchmark
+    public ParsedToken parseOnce() {
+        return provider.parseToken(token).orElseThrow();
+    }
+
+    @Benchmark
+    public ParsedToken parseOnceCached() {
+        return cachedProvider.parseToken(token).orElseThrow();
+    }
+
+    private Claims legacyClaims(String jwt) {
+        return Jwts.parser()
+                .verifyWith(signingKey)
+                .build()
+                .parseSignedClaims(jwt)
+                .getPayload();
+    }
+}
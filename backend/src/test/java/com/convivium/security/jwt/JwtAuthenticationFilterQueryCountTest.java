@@ -0,0 +1,114 @@
+package com.convivium.security.jwt;
+
+import com.convivium.config.JpaTestConfig;
+import com.convivium.config.StatementCounter;
+import com.convivium.module.user.entity.User;
+import com.convivium.module.user.repository.UserRepository;
+import com.convivium.security.UserIdentityCache;
+import com.convivium.security.UserPrincipal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.repository.config.BootstrapMode;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Garante que o caminho de autenticação não executa SQL para uma requisição "quente".
+ * Repositórios em modo LAZY: só os injetados aqui têm as consultas validadas no H2.
+ */
+@DataJpaTest(bootstrapMode = BootstrapMode.LAZY)
+@ActiveProfiles("test")
+@Import(JpaTestConfig.class)
+class JwtAuthenticationFilterQueryCountTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private StatementCounter statementCounter;
+
+    private JwtTokenProvider jwtTokenProvider;
+    private UserIdentityCache userIdentityCache;
+    private JwtAuthenticationFilter filter;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        JwtProperties props = new JwtProperties();
+        props.setSecret("a1b2c3d4e5f6g7h8i9j0k1l2m3n4o5p6q7r8s9t0u1v2w3x4y5z6");
+        props.setAccessTokenExpiration(900_000L);
+        props.setRefreshTokenExpiration(604_800_000L);
+        jwtTokenProvider = new JwtTokenProvider(props, new VerifiedTokenCache(props, new SimpleMeterRegistry()));
+        jwtTokenProvider.init();
+        userIdentityCache = new UserIdentityCache(100);
+        filter = new JwtAuthenticationFilter(jwtTokenProvider, userRepository, userIdentityCache);
+
+        user = entityManager.persistFlushFind(User.builder()
+                .email("morador@condominio.com")
+                .name("Morador")
+                .passwordHash("hash")
+                .build());
+        entityManager.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void tokenWithIdentityClaims_authenticatesWithoutSql() throws Exception {
+        String token = jwtTokenProvider.generateAccessToken(user.getUuid().toString(), user.getId(),
+                user.getName(), user.getEmail(), 1L, List.of("MORADOR"), List.of());
+
+        statementCounter.reset();
+        UserPrincipal principal = authenticate(token);
+
+        assertEquals(0, statementCounter.count());
+        assertEquals(user.getId(), principal.getId());
+        assertEquals("Morador", principal.getName());
+    }
+
+    @Test
+    void legacyToken_hitsDatabaseOnceThenServesFromCache() throws Exception {
+        String legacyToken = jwtTokenProvider.generateAccessToken(user.getUuid().toString(), null,
+                null, user.getEmail(), 1L, List.of("MORADOR"), List.of());
+
+        statementCounter.reset();
+        UserPrincipal cold = authenticate(legacyToken);
+        assertEquals(1, statementCounter.count());
+        assertEquals(user.getId(), cold.getId());
+
+        statementCounter.reset();
+        UserPrincipal warm = authenticate(legacyToken);
+        assertEquals(0, statementCounter.count());
+        assertEquals(user.getId(), warm.getId());
+
+        userIdentityCache.evict(user.getUuid().toString());
+        statementCounter.reset();
+        authenticate(legacyToken);
+        assertEquals(1, statementCounter.count());
+    }
+
+    private UserPrincipal authenticate(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/condos/1/dashboard/stats");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilterInternal(request, new MockHttpServletResponse(), new MockFilterChain());
+        return (UserPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+    }
+}
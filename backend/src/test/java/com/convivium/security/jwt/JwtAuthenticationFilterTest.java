@@ -2,6 +2,8 @@ package com.convivium.security.jwt;
 
 import com.convivium.module.user.entity.User;
 import com.convivium.module.user.repository.UserRepository;
+import com.convivium.security.UserIdentityCache;
+import com.convivium.security.UserPrincipal;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -12,10 +14,12 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.context.SecurityContextHolder;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -27,6 +31,8 @@ class JwtAuthenticationFilterTest {
     @Mock
     private UserRepository userRepository;
     @Mock
+    private UserIdentityCache userIdentityCache;
+    @Mock
     private HttpServletRequest request;
     @Mock
     private HttpServletResponse response;
@@ -41,13 +47,13 @@ class JwtAuthenticationFilterTest {
         when(request.getHeader("Authorization")).thenReturn(null);
         filter.doFilterInternal(request, response, filterChain);
         verify(filterChain).doFilter(request, response);
-        verify(jwtTokenProvider, never()).validateToken(any());
+        verify(jwtTokenProvider, never()).parseToken(any());
     }
 
     @Test
     void doFilterInternal_withInvalidToken_continuesChain() throws Exception {
         when(request.getHeader("Authorization")).thenReturn("Bearer invalid");
-        when(jwtTokenProvider.validateToken("invalid")).thenReturn(false);
+        when(jwtTokenProvider.parseToken("invalid")).thenReturn(Optional.empty());
         filter.doFilterInternal(request, response, filterChain);
         verify(filterChain).doFilter(request, response);
     }
@@ -57,12 +63,9 @@ class JwtAuthenticationFilterTest {
         SecurityContextHolder.clearContext();
         String token = "valid-token";
         when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
-        when(jwtTokenProvider.validateToken(token)).thenReturn(true);
-        when(jwtTokenProvider.getSubject(token)).thenReturn(UUID.randomUUID().toString());
-        when(jwtTokenProvider.getEmail(token)).thenReturn("a@b.com");
-        when(jwtTokenProvider.getCondominiumId(token)).thenReturn(1L);
-        when(jwtTokenProvider.getRoles(token)).thenReturn(java.util.List.of("SINDICO"));
-        when(jwtTokenProvider.getPermissions(token)).thenReturn(java.util.List.of());
+        when(jwtTokenProvider.parseToken(token)).thenReturn(Optional.of(new ParsedToken(
+                UUID.randomUUID().toString(), null, null, "a@b.com", 1L, List.of("SINDICO"), List.of(), null)));
+        when(userIdentityCache.get(any())).thenReturn(Optional.empty());
         User user = new User();
         user.setId(1L);
         user.setName("User");
@@ -70,5 +73,23 @@ class JwtAuthenticationFilterTest {
         filter.doFilterInternal(request, response, filterChain);
         verify(filterChain).doFilter(request, response);
         assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(jwtTokenProvider, never()).getClaims(any());
+        verify(userIdentityCache).put(any(), eq(1L), eq("User"));
+    }
+
+    @Test
+    void doFilterInternal_withIdentityClaims_skipsUserLookup() throws Exception {
+        SecurityContextHolder.clearContext();
+        String token = "valid-token";
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(jwtTokenProvider.parseToken(token)).thenReturn(Optional.of(new ParsedToken(
+                UUID.randomUUID().toString(), 7L, "Maria", "a@b.com", 1L, List.of("MORADOR"), List.of(), null)));
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        UserPrincipal principal = (UserPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        assertEquals(7L, principal.getId());
+        assertEquals("Maria", principal.getName());
+        verifyNoInteractions(userRepository, userIdentityCache);
     }
 }
@@ -1,5 +1,6 @@
 package com.convivium.security.jwt;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -17,7 +18,7 @@ class JwtTokenProviderTest {
         props.setSecret("a1b2c3d4e5f6g7h8i9j0k1l2m3n4o5p6q7r8s9t0u1v2w3x4y5z6");
         props.setAccessTokenExpiration(900_000L);
         props.setRefreshTokenExpiration(604_800_000L);
-        jwtTokenProvider = new JwtTokenProvider(props);
+        jwtTokenProvider = new JwtTokenProvider(props, new VerifiedTokenCache(props, new SimpleMeterRegistry()));
         jwtTokenProvider.init();
     }
 
@@ -25,6 +26,8 @@ class JwtTokenProviderTest {
     void generateAccessToken_returnsValidToken() {
         String token = jwtTokenProvider.generateAccessToken(
                 "user-uuid",
+                10L,
+                "User",
                 "user@example.com",
                 1L,
                 List.of("SINDICO"),
@@ -45,6 +48,8 @@ class JwtTokenProviderTest {
     void validateToken_returnsTrueForValidToken() {
         String token = jwtTokenProvider.generateAccessToken(
                 "user-uuid",
+                10L,
+                "User",
                 "user@example.com",
                 null,
                 List.of(),
@@ -62,6 +67,8 @@ class JwtTokenProviderTest {
     void getSubjectFromToken_returnsUuid() {
         String token = jwtTokenProvider.generateAccessToken(
                 "user-uuid-123",
+                10L,
+                "User",
                 "user@example.com",
                 null,
                 List.of(),
@@ -74,6 +81,8 @@ class JwtTokenProviderTest {
     void getEmailFromToken_returnsEmail() {
         String token = jwtTokenProvider.generateAccessToken(
                 "user-uuid",
+                10L,
+                "User",
                 "admin@condominio.com",
                 null,
                 List.of(),
@@ -86,6 +95,8 @@ class JwtTokenProviderTest {
     void getCondominiumIdFromToken_returnsIdWhenPresent() {
         String token = jwtTokenProvider.generateAccessToken(
                 "user-uuid",
+                10L,
+                "User",
                 "user@example.com",
                 42L,
                 List.of(),
@@ -98,6 +109,8 @@ class JwtTokenProviderTest {
     void getCondominiumIdFromToken_returnsNullWhenAbsent() {
         String token = jwtTokenProvider.generateAccessToken(
                 "user-uuid",
+                10L,
+                "User",
                 "user@example.com",
                 null,
                 List.of(),
@@ -110,6 +123,8 @@ class JwtTokenProviderTest {
     void getRolesFromToken_returnsRoles() {
         String token = jwtTokenProvider.generateAccessToken(
                 "user-uuid",
+                10L,
+                "User",
                 "user@example.com",
                 null,
                 List.of("SINDICO", "MORADOR"),
@@ -122,6 +137,8 @@ class JwtTokenProviderTest {
     void getPermissionsFromToken_returnsPermissions() {
         String token = jwtTokenProvider.generateAccessToken(
                 "user-uuid",
+                10L,
+                "User",
                 "user@example.com",
                 null,
                 List.of(),
@@ -135,13 +152,55 @@ class JwtTokenProviderTest {
         assertFalse(jwtTokenProvider.validateToken(""));
     }
 
+    @Test
+    void parseToken_returnsAllClaimsInOnePass() {
+        String token = jwtTokenProvider.generateAccessToken(
+                "user-uuid",
+                10L,
+                "User",
+                "user@example.com",
+                7L,
+                List.of("SINDICO", "PLATFORM_ADMIN"),
+                List.of("MANAGE_PARCELS")
+        );
+        ParsedToken parsed = jwtTokenProvider.parseToken(token).orElseThrow();
+        assertEquals("user-uuid", parsed.subject());
+        assertEquals(10L, parsed.userId());
+        assertEquals("User", parsed.name());
+        assertEquals("user@example.com", parsed.email());
+        assertEquals(7L, parsed.condominiumId());
+        assertEquals(List.of("SINDICO", "PLATFORM_ADMIN"), parsed.roles());
+        assertEquals(List.of("MANAGE_PARCELS"), parsed.permissions());
+        assertTrue(parsed.hasRole("PLATFORM_ADMIN"));
+        assertNotNull(parsed.expiresAt());
+    }
+
+    @Test
+    void parseToken_returnsEmptyForTamperedToken() {
+        String token = jwtTokenProvider.generateAccessToken(
+                "user-uuid", 10L, "User", "user@example.com", null, List.of(), List.of());
+        String tampered = token.substring(0, token.length() - 2) + "xx";
+        assertTrue(jwtTokenProvider.parseToken(tampered).isEmpty());
+        assertTrue(jwtTokenProvider.parseToken("").isEmpty());
+    }
+
+    @Test
+    void parseToken_refreshTokenHasEmptyRoleLists() {
+        String token = jwtTokenProvider.generateRefreshToken("user-uuid");
+        ParsedToken parsed = jwtTokenProvider.parseToken(token).orElseThrow();
+        assertEquals("user-uuid", parsed.subject());
+        assertNull(parsed.userId());
+        assertTrue(parsed.roles().isEmpty());
+        assertTrue(parsed.permissions().isEmpty());
+    }
+
     @Test
     void init_throwsWhenSecretTooShort() {
         JwtProperties props = new JwtProperties();
         props.setSecret("short");
         props.setAccessTokenExpiration(900_000L);
         props.setRefreshTokenExpiration(604_800_000L);
-        JwtTokenProvider provider = new JwtTokenProvider(props);
+        JwtTokenProvider provider = new JwtTokenProvider(props, new VerifiedTokenCache(props, new SimpleMeterRegistry()));
         assertThrows(IllegalStateException.class, provider::init);
     }
 }
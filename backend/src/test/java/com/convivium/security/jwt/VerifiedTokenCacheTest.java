@@ -0,0 +1,135 @@
+package com.convivium.security.jwt;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-10T12:00:00Z");
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private JwtProperties props(boolean enabled, int maxEntries) {
+        JwtProperties props = new JwtProperties();
+        props.getCache().setEnabled(enabled);
+        props.getCache().setMaxEntries(maxEntries);
+        return props;
+    }
+
+    private ParsedToken parsed(String subject, Instant expiresAt) {
+        return new ParsedToken(subject, 1L, subject, subject + "@x.com", 1L, List.of("SINDICO"), List.of(), expiresAt);
+    }
+
+    @Test
+    void get_returnsCachedClaimsAndCountsHitsAndMisses() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(props(true, 10), registry, Clock.fixed(NOW, ZoneOffset.UTC));
+        assertTrue(cache.get("token-a").isEmpty());
+        cache.put("token-a", parsed("a", NOW.plusSeconds(60)));
+
+        assertEquals("a", cache.get("token-a").orElseThrow().subject());
+        assertTrue(cache.get("token-b").isEmpty());
+
+        assertEquals(1, lookups("hit"));
+        assertEquals(2, lookups("miss"));
+        assertEquals(1, size());
+    }
+
+    @Test
+    void get_evictsEntryAtTokenExpiration() {
+        MutableClock clock = new MutableClock(NOW);
+        VerifiedTokenCache cache = new VerifiedTokenCache(props(true, 10), registry, clock);
+        cache.put("token-a", parsed("a", NOW.plusSeconds(60)));
+
+        clock.now = NOW.plusSeconds(60);
+        assertTrue(cache.get("token-a").isEmpty());
+        assertEquals(1, evictions());
+        assertEquals(0, size());
+    }
+
+    @Test
+    void put_staysWithinMaxEntries() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(props(true, 2), registry, Clock.fixed(NOW, ZoneOffset.UTC));
+        cache.put("t1", parsed("1", NOW.plusSeconds(60)));
+        cache.put("t2", parsed("2", NOW.plusSeconds(60)));
+        cache.put("t3", parsed("3", NOW.plusSeconds(60)));
+
+        assertEquals(2, size());
+        assertEquals(1, evictions());
+        assertTrue(cache.get("t3").isPresent());
+    }
+
+    @Test
+    void put_ignoresTokensWithoutExpiration() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(props(true, 10), registry, Clock.fixed(NOW, ZoneOffset.UTC));
+        cache.put("token-a", parsed("a", null));
+        assertEquals(0, size());
+    }
+
+    @Test
+    void disabledCache_neverStoresAnything() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(props(false, 10), registry, Clock.fixed(NOW, ZoneOffset.UTC));
+        cache.put("token-a", parsed("a", NOW.plusSeconds(60)));
+        assertTrue(cache.get("token-a").isEmpty());
+        assertEquals(0, lookups("miss"));
+    }
+
+    @Test
+    void tokenProvider_servesRepeatedTokenFromCache() {
+        JwtProperties props = props(true, 10);
+        props.setSecret("a1b2c3d4e5f6g7h8i9j0k1l2m3n4o5p6q7r8s9t0u1v2w3x4y5z6");
+        props.setAccessTokenExpiration(900_000L);
+        VerifiedTokenCache cache = new VerifiedTokenCache(props, registry);
+        JwtTokenProvider provider = new JwtTokenProvider(props, cache);
+        provider.init();
+        String token = provider.generateAccessToken("uuid", 1L, "User", "a@b.com", 3L, List.of("MORADOR"), List.of());
+
+        ParsedToken first = provider.parseToken(token).orElseThrow();
+        ParsedToken second = provider.parseToken(token).orElseThrow();
+
+        assertSame(first, second);
+        assertEquals(1, lookups("hit"));
+        assertTrue(provider.parseToken(token.substring(0, token.length() - 2) + "xx").isEmpty());
+    }
+
+    private double lookups(String result) {
+        return registry.get("convivium.jwt.cache.lookups").tag("result", result).counter().count();
+    }
+
+    private double evictions() {
+        return registry.get("convivium.jwt.cache.evictions").counter().count();
+    }
+
+    private double size() {
+        return registry.get("convivium.jwt.cache.size").gauge().value();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.convivium.security.password;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        if (encoder != null) {
+            encoder.close();
+        }
+    }
+
+    @Test
+    void encodeAndMatches_runOnHashPoolAndRecordLatency() {
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), executor(2, 4, 5_000), false, registry);
+
+        String hash = encoder.encode("senha123");
+
+        assertTrue(encoder.matches("senha123", hash));
+        assertFalse(encoder.matches("outra", hash));
+        assertEquals(1, registry.timer("convivium.password.hash", "operation", "encode").count());
+        assertEquals(2, registry.timer("convivium.password.hash", "operation", "matches").count());
+        assertEquals(3, registry.timer("convivium.password.hash.queue.wait").count());
+    }
+
+    @Test
+    void matches_rejectsAsBusyWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        PasswordEncoder blocking = new BlockingEncoder(started, release);
+        encoder = new BoundedPasswordEncoder(blocking, executor(1, 1, 5_000), false, registry);
+
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> encoder.matches("a", "a"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> encoder.matches("b", "b"));
+        waitForQueueDepth(1);
+
+        PasswordHashBusyException ex = assertThrows(PasswordHashBusyException.class, () -> encoder.matches("c", "c"));
+        assertEquals(1, ex.getRetryAfterSeconds());
+        assertEquals(1.0, registry.counter("convivium.password.hash.rejected").count());
+        assertEquals(1.0, registry.get("convivium.password.hash.queue.depth").gauge().value());
+
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void matches_rejectsWhenWaitTimesOut() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(new BlockingEncoder(new CountDownLatch(1), release),
+                executor(1, 1, 50), false, registry);
+
+        assertThrows(PasswordHashBusyException.class, () -> encoder.matches("a", "a"));
+        release.countDown();
+    }
+
+    @Test
+    void upgradeEncoding_onlyWhenRehashOnLoginIsEnabled() {
+        String weakHash = new BCryptPasswordEncoder(4).encode("senha123");
+
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(5), executor(1, 1, 5_000), false, registry);
+        assertFalse(encoder.upgradeEncoding(weakHash));
+        encoder.close();
+
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(5), executor(1, 1, 5_000), true,
+                new SimpleMeterRegistry());
+        assertTrue(encoder.upgradeEncoding(weakHash));
+        assertFalse(encoder.upgradeEncoding(encoder.encode("senha123")));
+    }
+
+    private void waitForQueueDepth(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (encoder.queueDepth() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, encoder.queueDepth());
+    }
+
+    private static PasswordHashingProperties.Executor executor(int threads, int queueCapacity, long waitTimeoutMs) {
+        PasswordHashingProperties.Executor config = new PasswordHashingProperties.Executor();
+        config.setThreads(threads);
+        config.setQueueCapacity(queueCapacity);
+        config.setWaitTimeoutMs(waitTimeoutMs);
+        return config;
+    }
+
+    /** Segura a thread do pool até release, para simular um BCrypt lento. */
+    private record BlockingEncoder(CountDownLatch started, CountDownLatch release) implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            started.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return rawPassword.toString().equals(encodedPassword);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.convivium.security.password;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginAdmissionControlTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-10T12:00:00Z");
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void admit_rejectsEmailAboveLimitUntilWindowEnds() {
+        MutableClock clock = new MutableClock(NOW);
+        LoginAdmissionControl control = new LoginAdmissionControl(config(100, 3), registry, clock);
+
+        for (int i = 0; i < 3; i++) {
+            control.admit("10.0.0." + i, "Morador@Condominio.com");
+        }
+        clock.now = NOW.plusSeconds(15);
+        LoginThrottledException ex = assertThrows(LoginThrottledException.class,
+                () -> control.admit("10.0.0.9", " morador@condominio.com "));
+        assertEquals("TOO_MANY_LOGIN_ATTEMPTS", ex.getErrorCode());
+        assertEquals(45, ex.getRetryAfterSeconds());
+        assertEquals(1.0, registry.counter("convivium.login.admission.rejected", "key", "email").count());
+
+        clock.now = NOW.plusSeconds(60);
+        assertDoesNotThrow(() -> control.admit("10.0.0.9", "morador@condominio.com"));
+    }
+
+    @Test
+    void admit_rejectsIpAboveLimitRegardlessOfEmail() {
+        LoginAdmissionControl control = new LoginAdmissionControl(config(2, 100), registry, new MutableClock(NOW));
+
+        control.admit("203.0.113.7", "a@b.com");
+        control.admit("203.0.113.7", "c@d.com");
+
+        assertThrows(LoginThrottledException.class, () -> control.admit("203.0.113.7", "e@f.com"));
+        assertDoesNotThrow(() -> control.admit("203.0.113.8", "e@f.com"));
+        assertEquals(1.0, registry.counter("convivium.login.admission.rejected", "key", "ip").count());
+    }
+
+    @Test
+    void admit_doesNothingWhenDisabled() {
+        PasswordHashingProperties.Admission config = config(1, 1);
+        config.setEnabled(false);
+        LoginAdmissionControl control = new LoginAdmissionControl(config, registry, new MutableClock(NOW));
+
+        control.admit("203.0.113.7", "a@b.com");
+        control.admit("203.0.113.7", "a@b.com");
+
+        assertEquals(0, control.size());
+    }
+
+    @Test
+    void evictExpired_dropsFinishedWindowsAndRespectsMaxEntries() {
+        MutableClock clock = new MutableClock(NOW);
+        PasswordHashingProperties.Admission config = config(10, 10);
+        config.setMaxEntries(4);
+        LoginAdmissionControl control = new LoginAdmissionControl(config, registry, clock);
+
+        control.admit("10.0.0.1", "a@b.com");
+        control.admit("10.0.0.2", "c@d.com");
+        control.admit("10.0.0.3", "e@f.com");
+        assertTrue(control.size() <= 4);
+
+        clock.now = NOW.plusSeconds(61);
+        control.evictExpired();
+        assertEquals(0, control.size());
+    }
+
+    private static PasswordHashingProperties.Admission config(int perIp, int perEmail) {
+        PasswordHashingProperties.Admission config = new PasswordHashingProperties.Admission();
+        config.setWindowSeconds(60);
+        config.setMaxAttemptsPerIp(perIp);
+        config.setMaxAttemptsPerEmail(perEmail);
+        return config;
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
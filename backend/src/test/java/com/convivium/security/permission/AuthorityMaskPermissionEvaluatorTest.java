@@ -0,0 +1,90 @@
+package com.convivium.security.permission;
+
+import com.convivium.security.UserPrincipal;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthorityMaskPermissionEvaluatorTest {
+
+    private final AuthorityMaskPermissionEvaluator evaluator = new AuthorityMaskPermissionEvaluator();
+
+    private Authentication principalWith(boolean platformAdmin, String... authorities) {
+        List<GrantedAuthority> granted = java.util.Arrays.stream(authorities)
+                .map(a -> (GrantedAuthority) new SimpleGrantedAuthority(a))
+                .toList();
+        UserPrincipal principal = UserPrincipal.builder()
+                .id(1L)
+                .uuid("uuid")
+                .email("a@b.com")
+                .password("")
+                .name("User")
+                .condominiumId(1L)
+                .isPlatformAdmin(platformAdmin)
+                .active(true)
+                .authorities(granted)
+                .build();
+        return new UsernamePasswordAuthenticationToken(principal, null, granted);
+    }
+
+    @Test
+    void hasPermission_anyListedRoleGrantsAccess() {
+        Authentication porteiro = principalWith(false, "ROLE_PORTEIRO");
+
+        assertTrue(evaluator.hasPermission(porteiro, 1L, "SINDICO,SUB_SINDICO,PORTEIRO,PLATFORM_ADMIN"));
+        assertFalse(evaluator.hasPermission(porteiro, 1L, "SINDICO,SUB_SINDICO,PLATFORM_ADMIN"));
+    }
+
+    @Test
+    void hasPermission_platformAdminOnlyWhenListed() {
+        Authentication admin = principalWith(true);
+
+        assertTrue(evaluator.hasPermission(admin, 1L, "SINDICO,PLATFORM_ADMIN"));
+        assertFalse(evaluator.hasPermission(admin, 1L, "SINDICO,MORADOR"));
+    }
+
+    @Test
+    void hasPermission_acceptsPermissionEnumAndTargetTypeVariant() {
+        Authentication withPermission = principalWith(false, "ROLE_MORADOR", "MANAGE_PARCELS");
+
+        assertTrue(evaluator.hasPermission(withPermission, 1L, Permission.MANAGE_PARCELS));
+        assertTrue(evaluator.hasPermission(withPermission, 1L, "Condominium", "MANAGE_PARCELS"));
+        assertFalse(evaluator.hasPermission(withPermission, 1L, "Parcel", "MANAGE_PARCELS"));
+        assertFalse(evaluator.hasPermission(withPermission, 1L, Permission.VIEW_DASHBOARD));
+    }
+
+    @Test
+    void hasPermission_requiresTargetCondominiumOfPrincipal() {
+        Authentication sindico = principalWith(false, "ROLE_SINDICO");
+
+        assertTrue(evaluator.hasPermission(sindico, 1L, "SINDICO"));
+        assertTrue(evaluator.hasPermission(sindico, 1, "SINDICO"));
+        assertFalse(evaluator.hasPermission(sindico, 2L, "SINDICO"));
+        assertFalse(evaluator.hasPermission(sindico, null, "SINDICO"));
+        assertFalse(evaluator.hasPermission(sindico, "1", "SINDICO"));
+    }
+
+    @Test
+    void hasPermission_platformAdminReachesAnyCondominium() {
+        Authentication admin = principalWith(true);
+
+        assertTrue(evaluator.hasPermission(admin, 99L, "SINDICO,PLATFORM_ADMIN"));
+        assertFalse(evaluator.hasPermission(admin, null, "SINDICO,PLATFORM_ADMIN"));
+    }
+
+    @Test
+    void hasPermission_nonUserPrincipal_isDenied() {
+        TestingAuthenticationToken token = new TestingAuthenticationToken("user", null, "ROLE_SINDICO");
+        token.setAuthenticated(true);
+
+        assertFalse(evaluator.hasPermission(token, 1L, "SINDICO"));
+        assertFalse(evaluator.hasPermission(null, 1L, "SINDICO"));
+    }
+}
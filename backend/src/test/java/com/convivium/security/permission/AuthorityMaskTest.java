@@ -0,0 +1,51 @@
+package com.convivium.security.permission;
+
+import com.convivium.module.user.entity.Role;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthorityMaskTest {
+
+    @Test
+    void of_mapsRolesPermissionsAndPlatformAdmin() {
+        AuthorityMask mask = AuthorityMask.of(List.of(
+                new SimpleGrantedAuthority("ROLE_SINDICO"),
+                new SimpleGrantedAuthority("MANAGE_PARCELS"),
+                new SimpleGrantedAuthority("ROLE_PLATFORM_ADMIN"),
+                new SimpleGrantedAuthority("ROLE_DESCONHECIDA")));
+
+        assertTrue(mask.hasRole(Role.SINDICO));
+        assertFalse(mask.hasRole(Role.MORADOR));
+        assertTrue(mask.hasPermission(Permission.MANAGE_PARCELS));
+        assertFalse(mask.hasPermission(Permission.VIEW_DASHBOARD));
+        assertTrue(mask.platformAdmin());
+    }
+
+    @Test
+    void parse_acceptsRolesPermissionsAndRolePrefix() {
+        AuthorityMask mask = AuthorityMask.parse("SINDICO, ROLE_PORTEIRO,MANAGE_PARCELS,PLATFORM_ADMIN");
+
+        assertTrue(mask.hasRole(Role.SINDICO));
+        assertTrue(mask.hasRole(Role.PORTEIRO));
+        assertTrue(mask.hasPermission(Permission.MANAGE_PARCELS));
+        assertTrue(mask.platformAdmin());
+    }
+
+    @Test
+    void parse_unknownName_throws() {
+        assertThrows(IllegalArgumentException.class, () -> AuthorityMask.parse("SINDICO,SINDICA"));
+    }
+
+    @Test
+    void intersects_requiresAtLeastOneCommonBit() {
+        AuthorityMask morador = AuthorityMask.of(List.of(new SimpleGrantedAuthority("ROLE_MORADOR")));
+
+        assertFalse(morador.intersects(AuthorityMask.parse("SINDICO,SUB_SINDICO,PLATFORM_ADMIN")));
+        assertTrue(morador.intersects(AuthorityMask.parse("SINDICO,MORADOR")));
+        assertTrue(morador.withPlatformAdmin(true).intersects(AuthorityMask.parse("PLATFORM_ADMIN")));
+    }
+}
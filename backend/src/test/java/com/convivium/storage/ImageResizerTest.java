@@ -0,0 +1,106 @@
+package com.convivium.storage;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageResizerTest {
+
+    @Test
+    void readAndFit_scaleLongestSideKeepingAspectRatio() throws Exception {
+        byte[] jpeg = encode(image(4000, 3000, BufferedImage.TYPE_INT_RGB), "jpg");
+
+        BufferedImage decoded = ImageResizer.read(new ByteArrayInputStream(jpeg), 1280);
+        // subsampling do decoder: já sai reduzida, mas nunca abaixo do tamanho pedido
+        assertTrue(decoded.getWidth() >= 1280 && decoded.getWidth() < 4000);
+
+        BufferedImage preview = ImageResizer.fit(decoded, 1280);
+        assertEquals(1280, preview.getWidth());
+        assertEquals(960, preview.getHeight());
+
+        BufferedImage thumbnail = ImageResizer.fit(preview, 320);
+        assertEquals(320, thumbnail.getWidth());
+        assertEquals(240, thumbnail.getHeight());
+    }
+
+    @Test
+    void fit_neverUpscales() throws Exception {
+        BufferedImage small = ImageResizer.read(new ByteArrayInputStream(encode(image(200, 100, BufferedImage.TYPE_INT_RGB), "png")), 320);
+
+        assertSame(small, ImageResizer.fit(small, 320));
+        assertEquals(200, small.getWidth());
+    }
+
+    @Test
+    void read_flattensTransparencyToRgb() throws Exception {
+        BufferedImage transparent = new BufferedImage(50, 50, BufferedImage.TYPE_INT_ARGB);
+
+        BufferedImage decoded = ImageResizer.read(new ByteArrayInputStream(encode(transparent, "png")), 320);
+
+        assertEquals(BufferedImage.TYPE_INT_RGB, decoded.getType());
+        assertEquals(Color.WHITE.getRGB(), decoded.getRGB(10, 10));
+        byte[] jpeg = ImageResizer.toJpeg(decoded, 0.8f);
+        assertEquals(50, ImageIO.read(new ByteArrayInputStream(jpeg)).getWidth());
+    }
+
+    @Test
+    void read_appliesExifRotation() throws Exception {
+        byte[] landscape = encode(image(400, 200, BufferedImage.TYPE_INT_RGB), "jpg");
+
+        BufferedImage decoded = ImageResizer.read(new ByteArrayInputStream(withExifOrientation(landscape, 6)), 1280);
+
+        assertEquals(200, decoded.getWidth());
+        assertEquals(400, decoded.getHeight());
+    }
+
+    @Test
+    void read_rejectsNonImageContent() {
+        assertThrows(IOException.class, () ->
+                ImageResizer.read(new ByteArrayInputStream("nao e imagem".getBytes()), 320));
+    }
+
+    private static BufferedImage image(int width, int height, int type) {
+        BufferedImage image = new BufferedImage(width, height, type);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.ORANGE);
+        g.fillRect(0, 0, width / 2, height);
+        g.dispose();
+        return image;
+    }
+
+    private static byte[] encode(BufferedImage image, String format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+
+    /** Insere um APP1/Exif mínimo (IFD0 só com Orientation) logo após o APP0/JFIF. */
+    private static byte[] withExifOrientation(byte[] jpeg, int orientation) {
+        byte[] exif = {
+                'E', 'x', 'i', 'f', 0, 0,
+                'M', 'M', 0, 42, 0, 0, 0, 8,
+                0, 1,
+                0x01, 0x12, 0, 3, 0, 0, 0, 1, 0, (byte) orientation, 0, 0,
+                0, 0, 0, 0
+        };
+        int app0End = 4 + (((jpeg[4] & 0xFF) << 8) | (jpeg[5] & 0xFF));
+        int segmentLength = exif.length + 2;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(jpeg, 0, app0End);
+        out.write(0xFF);
+        out.write(0xE1);
+        out.write(segmentLength >> 8);
+        out.write(segmentLength & 0xFF);
+        out.write(exif, 0, exif.length);
+        out.write(jpeg, app0End, jpeg.length - app0End);
+        return out.toByteArray();
+    }
+}
@@ -5,6 +5,8 @@ import org.junit.jupiter.api.io.TempDir;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.nio.file.Path;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -40,4 +42,25 @@ class LocalFileStorageServiceTest {
         assertTrue(result.contains("/uploads/"));
         assertTrue(result.contains("parcels/1/test.txt"));
     }
+
+    @Test
+    void storeStream_overwritesAndOpenReadsBack() throws Exception {
+        LocalFileStorageService service = new LocalFileStorageService(tempDir.toString());
+
+        service.store("parcels/photos/1/a_thumb.jpg", new ByteArrayInputStream("v1".getBytes()), 2, "image/jpeg");
+        String url = service.store("parcels/photos/1/a_thumb.jpg", new ByteArrayInputStream("v2".getBytes()), 2, "image/jpeg");
+
+        assertEquals("/uploads/parcels/photos/1/a_thumb.jpg", url);
+        try (InputStream in = service.open("parcels/photos/1/a_thumb.jpg")) {
+            assertEquals("v2", new String(in.readAllBytes()));
+        }
+    }
+
+    @Test
+    void open_rejectsPathOutsideBaseAndReportsMissingFile() {
+        LocalFileStorageService service = new LocalFileStorageService(tempDir.toString());
+
+        assertThrows(IllegalArgumentException.class, () -> service.open("../fora.txt"));
+        assertThrows(StorageException.class, () -> service.open("parcels/nao-existe.jpg"));
+    }
 }
@@ -19,6 +19,14 @@ describe('complaint.api', () => {
     expect(apiClient.get).toHaveBeenCalledWith('/condos/1/complaints', { params: undefined })
   })
 
+  it('searchComplaints chama GET com cursor', async () => {
+    vi.mocked(apiClient.get).mockResolvedValue({ data: { success: true, data: { content: [] } } } as any)
+    await complaintApi.searchComplaints(1, { q: 'vazamento', cursor: 'abc' })
+    expect(apiClient.get).toHaveBeenCalledWith('/condos/1/complaints/search', {
+      params: { q: 'vazamento', cursor: 'abc' },
+    })
+  })
+
   it('createComplaint chama POST', async () => {
     vi.mocked(apiClient.post).mockResolvedValue({ data: { success: true, data: {} } } as any)
     await complaintApi.createComplaint(1, { title: 'T', description: 'D', priority: 'MEDIUM' } as any)
@@ -7,6 +7,7 @@ import type {
   ComplaintCreateRequest,
   ComplaintDetail,
   ComplaintResponseRequest,
+  ComplaintSearchResult,
 } from '@/types'
 
 export async function listComplaints(
@@ -20,6 +21,17 @@ export async function listComplaints(
   return response.data
 }
 
+export async function searchComplaints(
+  condoId: number,
+  params: { q: string; status?: string; size?: number; cursor?: string },
+): Promise<ApiResponse<PageResponse<ComplaintSearchResult>>> {
+  const response = await apiClient.get<ApiResponse<PageResponse<ComplaintSearchResult>>>(
+    `/condos/${condoId}/complaints/search`,
+    { params },
+  )
+  return response.data
+}
+
 export async function createComplaint(
   condoId: number,
   data: ComplaintCreateRequest,
@@ -85,6 +85,17 @@ export async function verifyPickup(
   return response.data
 }
 
+export async function pickupByCode(
+  condoId: number,
+  data: ParcelVerifyRequest,
+): Promise<ApiResponse<Parcel>> {
+  const response = await apiClient.post<ApiResponse<Parcel>>(
+    `/condos/${condoId}/parcels/pickup`,
+    data,
+  )
+  return response.data
+}
+
 export async function getMyParcels(
   condoId: number,
   params?: PageRequest,
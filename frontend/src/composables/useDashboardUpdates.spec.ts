@@ -0,0 +1,100 @@
+import { describe, it, expect, vi, beforeEach, afterEach } from 'vitest'
+import {
+  dashboardSocketUrl,
+  encodeFrame,
+  parseFrames,
+  useDashboardUpdates,
+} from './useDashboardUpdates'
+
+class FakeWebSocket {
+  static instances: FakeWebSocket[] = []
+  sent: string[] = []
+  onopen: (() => void) | null = null
+  onmessage: ((event: { data: string }) => void) | null = null
+  onclose: (() => void) | null = null
+  closed = false
+
+  constructor(public url: string) {
+    FakeWebSocket.instances.push(this)
+  }
+
+  send(data: string) {
+    this.sent.push(data)
+  }
+
+  close() {
+    this.closed = true
+  }
+
+  receive(data: string) {
+    this.onmessage?.({ data })
+  }
+}
+
+describe('useDashboardUpdates', () => {
+  beforeEach(() => {
+    FakeWebSocket.instances = []
+    vi.stubGlobal('WebSocket', FakeWebSocket)
+    vi.useFakeTimers()
+    localStorage.setItem('access_token', 'token-abc')
+  })
+
+  afterEach(() => {
+    vi.useRealTimers()
+    vi.unstubAllGlobals()
+    localStorage.clear()
+  })
+
+  it('monta a URL do endpoint a partir da base da API', () => {
+    expect(dashboardSocketUrl('https://api.exemplo.com/convivium/api/v1')).toBe(
+      'wss://api.exemplo.com/convivium/ws/websocket',
+    )
+    expect(dashboardSocketUrl('/api/v1')).toBe(`ws://${window.location.host}/ws/websocket`)
+  })
+
+  it('codifica e decodifica frames, ignorando heartbeats', () => {
+    const frame = encodeFrame('MESSAGE', { destination: '/topic/condos/1/dashboard' }, '{"a":1}')
+    const frames = parseFrames(`\n${frame}\n`)
+
+    expect(frames).toHaveLength(1)
+    expect(frames[0].command).toBe('MESSAGE')
+    expect(frames[0].headers.destination).toBe('/topic/condos/1/dashboard')
+    expect(frames[0].body).toBe('{"a":1}')
+  })
+
+  it('conecta com o token, assina o painel do condominio e repassa os deltas', () => {
+    const onDelta = vi.fn()
+    const onSubscribed = vi.fn()
+    useDashboardUpdates(7, { onDelta, onSubscribed })
+    const socket = FakeWebSocket.instances[0]
+
+    socket.onopen?.()
+    expect(socket.sent[0]).toContain('CONNECT\n')
+    expect(socket.sent[0]).toContain('Authorization:Bearer token-abc')
+
+    socket.receive(encodeFrame('CONNECTED', { version: '1.2' }))
+    expect(socket.sent[1]).toContain('SUBSCRIBE\n')
+    expect(socket.sent[1]).toContain('destination:/topic/condos/7/dashboard')
+    expect(onSubscribed).toHaveBeenCalledTimes(1)
+
+    const delta = { totalMoradores: 0, denunciasAbertas: 1, encomendasPendentes: -1, aprovacoesPendentes: 0 }
+    socket.receive(encodeFrame('MESSAGE', { destination: '/topic/condos/7/dashboard' }, JSON.stringify(delta)))
+    expect(onDelta).toHaveBeenCalledWith(delta)
+  })
+
+  it('reconecta apos queda e para de vez apos ERROR ou stop', () => {
+    const stop = useDashboardUpdates(7, { onDelta: vi.fn() })
+
+    FakeWebSocket.instances[0].onclose?.()
+    vi.advanceTimersByTime(5000)
+    expect(FakeWebSocket.instances).toHaveLength(2)
+
+    FakeWebSocket.instances[1].receive(encodeFrame('ERROR', { message: 'Sem permissao' }))
+    expect(FakeWebSocket.instances[1].closed).toBe(true)
+    FakeWebSocket.instances[1].onclose?.()
+    vi.advanceTimersByTime(5000)
+    expect(FakeWebSocket.instances).toHaveLength(2)
+
+    stop()
+  })
+})
@@ -0,0 +1,128 @@
+import { STORAGE_KEYS } from '@/utils/constants'
+
+/**
+ * Atualizacoes do painel da gestao por STOMP: assina /topic/condos/{id}/dashboard e repassa
+ * os deltas publicados pelo backend (DashboardDeltaMessage), no lugar de recarregar as stats.
+ * Cliente STOMP minimo (CONNECT, SUBSCRIBE, MESSAGE) sobre o transporte WebSocket do SockJS
+ * em /ws/websocket, para nao adicionar dependencia.
+ */
+export interface DashboardDelta {
+  totalMoradores: number
+  denunciasAbertas: number
+  encomendasPendentes: number
+  aprovacoesPendentes: number
+}
+
+export interface DashboardUpdatesHandlers {
+  onDelta: (delta: DashboardDelta) => void
+  /** Chamado a cada (re)assinatura: deltas perdidos enquanto desconectado exigem recarregar as stats. */
+  onSubscribed?: () => void
+}
+
+interface StompFrame {
+  command: string
+  headers: Record<string, string>
+  body: string
+}
+
+const RECONNECT_DELAY_MS = 5000
+
+/** URL do endpoint STOMP a partir da base da API (ex.: https://host/convivium/api/v1 -> wss://host/convivium/ws/websocket). */
+export function dashboardSocketUrl(apiBase: string = import.meta.env.VITE_API_URL || '/api/v1'): string {
+  const root = apiBase.replace(/\/api\/v1\/?$/, '')
+  const url = new URL(`${root}/ws/websocket`, window.location.origin)
+  url.protocol = url.protocol === 'https:' ? 'wss:' : 'ws:'
+  return url.toString()
+}
+
+export function encodeFrame(command: string, headers: Record<string, string>, body = ''): string {
+  const lines = Object.entries(headers).map(([key, value]) => `${key}:${value}`)
+  return `${command}\n${lines.join('\n')}\n\n${body}\u0000`
+}
+
+/** Um evento do WebSocket pode trazer varios frames (ou so heartbeats "\n"). */
+export function parseFrames(data: string): StompFrame[] {
+  return data
+    .split('\u0000')
+    .map((raw) => raw.replace(/^[\r\n]+/, ''))
+    .filter((raw) => raw.length > 0)
+    .map((raw) => {
+      const headerEnd = raw.indexOf('\n\n')
+      const head = headerEnd >= 0 ? raw.slice(0, headerEnd) : raw
+      const body = headerEnd >= 0 ? raw.slice(headerEnd + 2) : ''
+      const [command, ...headerLines] = head.split('\n')
+      const headers: Record<string, string> = {}
+      for (const line of headerLines) {
+        const separator = line.indexOf(':')
+        if (separator > 0 && !(line.slice(0, separator) in headers)) {
+          headers[line.slice(0, separator)] = line.slice(separator + 1)
+        }
+      }
+      return { command: command.trim(), headers, body }
+    })
+}
+
+/**
+ * Conecta e assina o painel do condominio; reconecta apos queda.
+ * Um ERROR do servidor (ex.: sem permissao) encerra sem reconectar.
+ *
+ * @returns funcao que fecha a conexao
+ */
+export function useDashboardUpdates(condoId: number, handlers: DashboardUpdatesHandlers): () => void {
+  let socket: WebSocket | null = null
+  let reconnectTimer: ReturnType<typeof setTimeout> | null = null
+  let stopped = false
+
+  function connect() {
+    socket = new WebSocket(dashboardSocketUrl())
+    socket.onopen = () => {
+      const headers: Record<string, string> = { 'accept-version': '1.2', 'heart-beat': '0,0' }
+      const token = localStorage.getItem(STORAGE_KEYS.ACCESS_TOKEN)
+      if (token) {
+        headers.Authorization = `Bearer ${token}`
+      }
+      socket?.send(encodeFrame('CONNECT', headers))
+    }
+    socket.onmessage = (event: MessageEvent) => {
+      for (const frame of parseFrames(String(event.data))) {
+        handleFrame(frame)
+      }
+    }
+    socket.onclose = () => {
+      socket = null
+      if (!stopped) {
+        reconnectTimer = setTimeout(connect, RECONNECT_DELAY_MS)
+      }
+    }
+  }
+
+  function handleFrame(frame: StompFrame) {
+    if (frame.command === 'CONNECTED') {
+      socket?.send(
+        encodeFrame('SUBSCRIBE', { id: 'dashboard', destination: `/topic/condos/${condoId}/dashboard` }),
+      )
+      handlers.onSubscribed?.()
+    } else if (frame.command === 'MESSAGE') {
+      try {
+        handlers.onDelta(JSON.parse(frame.body) as DashboardDelta)
+      } catch {
+        // corpo invalido: ignora o delta
+      }
+    } else if (frame.command === 'ERROR') {
+      stop()
+    }
+  }
+
+  function stop() {
+    stopped = true
+    if (reconnectTimer) {
+      clearTimeout(reconnectTimer)
+      reconnectTimer = null
+    }
+    socket?.close()
+    socket = null
+  }
+
+  connect()
+  return stop
+}
@@ -19,10 +19,13 @@ export interface PageResponse<T> {
   totalElements: number
   totalPages: number
   last: boolean
+  nextCursor?: string
 }
 
 export interface PageRequest {
   page?: number
   size?: number
   sort?: string
+  /** nextCursor da resposta anterior: próxima página por keyset (sem contagem) */
+  cursor?: string
 }
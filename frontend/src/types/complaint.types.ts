@@ -47,6 +47,22 @@ export interface ComplaintDetail extends Complaint {
   attachments: ComplaintAttachment[]
 }
 
+export interface ComplaintSearchResult {
+  id: number
+  complainantName: string | null
+  isAnonymous: boolean
+  category: ComplaintCategory
+  title: string
+  /** HTML escapado; termos encontrados em <mark> */
+  titleHighlight: string
+  snippet: string
+  status: ComplaintStatus
+  priority: string
+  unitIdentifier: string | null
+  createdAt: string
+  rank: number
+}
+
 export interface ComplaintResponseItem {
   id: number
   responderName: string
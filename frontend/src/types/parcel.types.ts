@@ -39,6 +39,8 @@ export interface ParcelDetail extends Parcel {
 export interface ParcelPhoto {
   id: number
   photoUrl: string
+  thumbnailUrl: string | null
+  previewUrl: string | null
   photoType: string
   createdAt: string
 }